@@ -0,0 +1,14 @@
+#version 120
+
+uniform sampler2D sampler;
+
+varying vec2 tex_coords;
+varying vec4 color_scale;
+
+void main() {
+	// alpha holds the signed distance to the glyph edge, 0.5 being on the edge.
+	float distance = texture2D(sampler, tex_coords).a;
+	float smoothing = fwidth(distance);
+	float alpha = smoothstep(0.5 - smoothing, 0.5 + smoothing, distance);
+	gl_FragColor = vec4(color_scale.rgb, color_scale.a * alpha);
+}
\ No newline at end of file
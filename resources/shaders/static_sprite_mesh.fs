@@ -0,0 +1,10 @@
+#version 120
+
+uniform sampler2D sampler;
+
+varying vec2 tex_coords;
+varying vec4 color_scale;
+
+void main() {
+	gl_FragColor = texture2D(sampler, tex_coords) * color_scale;
+}
\ No newline at end of file
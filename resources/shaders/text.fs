@@ -0,0 +1,11 @@
+#version 120
+
+uniform sampler2D sampler;
+
+varying vec2 tex_coords;
+varying vec4 color_scale;
+
+void main() {
+	// glyph pages are GL_ALPHA, so only the alpha channel of the texture is used.
+	gl_FragColor = vec4(color_scale.rgb, color_scale.a * texture2D(sampler, tex_coords).a);
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+#version 120
+
+attribute vec2 vertices;
+attribute vec2 textures;
+attribute vec4 colors;
+
+varying vec2 tex_coords;
+varying vec4 color_scale;
+
+void main() {
+	tex_coords = textures;
+	color_scale = colors;
+	gl_Position = vec4(vertices, 0, 1);
+}
\ No newline at end of file
@@ -55,13 +55,32 @@ public class DataCenter extends SubManager {
      */
     public static final long MAIN_THREAD_ID = 1;
 
+    /**
+     * id of the thread owning game state, which every @MainThreadOnly gate checks against.
+     * it is the main thread, unless the game runs with a separate render thread,
+     * in which case it is the logic thread for as long as the logic thread lives.
+     */
+    private static volatile long gameThreadId = MAIN_THREAD_ID;
+
     /**
      * <p>ifMainThread.</p>
+     * true if current thread is the thread owning game state (see {@link #setGameThread(Thread)}).
      *
      * @return a boolean.
      */
     public static boolean ifMainThread() {
-        return Thread.currentThread().getId() == MAIN_THREAD_ID;
+        return Thread.currentThread().getId() == gameThreadId;
+    }
+
+    /**
+     * <p>set the thread owning game state.</p>
+     * GameManager sets its logic thread here when it runs with a separate render thread,
+     * so GL/AL loaders and main thread events run on the logic thread instead of waiting for the main thread forever.
+     *
+     * @param thread thread owning game state. null means the main thread.
+     */
+    public static void setGameThread(Thread thread) {
+        gameThreadId = thread == null ? MAIN_THREAD_ID : thread.getId();
     }
 
     /**
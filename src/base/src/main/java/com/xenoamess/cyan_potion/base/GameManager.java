@@ -41,8 +41,15 @@ import com.xenoamess.cyan_potion.base.io.input.keyboard.TextEvent;
 import com.xenoamess.cyan_potion.base.memory.ResourceManager;
 import com.xenoamess.cyan_potion.base.plugins.CodePluginManager;
 import com.xenoamess.cyan_potion.base.plugins.CodePluginPosition;
+import com.xenoamess.cyan_potion.base.profiler.FrameProfiler;
+import com.xenoamess.cyan_potion.base.render.DeferredRenderBackend;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
+import com.xenoamess.cyan_potion.base.runtime.FixedStepFrameScheduler;
+import com.xenoamess.cyan_potion.base.runtime.FrameScheduler;
 import com.xenoamess.cyan_potion.base.runtime.RuntimeManager;
 import com.xenoamess.cyan_potion.base.runtime.SaveManager;
+import com.xenoamess.cyan_potion.base.runtime.VariableStepFrameScheduler;
+import com.xenoamess.cyan_potion.base.setting_file.GameSettings;
 import com.xenoamess.cyan_potion.base.setting_file.SettingFileParsers;
 import com.xenoamess.cyan_potion.base.steam.SteamManager;
 import com.xenoamess.cyan_potion.base.visual.Font;
@@ -78,11 +85,13 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.getString;
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightAfterAudioManagerInit;
+import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightAfterDraw;
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightAfterGameWindowInit;
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightAfterGamepadInputManagerInit;
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightAfterLogicFrame;
@@ -90,6 +99,7 @@ import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightAft
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightAfterSolveEvents;
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightAfterUpdate;
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightBeforeAudioManagerInit;
+import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightBeforeDraw;
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightBeforeGameWindowInit;
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightBeforeGamepadInputManagerInit;
 import static com.xenoamess.cyan_potion.base.plugins.CodePluginPosition.rightBeforeLogicFrame;
@@ -119,6 +129,29 @@ public class GameManager implements Closeable {
 
     private final AtomicBoolean ifSolvingEventList = new AtomicBoolean();
 
+    /**
+     * how long the main thread waits for the next recorded frame before polling events again,
+     * when the game runs with a separate render thread.
+     */
+    public static final long RENDER_THREAD_POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(4);
+
+    /**
+     * thread running loopOnce and recording frames, when the game runs with a separate render thread.
+     * null otherwise.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private volatile Thread logicThread;
+
+    /**
+     * length of a tick in nanos, as the logic thread last told the render thread.
+     * used to compute the interpolation alpha of redrawn frames.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile long renderThreadTickNanos;
+
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @Getter(AccessLevel.PROTECTED)
@@ -156,6 +189,11 @@ public class GameManager implements Closeable {
     @Getter
     private final CodePluginManager codePluginManager = new CodePluginManager();
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private final FrameProfiler frameProfiler = new FrameProfiler();
+
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @Getter
@@ -215,9 +253,24 @@ public class GameManager implements Closeable {
     @Setter
     private long currentTimeMillis = 0;
 
+    /**
+     * decides when loopTicks ticks and draws.
+     * if null when the loop starts then {@link #createFrameScheduler()} makes one.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    @Setter
+    private FrameScheduler frameScheduler;
+
+    /**
+     * interpolation alpha of the frame being drawn.
+     *
+     * @see FrameScheduler#getInterpolationAlpha()
+     */
     @Getter
     @Setter
-    private boolean canRender = false;
+    private float interpolationAlpha = 1F;
 
     /**
      * <p>generateArgsMap.</p>
@@ -468,6 +521,10 @@ public class GameManager implements Closeable {
         ) {
             this.codePluginManager.putCodePlugin(entry.getKey(), entry.getValue());
         }
+        if (this.getDataCenter().getGameSettings().isFrameProfiler()) {
+            this.getFrameProfiler().setEnabled(true);
+            this.getFrameProfiler().installPhaseHooks(this.codePluginManager);
+        }
     }
 
 
@@ -677,58 +734,138 @@ public class GameManager implements Closeable {
 
     /**
      * the main loop of the game engine.
+     * <p>
+     * If the renderThread setting is on, logic ticks and frame recording move to a logic thread,
+     * and this thread (which owns the GL context) only polls events, replays recorded frames and swaps buffers.
      */
     protected void loop() {
-        double timeForFPS = 0;
-        int drawFramesForFPS = 0;
+        if (this.getDataCenter().getGameSettings().isRenderThread()) {
+            this.loopWithRenderThread();
+        } else {
+            this.loopTicks();
+        }
+        this.close();
+    }
+
+    /**
+     * main thread part of the loop, when the game runs with a separate render thread.
+     * <p>
+     * The logic thread owns game state (see {@link DataCenter#setGameThread(Thread)}) and records one frame snapshot
+     * after each batch of ticks.
+     * This thread replays every new snapshot once, and between two of them redraws the last one,
+     * interpolated by how much of a tick has passed since it was recorded.
+     */
+    protected void loopWithRenderThread() {
+        final DeferredRenderBackend deferredRenderBackend = new DeferredRenderBackend(RenderBackends.getCurrent());
+        final Thread thread = new Thread(() -> {
+            try {
+                this.getAudioManager().makeCurrentOnThisThread();
+                this.loopTicks();
+            } catch (Exception e) {
+                LOGGER.error("logic thread failed", e);
+                this.shutdown();
+            } finally {
+                deferredRenderBackend.flush();
+            }
+        }, "cyan_potion logic thread");
+        this.logicThread = thread;
+        RenderBackends.setThreadBackend(thread, deferredRenderBackend);
+        DataCenter.setGameThread(thread);
+        try {
+            thread.start();
+            while (thread.isAlive()) {
+                this.getGameWindow().pollEvents();
+                if (deferredRenderBackend.runUntilFrameEnd(RENDER_THREAD_POLL_INTERVAL_NANOS)
+                        || deferredRenderBackend.redraw(this.redrawInterpolationAlpha(deferredRenderBackend))) {
+                    this.getGameWindow().swapBuffers();
+                }
+            }
+            deferredRenderBackend.runPending();
+            deferredRenderBackend.discardSnapshot();
+        } finally {
+            RenderBackends.clearThreadBackend();
+            DataCenter.setGameThread(null);
+            this.logicThread = null;
+        }
+    }
+
+    private float redrawInterpolationAlpha(DeferredRenderBackend deferredRenderBackend) {
+        final long tickNanos = this.renderThreadTickNanos;
+        if (tickNanos <= 0) {
+            return 1F;
+        }
+        final long sinceSnapshotNanos = System.nanoTime() - deferredRenderBackend.getSnapshotFrameEndNanos();
+        return (float) Math.min(1D, Math.max(0D, (double) sinceSnapshotNanos / tickNanos));
+    }
+
+    /**
+     * tick and draw until not alive.
+     * runs on the main thread, or on the logic thread when the game runs with a separate render thread.
+     */
+    protected void loopTicks() {
+        if (this.getFrameScheduler() == null) {
+            this.setFrameScheduler(this.createFrameScheduler());
+        }
+        final FrameScheduler localFrameScheduler = this.getFrameScheduler();
+        localFrameScheduler.reset();
+        //when recording snapshots for the render thread, a frame is recorded once per batch of ticks, at the state
+        //of the last tick, and the render thread does the interpolating.
+        final boolean recordingSnapshots = Thread.currentThread() == this.getLogicThread();
 
-        long time = System.currentTimeMillis();
-        this.setCurrentTimeMillis(time);
-        double unprocessed = 0;
+        long fpsStartNanos = System.nanoTime();
+        int drawFramesForFPS = 0;
+        //nothing is drawn before the first tick.
+        boolean ticked = false;
 
         while (this.isAlive()) {
-            long time2 = System.currentTimeMillis();
-            this.setCurrentTimeMillis(time2);
-            double passed = (time2 - time) / 1000.0;
-            time = time2;
-
-            unprocessed += passed;
-            timeForFPS += passed;
-
-            if (this.getDataCenter().getGameSettings().getMaxFPS() > 0) {
-                double eachFrameTime = 1.0 / this.getDataCenter().getGameSettings().getMaxFPS();
-                while (unprocessed >= eachFrameTime) {
-                    unprocessed -= eachFrameTime;
-                    this.setCurrentTimeMillis(System.currentTimeMillis());
-                    this.setTimeToLastUpdate(eachFrameTime);
-                    setCanRender(true);
-                    this.loopOnce();
-                }
-            } else {
+            final int ticks = recordingSnapshots
+                    ? localFrameScheduler.waitForNextTicks() : localFrameScheduler.waitForNextFrame();
+            for (int i = 0; i < ticks; i++) {
                 this.setCurrentTimeMillis(System.currentTimeMillis());
-                this.setTimeToLastUpdate(unprocessed);
-                unprocessed = 0;
-                setCanRender(true);
+                this.setTimeToLastUpdate(localFrameScheduler.getTickSeconds());
+                ticked = true;
                 this.loopOnce();
             }
 
-            if (isCanRender()) {
+            if (ticked) {
                 this.setCurrentTimeMillis(System.currentTimeMillis());
+                if (recordingSnapshots) {
+                    this.renderThreadTickNanos = (long) (localFrameScheduler.getTickSeconds() * 1e9);
+                    this.setInterpolationAlpha(1F);
+                } else {
+                    this.setInterpolationAlpha(localFrameScheduler.getInterpolationAlpha());
+                }
+                this.getResourceManager().uploadStreamedResources();
+                this.codePluginManager.apply(this, rightBeforeDraw);
                 draw();
+                this.codePluginManager.apply(this, rightAfterDraw);
 
                 {//draw frame FPS calculate.
                     drawFramesForFPS++;
+                    final double timeForFPS = (System.nanoTime() - fpsStartNanos) / 1e9;
                     if (timeForFPS >= 10) {
                         LOGGER.info("FPS : {}", drawFramesForFPS / timeForFPS);
-                        timeForFPS = 0;
+                        fpsStartNanos = System.nanoTime();
                         drawFramesForFPS = 0;
                     }
                 }
 
             }
         }
+    }
 
-        this.close();
+    /**
+     * <p>createFrameScheduler.</p>
+     * fixed step at maxFPS ticks per second if maxFPS is set, variable step otherwise.
+     *
+     * @return FrameScheduler used by loopTicks if none was set.
+     */
+    protected FrameScheduler createFrameScheduler() {
+        final GameSettings gameSettings = this.getDataCenter().getGameSettings();
+        if (gameSettings.getMaxFPS() > 0) {
+            return new FixedStepFrameScheduler(gameSettings.getMaxFPS(), gameSettings.getMaxCatchUpTicks());
+        }
+        return new VariableStepFrameScheduler();
     }
 
     private final ConcurrentLinkedQueue<ImmutablePair<EventProcessor, Event>>
@@ -755,7 +892,9 @@ public class GameManager implements Closeable {
     public void solveEvents() {
         ifSolvingEventList.set(true);
 
-        getGameWindow().pollEvents();
+        if (this.getLogicThread() == null) {
+            getGameWindow().pollEvents();
+        }
         synchronized (this.getEventList()) {
             /*
              * notice that newEventList must be a thread safe collection.
@@ -779,6 +918,7 @@ public class GameManager implements Closeable {
             }
 
 
+            final long eventDispatchBeginNanos = this.getFrameProfiler().begin();
             this.getEventList().parallelStream().forEach(event -> {
                 if (event instanceof MainThreadEvent) {
                     //do nothing
@@ -804,6 +944,7 @@ public class GameManager implements Closeable {
                 }
             });
             mainThreadEventProcessPairs.clear();
+            this.getFrameProfiler().end(FrameProfiler.SCOPE_EVENT_DISPATCH, eventDispatchBeginNanos);
 
             this.getEventList().clear();
 
@@ -824,7 +965,9 @@ public class GameManager implements Closeable {
     protected void update() {
         this.getGamepadInputManager().update();
         this.getGameWindow().update();
+        final long componentTreeUpdateBeginNanos = this.getFrameProfiler().begin();
         this.getGameWindowComponentTree().update();
+        this.getFrameProfiler().end(FrameProfiler.SCOPE_COMPONENT_TREE_UPDATE, componentTreeUpdateBeginNanos);
         this.getAudioManager().update();
         this.getSteamManager().update();
     }
@@ -833,7 +976,11 @@ public class GameManager implements Closeable {
      * <p>draw.</p>
      */
     protected void draw() {
-        getGameWindow().draw();
+        if (this.getLogicThread() == null) {
+            getGameWindow().draw();
+        } else {
+            getGameWindow().drawFrame();
+        }
     }
 
 
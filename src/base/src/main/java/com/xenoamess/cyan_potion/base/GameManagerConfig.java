@@ -242,6 +242,111 @@ public class GameManagerConfig {
      */
     public static final String STRING_NO_CONSOLE_THREAD = "noConsoleThread";
 
+    /**
+     * If exist this tag then the game window draws through a RecordingRenderBackend,
+     * which counts draw calls, binds and uniform uploads of every frame.
+     *
+     * @see com.xenoamess.cyan_potion.base.render.RecordingRenderBackend
+     */
+    public static final String STRING_RECORD_RENDER_COMMANDS = "recordRenderCommands";
+
+    /**
+     * Max num of glyph pages each Font keeps packed at the same time.
+     * Cold pages beyond it are evicted, least recently used first.
+     * Not set (or &lt;= 0) means no limit.
+     *
+     * @see com.xenoamess.cyan_potion.base.visual.Font#setMaxResidentPages(int)
+     */
+    public static final String STRING_MAX_RESIDENT_FONT_PAGES = "maxResidentFontPages";
+
+    /**
+     * Folder where packed glyph pages are cached between launches.
+     * Not set means {@link com.xenoamess.cyan_potion.base.visual.GlyphPageCache#DEFAULT_CACHE_FOLDER_PATH};
+     * set to an empty string to turn the cache off.
+     *
+     * @see com.xenoamess.cyan_potion.base.visual.GlyphPageCache
+     */
+    public static final String STRING_GLYPH_CACHE_FOLDER_PATH = "glyphCacheFolderPath";
+
+    /**
+     * If true then draw on a separate render thread.
+     * The logic thread ticks and records each frame into a
+     * {@link com.xenoamess.cyan_potion.base.render.DeferredRenderBackend},
+     * and the main thread (which owns the GL context) polls events, replays recorded frames and swaps buffers.
+     * Not set means false.
+     *
+     * @see GameManager#loop()
+     */
+    public static final String STRING_RENDER_THREAD = "renderThread";
+
+    /**
+     * If true then record how long each frame phase takes.
+     * Read it with console commands "profiler report" and "profiler dump [file]".
+     * Not set means false.
+     *
+     * @see com.xenoamess.cyan_potion.base.profiler.FrameProfiler
+     */
+    public static final String STRING_FRAME_PROFILER = "frameProfiler";
+
+    /**
+     * Budget of textures in video memory, in MB.
+     * When textures take more, the least recently used ones are closed (and reloaded when used again).
+     * Not set means {@link com.xenoamess.cyan_potion.base.memory.ResidencyPool#GPU_TEXTURE}'s default;
+     * &lt;= 0 means no limit.
+     *
+     * @see com.xenoamess.cyan_potion.base.memory.ResidencyManager
+     */
+    public static final String STRING_GPU_TEXTURE_BUDGET_MB = "gpuTextureBudgetMB";
+
+    /**
+     * Budget of audio buffers, in MB.
+     * Not set means {@link com.xenoamess.cyan_potion.base.memory.ResidencyPool#AUDIO_BUFFER}'s default;
+     * &lt;= 0 means no limit.
+     *
+     * @see com.xenoamess.cyan_potion.base.memory.ResidencyManager
+     */
+    public static final String STRING_AUDIO_BUFFER_BUDGET_MB = "audioBufferBudgetMB";
+
+    /**
+     * Budget of other resources, in MB.
+     * Not set means {@link com.xenoamess.cyan_potion.base.memory.ResidencyPool#HEAP_CACHE}'s default;
+     * &lt;= 0 means no limit.
+     *
+     * @see com.xenoamess.cyan_potion.base.memory.ResidencyManager
+     */
+    public static final String STRING_HEAP_CACHE_BUDGET_MB = "heapCacheBudgetMB";
+
+    /**
+     * If true then resources with a streaming loader are loaded by worker threads when first drawn,
+     * and a placeholder is drawn until they are ready, instead of the main thread waiting for them.
+     * Not set means false.
+     *
+     * @see com.xenoamess.cyan_potion.base.memory.ResourceStreamer
+     */
+    public static final String STRING_STREAMING_RESOURCES = "streamingResources";
+
+    /**
+     * How long the main thread may spend uploading streamed resources each frame, in milliseconds.
+     * Not set means {@link com.xenoamess.cyan_potion.base.memory.ResourceStreamer#DEFAULT_UPLOAD_BUDGET_MILLIS}.
+     */
+    public static final String STRING_STREAMING_UPLOAD_BUDGET_MILLIS = "streamingUploadBudgetMillis";
+
+    /**
+     * Num of worker threads decoding streamed resources.
+     * Not set means {@link com.xenoamess.cyan_potion.base.memory.ResourceStreamer#DEFAULT_WORKER_NUM}.
+     */
+    public static final String STRING_STREAMING_WORKER_NUM = "streamingWorkerNum";
+
+    /**
+     * Asset archives to read resources from, separated by ','; later ones are searched first.
+     * A relative resource path packed in a mounted archive is read from the archive instead of the loose file.
+     * Not set means none.
+     *
+     * @see com.xenoamess.cyan_potion.base.io.asset_archive.AssetArchivePacker
+     * @see com.xenoamess.cyan_potion.base.memory.ResourceManager#mountAssetArchive(String)
+     */
+    public static final String STRING_ASSET_ARCHIVES = "assetArchives";
+
     /**
      * The title text's ID.
      *
@@ -292,6 +397,16 @@ public class GameManagerConfig {
      */
     public static final String STRING_MAX_FPS = "maxFPS";
 
+    /**
+     * Max num of logic ticks run in one frame when maxFPS is set and the loop falls behind.
+     * The rest of the backlog is dropped.
+     * Not set means
+     * {@link com.xenoamess.cyan_potion.base.runtime.FixedStepFrameScheduler#DEFAULT_MAX_CATCH_UP_TICKS}.
+     *
+     * @see com.xenoamess.cyan_potion.base.runtime.FixedStepFrameScheduler
+     */
+    public static final String STRING_MAX_CATCH_UP_TICKS = "maxCatchUpTicks";
+
     /**
      * The default font's path
      *
@@ -31,9 +31,17 @@ import com.xenoamess.cyan_potion.base.areas.SimpleImmutablePoint;
 import com.xenoamess.cyan_potion.base.exceptions.FailToCreateGLFWWindowException;
 import com.xenoamess.cyan_potion.base.memory.ResourceManager;
 import com.xenoamess.cyan_potion.base.modified_sources.code_pieces.ArtemisHD.ImageParser;
+import com.xenoamess.cyan_potion.base.profiler.FrameProfiler;
 import com.xenoamess.cyan_potion.base.render.Bindable;
+import com.xenoamess.cyan_potion.base.render.CachingRenderBackend;
+import com.xenoamess.cyan_potion.base.render.GlRenderBackend;
 import com.xenoamess.cyan_potion.base.render.Model;
+import com.xenoamess.cyan_potion.base.render.RecordingRenderBackend;
+import com.xenoamess.cyan_potion.base.render.RenderBackend;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
 import com.xenoamess.cyan_potion.base.render.Shader;
+import com.xenoamess.cyan_potion.base.render.SpriteBatch;
+import com.xenoamess.cyan_potion.base.visual.Colors;
 import com.xenoamess.cyan_potion.base.visual.DrawTextStruct;
 import com.xenoamess.cyan_potion.base.visual.Font;
 import com.xenoamess.cyan_potion.sdl_game_controller_db_util.SDL_GameControllerDB_Util;
@@ -97,12 +105,6 @@ import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
 import static org.lwjgl.opengl.GL11.GL_ONE_MINUS_SRC_ALPHA;
 import static org.lwjgl.opengl.GL11.GL_SRC_ALPHA;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glBlendFunc;
-import static org.lwjgl.opengl.GL11.glClear;
-import static org.lwjgl.opengl.GL11.glClearColor;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glViewport;
-import static org.lwjgl.opengl.GL11C.glEnable;
 import static org.lwjgl.opengl.GL43C.glDebugMessageCallback;
 import static org.lwjgl.system.MemoryUtil.NULL;
 
@@ -157,6 +159,43 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
     @Setter
     private Shader shader;
 
+    /**
+     * shader used by spriteBatch.
+     * it must accept vertices/textures/colors attributes, see sprite_batch.vs
+     */
+    @Getter
+    @Setter
+    private Shader spriteBatchShader;
+
+    /**
+     * shader used by spriteBatch to draw glyphs from font pages.
+     * it must accept vertices/textures/colors attributes, see text.vs
+     */
+    @Getter
+    @Setter
+    private Shader textShader;
+
+    /**
+     * shader used by spriteBatch to draw glyphs from font pages of sdf fonts.
+     *
+     * @see com.xenoamess.cyan_potion.base.visual.Font#isSdf()
+     */
+    @Getter
+    @Setter
+    private Shader sdfTextShader;
+
+    /**
+     * shader used to draw StaticSpriteMesh.
+     * it must accept vertices/textures/colors attributes and a projection uniform, see static_sprite_mesh.vs
+     */
+    @Getter
+    @Setter
+    private Shader staticSpriteMeshShader;
+
+    @Getter
+    @Setter
+    private SpriteBatch spriteBatch;
+
     @Getter
     @Setter
     private boolean showing = false;
@@ -208,11 +247,20 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
      */
     @Override
     public void init() {
+        if (this.getGameManager().getDataCenter().getGameSettings().isRecordRenderCommands()) {
+            RenderBackends.setCurrent(new CachingRenderBackend(new RecordingRenderBackend(new GlRenderBackend())));
+        }
         initGlfw();
         initGlfwWindow();
         initOpengl();
 
         this.setShader(new Shader(this.getGameManager(), "shader"));
+        this.setSpriteBatchShader(new Shader(this.getGameManager(), "sprite_batch"));
+        this.setTextShader(new Shader(this.getGameManager(), "text"));
+        this.setSdfTextShader(new Shader(this.getGameManager(), "sdf_text"));
+        this.setStaticSpriteMeshShader(new Shader(this.getGameManager(), "static_sprite_mesh"));
+        this.setSpriteBatch(new SpriteBatch());
+        this.getSpriteBatch().init();
 
         Model.COMMON_MODEL.init(
                 Model.getCommonVerticesFloatArray(),
@@ -265,6 +313,11 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
 
         glfwTerminate();
         this.getShader().close();
+        this.getSpriteBatchShader().close();
+        this.getTextShader().close();
+        this.getSdfTextShader().close();
+        this.getStaticSpriteMeshShader().close();
+        this.getSpriteBatch().close();
         Model.COMMON_MODEL.close();
 
         GL.destroy();
@@ -476,18 +529,43 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
 
         createCapabilities();
         this.debugMessageCallback = GLUtil.setupDebugMessageCallback();
-        glEnable(GL_BLEND);
-        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-        glEnable(GL_TEXTURE_2D);
-        glDisable(GL_DEPTH_TEST);
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        renderBackend.enable(GL_BLEND);
+        renderBackend.blendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+        renderBackend.enable(GL_TEXTURE_2D);
+        renderBackend.disable(GL_DEPTH_TEST);
     }
 
 
+    /**
+     * cursor position and iconified state as of the last pollEvents.
+     * glfw only allows reading them from the main thread,
+     * so the logic thread reads these instead when the game runs with a separate render thread.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile double polledCursorPosX;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile double polledCursorPosY;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile boolean polledIconified;
+
     /**
      * <p>pollEvents.</p>
+     * must be called by the main thread.
      */
     public void pollEvents() {
         glfwPollEvents();
+        double[] x = new double[1];
+        double[] y = new double[1];
+        glfwGetCursorPos(this.getWindow(), x, y);
+        this.polledCursorPosX = x[0];
+        this.polledCursorPosY = y[0];
+        this.polledIconified = this.isIconified();
     }
 
     /**
@@ -533,15 +611,11 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
      * <p>updateMousePos.</p>
      */
     protected void updateMousePos() {
-        double[] x = new double[1];
-        double[] y = new double[1];
-
-        glfwGetCursorPos(this.getWindow(), x, y);
         setLastMousePosX(getMousePosX());
         setLastMousePosY(getMousePosY());
-        float rawMousePosX = (float) (x[0] / this.getRealWindowWidth() * this.getLogicWindowWidth());
+        float rawMousePosX = (float) (this.polledCursorPosX / this.getRealWindowWidth() * this.getLogicWindowWidth());
         setMousePosX(Math.min(Math.max(rawMousePosX, 0), this.getLogicWindowWidth()));
-        float rawMousePosY = (float) (y[0] / this.getRealWindowHeight() * this.getLogicWindowHeight());
+        float rawMousePosY = (float) (this.polledCursorPosY / this.getRealWindowHeight() * this.getLogicWindowHeight());
         setMousePosY(Math.min(Math.max(rawMousePosY, 0), this.getLogicWindowHeight()));
     }
 
@@ -566,19 +640,83 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
      * <p>draw.</p>
      */
     public void draw() {
+        if (this.drawFrame()) {
+            this.swapBuffers();
+        }
+    }
+
+    /**
+     * <p>drawFrame.</p>
+     * draw a frame into the back buffer, without swapping buffers.
+     * when the game runs with a separate render thread, the logic thread calls this,
+     * and the main thread swaps after replaying the frame.
+     *
+     * @return true if a frame was drawn.
+     */
+    public boolean drawFrame() {
         if (!this.isShowing()) {
-            return;
+            return false;
         }
-        if (isIconified()) {
-            return;
+        if (this.polledIconified) {
+            return false;
+        }
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        if (this.getSpriteBatch() != null) {
+            this.getSpriteBatch().setInterpolation(this.getGameManager().getInterpolationAlpha(),
+                    renderBackend.isInterpolatingOnReplay());
         }
-        glClearColor(0, 0, 0, 1);
-        glClear(GL_COLOR_BUFFER_BIT);
+        renderBackend.beginFrame();
+        renderBackend.clearColor(0, 0, 0, 1);
+        renderBackend.clear(GL_COLOR_BUFFER_BIT);
         this.bindGlViewportToFullWindow();
+        final long componentTreeDrawBeginNanos = this.getGameManager().getFrameProfiler().begin();
         this.getGameManager().getGameWindowComponentTree().draw();
+        this.getGameManager().getFrameProfiler().end(FrameProfiler.SCOPE_COMPONENT_TREE_DRAW,
+                componentTreeDrawBeginNanos);
+        this.flushSpriteBatch();
+        renderBackend.endFrame();
+        return true;
+    }
+
+    /**
+     * <p>swapBuffers.</p>
+     * must be called by the main thread.
+     */
+    public void swapBuffers() {
         glfwSwapBuffers(getWindow());
     }
 
+    /**
+     * <p>flushSpriteBatch.</p>
+     * draw all quads queued in spriteBatch now.
+     * must be called before drawing anything through other GL paths (Font.bind, glRectf, etc),
+     * or the queued quads will be drawn above them.
+     */
+    public void flushSpriteBatch() {
+        if (this.getSpriteBatch() != null) {
+            this.getSpriteBatch().flush();
+        }
+    }
+
+    /**
+     * <p>setSpriteMotion.</p>
+     * set how far quads drawn from now on moved during the last tick, in logic window pixels.
+     * they are drawn moved back by (1 - interpolationAlpha) of it.
+     * remember to set it back to (0, 0) after drawing them.
+     *
+     * @param motionX motion x in logic window pixels.
+     * @param motionY motion y in logic window pixels.
+     * @see SpriteBatch#setMotion(float, float)
+     */
+    public void setSpriteMotion(float motionX, float motionY) {
+        if (this.getSpriteBatch() != null) {
+            this.getSpriteBatch().setMotion(
+                    2 * motionX / this.getLogicWindowWidth(),
+                    -2 * motionY / this.getLogicWindowHeight()
+            );
+        }
+    }
+
     //---drawBindableRelative start---
 
     /**
@@ -605,7 +743,7 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
                 width,
                 height,
                 Model.COMMON_MODEL,
-                new Vector4f(1, 1, 1, 1)
+                Colors.WHITE
         );
     }
 
@@ -633,7 +771,7 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
                 width,
                 height,
                 Model.COMMON_MODEL,
-                new Vector4f(1, 1, 1, 1)
+                Colors.WHITE
         );
     }
 
@@ -663,7 +801,7 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
                 width,
                 height,
                 model,
-                new Vector4f(1, 1, 1, 1)
+                Colors.WHITE
         );
     }
 
@@ -693,7 +831,7 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
                 width,
                 height,
                 model,
-                new Vector4f(1, 1, 1, 1)
+                Colors.WHITE
         );
     }
 
@@ -882,16 +1020,41 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
             return;
         }
 
+        if (colorScale == null) {
+            colorScale = Colors.WHITE;
+        }
+
+        if (model == null || model == Model.COMMON_MODEL) {
+            final float logicWindowWidth = this.getLogicWindowWidth();
+            final float logicWindowHeight = this.getLogicWindowHeight();
+            float cos = 1f;
+            float sin = 0f;
+            if (Float.compare(rotateRadius, 0f) != 0) {
+                cos = (float) Math.cos(rotateRadius);
+                sin = (float) Math.sin(rotateRadius);
+            }
+            this.getSpriteBatch().draw(
+                    this.getSpriteBatchShader(),
+                    bindable,
+                    2 * centerPosX / logicWindowWidth - 1,
+                    1 - 2 * centerPosY / logicWindowHeight,
+                    width * cos / logicWindowWidth,
+                    width * sin / logicWindowHeight,
+                    -height * sin / logicWindowWidth,
+                    height * cos / logicWindowHeight,
+                    colorScale
+            );
+            return;
+        }
+
+        this.flushSpriteBatch();
+
         centerPosX = centerPosX / (float) this.getLogicWindowWidth();
         centerPosY = centerPosY / (float) this.getLogicWindowHeight();
 
         centerPosX -= .5f;
         centerPosY -= .5f;
 
-        if (colorScale == null) {
-            colorScale = new Vector4f(1, 1, 1, 1);
-        }
-
         this.getShader().bind();
         bindable.bind();
 
@@ -922,15 +1085,7 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
         this.getShader().setUniform("sampler", 0);
         this.getShader().setUniform("colorScale", colorScale);
 
-
-        if (model == null) {
-            model = Model.COMMON_MODEL;
-        }
-
         model.render();
-
-        bindable.unbind();
-        Shader.unbind();
     }
 
     //---drawBindableRelative end---
@@ -1309,7 +1464,7 @@ public class GameWindow extends SubManager implements AbstractMutableArea {
      * <p>bindGlViewportToFullWindow.</p>
      */
     public void bindGlViewportToFullWindow() {
-        glViewport(0, 0, this.getRealWindowWidth(), this.getRealWindowHeight());
+        RenderBackends.getCurrent().viewport(0, 0, this.getRealWindowWidth(), this.getRealWindowHeight());
     }
 
     //---shortcuts start---
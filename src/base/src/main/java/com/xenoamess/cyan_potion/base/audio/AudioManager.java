@@ -41,6 +41,7 @@ import org.lwjgl.openal.AL10;
 import org.lwjgl.openal.ALC;
 import org.lwjgl.openal.ALC10;
 import org.lwjgl.openal.ALCCapabilities;
+import org.lwjgl.openal.ALCapabilities;
 import org.lwjgl.system.MemoryUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -108,6 +109,13 @@ public class AudioManager extends SubManager {
     @Setter
     private long openalContext = -1L;
 
+    /**
+     * AL capabilities of openalContext, kept to make the context current on other threads.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private ALCapabilities openalCapabilities;
+
     /**
      * Position of the listener.
      */
@@ -149,13 +157,26 @@ public class AudioManager extends SubManager {
         this.setOpenalContext(ALC10.alcCreateContext(this.getOpenalDevice(),
                 (IntBuffer) null));
         alcSetThreadContext(this.getOpenalContext());
-        AL.createCapabilities(deviceCaps);
+        this.openalCapabilities = AL.createCapabilities(deviceCaps);
         this.setListenerPosition(new Vector3f(0, 0, 0));
         this.setListenerVelocity(new Vector3f(0, 0, 0));
 
         this.getUnusedSources().addAll(Arrays.asList(Arraysx.fillNewSelf(new Source[INITIAL_TEMP_SOURCES_NUM])));
     }
 
+    /**
+     * <p>makeCurrentOnThisThread.</p>
+     * the openal context is thread local, so a thread other than the one called init
+     * (the logic thread, when the game runs with a separate render thread) must call this before any AL call.
+     */
+    public void makeCurrentOnThisThread() {
+        if (this.getOpenalContext() == -1 || this.openalCapabilities == null) {
+            return;
+        }
+        alcSetThreadContext(this.getOpenalContext());
+        AL.setCurrentThread(this.openalCapabilities);
+    }
+
     /**
      * <p>update.</p>
      */
@@ -180,6 +201,7 @@ public class AudioManager extends SubManager {
         if (getOpenalContext() != -1) {
             alcDestroyContext(getOpenalContext());
             setOpenalContext(-1);
+            this.openalCapabilities = null;
         }
         if (getOpenalDevice() != -1) {
             alcCloseDevice(getOpenalDevice());
@@ -121,11 +121,18 @@ public class Source implements Closeable {
 
     /**
      * <p>Setter for the field <code>currentWaveData</code>.</p>
+     * the wave data is pinned while attached, so that it is not evicted under a playing source.
      *
      * @param waveData waveData
      */
     @MainThreadOnly
     public void setCurrentWaveData(WaveData waveData) {
+        if (waveData != this.currentWaveData) {
+            waveData.pin();
+            if (this.currentWaveData != null) {
+                this.currentWaveData.unpin();
+            }
+        }
         this.currentWaveData = waveData;
         this.currentWaveData.load();
         AL10.alSourcei(this.getAlSourceInt(), AL10.AL_BUFFER,
@@ -311,5 +318,9 @@ public class Source implements Closeable {
             AL10.alDeleteSources(getAlSourceInt());
             this.setAlSourceInt(-1);
         }
+        if (this.currentWaveData != null) {
+            this.currentWaveData.unpin();
+            this.currentWaveData = null;
+        }
     }
 }
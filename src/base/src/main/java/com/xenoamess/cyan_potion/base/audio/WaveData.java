@@ -32,6 +32,7 @@ import com.xenoamess.cyan_potion.base.GameManager;
 import com.xenoamess.cyan_potion.base.exceptions.FailedToOpenOggVorbisFileException;
 import com.xenoamess.cyan_potion.base.exceptions.UnexpectedBufferClassTypeException;
 import com.xenoamess.cyan_potion.base.memory.NormalResource;
+import com.xenoamess.cyan_potion.base.memory.ResidencyPool;
 import com.xenoamess.cyan_potion.base.memory.ResourceInfo;
 import com.xenoamess.cyan_potion.base.memory.ResourceManager;
 import lombok.EqualsAndHashCode;
@@ -235,6 +236,14 @@ public class WaveData extends NormalResource {
         return true;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResidencyPool getResidencyPool() {
+        return ResidencyPool.AUDIO_BUFFER;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -28,10 +28,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.xenoamess.cyan_potion.base.GameManager;
 import com.xenoamess.cyan_potion.base.events.EmptyEvent;
 import com.xenoamess.cyan_potion.base.events.Event;
+import com.xenoamess.cyan_potion.base.memory.ResourceTelemetry;
+import com.xenoamess.cyan_potion.base.profiler.FrameProfiler;
 import lombok.Data;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -65,6 +70,26 @@ public class ConsoleEvent implements Event {
      */
     public static final ConsoleEvent EMPTY = new ConsoleEvent.EmptyConsoleEvent();
 
+    /**
+     * first word of commands that read the frame profiler.
+     */
+    public static final String PROFILER_COMMAND = "profiler";
+
+    /**
+     * where "profiler dump" writes if no file is given.
+     */
+    public static final String DEFAULT_PROFILER_DUMP_FILE_PATH = "frame_trace.json";
+
+    /**
+     * first word of commands that read the resource telemetry.
+     */
+    public static final String RESOURCES_COMMAND = "resources";
+
+    /**
+     * where "resources dump" writes if no file is given.
+     */
+    public static final String DEFAULT_RESOURCES_DUMP_FILE_PATH = "resource_telemetry.json";
+
     private final String command;
 
     /**
@@ -88,7 +113,63 @@ public class ConsoleEvent implements Event {
         if (gameManager.getDataCenter().getGameSettings().isDebug()) {
             LOGGER.debug("{}", this);
         }
+        final String[] words = StringUtils.split(this.getCommand());
+        if (words != null && words.length > 0 && PROFILER_COMMAND.equals(words[0])) {
+            this.applyProfilerCommand(gameManager.getFrameProfiler(), words);
+        } else if (words != null && words.length > 0 && RESOURCES_COMMAND.equals(words[0])) {
+            this.applyResourcesCommand(gameManager.getResourceManager().getResourceTelemetry(), words);
+        }
         return new HashSet<>();
     }
 
+    /**
+     * "profiler report" logs p50/p99 of each scope,
+     * "profiler dump [file]" writes a Chrome trace (default file {@link #DEFAULT_PROFILER_DUMP_FILE_PATH}).
+     *
+     * @param frameProfiler frameProfiler
+     * @param words         words of the command
+     */
+    private void applyProfilerCommand(FrameProfiler frameProfiler, String[] words) {
+        if (!frameProfiler.isEnabled()) {
+            LOGGER.info("frame profiler is not enabled.");
+            return;
+        }
+        if (words.length >= 2 && "report".equals(words[1])) {
+            LOGGER.info("frame profiler report :{}{}", System.lineSeparator(), frameProfiler.report());
+        } else if (words.length >= 2 && "dump".equals(words[1])) {
+            final File file = new File(words.length >= 3 ? words[2] : DEFAULT_PROFILER_DUMP_FILE_PATH);
+            try {
+                frameProfiler.dumpChromeTrace(file);
+                LOGGER.info("frame profiler trace written to {}", file.getAbsolutePath());
+            } catch (IOException e) {
+                LOGGER.error("cannot write frame profiler trace to {}", file.getAbsolutePath(), e);
+            }
+        } else {
+            LOGGER.info("usage : profiler report | profiler dump [file]");
+        }
+    }
+
+    /**
+     * "resources report" logs counters and load latencies of each resource class and type,
+     * "resources dump [file]" writes a json snapshot (default file {@link #DEFAULT_RESOURCES_DUMP_FILE_PATH}).
+     *
+     * @param resourceTelemetry resourceTelemetry
+     * @param words             words of the command
+     */
+    private void applyResourcesCommand(ResourceTelemetry resourceTelemetry, String[] words) {
+        if (words.length >= 2 && "report".equals(words[1])) {
+            LOGGER.info("resource telemetry report :{}{}", System.lineSeparator(), resourceTelemetry.report());
+        } else if (words.length >= 2 && "dump".equals(words[1])) {
+            final File file = new File(words.length >= 3 ? words[2] : DEFAULT_RESOURCES_DUMP_FILE_PATH);
+            try {
+                resourceTelemetry.dumpSnapshot(file);
+                LOGGER.info("resource telemetry snapshot written to {}", file.getAbsolutePath());
+            } catch (IOException e) {
+                LOGGER.error("cannot write resource telemetry snapshot to {}", file.getAbsolutePath(), e);
+            }
+        } else {
+            LOGGER.info("usage : resources report | resources dump [file]");
+        }
+    }
+
 }
@@ -29,11 +29,11 @@ import com.xenoamess.cyan_potion.base.game_window_components.controllable_game_w
 import com.xenoamess.cyan_potion.base.render.Bindable;
 import com.xenoamess.cyan_potion.base.render.Camera;
 import com.xenoamess.cyan_potion.base.render.Model;
+import com.xenoamess.cyan_potion.base.visual.Colors;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
-import org.joml.Vector4f;
 import org.joml.Vector4fc;
 
 /**
@@ -54,6 +54,20 @@ public abstract class AbstractScene extends AbstractControllableGameWindowCompon
     @Setter
     private float scale;
 
+    /**
+     * how far what is drawn now moved during the last tick, in scene units.
+     * drawBindableAbsolute uses it to interpolate; (0, 0) for things that did not move.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private float drawMotionX;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private float drawMotionY;
+
     /**
      * <p>Constructor for AbstractScene.</p>
      *
@@ -63,6 +77,31 @@ public abstract class AbstractScene extends AbstractControllableGameWindowCompon
         super(gameWindow);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * the camera remembers where it is at the end of every tick, for interpolating.
+     */
+    @Override
+    public boolean update() {
+        final boolean res = super.update();
+        this.getCamera().rememberTickPosition();
+        return res;
+    }
+
+    /**
+     * <p>setDrawMotion.</p>
+     * set how far what is drawn from now on moved during the last tick, in scene units.
+     * remember to set it back to (0, 0) after drawing it.
+     *
+     * @param drawMotionX draw motion x
+     * @param drawMotionY draw motion y
+     */
+    public void setDrawMotion(float drawMotionX, float drawMotionY) {
+        this.drawMotionX = drawMotionX;
+        this.drawMotionY = drawMotionY;
+    }
+
     /**
      * <p>drawBindableAbsolute.</p>
      *
@@ -123,7 +162,7 @@ public abstract class AbstractScene extends AbstractControllableGameWindowCompon
                                      float posY,
                                      float width,
                                      float height) {
-        this.drawBindableAbsolute(camera, scale, bindable, posX, posY, width, height, new Vector4f(1, 1, 1, 1));
+        this.drawBindableAbsolute(camera, scale, bindable, posX, posY, width, height, Colors.WHITE);
     }
 
     /**
@@ -219,7 +258,12 @@ public abstract class AbstractScene extends AbstractControllableGameWindowCompon
                                      Model model,
                                      Vector4fc colorScale,
                                      float rotateRadius) {
-        this.getGameWindow().drawBindableRelativeCenter(
+        final GameWindow gameWindow = this.getGameWindow();
+        gameWindow.setSpriteMotion(
+                (this.getDrawMotionX() - camera.getMotionX()) * scale,
+                (this.getDrawMotionY() - camera.getMotionY()) * scale
+        );
+        gameWindow.drawBindableRelativeCenter(
                 bindable,
                 this.absolutePosToRelativeX(camera, posX, scale),
                 this.absolutePosToRelativeY(camera, posY, scale),
@@ -229,6 +273,7 @@ public abstract class AbstractScene extends AbstractControllableGameWindowCompon
                 colorScale,
                 rotateRadius
         );
+        gameWindow.setSpriteMotion(0, 0);
     }
 
     /**
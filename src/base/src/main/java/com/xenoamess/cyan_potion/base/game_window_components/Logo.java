@@ -30,6 +30,7 @@ import com.xenoamess.cyan_potion.base.io.input.key.Keymap;
 import com.xenoamess.cyan_potion.base.io.input.keyboard.KeyboardEvent;
 import com.xenoamess.cyan_potion.base.io.input.mouse.MouseButtonEvent;
 import com.xenoamess.cyan_potion.base.memory.ResourceInfo;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
 import com.xenoamess.cyan_potion.base.render.Texture;
 import com.xenoamess.cyan_potion.base.visual.Picture;
 import lombok.EqualsAndHashCode;
@@ -41,8 +42,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import static com.xenoamess.cyan_potion.base.audio.WaveData.STRING_MUSIC;
 import static com.xenoamess.cyan_potion.base.render.Texture.STRING_PICTURE;
 import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
-import static org.lwjgl.opengl.GL11.glClear;
-import static org.lwjgl.opengl.GL11.glClearColor;
 
 /**
  * <p>Logo class.</p>
@@ -168,8 +167,9 @@ public final class Logo extends AbstractGameWindowComponent {
             return false;
         }
 
-        glClearColor(1, 1, 1, 1);
-        glClear(GL_COLOR_BUFFER_BIT);
+        this.getGameWindow().flushSpriteBatch();
+        RenderBackends.getCurrent().clearColor(1, 1, 1, 1);
+        RenderBackends.getCurrent().clear(GL_COLOR_BUFFER_BIT);
 
         float t =
                 (float) (this.getLifeTime() - this.getDieTimeStamp() + System.currentTimeMillis());
@@ -33,6 +33,7 @@ import com.xenoamess.cyan_potion.base.io.input.keyboard.KeyboardEvent;
 import com.xenoamess.cyan_potion.base.io.input.mouse.MouseButtonEvent;
 import com.xenoamess.cyan_potion.base.io.input.mouse.MouseScrollEvent;
 import com.xenoamess.cyan_potion.base.memory.ResourceInfo;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
 import com.xenoamess.cyan_potion.base.render.Texture;
 import com.xenoamess.cyan_potion.base.visual.Font;
 import com.xenoamess.cyan_potion.base.visual.Picture;
@@ -47,8 +48,6 @@ import java.util.ArrayList;
 
 import static com.xenoamess.cyan_potion.base.render.Texture.STRING_PICTURE;
 import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
-import static org.lwjgl.opengl.GL11.glClear;
-import static org.lwjgl.opengl.GL11.glClearColor;
 
 /**
  * <p>TitleExample class.</p>
@@ -447,8 +446,9 @@ public final class TitleExample extends AbstractGameWindowComponent {
      */
     @Override
     public boolean draw() {
-        glClearColor(0, 0, 0, 0);
-        glClear(GL_COLOR_BUFFER_BIT);
+        this.getGameWindow().flushSpriteBatch();
+        RenderBackends.getCurrent().clearColor(0, 0, 0, 0);
+        RenderBackends.getCurrent().clear(GL_COLOR_BUFFER_BIT);
 
         if (
                 !(this.getState() >= 0 && this.getState() <= 4)
@@ -25,15 +25,14 @@
 package com.xenoamess.cyan_potion.base.game_window_components.controllable_game_window_components;
 
 import com.xenoamess.cyan_potion.base.GameWindow;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
+import com.xenoamess.cyan_potion.base.render.Shader;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.joml.Vector4f;
 import org.joml.Vector4fc;
 
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glColor4f;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glRectf;
 
 /**
  * GlRectfRectangleBox
@@ -82,9 +81,11 @@ public class GlRectfRectangleBox extends AbstractControllableGameWindowComponent
      */
     @Override
     public boolean ifVisibleThenDraw() {
-        glDisable(GL_TEXTURE_2D);
-        glColor4f(color.x, color.y, color.z, color.w);
-        glRectf(getLeftPosX(), getLeftTopPosY(), getRightBottomPosX(), getRightBottomPosY());
+        this.getGameWindow().flushSpriteBatch();
+        Shader.unbind();
+        RenderBackends.getCurrent().disable(GL_TEXTURE_2D);
+        RenderBackends.getCurrent().color4f(color.x, color.y, color.z, color.w);
+        RenderBackends.getCurrent().rectf(getLeftPosX(), getLeftTopPosY(), getRightBottomPosX(), getRightBottomPosY());
         return true;
     }
 
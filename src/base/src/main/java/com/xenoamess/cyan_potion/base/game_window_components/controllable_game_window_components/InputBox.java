@@ -31,6 +31,7 @@ import com.xenoamess.cyan_potion.base.io.input.keyboard.KeyboardEvent;
 import com.xenoamess.cyan_potion.base.io.input.keyboard.TextEvent;
 import com.xenoamess.cyan_potion.base.io.input.mouse.MouseButtonEvent;
 import com.xenoamess.cyan_potion.base.visual.Font;
+import com.xenoamess.cyan_potion.base.visual.TextMesh;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -61,13 +62,6 @@ import static org.lwjgl.glfw.GLFW.GLFW_KEY_X;
 import static org.lwjgl.glfw.GLFW.GLFW_MOD_CONTROL;
 import static org.lwjgl.glfw.GLFW.GLFW_PRESS;
 import static org.lwjgl.glfw.GLFW.GLFW_REPEAT;
-import static org.lwjgl.opengl.GL11.GL_QUADS;
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glBegin;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glColor4f;
-import static org.lwjgl.opengl.GL11.glEnable;
-import static org.lwjgl.opengl.GL11.glEnd;
 import static org.lwjgl.stb.STBTruetype.stbtt_GetPackedQuad;
 
 
@@ -440,6 +434,14 @@ public class InputBox extends AbstractControllableGameWindowComponent {
 
     private long slashStartTime = 0;
 
+    /**
+     * glyph quads of this frame.
+     * kept to reuse its arrays.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final TextMesh textMesh = new TextMesh();
+
     /**
      * <p>drawTextGivenHeightLeftTopAndGetIndex.</p>
      *
@@ -473,6 +475,9 @@ public class InputBox extends AbstractControllableGameWindowComponent {
         float insPosY1 = 0;
 
         Font font = Font.getCurrentFont();
+        if (ifDraw) {
+            this.textMesh.clear();
+        }
         String[] strings = this.getContentString().split(NEXT_LINE_STRING, -1);
 
         float minDist = Float.MAX_VALUE;
@@ -491,7 +496,7 @@ public class InputBox extends AbstractControllableGameWindowComponent {
             float characterSpace = 0;
             String text = line;
 
-            font.bind();
+            font.load();
             float scaleY = font.getScale(height);
             float scaleX = scaleY;
 
@@ -501,17 +506,6 @@ public class InputBox extends AbstractControllableGameWindowComponent {
             font.getXb().put(0, x);
             font.getYb().put(0, y);
 
-            glEnable(GL_TEXTURE_2D);
-
-            if (this.getTextColor() != null) {
-                glColor4f(
-                        this.getTextColor().x(),
-                        this.getTextColor().y(),
-                        this.getTextColor().z(),
-                        this.getTextColor().w()
-                );
-            }
-            glBegin(GL_QUADS);
             float lastXReal = x;
             //noinspection unused
             float lastYReal = y;
@@ -521,11 +515,7 @@ public class InputBox extends AbstractControllableGameWindowComponent {
                 if (text.charAt(i) < 32) {
                     continue;
                 }
-                glEnd();
-                glBindTexture(GL_TEXTURE_2D,
-                        font.getFontTextures().getPrimitive(text.charAt(i) / EACH_CHAR_NUM));
-                glBegin(GL_QUADS);
-                stbtt_GetPackedQuad(font.getCharDatas().get(text.charAt(i) / EACH_CHAR_NUM), Font.BITMAP_W,
+                stbtt_GetPackedQuad(font.getCharData(text.charAt(i)), Font.BITMAP_W,
                         Font.BITMAP_H, text.charAt(i) % EACH_CHAR_NUM, font.getXb(),
                         font.getYb(), font.getQ(), false);
                 float charWidthShould = font.getQ().x1() - font.getQ().x0();
@@ -535,38 +525,25 @@ public class InputBox extends AbstractControllableGameWindowComponent {
                 float nowX0 = lastXReal + spaceLeftToCharShould * scaleX;
                 float nowY0 = y + spaceUpToCharShould * scaleY;
 
-                if (
-                        (
-                                index >= getNowSelectStartPos()
-                                        && index < getNowSelectEndPos()
-                        )
-                                ||
-                                (
-                                        index < getNowSelectStartPos()
-                                                && index >= getNowSelectEndPos()
-                                )
-                ) {
-                    glColor4f(
-                            this.getTextSelectColor().x(),
-                            this.getTextSelectColor().y(),
-                            this.getTextSelectColor().z(),
-                            this.getTextSelectColor().w()
-                    );
-                } else {
-                    glColor4f(
-                            this.getTextColor().x(),
-                            this.getTextColor().y(),
-                            this.getTextColor().z(),
-                            this.getTextColor().w()
-                    );
-                }
                 if (ifDraw) {
-                    Font.drawBoxTC(
+                    final boolean selected =
+                            (
+                                    index >= getNowSelectStartPos()
+                                            && index < getNowSelectEndPos()
+                            )
+                                    ||
+                                    (
+                                            index < getNowSelectStartPos()
+                                                    && index >= getNowSelectEndPos()
+                                    );
+                    this.textMesh.addGlyph(
+                            text.charAt(i) / EACH_CHAR_NUM,
                             nowX0, nowY0 + height * 0.8f,
                             nowX0 + charWidthShould * scaleX,
                             nowY0 + charHeightShould * scaleY + height * 0.8f,
                             font.getQ().s0(), font.getQ().t0(),
-                            font.getQ().s1(), font.getQ().t1()
+                            font.getQ().s1(), font.getQ().t1(),
+                            selected ? this.textSelectColor : this.textColor
                     );
                 }
 
@@ -644,12 +621,8 @@ public class InputBox extends AbstractControllableGameWindowComponent {
                         if (text.charAt(i2) < 32) {
                             continue;
                         }
-                        glEnd();
-                        glBindTexture(GL_TEXTURE_2D,
-                                font.getFontTextures().getPrimitive(text.charAt(i2) / EACH_CHAR_NUM));
-                        glBegin(GL_QUADS);
                         stbtt_GetPackedQuad(
-                                font.getCharDatas().get(text.charAt(i2) / EACH_CHAR_NUM),
+                                font.getCharData(text.charAt(i2)),
                                 Font.BITMAP_W,
                                 Font.BITMAP_H,
                                 text.charAt(i2) % EACH_CHAR_NUM,
@@ -665,31 +638,6 @@ public class InputBox extends AbstractControllableGameWindowComponent {
                         nowX0 = lastXReal + spaceLeftToCharShould * scaleX;
                         nowY0 = y + spaceUpToCharShould * scaleY;
 
-                        if (
-                                (
-                                        index >= getNowSelectStartPos()
-                                                && index < getNowSelectEndPos()
-                                )
-                                        ||
-                                        (
-                                                index < getNowSelectStartPos()
-                                                        && index >= getNowSelectEndPos()
-                                        )
-                        ) {
-                            glColor4f(
-                                    this.getTextSelectColor().x(),
-                                    this.getTextSelectColor().y(),
-                                    this.getTextSelectColor().z(),
-                                    this.getTextSelectColor().w()
-                            );
-                        } else {
-                            glColor4f(
-                                    this.getTextColor().x(),
-                                    this.getTextColor().y(),
-                                    this.getTextColor().z(),
-                                    this.getTextColor().w()
-                            );
-                        }
                         float nowDist = Math.abs(distPosX - nowX0);
                         if (nowDist < minDist) {
                             minDist = nowDist;
@@ -747,28 +695,27 @@ public class InputBox extends AbstractControllableGameWindowComponent {
             }
 
             if (ifDraw && (((getGameManager().getCurrentTimeMillis() - this.slashStartTime) / this.getCursorShineTime()) % 2 == 0)) {
-                glColor4f(getCursorColor().x(), getCursorColor().y(),
-                        getCursorColor().z(), getCursorColor().w());
-                glEnd();
-                glBindTexture(GL_TEXTURE_2D,
-                        font.getFontTextures().getPrimitive('|' / EACH_CHAR_NUM));
-                glBegin(GL_QUADS);
-                stbtt_GetPackedQuad(font.getCharDatas().get('|' / EACH_CHAR_NUM), Font.BITMAP_W,
+                stbtt_GetPackedQuad(font.getCharData('|'), Font.BITMAP_W,
                         Font.BITMAP_H, '|' % EACH_CHAR_NUM, font.getXb(), font.getYb(),
                         font.getQ(), false);
-                Font.drawBoxTC(
+                this.textMesh.addGlyph(
+                        '|' / EACH_CHAR_NUM,
                         insPosX0, insPosY0 - (insPosY1 - insPosY0) / 4,
                         insPosX1 - (insPosX1 - insPosX0) / 3 * 2,
                         insPosY1 + (insPosY1 - insPosY0) / 4,
                         font.getQ().s0(), font.getQ().t0(),
-                        font.getQ().s1(), font.getQ().t1()
+                        font.getQ().s1(), font.getQ().t1(),
+                        this.cursorColor
                 );
             }
 
-            glEnd();
             index++;
         }
 
+        if (ifDraw) {
+            this.textMesh.draw(this.getGameWindow(), font, null);
+        }
+
         if (resIndex == -1) {
             return 0;
         } else {
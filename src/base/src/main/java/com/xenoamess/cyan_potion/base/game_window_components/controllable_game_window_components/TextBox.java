@@ -26,6 +26,7 @@ package com.xenoamess.cyan_potion.base.game_window_components.controllable_game_
 
 import com.xenoamess.cyan_potion.base.GameWindow;
 import com.xenoamess.cyan_potion.base.visual.Font;
+import com.xenoamess.cyan_potion.base.visual.TextMesh;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -34,13 +35,6 @@ import org.joml.Vector4f;
 import org.joml.Vector4fc;
 
 import static com.xenoamess.cyan_potion.base.visual.Font.EACH_CHAR_NUM;
-import static org.lwjgl.opengl.GL11.GL_QUADS;
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glBegin;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glColor4f;
-import static org.lwjgl.opengl.GL11.glEnable;
-import static org.lwjgl.opengl.GL11.glEnd;
 import static org.lwjgl.stb.STBTruetype.stbtt_GetPackedQuad;
 
 
@@ -71,6 +65,29 @@ public class TextBox extends AbstractControllableGameWindowComponent {
     @Setter
     private final Vector4f textColor = new Vector4f(1, 1, 1, 1);
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final TextMesh textMesh = new TextMesh();
+
+    /**
+     * what textMesh was laid out from.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Font laidOutFont;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String laidOutContentString;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean laidOutWordWrap;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final float[] laidOutParams = new float[6];
+
     /**
      * <p>Constructor for TextBox.</p>
      *
@@ -94,8 +111,38 @@ public class TextBox extends AbstractControllableGameWindowComponent {
 
     /**
      * <p>drawText.</p>
+     * <p>
+     * glyph quads are laid out again only when the content, font, size or position changed.
      */
     public void drawText() {
+        Font font = Font.getCurrentFont();
+        font.load();
+        final float[] params = this.laidOutParams;
+        if (font != this.laidOutFont
+                || !this.getContentString().equals(this.laidOutContentString)
+                || this.isWordWrap() != this.laidOutWordWrap
+                || Float.compare(params[0], this.getLeftTopPosX()) != 0
+                || Float.compare(params[1], this.getLeftTopPosY()) != 0
+                || Float.compare(params[2], this.getWidth()) != 0
+                || Float.compare(params[3], this.getCharHeight()) != 0
+                || Float.compare(params[4], this.getGameWindow().getRealWindowWidth()) != 0
+                || Float.compare(params[5], this.getGameWindow().getRealWindowHeight()) != 0) {
+            this.layoutText(font);
+            this.laidOutFont = font;
+            this.laidOutContentString = this.getContentString();
+            this.laidOutWordWrap = this.isWordWrap();
+            params[0] = this.getLeftTopPosX();
+            params[1] = this.getLeftTopPosY();
+            params[2] = this.getWidth();
+            params[3] = this.getCharHeight();
+            params[4] = this.getGameWindow().getRealWindowWidth();
+            params[5] = this.getGameWindow().getRealWindowHeight();
+        }
+        this.textMesh.draw(this.getGameWindow(), font, this.textColor);
+    }
+
+    private void layoutText(Font font) {
+        this.textMesh.clear();
         float realLeftTopPosX =
                 this.getLeftTopPosX() / this.getGameWindow().getLogicWindowWidth() * this.getGameWindow().getRealWindowWidth();
         float realLeftTopPosY =
@@ -108,13 +155,9 @@ public class TextBox extends AbstractControllableGameWindowComponent {
         float realCharHeight =
                 this.getCharHeight() / this.getGameWindow().getLogicWindowHeight() * this.getGameWindow().getRealWindowHeight();
 
-        Font font = Font.getCurrentFont();
-
         float scaleY = font.getScale(realCharHeight);
         float scaleX = scaleY;
 
-        font.bind();
-
         float lineStartPosX = realLeftTopPosX;
         float lineStartPosY = realLeftTopPosY;
 
@@ -122,25 +165,12 @@ public class TextBox extends AbstractControllableGameWindowComponent {
         font.getXb().put(0, lineStartPosX);
         font.getYb().put(0, lineStartPosY);
 
-        glEnable(GL_TEXTURE_2D);
-
-        glBegin(GL_QUADS);
-
         float lastXReal = lineStartPosX;
         float lastYReal = lineStartPosY;
         float lastXShould = lineStartPosX;
         float lastYShould = lineStartPosY;
 
         for (int i = 0; i < this.getContentString().length(); i++) {
-            if (this.getTextColor() != null) {
-                glColor4f(
-                        this.getTextColor().x(),
-                        this.getTextColor().y(),
-                        this.getTextColor().z(),
-                        this.getTextColor().w()
-                );
-            }
-
             if (this.getContentString().charAt(i) == '\n') {
                 lineStartPosX = realLeftTopPosX;
                 lineStartPosY += realCharHeight;
@@ -156,12 +186,8 @@ public class TextBox extends AbstractControllableGameWindowComponent {
                 continue;
             }
             if (Character.isWhitespace(this.getContentString().charAt(i))) {
-                glEnd();
-                glBindTexture(GL_TEXTURE_2D,
-                        font.getFontTextures().getPrimitive(this.getContentString().charAt(i) / EACH_CHAR_NUM));
-                glBegin(GL_QUADS);
                 stbtt_GetPackedQuad(
-                        font.getCharDatas().get(this.getContentString().charAt(i) / EACH_CHAR_NUM), Font.BITMAP_W,
+                        font.getCharData(this.getContentString().charAt(i)), Font.BITMAP_W,
                         Font.BITMAP_H,
                         this.getContentString().charAt(i) % EACH_CHAR_NUM,
                         font.getXb(), font.getYb(), font.getQ(), false);
@@ -173,12 +199,14 @@ public class TextBox extends AbstractControllableGameWindowComponent {
                 float nowX0 = lastXReal + spaceLeftToCharShould * scaleX;
                 float nowY0 = lineStartPosY + spaceUpToCharShould * scaleY;
 
-                Font.drawBoxTC(
+                this.textMesh.addGlyph(
+                        this.getContentString().charAt(i) / EACH_CHAR_NUM,
                         nowX0, nowY0 + realCharHeight * 0.8f,
                         nowX0 + charWidthShould * scaleX,
                         nowY0 + charHeightShould * scaleY + realCharHeight * 0.8f,
                         font.getQ().s0(), font.getQ().t0(), font.getQ().s1(),
-                        font.getQ().t1()
+                        font.getQ().t1(),
+                        null
                 );
 
                 lastXReal = nowX0 + charWidthShould * scaleX;
@@ -204,12 +232,8 @@ public class TextBox extends AbstractControllableGameWindowComponent {
                 if (nowChar < 32) {
                     continue;
                 }
-                glEnd();
-                glBindTexture(GL_TEXTURE_2D,
-                        font.getFontTextures().getPrimitive(nowChar / EACH_CHAR_NUM));
-                glBegin(GL_QUADS);
                 stbtt_GetPackedQuad(
-                        font.getCharDatas().get(nowChar / EACH_CHAR_NUM), Font.BITMAP_W, Font.BITMAP_H,
+                        font.getCharData(nowChar), Font.BITMAP_W, Font.BITMAP_H,
                         nowChar % EACH_CHAR_NUM,
                         font.getXb(), font.getYb(), font.getQ(), false);
                 float charWidthShould = font.getQ().x1() - font.getQ().x0();
@@ -255,12 +279,8 @@ public class TextBox extends AbstractControllableGameWindowComponent {
                 if (nowChar < 32) {
                     continue;
                 }
-                glEnd();
-                glBindTexture(GL_TEXTURE_2D,
-                        font.getFontTextures().getPrimitive(nowChar / EACH_CHAR_NUM));
-                glBegin(GL_QUADS);
                 stbtt_GetPackedQuad(
-                        font.getCharDatas().get(nowChar / EACH_CHAR_NUM), Font.BITMAP_W, Font.BITMAP_H,
+                        font.getCharData(nowChar), Font.BITMAP_W, Font.BITMAP_H,
                         nowChar % EACH_CHAR_NUM,
                         font.getXb(), font.getYb(), font.getQ(), false);
                 float charWidthShould = font.getQ().x1() - font.getQ().x0();
@@ -270,12 +290,14 @@ public class TextBox extends AbstractControllableGameWindowComponent {
                 float nowX0 = lastXReal + spaceLeftToCharShould * scaleX;
                 float nowY0 = lineStartPosY + spaceUpToCharShould * scaleY;
 
-                Font.drawBoxTC(
+                this.textMesh.addGlyph(
+                        nowChar / EACH_CHAR_NUM,
                         nowX0, nowY0 + realCharHeight * 0.8f,
                         nowX0 + charWidthShould * scaleX,
                         nowY0 + charHeightShould * scaleY + realCharHeight * 0.8f,
                         font.getQ().s0(), font.getQ().t0(), font.getQ().s1(),
-                        font.getQ().t1()
+                        font.getQ().t1(),
+                        null
                 );
 
                 lastXReal = nowX0 + charWidthShould * scaleX;
@@ -286,7 +308,6 @@ public class TextBox extends AbstractControllableGameWindowComponent {
 
             i = ti - 1;
         }
-        glEnd();
     }
 
     /**
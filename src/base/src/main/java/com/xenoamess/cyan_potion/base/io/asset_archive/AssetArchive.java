@@ -0,0 +1,338 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.io.asset_archive;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>AssetArchive class.</p>
+ * many asset files packed in one file, memory mapped, so reading an asset opens no file.
+ * <p>
+ * format, big endian:
+ * <pre>
+ * header : int MAGIC, int VERSION, int entryNum, int indexSize
+ * index  : entryNum entries sorted by path (String order), each
+ *          short pathSize, byte[pathSize] path in UTF-8, byte compression id,
+ *          int offset, int storedSize, int originalSize
+ * data   : stored entries, at their offsets
+ * </pre>
+ * paths use '/' and no leading '/', like resource URIs relative to the game folder.
+ * entries stored uncompressed are read zero-copy from the mapping.
+ * archives are limited to 2GB; split bigger asset sets into several archives.
+ * <p>
+ * thread safe once opened.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see AssetArchivePacker
+ * @see AssetArchiveFileProvider
+ */
+@ToString
+public class AssetArchive implements Closeable {
+    /**
+     * "CPAK"
+     */
+    public static final int MAGIC = 0x4350414B;
+
+    /**
+     * version of the format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * size of the header.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    /**
+     * size of an index entry besides its path.
+     */
+    static final int INDEX_ENTRY_FIXED_SIZE = 2 + 1 + 4 + 4 + 4;
+
+    @Getter
+    private final File file;
+
+    @ToString.Exclude
+    private volatile MappedByteBuffer mappedByteBuffer;
+
+    @ToString.Exclude
+    private final String[] paths;
+    @ToString.Exclude
+    private final AssetArchiveCompression[] compressions;
+    @ToString.Exclude
+    private final int[] offsets;
+    @ToString.Exclude
+    private final int[] storedSizes;
+    @ToString.Exclude
+    private final int[] originalSizes;
+
+    private AssetArchive(File file, MappedByteBuffer mappedByteBuffer, String[] paths,
+                         AssetArchiveCompression[] compressions, int[] offsets, int[] storedSizes,
+                         int[] originalSizes) {
+        this.file = file;
+        this.mappedByteBuffer = mappedByteBuffer;
+        this.paths = paths;
+        this.compressions = compressions;
+        this.offsets = offsets;
+        this.storedSizes = storedSizes;
+        this.originalSizes = originalSizes;
+    }
+
+    /**
+     * <p>open.</p>
+     *
+     * @param file archive file
+     * @return archive
+     * @throws IOException if cannot read file, or it is not an archive.
+     */
+    public static AssetArchive open(File file) throws IOException {
+        final MappedByteBuffer mappedByteBuffer;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel fileChannel = randomAccessFile.getChannel()) {
+            final long size = fileChannel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("asset archive bigger than 2GB : " + file);
+            }
+            if (size < HEADER_SIZE) {
+                throw new IOException("not an asset archive : " + file);
+            }
+            //the mapping stays valid after the channel is closed.
+            mappedByteBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        final ByteBuffer header = mappedByteBuffer.duplicate();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("not an asset archive : " + file);
+        }
+        final int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported asset archive version " + version + " : " + file);
+        }
+        final int entryNum = header.getInt();
+        final int indexSize = header.getInt();
+        if (entryNum < 0 || indexSize < 0 || HEADER_SIZE + (long) indexSize > mappedByteBuffer.capacity()) {
+            throw new IOException("broken asset archive header : " + file);
+        }
+
+        final String[] paths = new String[entryNum];
+        final AssetArchiveCompression[] compressions = new AssetArchiveCompression[entryNum];
+        final int[] offsets = new int[entryNum];
+        final int[] storedSizes = new int[entryNum];
+        final int[] originalSizes = new int[entryNum];
+        final ByteBuffer index = mappedByteBuffer.duplicate();
+        index.position(HEADER_SIZE);
+        index.limit(HEADER_SIZE + indexSize);
+        final byte[] pathBytes = new byte[Short.MAX_VALUE * 2 + 1];
+        for (int i = 0; i < entryNum; i++) {
+            final int pathSize = index.getShort() & 0xFFFF;
+            index.get(pathBytes, 0, pathSize);
+            paths[i] = new String(pathBytes, 0, pathSize, StandardCharsets.UTF_8);
+            compressions[i] = AssetArchiveCompression.ofId(index.get());
+            offsets[i] = index.getInt();
+            storedSizes[i] = index.getInt();
+            originalSizes[i] = index.getInt();
+            if (offsets[i] < 0 || storedSizes[i] < 0 || originalSizes[i] < 0
+                    || (long) offsets[i] + storedSizes[i] > mappedByteBuffer.capacity()) {
+                throw new IOException("broken asset archive entry " + paths[i] + " : " + file);
+            }
+            if (i > 0 && paths[i - 1].compareTo(paths[i]) >= 0) {
+                throw new IOException("asset archive index not sorted at " + paths[i] + " : " + file);
+            }
+        }
+        return new AssetArchive(file, mappedByteBuffer, paths, compressions, offsets, storedSizes, originalSizes);
+    }
+
+    /**
+     * <p>getEntryNum.</p>
+     *
+     * @return num of entries
+     */
+    public int getEntryNum() {
+        return this.paths.length;
+    }
+
+    /**
+     * <p>getPath.</p>
+     *
+     * @param entryIndex entryIndex
+     * @return path of the entry
+     */
+    public String getPath(int entryIndex) {
+        return this.paths[entryIndex];
+    }
+
+    /**
+     * <p>indexOf.</p>
+     *
+     * @param path path, without leading '/'
+     * @return index of the entry of path, or a negative value if none.
+     */
+    public int indexOf(String path) {
+        return Arrays.binarySearch(this.paths, path);
+    }
+
+    /**
+     * <p>isFolder.</p>
+     *
+     * @param path path, without leading or trailing '/'. "" is the root.
+     * @return true if some entry is under path.
+     */
+    public boolean isFolder(String path) {
+        if (path.isEmpty()) {
+            return true;
+        }
+        final String prefix = path + '/';
+        final int index = this.firstIndexNotBefore(prefix);
+        return index < this.paths.length && this.paths[index].startsWith(prefix);
+    }
+
+    /**
+     * <p>listChildren.</p>
+     *
+     * @param path path of a folder, without leading or trailing '/'. "" is the root.
+     * @return names of files and folders right under path.
+     */
+    public String[] listChildren(String path) {
+        final String prefix = path.isEmpty() ? "" : path + '/';
+        final List<String> res = new ArrayList<>();
+        for (int i = this.firstIndexNotBefore(prefix); i < this.paths.length; i++) {
+            final String entryPath = this.paths[i];
+            if (!entryPath.startsWith(prefix)) {
+                break;
+            }
+            final int slash = entryPath.indexOf('/', prefix.length());
+            final String name = slash < 0 ? entryPath.substring(prefix.length())
+                    : entryPath.substring(prefix.length(), slash);
+            //entries are sorted, so entries of a sub folder are together.
+            if (res.isEmpty() || !res.get(res.size() - 1).equals(name)) {
+                res.add(name);
+            }
+        }
+        return res.toArray(new String[0]);
+    }
+
+    private int firstIndexNotBefore(String path) {
+        final int index = Arrays.binarySearch(this.paths, path);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * <p>getCompression.</p>
+     *
+     * @param entryIndex entryIndex
+     * @return how the entry is stored
+     */
+    public AssetArchiveCompression getCompression(int entryIndex) {
+        return this.compressions[entryIndex];
+    }
+
+    /**
+     * <p>getStoredSize.</p>
+     *
+     * @param entryIndex entryIndex
+     * @return size of the entry in the archive
+     */
+    public int getStoredSize(int entryIndex) {
+        return this.storedSizes[entryIndex];
+    }
+
+    /**
+     * <p>getOriginalSize.</p>
+     *
+     * @param entryIndex entryIndex
+     * @return size of the entry after decompressing
+     */
+    public int getOriginalSize(int entryIndex) {
+        return this.originalSizes[entryIndex];
+    }
+
+    /**
+     * <p>read.</p>
+     * content of an entry.
+     * an entry stored uncompressed is a read only view of the mapping, with no copy;
+     * a compressed one is decompressed into a new direct buffer.
+     *
+     * @param entryIndex entryIndex
+     * @return content, from position 0 to limit.
+     * @throws IOException if closed or the entry is broken
+     */
+    public ByteBuffer read(int entryIndex) throws IOException {
+        final MappedByteBuffer nowMappedByteBuffer = this.mappedByteBuffer;
+        if (nowMappedByteBuffer == null) {
+            throw new IOException("asset archive closed : " + this.file);
+        }
+        final ByteBuffer stored = nowMappedByteBuffer.duplicate();
+        stored.position(this.offsets[entryIndex]);
+        stored.limit(this.offsets[entryIndex] + this.storedSizes[entryIndex]);
+        final ByteBuffer res = this.compressions[entryIndex]
+                .decompress(stored.slice(), this.originalSizes[entryIndex]);
+        return res.isReadOnly() ? res : res.asReadOnlyBuffer();
+    }
+
+    /**
+     * <p>openInputStream.</p>
+     *
+     * @param entryIndex entryIndex
+     * @return stream of the content of the entry
+     * @throws IOException if closed or the entry is broken
+     * @see #read(int)
+     */
+    public InputStream openInputStream(int entryIndex) throws IOException {
+        return new ByteBufferInputStream(this.read(entryIndex));
+    }
+
+    /**
+     * <p>isOpen.</p>
+     *
+     * @return false if closed.
+     */
+    public boolean isOpen() {
+        return this.mappedByteBuffer != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * buffers already read stay valid; the mapping is released when they are all collected.
+     */
+    @Override
+    public void close() {
+        this.mappedByteBuffer = null;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.io.asset_archive;
+
+import lombok.Getter;
+import org.lwjgl.system.MemoryUtil;
+import org.lwjgl.util.zstd.Zstd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>AssetArchiveCompression class.</p>
+ * how an entry of an AssetArchive is stored.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see AssetArchive
+ */
+public enum AssetArchiveCompression {
+    /**
+     * stored as is; read zero-copy from the mapped archive.
+     */
+    NONE(0) {
+        @Override
+        ByteBuffer compress(ByteBuffer src) {
+            return null;
+        }
+
+        @Override
+        ByteBuffer decompress(ByteBuffer src, int originalSize) {
+            return src;
+        }
+    },
+    /**
+     * LZ4, fast to decompress.
+     */
+    LZ4(1) {
+        @Override
+        ByteBuffer compress(ByteBuffer src) {
+            final ByteBuffer dst = MemoryUtil.memAlloc(org.lwjgl.util.lz4.LZ4.LZ4_compressBound(src.remaining()));
+            final int size = org.lwjgl.util.lz4.LZ4.LZ4_compress_default(src, dst);
+            if (size <= 0) {
+                MemoryUtil.memFree(dst);
+                return null;
+            }
+            dst.limit(size);
+            return dst;
+        }
+
+        @Override
+        ByteBuffer decompress(ByteBuffer src, int originalSize) throws IOException {
+            final ByteBuffer dst = ByteBuffer.allocateDirect(originalSize);
+            final int size = org.lwjgl.util.lz4.LZ4.LZ4_decompress_safe(src, dst);
+            if (size != originalSize) {
+                throw new IOException("broken lz4 entry, got " + size + " bytes instead of " + originalSize);
+            }
+            return dst;
+        }
+    },
+    /**
+     * Zstandard, smaller but slower to decompress than LZ4.
+     */
+    ZSTD(2) {
+        @Override
+        ByteBuffer compress(ByteBuffer src) {
+            final ByteBuffer dst = MemoryUtil.memAlloc((int) Zstd.ZSTD_compressBound(src.remaining()));
+            final long size = Zstd.ZSTD_compress(dst, src, ZSTD_LEVEL);
+            if (Zstd.ZSTD_isError(size)) {
+                MemoryUtil.memFree(dst);
+                return null;
+            }
+            dst.limit((int) size);
+            return dst;
+        }
+
+        @Override
+        ByteBuffer decompress(ByteBuffer src, int originalSize) throws IOException {
+            final ByteBuffer dst = ByteBuffer.allocateDirect(originalSize);
+            final long size = Zstd.ZSTD_decompress(dst, src);
+            if (Zstd.ZSTD_isError(size) || size != originalSize) {
+                throw new IOException("broken zstd entry : "
+                        + (Zstd.ZSTD_isError(size) ? Zstd.ZSTD_getErrorName(size) : size + " bytes"));
+            }
+            return dst;
+        }
+    };
+
+    /**
+     * level the packer compresses zstd entries with. packing happens once, so it can be slow.
+     */
+    public static final int ZSTD_LEVEL = 19;
+
+    /**
+     * id in the archive index.
+     */
+    @Getter
+    private final int id;
+
+    AssetArchiveCompression(int id) {
+        this.id = id;
+    }
+
+    /**
+     * <p>compress.</p>
+     *
+     * @param src src, direct
+     * @return compressed data allocated by MemoryUtil.memAlloc, or null if not compressed.
+     */
+    abstract ByteBuffer compress(ByteBuffer src);
+
+    /**
+     * <p>decompress.</p>
+     *
+     * @param src          src, direct
+     * @param originalSize size after decompressing
+     * @return decompressed data
+     * @throws IOException if src is broken
+     */
+    abstract ByteBuffer decompress(ByteBuffer src, int originalSize) throws IOException;
+
+    /**
+     * <p>ofId.</p>
+     *
+     * @param id id
+     * @return compression of this id
+     * @throws IOException if no compression has this id
+     */
+    static AssetArchiveCompression ofId(int id) throws IOException {
+        for (AssetArchiveCompression compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IOException("unknown compression id : " + id);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.io.asset_archive;
+
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileType;
+import org.apache.commons.vfs2.provider.AbstractFileName;
+import org.apache.commons.vfs2.provider.AbstractFileObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>AssetArchiveFileObject class.</p>
+ * an entry, or a folder of entries, of an AssetArchive.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see AssetArchiveFileProvider
+ */
+public class AssetArchiveFileObject extends AbstractFileObject<AssetArchiveFileSystem> {
+    /**
+     * <p>Constructor for AssetArchiveFileObject.</p>
+     *
+     * @param name       name
+     * @param fileSystem fileSystem
+     */
+    protected AssetArchiveFileObject(AbstractFileName name, AssetArchiveFileSystem fileSystem) {
+        super(name, fileSystem);
+    }
+
+    /**
+     * path in the archive, without leading '/'.
+     */
+    private String getEntryPath() {
+        final String path = this.getName().getPath();
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private int getEntryIndex() throws FileSystemException {
+        final int res = this.getAbstractFileSystem().getArchive().indexOf(this.getEntryPath());
+        if (res < 0) {
+            throw new FileSystemException("no such entry " + this.getEntryPath()
+                    + " in " + this.getAbstractFileSystem().getArchive().getFile());
+        }
+        return res;
+    }
+
+    /**
+     * <p>getByteBuffer.</p>
+     * content of this entry without a stream.
+     * zero-copy if the entry is stored uncompressed.
+     *
+     * @return content, read only
+     * @throws IOException if this is not an entry, or it is broken.
+     * @see AssetArchive#read(int)
+     */
+    public ByteBuffer getByteBuffer() throws IOException {
+        return this.getAbstractFileSystem().getArchive().read(this.getEntryIndex());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected FileType doGetType() throws Exception {
+        final AssetArchive archive = this.getAbstractFileSystem().getArchive();
+        final String path = this.getEntryPath();
+        if (archive.indexOf(path) >= 0) {
+            return FileType.FILE;
+        }
+        if (archive.isFolder(path)) {
+            return FileType.FOLDER;
+        }
+        return FileType.IMAGINARY;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String[] doListChildren() throws Exception {
+        return this.getAbstractFileSystem().getArchive().listChildren(this.getEntryPath());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected long doGetContentSize() throws Exception {
+        return this.getAbstractFileSystem().getArchive().getOriginalSize(this.getEntryIndex());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected InputStream doGetInputStream(int bufferSize) throws Exception {
+        return this.getAbstractFileSystem().getArchive().openInputStream(this.getEntryIndex());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected long doGetLastModifiedTime() throws Exception {
+        return this.getAbstractFileSystem().getArchive().getFile().lastModified();
+    }
+}
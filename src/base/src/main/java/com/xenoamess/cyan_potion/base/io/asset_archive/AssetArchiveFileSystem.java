@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.io.asset_archive;
+
+import org.apache.commons.vfs2.Capability;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileSystemException;
+import org.apache.commons.vfs2.FileSystemOptions;
+import org.apache.commons.vfs2.Selectors;
+import org.apache.commons.vfs2.provider.AbstractFileName;
+import org.apache.commons.vfs2.provider.AbstractFileSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * <p>AssetArchiveFileSystem class.</p>
+ * an AssetArchive seen as a commons-vfs2 file system.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see AssetArchiveFileProvider
+ */
+public class AssetArchiveFileSystem extends AbstractFileSystem {
+    private final File file;
+
+    private AssetArchive archive;
+
+    /**
+     * <p>Constructor for AssetArchiveFileSystem.</p>
+     *
+     * @param rootName          rootName
+     * @param parentLayer       the archive file
+     * @param fileSystemOptions fileSystemOptions
+     * @throws FileSystemException if the archive file cannot be made a local file.
+     */
+    public AssetArchiveFileSystem(AbstractFileName rootName, FileObject parentLayer,
+                                  FileSystemOptions fileSystemOptions) throws FileSystemException {
+        super(rootName, parentLayer, fileSystemOptions);
+        this.file = parentLayer.getFileSystem().replicateFile(parentLayer, Selectors.SELECT_SELF);
+    }
+
+    /**
+     * <p>getArchive.</p>
+     * opened on first use, and again after the communication link is closed.
+     *
+     * @return archive
+     * @throws FileSystemException if the archive cannot be opened.
+     */
+    public synchronized AssetArchive getArchive() throws FileSystemException {
+        if (this.archive == null) {
+            try {
+                this.archive = AssetArchive.open(this.file);
+            } catch (IOException e) {
+                throw new FileSystemException("cannot open asset archive " + this.file, e);
+            }
+        }
+        return this.archive;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void addCapabilities(Collection<Capability> caps) {
+        caps.addAll(AssetArchiveFileProvider.CAPABILITIES);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected FileObject createFile(AbstractFileName name) {
+        return new AssetArchiveFileObject(name, this);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected synchronized void doCloseCommunicationLink() {
+        if (this.archive != null) {
+            this.archive.close();
+            this.archive = null;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.io.asset_archive;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * <p>AssetArchivePacker class.</p>
+ * packs asset files into an AssetArchive.
+ * <p>
+ * usage, from the game folder:
+ * <pre>
+ * java -cp ... com.xenoamess.cyan_potion.base.io.asset_archive.AssetArchivePacker assets.cpak lz4 resources
+ * </pre>
+ * then entry paths are like "resources/www/img/...", same as the resource URIs that read them.
+ * <p>
+ * an entry is kept compressed only if that saves at least 1/16 of it
+ * (already compressed formats like png or ogg usually do not),
+ * for uncompressed entries are read zero-copy.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see AssetArchive
+ */
+public final class AssetArchivePacker {
+    @JsonIgnore
+    private static final transient Logger LOGGER =
+            LoggerFactory.getLogger(AssetArchivePacker.class);
+
+    private AssetArchivePacker() {
+    }
+
+    /**
+     * <p>main.</p>
+     *
+     * @param args archive file, compression (none, lz4 or zstd), then files or folders to pack,
+     *             relative to the working directory.
+     * @throws IOException if fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            LOGGER.error("usage : AssetArchivePacker <archive file> <none|lz4|zstd> <file or folder>...");
+            return;
+        }
+        pack(
+                new File(args[0]),
+                AssetArchiveCompression.valueOf(args[1].toUpperCase(Locale.ROOT)),
+                new File(System.getProperty("user.dir")),
+                Arrays.asList(args).subList(2, args.length)
+        );
+    }
+
+    /**
+     * <p>pack.</p>
+     *
+     * @param archiveFile archive file to write; replaced if exists.
+     * @param compression compression to try on every entry
+     * @param baseFolder  folder entry paths are relative to
+     * @param paths       files or folders to pack, relative to baseFolder
+     * @return num of entries packed
+     * @throws IOException if fails
+     */
+    public static int pack(File archiveFile, AssetArchiveCompression compression, File baseFolder,
+                           List<String> paths) throws IOException {
+        final Path basePath = baseFolder.toPath().toAbsolutePath().normalize();
+        final List<String> entryPaths = new ArrayList<>();
+        for (String path : paths) {
+            try (Stream<Path> stream = Files.walk(basePath.resolve(path))) {
+                stream.filter(Files::isRegularFile).forEach(
+                        file -> entryPaths.add(toEntryPath(basePath, file))
+                );
+            }
+        }
+        Collections.sort(entryPaths);
+        for (int i = 1; i < entryPaths.size(); i++) {
+            if (entryPaths.get(i - 1).equals(entryPaths.get(i))) {
+                throw new IOException("packed twice : " + entryPaths.get(i));
+            }
+        }
+
+        final byte[][] pathBytes = new byte[entryPaths.size()][];
+        long indexSize = 0;
+        for (int i = 0; i < entryPaths.size(); i++) {
+            pathBytes[i] = entryPaths.get(i).getBytes(StandardCharsets.UTF_8);
+            if (pathBytes[i].length > 0xFFFF) {
+                throw new IOException("path too long : " + entryPaths.get(i));
+            }
+            indexSize += AssetArchive.INDEX_ENTRY_FIXED_SIZE + pathBytes[i].length;
+        }
+
+        final ByteBuffer index = ByteBuffer.allocate(Math.toIntExact(indexSize));
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(archiveFile, "rw");
+             FileChannel fileChannel = randomAccessFile.getChannel()) {
+            fileChannel.truncate(0);
+            long offset = AssetArchive.HEADER_SIZE + indexSize;
+            for (int i = 0; i < entryPaths.size(); i++) {
+                final Path file = basePath.resolve(entryPaths.get(i));
+                final long entryOffset = offset;
+                offset += writeEntry(fileChannel, entryOffset, file, compression, index, pathBytes[i]);
+                if (offset > Integer.MAX_VALUE) {
+                    throw new IOException("asset archive bigger than 2GB, pack less at once : " + archiveFile);
+                }
+            }
+            index.flip();
+            final ByteBuffer header = ByteBuffer.allocate(AssetArchive.HEADER_SIZE);
+            header.putInt(AssetArchive.MAGIC);
+            header.putInt(AssetArchive.VERSION);
+            header.putInt(entryPaths.size());
+            header.putInt(index.remaining());
+            header.flip();
+            writeFully(fileChannel, header, 0);
+            writeFully(fileChannel, index, AssetArchive.HEADER_SIZE);
+        }
+        LOGGER.info("packed {} entries into {}", entryPaths.size(), archiveFile);
+        return entryPaths.size();
+    }
+
+    /**
+     * write an entry's data at offset, and its index entry into index.
+     *
+     * @return stored size
+     */
+    private static int writeEntry(FileChannel fileChannel, long offset, Path file,
+                                  AssetArchiveCompression compression, ByteBuffer index, byte[] pathBytes)
+            throws IOException {
+        final long fileSize = Files.size(file);
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("file bigger than 2GB : " + file);
+        }
+        final int originalSize = (int) fileSize;
+        final ByteBuffer original = MemoryUtil.memAlloc(Math.max(originalSize, 1));
+        ByteBuffer compressed = null;
+        try {
+            try (FileChannel fileChannelToRead = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (original.position() < originalSize) {
+                    if (fileChannelToRead.read(original) < 0) {
+                        throw new IOException("file changed while packing : " + file);
+                    }
+                }
+            }
+            original.flip();
+
+            AssetArchiveCompression storedCompression = AssetArchiveCompression.NONE;
+            ByteBuffer stored = original;
+            if (originalSize > 0) {
+                compressed = compression.compress(original.duplicate());
+                if (compressed != null && compressed.remaining() <= originalSize - originalSize / 16) {
+                    storedCompression = compression;
+                    stored = compressed;
+                }
+            }
+            final int storedSize = stored.remaining();
+            writeFully(fileChannel, stored, offset);
+
+            index.putShort((short) pathBytes.length);
+            index.put(pathBytes);
+            index.put((byte) storedCompression.getId());
+            index.putInt((int) offset);
+            index.putInt(storedSize);
+            index.putInt(originalSize);
+            return storedSize;
+        } finally {
+            MemoryUtil.memFree(original);
+            if (compressed != null) {
+                MemoryUtil.memFree(compressed);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel fileChannel, ByteBuffer byteBuffer, long position)
+            throws IOException {
+        long nowPosition = position;
+        while (byteBuffer.hasRemaining()) {
+            nowPosition += fileChannel.write(byteBuffer, nowPosition);
+        }
+    }
+
+    private static String toEntryPath(Path basePath, Path file) {
+        final Path relative = basePath.relativize(file.toAbsolutePath().normalize());
+        final StringBuilder stringBuilder = new StringBuilder();
+        for (Path name : relative) {
+            if (stringBuilder.length() > 0) {
+                stringBuilder.append('/');
+            }
+            stringBuilder.append(name);
+        }
+        return stringBuilder.toString();
+    }
+}
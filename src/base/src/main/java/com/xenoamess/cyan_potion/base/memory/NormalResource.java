@@ -26,6 +26,7 @@ package com.xenoamess.cyan_potion.base.memory;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.xenoamess.cyan_potion.base.exceptions.URITypeNotDefinedException;
+import com.xenoamess.cyan_potion.base.profiler.FrameProfiler;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -39,6 +40,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 /**
@@ -73,7 +75,44 @@ public abstract class NormalResource implements AbstractResource {
     @EqualsAndHashCode.Exclude
     @Getter
     @Setter
-    private long lastUsedFrameIndex;
+    private volatile long lastUsedFrameIndex;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final AtomicInteger pinCount = new AtomicInteger();
+
+    /*
+     * residency links, guarded by the ResidencyManager.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    NormalResource residencyPrevious;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    NormalResource residencyNext;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    ResidencyPool residencyPool;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    long residencyCharge;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    long residencyFrameIndex;
+
+    /**
+     * pending ResourceStreamer request, guarded by the ResourceStreamer.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    ResourceStreamer.Request streamingRequest;
+
+    /**
+     * if evicted and not loaded again since; kept by ResourceTelemetry.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    volatile boolean evictedBefore;
 
     /**
      * get ScheduledExecutorService from gameManager
@@ -134,7 +173,76 @@ public abstract class NormalResource implements AbstractResource {
      */
     @Override
     public void bind(int sampler) {
-        this.load();
+        if (this.getResourceManager().isStreaming()) {
+            this.requestLoad(StreamingPriority.VISIBLE);
+        } else {
+            this.load();
+        }
+    }
+
+    /**
+     * <p>requestLoad.</p>
+     * start loading this resource without waiting for it, if it has a StreamingResourceLoader.
+     * if it has none, this is load().
+     *
+     * @param priority how soon it is wanted
+     * @return true if this resource is in memory now.
+     * @see ResourceStreamer
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public boolean requestLoad(StreamingPriority priority) {
+        if (this.isInMemory()) {
+            this.touch();
+            return true;
+        }
+        final StreamingResourceLoader<? extends NormalResource, ?> loader =
+                this.getResourceManager().getStreamingResourceLoader(
+                        this.getClass(),
+                        this.getResourceInfo().getType()
+                );
+        if (loader == null) {
+            return this.load();
+        }
+        this.getResourceManager().getResourceStreamer().request(this, loader, priority);
+        return false;
+    }
+
+    /**
+     * <p>finishStreamedLoad.</p>
+     * upload data decoded by a ResourceStreamer worker.
+     * if decoding or uploading failed, load it blocking instead.
+     * shall only be invoked by the main thread.
+     *
+     * @param loader  loader
+     * @param decoded decoded data, or null if decoding failed.
+     * @return if loaded.
+     */
+    protected synchronized boolean finishStreamedLoad(StreamingResourceLoader<NormalResource, Object> loader,
+                                                      Object decoded) {
+        if (this.isInMemory()) {
+            //loaded blocking meanwhile.
+            if (decoded != null) {
+                loader.discard(decoded);
+            }
+            this.touch();
+            return true;
+        }
+        if (decoded == null) {
+            return this.load();
+        }
+        this.setLastUsedFrameIndex(this.getResourceManager().getGameManager().getNowFrameIndex());
+        final FrameProfiler frameProfiler = this.getResourceManager().getGameManager().getFrameProfiler();
+        final ResourceTelemetry resourceTelemetry = this.getResourceManager().getResourceTelemetry();
+        final long loadBeginNanos = frameProfiler.begin();
+        final long uploadBeginNanos = resourceTelemetry.beginMeasure();
+        final boolean loaded = loader.upload(this, decoded);
+        resourceTelemetry.endMeasure(this, ResourceLoadPhase.UPLOAD, uploadBeginNanos);
+        frameProfiler.end(FrameProfiler.SCOPE_RESOURCE_LOAD, loadBeginNanos);
+        if (!loaded) {
+            return this.load();
+        }
+        this.afterLoaded();
+        return true;
     }
 
     /**
@@ -184,11 +292,62 @@ public abstract class NormalResource implements AbstractResource {
             }
         } else {
             result = true;
+            this.touch();
         }
         this.destroyLoadTask();
         return result;
     }
 
+    /**
+     * <p>touch.</p>
+     * mark this resource as used in this frame.
+     * it costs a field write, so it is fine to call for every use.
+     */
+    public void touch() {
+        this.setLastUsedFrameIndex(this.getResourceManager().getGameManager().getNowFrameIndex());
+    }
+
+    /**
+     * <p>getResidencyPool.</p>
+     * the memory this resource lives in. override it if it is not HEAP_CACHE.
+     *
+     * @return residency pool
+     */
+    public ResidencyPool getResidencyPool() {
+        return ResidencyPool.HEAP_CACHE;
+    }
+
+    /**
+     * <p>pin.</p>
+     * a pinned resource is never evicted by the ResidencyManager.
+     * pins are counted; each pin needs an unpin.
+     * it can still be closed explicitly.
+     */
+    public void pin() {
+        this.pinCount.incrementAndGet();
+    }
+
+    /**
+     * <p>unpin.</p>
+     *
+     * @see #pin()
+     */
+    public void unpin() {
+        if (this.pinCount.decrementAndGet() < 0) {
+            this.pinCount.incrementAndGet();
+            throw new IllegalStateException("unpin without pin : " + this);
+        }
+    }
+
+    /**
+     * <p>getPinCount.</p>
+     *
+     * @return num of pins not unpinned yet.
+     */
+    public int getPinCount() {
+        return this.pinCount.get();
+    }
+
     /**
      * load this Resource.
      * shall only be invoked by this.loadTask.
@@ -200,10 +359,23 @@ public abstract class NormalResource implements AbstractResource {
         if (this.isInMemory()) {
             return true;
         }
-        if (!this.forceLoad()) {
+        final FrameProfiler frameProfiler = this.getResourceManager().getGameManager().getFrameProfiler();
+        final ResourceTelemetry resourceTelemetry = this.getResourceManager().getResourceTelemetry();
+        final long loadBeginNanos = frameProfiler.begin();
+        final long telemetryBeginNanos = resourceTelemetry.beginMeasure();
+        final boolean loaded = this.forceLoad();
+        resourceTelemetry.endMeasure(this, ResourceLoadPhase.BLOCKING_LOAD, telemetryBeginNanos);
+        frameProfiler.end(FrameProfiler.SCOPE_RESOURCE_LOAD, loadBeginNanos);
+        if (!loaded) {
             return false;
         }
+        this.afterLoaded();
+        return true;
+    }
+
+    private void afterLoaded() {
         this.getResourceManager().load(this);
+        this.getResourceManager().getResourceTelemetry().recordLoad(this);
 
         LOGGER.debug("loadResource {}, time {}, memory {}",
                 this.getResourceInfo(), this.getLastUsedFrameIndex(),
@@ -212,8 +384,6 @@ public abstract class NormalResource implements AbstractResource {
             LOGGER.warn("this.memorySize shows 0 here. potential track error? : {}", this.resourceInfo);
         }
         this.setInMemory(true);
-
-        return true;
     }
 
     /**
@@ -0,0 +1,325 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * <p>ResidencyManager class.</p>
+ * keeps track of resources in memory, one list per ResidencyPool, and picks which ones to evict.
+ * <p>
+ * lists are intrusive (links live in NormalResource), most recently placed first.
+ * using a resource only writes its lastUsedFrameIndex, so touch costs O(1) and takes no lock;
+ * eviction looks at the tail and gives a second chance (a move back to the head)
+ * to resources used since they were placed, like CLOCK does.
+ * <p>
+ * a pool is over budget when its usage is larger than its budget.
+ * it is then evicted down to budget * lowWatermarkRatio, not just to budget,
+ * so that it does not evict a resource every frame and reload it the next.
+ * for the same reason resources used in the last minResidentFrames frames are never evicted
+ * (a pool too small for one frame's working set stays over budget instead),
+ * and neither are pinned resources.
+ * <p>
+ * charges are recorded when a resource is added, so a resource that resets its memorySize while closing
+ * is still uncharged by what it was charged.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see NormalResource#pin()
+ */
+@ToString
+public class ResidencyManager {
+    /**
+     * default of lowWatermarkRatio.
+     */
+    public static final float DEFAULT_LOW_WATERMARK_RATIO = 0.8F;
+
+    /**
+     * default of minResidentFrames.
+     */
+    public static final long DEFAULT_MIN_RESIDENT_FRAMES = 60;
+
+    private static final int POOL_NUM = ResidencyPool.values().length;
+
+    private final long[] budgets = new long[POOL_NUM];
+    private final long[] usages = new long[POOL_NUM];
+    private final int[] residentNums = new int[POOL_NUM];
+    @ToString.Exclude
+    private final NormalResource[] heads = new NormalResource[POOL_NUM];
+    @ToString.Exclude
+    private final NormalResource[] tails = new NormalResource[POOL_NUM];
+
+    /**
+     * an over budget pool is evicted down to budget * lowWatermarkRatio.
+     */
+    @Getter
+    @Setter
+    private volatile float lowWatermarkRatio = DEFAULT_LOW_WATERMARK_RATIO;
+
+    /**
+     * resources used in the last minResidentFrames frames are never evicted.
+     */
+    @Getter
+    @Setter
+    private volatile long minResidentFrames = DEFAULT_MIN_RESIDENT_FRAMES;
+
+    /**
+     * <p>Constructor for ResidencyManager.</p>
+     * budgets are the pools' default budgets.
+     */
+    public ResidencyManager() {
+        for (ResidencyPool pool : ResidencyPool.values()) {
+            this.budgets[pool.ordinal()] = pool.getDefaultBudgetMB() * 1024L * 1024L;
+        }
+    }
+
+    /**
+     * <p>getBudget.</p>
+     *
+     * @param pool pool
+     * @return budget of the pool in bytes. &lt;= 0 means no limit.
+     */
+    public synchronized long getBudget(ResidencyPool pool) {
+        return this.budgets[pool.ordinal()];
+    }
+
+    /**
+     * <p>setBudget.</p>
+     *
+     * @param pool   pool
+     * @param budget budget of the pool in bytes. &lt;= 0 means no limit.
+     */
+    public synchronized void setBudget(ResidencyPool pool, long budget) {
+        this.budgets[pool.ordinal()] = budget;
+    }
+
+    /**
+     * <p>getUsage.</p>
+     *
+     * @param pool pool
+     * @return bytes charged to the pool.
+     */
+    public synchronized long getUsage(ResidencyPool pool) {
+        return this.usages[pool.ordinal()];
+    }
+
+    /**
+     * <p>getTotalUsage.</p>
+     *
+     * @return bytes charged to all pools.
+     */
+    public synchronized long getTotalUsage() {
+        long res = 0;
+        for (long usage : this.usages) {
+            res += usage;
+        }
+        return res;
+    }
+
+    /**
+     * <p>getResidentNum.</p>
+     *
+     * @param pool pool
+     * @return num of resources in the pool.
+     */
+    public synchronized int getResidentNum(ResidencyPool pool) {
+        return this.residentNums[pool.ordinal()];
+    }
+
+    /**
+     * <p>getResidentResources.</p>
+     *
+     * @return a new list of every resource in every pool.
+     */
+    public synchronized List<NormalResource> getResidentResources() {
+        final List<NormalResource> res = new ArrayList<>();
+        for (NormalResource head : this.heads) {
+            for (NormalResource resource = head; resource != null; resource = resource.residencyNext) {
+                res.add(resource);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * <p>forEachResident.</p>
+     * visit every resource in every pool with what it is charged, while holding the lock.
+     *
+     * @param consumer consumer of resource and its charge in bytes; shall not call back into this.
+     */
+    public synchronized void forEachResident(ObjLongConsumer<NormalResource> consumer) {
+        for (NormalResource head : this.heads) {
+            for (NormalResource resource = head; resource != null; resource = resource.residencyNext) {
+                consumer.accept(resource, resource.residencyCharge);
+            }
+        }
+    }
+
+    /**
+     * <p>add.</p>
+     * put the resource at the head of its pool, charged by its memorySize.
+     * do nothing if it is already in.
+     *
+     * @param resource resource
+     */
+    public synchronized void add(NormalResource resource) {
+        if (resource.residencyPool != null) {
+            return;
+        }
+        final ResidencyPool pool = resource.getResidencyPool();
+        resource.residencyPool = pool;
+        resource.residencyCharge = resource.getMemorySize();
+        this.usages[pool.ordinal()] += resource.residencyCharge;
+        this.residentNums[pool.ordinal()]++;
+        this.linkAtHead(resource);
+    }
+
+    /**
+     * <p>remove.</p>
+     * remove the resource from its pool, and uncharge what it was charged.
+     * do nothing if it is not in.
+     *
+     * @param resource resource
+     */
+    public synchronized void remove(NormalResource resource) {
+        final ResidencyPool pool = resource.residencyPool;
+        if (pool == null) {
+            return;
+        }
+        this.unlink(resource);
+        this.usages[pool.ordinal()] -= resource.residencyCharge;
+        this.residentNums[pool.ordinal()]--;
+        resource.residencyCharge = 0;
+        resource.residencyPool = null;
+    }
+
+    /**
+     * <p>recharge.</p>
+     * charge the resource by its memorySize now, for resources whose size changes while in memory.
+     * do nothing if it is not in.
+     *
+     * @param resource resource
+     */
+    public synchronized void recharge(NormalResource resource) {
+        final ResidencyPool pool = resource.residencyPool;
+        if (pool == null) {
+            return;
+        }
+        this.usages[pool.ordinal()] += resource.getMemorySize() - resource.residencyCharge;
+        resource.residencyCharge = resource.getMemorySize();
+    }
+
+    /**
+     * <p>isOverBudget.</p>
+     *
+     * @return if any pool is over budget.
+     */
+    public synchronized boolean isOverBudget() {
+        for (int i = 0; i < POOL_NUM; i++) {
+            if (this.budgets[i] > 0 && this.usages[i] > this.budgets[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>collectEvictions.</p>
+     * pick resources to evict from pools over budget, and remove them from their pools.
+     * the caller closes them; that is not done here, so that no resource lock is taken under this one.
+     *
+     * @param nowFrameIndex now frame index
+     * @param force         if true, evict every pool down to its low watermark, even if not over budget.
+     * @return resources removed, least recently used first.
+     */
+    public synchronized List<NormalResource> collectEvictions(long nowFrameIndex, boolean force) {
+        List<NormalResource> res = null;
+        for (ResidencyPool pool : ResidencyPool.values()) {
+            final int poolIndex = pool.ordinal();
+            final long budget = this.budgets[poolIndex];
+            if (budget <= 0 || (!force && this.usages[poolIndex] <= budget)) {
+                continue;
+            }
+            final long target = (long) (budget * this.getLowWatermarkRatio());
+            int toVisit = this.residentNums[poolIndex];
+            NormalResource resource = this.tails[poolIndex];
+            while (this.usages[poolIndex] > target && resource != null && toVisit-- > 0) {
+                final NormalResource previous = resource.residencyPrevious;
+                final long lastUsedFrameIndex = resource.getLastUsedFrameIndex();
+                if (resource.getPinCount() > 0 || lastUsedFrameIndex > resource.residencyFrameIndex) {
+                    //second chance.
+                    this.unlink(resource);
+                    this.linkAtHead(resource);
+                } else if (nowFrameIndex - lastUsedFrameIndex < this.getMinResidentFrames()) {
+                    //the tail is in use, so is the rest.
+                    break;
+                } else {
+                    if (res == null) {
+                        res = new ArrayList<>();
+                    }
+                    res.add(resource);
+                    this.remove(resource);
+                }
+                resource = previous;
+            }
+        }
+        return res == null ? new ArrayList<>() : res;
+    }
+
+    private void linkAtHead(NormalResource resource) {
+        final int poolIndex = resource.residencyPool.ordinal();
+        resource.residencyFrameIndex = resource.getLastUsedFrameIndex();
+        resource.residencyPrevious = null;
+        resource.residencyNext = this.heads[poolIndex];
+        if (this.heads[poolIndex] != null) {
+            this.heads[poolIndex].residencyPrevious = resource;
+        } else {
+            this.tails[poolIndex] = resource;
+        }
+        this.heads[poolIndex] = resource;
+    }
+
+    private void unlink(NormalResource resource) {
+        final int poolIndex = resource.residencyPool.ordinal();
+        if (resource.residencyPrevious != null) {
+            resource.residencyPrevious.residencyNext = resource.residencyNext;
+        } else {
+            this.heads[poolIndex] = resource.residencyNext;
+        }
+        if (resource.residencyNext != null) {
+            resource.residencyNext.residencyPrevious = resource.residencyPrevious;
+        } else {
+            this.tails[poolIndex] = resource.residencyPrevious;
+        }
+        resource.residencyPrevious = null;
+        resource.residencyNext = null;
+    }
+}
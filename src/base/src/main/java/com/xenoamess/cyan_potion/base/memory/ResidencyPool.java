@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import lombok.Getter;
+
+/**
+ * <p>ResidencyPool class.</p>
+ * kinds of memory a resource can live in.
+ * each pool has its own budget in the ResidencyManager.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see ResidencyManager
+ */
+public enum ResidencyPool {
+    /**
+     * textures in video memory.
+     */
+    GPU_TEXTURE(1024),
+    /**
+     * OpenAL buffers.
+     */
+    AUDIO_BUFFER(256),
+    /**
+     * anything else kept on heap or in native memory.
+     */
+    HEAP_CACHE(256);
+
+    /**
+     * budget used when the setting file does not give one, in MB.
+     */
+    @Getter
+    private final int defaultBudgetMB;
+
+    ResidencyPool(int defaultBudgetMB) {
+        this.defaultBudgetMB = defaultBudgetMB;
+    }
+}
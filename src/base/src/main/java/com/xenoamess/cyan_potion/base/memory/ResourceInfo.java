@@ -37,7 +37,6 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.node.ArrayNode;
-import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.apache.commons.vfs2.FileObject;
 import org.jetbrains.annotations.NotNull;
@@ -47,7 +46,6 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static com.xenoamess.cyan_potion.base.DataCenter.getObjectMapper;
 
@@ -59,12 +57,12 @@ class ResourceInfoSerializer extends JsonSerializer<ResourceInfo> {
     @Override
     public void serialize(ResourceInfo value, JsonGenerator jsonGenerator, SerializerProvider provider)
             throws IOException {
-        Objects.requireNonNull(value.getValues());
+        Objects.requireNonNull(value.getValuesArray());
         jsonGenerator.writeStartArray();
         jsonGenerator.writeString(value.getResourceClass().getCanonicalName());
         jsonGenerator.writeString(value.getType());
         jsonGenerator.writeString(value.getFileString());
-        for (String string : value.getValues()) {
+        for (String string : value.getValuesArray()) {
             jsonGenerator.writeString(string);
         }
         jsonGenerator.writeEndArray();
@@ -134,7 +132,6 @@ class ResourceInfoDeserializer extends JsonDeserializer<ResourceInfo> {
  * @author XenoAmess
  * @version 0.162.3
  */
-@EqualsAndHashCode
 @JsonSerialize(using = ResourceInfoSerializer.class)
 @JsonDeserialize(using = ResourceInfoDeserializer.class)
 public final class ResourceInfo<T extends AbstractResource> {
@@ -142,8 +139,9 @@ public final class ResourceInfo<T extends AbstractResource> {
     private static final transient Logger LOGGER =
             LoggerFactory.getLogger(ResourceInfo.class);
 
-    private static final ConcurrentHashMap<String, ResourceInfo> STRING_TO_RESOURCE_INFO_MAP =
-            new ConcurrentHashMap<>();
+    private static final String[] EMPTY_VALUES = new String[0];
+
+    private static final ResourceInfoInternTable INTERN_TABLE = new ResourceInfoInternTable();
 
     @Getter
     private final Class<T> resourceClass;
@@ -154,14 +152,19 @@ public final class ResourceInfo<T extends AbstractResource> {
     @Getter
     private final String fileString;
 
-    @Getter
-    private final FileObject fileObject;
-
-    @Getter
     private final String[] values;
 
+    private final int hash;
 
-    private final String toString;
+    /**
+     * resolved on first use, for resolving is slow and most lookups never need it.
+     */
+    private volatile FileObject fileObject;
+
+    /**
+     * json form, computed on first use, for the same reason.
+     */
+    private volatile String toString;
 
     /**
      * <p>Constructor for ResourceInfo.</p>
@@ -169,47 +172,50 @@ public final class ResourceInfo<T extends AbstractResource> {
      * @param resourceClass    a {@link java.lang.Class} object.
      * @param type             a {@link java.lang.String} object.
      * @param fileObjectString a {@link java.lang.String} object.
-     * @param values           a {@link java.lang.String} object.
+     * @param values           a {@link java.lang.String} object, already copied.
+     * @param hash             hash of the fields
      */
     private ResourceInfo(Class<T> resourceClass,
                          String type,
                          String fileObjectString,
-                         String... values) {
+                         String[] values,
+                         int hash) {
         this.resourceClass = resourceClass;
         this.type = type;
         this.fileString = fileObjectString;
-        this.fileObject = ResourceManager.resolveFile(this.getFileString());
         this.values = values;
-
-        String toStringLocal = null;
-        try {
-            toStringLocal = getObjectMapper().writeValueAsString(this);
-        } catch (JsonProcessingException e) {
-            LOGGER.error("toString() fails, {},{}", this.getResourceClass(), this.getValues(), e);
-        }
-        this.toString = toStringLocal;
+        this.hash = hash;
     }
 
-
+    /**
+     * get the one ResourceInfo instance of these fields.
+     * if there is already one this allocates nothing.
+     *
+     * @param <T>              resource class
+     * @param resourceClass    a {@link java.lang.Class} object.
+     * @param type             a {@link java.lang.String} object.
+     * @param fileObjectString a {@link java.lang.String} object.
+     * @param values           a {@link java.lang.String} object.
+     * @return a {@link com.xenoamess.cyan_potion.base.memory.ResourceInfo} object.
+     */
+    @SuppressWarnings("unchecked")
     public static <T extends AbstractResource> ResourceInfo<T> of(
             Class<T> resourceClass,
             String type,
             String fileObjectString,
             String... values
     ) {
-        ResourceInfo<T> newResourceInfo = new ResourceInfo<T>(
-                resourceClass,
-                type,
-                fileObjectString,
-                values
-        );
-        ResourceInfo<T> res = STRING_TO_RESOURCE_INFO_MAP.get(newResourceInfo.toString);
+        final int hash = ResourceInfoInternTable.hash(resourceClass, type, fileObjectString, values);
+        ResourceInfo<T> res = (ResourceInfo<T>) INTERN_TABLE.get(hash, resourceClass, type, fileObjectString, values);
         if (res == null) {
-            STRING_TO_RESOURCE_INFO_MAP.put(newResourceInfo.toString, newResourceInfo);
-            return newResourceInfo;
-        } else {
-            return res;
+            //copied, so the caller can reuse its array.
+            final String[] valuesCopy = values == null || values.length == 0 ? EMPTY_VALUES :
+                    Arrays.copyOf(values, values.length);
+            res = (ResourceInfo<T>) INTERN_TABLE.putIfAbsent(
+                    new ResourceInfo<>(resourceClass, type, fileObjectString, valuesCopy, hash)
+            );
         }
+        return res;
     }
 
     public static <T extends AbstractResource> T fetchResource(
@@ -219,10 +225,51 @@ public final class ResourceInfo<T extends AbstractResource> {
             String fileObjectString,
             String... values
     ) {
-        return new ResourceInfo<T>(resourceClass, type, fileObjectString, values)
+        return of(resourceClass, type, fileObjectString, values)
                 .fetchResource(resourceManager);
     }
 
+    /**
+     * <p>Getter for the field <code>fileObject</code>.</p>
+     * resolved on first call.
+     *
+     * @return a {@link org.apache.commons.vfs2.FileObject} object.
+     */
+    public FileObject getFileObject() {
+        FileObject res = this.fileObject;
+        if (res == null) {
+            res = ResourceManager.resolveFile(this.getFileString());
+            this.fileObject = res;
+        }
+        return res;
+    }
+
+    /**
+     * whether this has these fields.
+     */
+    boolean fieldsEqual(Class<?> resourceClass, String type, String fileString, String[] values) {
+        return this.resourceClass == resourceClass
+                && Objects.equals(this.type, type)
+                && Objects.equals(this.fileString, fileString)
+                && ResourceInfoInternTable.valuesEqual(this.values, values);
+    }
+
+    /**
+     * values without copying; never modify it.
+     */
+    String[] getValuesArray() {
+        return this.values;
+    }
+
+    /**
+     * <p>internedNum.</p>
+     *
+     * @return num of ResourceInfo instances interned.
+     */
+    public static int internedNum() {
+        return INTERN_TABLE.size();
+    }
+
     /**
      * shortcut of resourceManager.fetchResource(this);
      *
@@ -256,7 +303,16 @@ public final class ResourceInfo<T extends AbstractResource> {
      */
     @Override
     public String toString() {
-        return toString;
+        String res = this.toString;
+        if (res == null) {
+            try {
+                res = getObjectMapper().writeValueAsString(this);
+            } catch (JsonProcessingException e) {
+                LOGGER.error("toString() fails, {},{}", this.getResourceClass(), this.getValues(), e);
+            }
+            this.toString = res;
+        }
+        return res;
     }
 
     /**
@@ -273,7 +329,9 @@ public final class ResourceInfo<T extends AbstractResource> {
         if (!(obj instanceof ResourceInfo)) {
             return false;
         }
-        return toString.equals(obj.toString());
+        final ResourceInfo<?> other = (ResourceInfo<?>) obj;
+        return this.hash == other.hash
+                && this.fieldsEqual(other.resourceClass, other.type, other.fileString, other.values);
     }
 
     /**
@@ -281,13 +339,13 @@ public final class ResourceInfo<T extends AbstractResource> {
      */
     @Override
     public int hashCode() {
-        return this.toString().hashCode();
+        return this.hash;
     }
 
     /**
-     * <p>Getter for the field <code>fileObject</code>.</p>
+     * <p>Getter for the field <code>values</code>.</p>
      *
-     * @return a {@link org.apache.commons.vfs2.FileObject} object.
+     * @return a copy of values.
      */
     public @NotNull String[] getValues() {
         return Arrays.copyOf(values, values.length);
@@ -0,0 +1,164 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>ResourceInfoInternTable class.</p>
+ * the one instance of every ResourceInfo, keyed on (resourceClass, type, fileString, values).
+ * <p>
+ * get is probed with the fields themselves, without building a ResourceInfo,
+ * and without locking: buckets are chains of immutable nodes, and a resize publishes a whole new table.
+ * only inserting locks.
+ * entries are never removed, same as the string keyed map this replaced.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+final class ResourceInfoInternTable {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final class Node {
+        private final int hash;
+        private final ResourceInfo<?> resourceInfo;
+        private final Node next;
+
+        private Node(int hash, ResourceInfo<?> resourceInfo, Node next) {
+            this.hash = hash;
+            this.resourceInfo = resourceInfo;
+            this.next = next;
+        }
+    }
+
+    private volatile AtomicReferenceArray<Node> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+    private int size;
+
+    /**
+     * <p>hash.</p>
+     * the hash of a ResourceInfo of these fields, computed without allocation.
+     *
+     * @param resourceClass resourceClass
+     * @param type          type
+     * @param fileString    fileString
+     * @param values        values
+     * @return hash
+     */
+    static int hash(Class<?> resourceClass, String type, String fileString, String[] values) {
+        int res = Objects.hashCode(resourceClass);
+        res = res * 31 + Objects.hashCode(type);
+        res = res * 31 + Objects.hashCode(fileString);
+        if (values != null) {
+            for (String value : values) {
+                res = res * 31 + Objects.hashCode(value);
+            }
+        }
+        return res;
+    }
+
+    private static int indexOf(int hash, int length) {
+        return (hash ^ (hash >>> 16)) & (length - 1);
+    }
+
+    /**
+     * <p>get.</p>
+     *
+     * @param hash          hash of the fields
+     * @param resourceClass resourceClass
+     * @param type          type
+     * @param fileString    fileString
+     * @param values        values
+     * @return the interned ResourceInfo of these fields, or null if none yet.
+     */
+    ResourceInfo<?> get(int hash, Class<?> resourceClass, String type, String fileString, String[] values) {
+        final AtomicReferenceArray<Node> nowTable = this.table;
+        for (Node node = nowTable.get(indexOf(hash, nowTable.length())); node != null; node = node.next) {
+            if (node.hash == hash && node.resourceInfo.fieldsEqual(resourceClass, type, fileString, values)) {
+                return node.resourceInfo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>putIfAbsent.</p>
+     *
+     * @param resourceInfo resourceInfo
+     * @return the interned ResourceInfo equal to resourceInfo, which is resourceInfo itself if none was there.
+     */
+    synchronized ResourceInfo<?> putIfAbsent(ResourceInfo<?> resourceInfo) {
+        final int hash = resourceInfo.hashCode();
+        final ResourceInfo<?> old = this.get(hash, resourceInfo.getResourceClass(), resourceInfo.getType(),
+                resourceInfo.getFileString(), resourceInfo.getValuesArray());
+        if (old != null) {
+            return old;
+        }
+        AtomicReferenceArray<Node> nowTable = this.table;
+        if (this.size + 1 > nowTable.length() / 4 * 3) {
+            nowTable = this.resize(nowTable);
+        }
+        final int index = indexOf(hash, nowTable.length());
+        nowTable.set(index, new Node(hash, resourceInfo, nowTable.get(index)));
+        this.size++;
+        return resourceInfo;
+    }
+
+    private AtomicReferenceArray<Node> resize(AtomicReferenceArray<Node> oldTable) {
+        final AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(oldTable.length() * 2);
+        for (int i = 0; i < oldTable.length(); i++) {
+            for (Node node = oldTable.get(i); node != null; node = node.next) {
+                final int index = indexOf(node.hash, newTable.length());
+                newTable.set(index, new Node(node.hash, node.resourceInfo, newTable.get(index)));
+            }
+        }
+        this.table = newTable;
+        return newTable;
+    }
+
+    /**
+     * <p>size.</p>
+     *
+     * @return num of interned ResourceInfos.
+     */
+    synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * <p>valuesEqual.</p>
+     *
+     * @param a a
+     * @param b b
+     * @return true if equal; null and empty are the same.
+     */
+    static boolean valuesEqual(String[] a, String[] b) {
+        final int aLength = a == null ? 0 : a.length;
+        final int bLength = b == null ? 0 : b.length;
+        return aLength == bLength && (aLength == 0 || Arrays.equals(a, b));
+    }
+}
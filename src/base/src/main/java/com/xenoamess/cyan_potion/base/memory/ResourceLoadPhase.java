@@ -0,0 +1,52 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+/**
+ * <p>ResourceLoadPhase class.</p>
+ * parts of loading a resource that ResourceTelemetry times apart.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see ResourceTelemetry
+ */
+public enum ResourceLoadPhase {
+    /**
+     * reading the file, for loaders that report it by ResourceTelemetry.recordIo.
+     */
+    IO,
+    /**
+     * decoding on a streaming worker, besides its IO.
+     */
+    DECODE,
+    /**
+     * uploading streamed data on the main thread.
+     */
+    UPLOAD,
+    /**
+     * a blocking load besides its IO; decoding and uploading together.
+     */
+    BLOCKING_LOAD
+}
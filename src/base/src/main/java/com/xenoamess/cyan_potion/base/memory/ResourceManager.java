@@ -28,11 +28,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.xenoamess.cyan_potion.base.DataCenter;
 import com.xenoamess.cyan_potion.base.GameManager;
 import com.xenoamess.cyan_potion.base.SubManager;
+import com.xenoamess.cyan_potion.base.io.asset_archive.AssetArchiveFileProvider;
+import com.xenoamess.cyan_potion.base.io.asset_archive.AssetArchiveFileSystem;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
+import com.xenoamess.cyan_potion.base.setting_file.GameSettings;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.commons.vfs2.FileSystemException;
 import org.apache.commons.vfs2.impl.StandardFileSystemManager;
@@ -47,14 +52,14 @@ import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-import static org.lwjgl.opengl.GL11.glGetIntegerv;
-
 /**
  * ResourceManager
  * manager of resources.
@@ -81,14 +86,23 @@ public class ResourceManager extends SubManager {
         try {
             fileSystemManager.init();
             fileSystemManager.setBaseFile(new File(System.getProperty("user.dir")));
+            fileSystemManager.addProvider(AssetArchiveFileProvider.SCHEME, new AssetArchiveFileProvider());
+            fileSystemManager.addExtensionMap(AssetArchiveFileProvider.SCHEME, AssetArchiveFileProvider.SCHEME);
         } catch (FileSystemException e) {
             LOGGER.error("cannot init ResourceManager.fileSystemManager", e);
         }
         return fileSystemManager;
     }
 
+    /**
+     * roots of mounted asset archives, latest mounted first.
+     */
+    private static final List<FileObject> MOUNTED_ASSET_ARCHIVE_ROOTS = new CopyOnWriteArrayList<>();
+
     /**
      * get FileObject from a url string.
+     * a relative path packed in a mounted asset archive is resolved into the archive,
+     * so the loose file is not touched.
      *
      * @param fileString string to the file.
      * @return a {@link org.apache.commons.vfs2.FileObject} object.
@@ -96,13 +110,68 @@ public class ResourceManager extends SubManager {
     public static FileObject resolveFile(String fileString) {
         FileObject result = null;
         try {
-            result = getFILE_SYSTEM_MANAGER().resolveFile(fileString);
+            if (!MOUNTED_ASSET_ARCHIVE_ROOTS.isEmpty()) {
+                result = resolveFileInAssetArchives(fileString);
+            }
+            if (result == null) {
+                result = getFILE_SYSTEM_MANAGER().resolveFile(fileString);
+            }
         } catch (FileSystemException e) {
             LOGGER.error("resolveFile(String fileString) fails: {}", fileString, e);
         }
         return result;
     }
 
+    private static FileObject resolveFileInAssetArchives(String fileString) throws FileSystemException {
+        //only relative paths; anything with a scheme or absolute is left to the file system manager.
+        if (fileString.isEmpty() || fileString.indexOf(':') >= 0
+                || fileString.charAt(0) == '/' || fileString.charAt(0) == '\\') {
+            return null;
+        }
+        String path = fileString.replace('\\', '/');
+        while (path.startsWith("./")) {
+            path = path.substring(2);
+        }
+        for (FileObject root : MOUNTED_ASSET_ARCHIVE_ROOTS) {
+            if (((AssetArchiveFileSystem) root.getFileSystem()).getArchive().indexOf(path) >= 0) {
+                return root.resolveFile(path);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * <p>mountAssetArchive.</p>
+     * from now on, relative paths packed in this archive are read from it.
+     * archives mounted later are searched first.
+     *
+     * @param archiveFileString string to the archive file.
+     * @return root of the archive
+     * @throws FileSystemException if it is not an asset archive.
+     * @see com.xenoamess.cyan_potion.base.io.asset_archive.AssetArchivePacker
+     */
+    public static FileObject mountAssetArchive(String archiveFileString) throws FileSystemException {
+        final FileObject archiveFile = getFILE_SYSTEM_MANAGER().resolveFile(archiveFileString);
+        final FileObject root = getFILE_SYSTEM_MANAGER().resolveFile(
+                AssetArchiveFileProvider.SCHEME + ":" + archiveFile.getName().getURI() + "!/");
+        //opens it now, so a broken archive fails here instead of on first read.
+        ((AssetArchiveFileSystem) root.getFileSystem()).getArchive();
+        MOUNTED_ASSET_ARCHIVE_ROOTS.add(0, root);
+        LOGGER.info("mounted asset archive {}", archiveFile.getName().getURI());
+        return root;
+    }
+
+    /**
+     * <p>unmountAssetArchives.</p>
+     * unmount every asset archive.
+     */
+    public static void unmountAssetArchives() {
+        for (FileObject root : MOUNTED_ASSET_ARCHIVE_ROOTS) {
+            getFILE_SYSTEM_MANAGER().closeFileSystem(root.getFileSystem());
+        }
+        MOUNTED_ASSET_ARCHIVE_ROOTS.clear();
+    }
+
     /**
      * load the file
      * and get its content as string
@@ -144,9 +213,8 @@ public class ResourceManager extends SubManager {
     public long getMaxTextureSize() {
         if (maxTextureSize == 0) {
             if (DataCenter.ifMainThread()) {
-                int[] maxTextureSizeArray = new int[1];
-                glGetIntegerv(GL11.GL_MAX_TEXTURE_SIZE, maxTextureSizeArray);
-                maxTextureSize = 1L * maxTextureSizeArray[0] * maxTextureSizeArray[0];
+                final int maxTextureSideLength = RenderBackends.getCurrent().getInteger(GL11.GL_MAX_TEXTURE_SIZE);
+                maxTextureSize = 1L * maxTextureSideLength * maxTextureSideLength;
                 return maxTextureSize;
             } else {
                 return Long.MAX_VALUE;
@@ -155,35 +223,53 @@ public class ResourceManager extends SubManager {
         return maxTextureSize;
     }
 
+    @Getter
+    private final GameManager gameManager;
+
     /**
-     * Constant <code>TOTAL_MEMORY_SIZE_LIMIT_POINT=8L * 1024 * 1024 * 1024</code>
+     * resources in memory, and their budgets.
      */
-    public static final long TOTAL_MEMORY_SIZE_LIMIT_POINT =
-            8L * 1024 * 1024 * 1024;
+    @ToString.Exclude
+    @Getter
+    private final ResidencyManager residencyManager = new ResidencyManager();
+
+    @Getter
+    private final ConcurrentHashMap<Class<? extends AbstractResource>, ConcurrentHashMap<ResourceInfo<?
+            extends AbstractResource>, ? extends AbstractResource>> defaultResourcesURIMap = new ConcurrentHashMap<>();
+
+    @Getter
+    private final ConcurrentHashMap<Class<? extends AbstractResource>, ConcurrentHashMap<String,
+            StreamingResourceLoader<?, ?>>> streamingResourceLoaderMap = new ConcurrentHashMap<>();
+
     /**
-     * Constant <code>TOTAL_MEMORY_SIZE_START_POINT=6L * 1024 * 1024 * 1024</code>
+     * per class and per type counters and load latencies.
      */
-    public static final long TOTAL_MEMORY_SIZE_START_POINT =
-            6L * 1024 * 1024 * 1024;
+    @ToString.Exclude
+    @Getter
+    private final ResourceTelemetry resourceTelemetry = new ResourceTelemetry(this.residencyManager);
+
     /**
-     * Constant <code>TOTAL_MEMORY_SIZE_DIST_POINT=2L * 1024 * 1024 * 1024</code>
+     * loads resources without blocking, if streaming.
      */
-    public static final long TOTAL_MEMORY_SIZE_DIST_POINT =
-            2L * 1024 * 1024 * 1024;
-
+    @ToString.Exclude
     @Getter
-    private final GameManager gameManager;
+    private volatile ResourceStreamer resourceStreamer =
+            new ResourceStreamer(ResourceStreamer.DEFAULT_WORKER_NUM, this.resourceTelemetry);
 
+    /**
+     * if true then bind() requests resources from the resourceStreamer instead of loading them blocking.
+     */
     @Getter
     @Setter
-    private long totalMemorySize = 0;
-
-    @Getter
-    private final ArrayList<AbstractResource> inMemoryResources = new ArrayList<>();
+    private volatile boolean streaming;
 
+    /**
+     * time of uploading streamed resources per frame.
+     */
     @Getter
-    private final ConcurrentHashMap<Class<? extends AbstractResource>, ConcurrentHashMap<ResourceInfo<?
-            extends AbstractResource>, ? extends AbstractResource>> defaultResourcesURIMap = new ConcurrentHashMap<>();
+    @Setter
+    private long streamingUploadBudgetNanos =
+            TimeUnit.MILLISECONDS.toNanos(ResourceStreamer.DEFAULT_UPLOAD_BUDGET_MILLIS);
 
     @Getter
     private final ConcurrentHashMap<Class<? extends AbstractResource>, ConcurrentHashMap<String, Predicate<?
@@ -299,6 +385,57 @@ public class ResourceManager extends SubManager {
         return resourceLoaderMap.get(resourceType);
     }
 
+    /**
+     * <p>putStreamingResourceLoader.</p>
+     * resources of this class and type can then be loaded without blocking.
+     * the ordinary loader is still needed, as fallback and for load().
+     *
+     * @param <T>          resource class
+     * @param tClass       resource class
+     * @param resourceType resourceType
+     * @param loader       loader
+     * @see ResourceStreamer
+     */
+    public <T extends NormalResource> void putStreamingResourceLoader(
+            Class<T> tClass,
+            String resourceType,
+            StreamingResourceLoader<T, ?> loader
+    ) {
+        streamingResourceLoaderMap.computeIfAbsent(tClass, aClass -> new ConcurrentHashMap<>(8))
+                .put(resourceType, loader);
+    }
+
+    /**
+     * <p>getStreamingResourceLoader.</p>
+     *
+     * @param tClass       resource class
+     * @param resourceType resourceType
+     * @return loader, or null if this class and type cannot be streamed.
+     */
+    public StreamingResourceLoader<? extends NormalResource, ?> getStreamingResourceLoader(
+            Class<? extends NormalResource> tClass,
+            String resourceType
+    ) {
+        final ConcurrentHashMap<String, StreamingResourceLoader<?, ?>> resourceLoaderMap =
+                streamingResourceLoaderMap.get(tClass);
+        if (resourceLoaderMap == null) {
+            return null;
+        }
+        return (StreamingResourceLoader<? extends NormalResource, ?>) resourceLoaderMap.get(resourceType);
+    }
+
+    /**
+     * <p>uploadStreamedResources.</p>
+     * upload resources the resourceStreamer decoded, within streamingUploadBudgetNanos.
+     * called by the main thread once a frame, before drawing.
+     */
+    public void uploadStreamedResources() {
+        if (!this.isStreaming()) {
+            return;
+        }
+        this.getResourceStreamer().uploadReady(this.getStreamingUploadBudgetNanos());
+    }
+
     /**
      * <p>putResourceWithShortenURI.</p>
      *
@@ -416,10 +553,10 @@ public class ResourceManager extends SubManager {
      */
     public <T extends AbstractResource> T fetchResource(Class<T> tClass, ResourceInfo<T> resourceInfo) {
         assert (tClass == resourceInfo.getResourceClass());
-        T res = null;
-        if (this.ifExistResource(resourceInfo)) {
-            res = this.getResource(tClass, resourceInfo);
-        } else {
+        //one map lookup; a resource is never put as null.
+        T res = this.getResource(tClass, resourceInfo);
+        this.getResourceTelemetry().recordFetch(tClass, resourceInfo.getType(), res != null && res.isInMemory());
+        if (res == null) {
             try {
                 res = tClass.getDeclaredConstructor(ResourceManager.class,
                         resourceInfo.getClass()).newInstance(this,
@@ -479,7 +616,9 @@ public class ResourceManager extends SubManager {
      */
     @Override
     public void close() {
+        this.getResourceStreamer().close();
         closeMap(defaultResourcesURIMap);
+        unmountAssetArchives();
     }
 
     /**
@@ -520,7 +659,40 @@ public class ResourceManager extends SubManager {
      */
     @Override
     public void init() {
-        //do nothing
+        final GameSettings gameSettings = this.getGameManager().getDataCenter().getGameSettings();
+        if (gameSettings != null) {
+            this.getResidencyManager().setBudget(ResidencyPool.GPU_TEXTURE,
+                    gameSettings.getGpuTextureBudgetMB() * 1024L * 1024L);
+            this.getResidencyManager().setBudget(ResidencyPool.AUDIO_BUFFER,
+                    gameSettings.getAudioBufferBudgetMB() * 1024L * 1024L);
+            this.getResidencyManager().setBudget(ResidencyPool.HEAP_CACHE,
+                    gameSettings.getHeapCacheBudgetMB() * 1024L * 1024L);
+            this.setStreaming(gameSettings.isStreamingResources());
+            this.setStreamingUploadBudgetNanos(
+                    TimeUnit.MILLISECONDS.toNanos(gameSettings.getStreamingUploadBudgetMillis()));
+            if (gameSettings.getStreamingWorkerNum() != this.getResourceStreamer().getWorkerNum()) {
+                final ResourceStreamer oldResourceStreamer = this.getResourceStreamer();
+                this.resourceStreamer = new ResourceStreamer(gameSettings.getStreamingWorkerNum(), this.resourceTelemetry);
+                oldResourceStreamer.close();
+            }
+            this.mountAssetArchives(gameSettings.getAssetArchives());
+        }
+    }
+
+    private void mountAssetArchives(String assetArchives) {
+        if (StringUtils.isBlank(assetArchives)) {
+            return;
+        }
+        for (String assetArchive : assetArchives.split(",")) {
+            if (StringUtils.isBlank(assetArchive)) {
+                continue;
+            }
+            try {
+                mountAssetArchive(assetArchive.trim());
+            } catch (FileSystemException e) {
+                LOGGER.error("cannot mount asset archive {}, will read loose files instead", assetArchive, e);
+            }
+        }
     }
 
     /**
@@ -532,6 +704,24 @@ public class ResourceManager extends SubManager {
         //do nothing
     }
 
+    /**
+     * <p>getTotalMemorySize.</p>
+     *
+     * @return bytes charged to all residency pools.
+     */
+    public long getTotalMemorySize() {
+        return this.getResidencyManager().getTotalUsage();
+    }
+
+    /**
+     * <p>getInMemoryResources.</p>
+     *
+     * @return a new list of resources in memory.
+     */
+    public ArrayList<AbstractResource> getInMemoryResources() {
+        return new ArrayList<>(this.getResidencyManager().getResidentResources());
+    }
+
     /**
      * <p>load.</p>
      *
@@ -541,8 +731,7 @@ public class ResourceManager extends SubManager {
         if (resource.isInMemory()) {
             return;
         }
-        setTotalMemorySize(getTotalMemorySize() + resource.getMemorySize());
-        getInMemoryResources().add(resource);
+        this.getResidencyManager().add(resource);
         resource.setInMemory(true);
     }
 
@@ -555,55 +744,54 @@ public class ResourceManager extends SubManager {
         if (!resource.isInMemory()) {
             return;
         }
-        setTotalMemorySize(getTotalMemorySize() - resource.getMemorySize());
+        this.getResidencyManager().remove(resource);
         resource.setInMemory(false);
     }
 
+    /**
+     * <p>updateMemorySize.</p>
+     * tell that an in memory resource's memorySize changed.
+     *
+     * @param resource resource
+     */
+    public void updateMemorySize(NormalResource resource) {
+        this.getResidencyManager().recharge(resource);
+    }
 
     /**
      * <p>suggestGc.</p>
+     * evict resources from residency pools over budget.
+     * cheap if no pool is over budget, so it can run every frame.
+     *
+     * @see ResidencyManager
      */
     public void suggestGc() {
         if (this.getGameManager().getNowFrameIndex() % 1000 == 0) {
             LOGGER.debug("suggestGc at totalMemorySize : {}", this.getTotalMemorySize());
         }
-        if (this.getTotalMemorySize() <= TOTAL_MEMORY_SIZE_START_POINT) {
+        if (!this.getResidencyManager().isOverBudget()) {
             return;
         }
 
         LOGGER.debug("apply gc");
-        this.forceGc();
-        LOGGER.debug("after forceGc totalMemorySize changed to : {}", this.getTotalMemorySize());
+        this.evict(false);
+        LOGGER.debug("after gc totalMemorySize changed to : {}", this.getTotalMemorySize());
     }
 
     /**
      * <p>forceGc.</p>
+     * evict every residency pool down to its low watermark, over budget or not.
+     * pinned and recently used resources are still kept.
      */
     public void forceGc() {
-        getInMemoryResources().sort(Comparator.comparingLong(AbstractResource::getLastUsedFrameIndex));
-        ArrayList<AbstractResource> newInMemoryResources = new ArrayList<>();
-        for (AbstractResource nowResource : getInMemoryResources()) {
-            if (nowResource.isInMemory()) {
-                if (this.getTotalMemorySize() <= TOTAL_MEMORY_SIZE_DIST_POINT) {
-                    newInMemoryResources.add(nowResource);
-                    continue;
-                }
-                if (this.getTotalMemorySize() <= TOTAL_MEMORY_SIZE_LIMIT_POINT) {
-                    if (this.getGameManager().getNowFrameIndex() - nowResource.getLastUsedFrameIndex() < 3000) {
-                        newInMemoryResources.add(nowResource);
-                    } else {
-                        nowResource.close();
-                    }
-                    continue;
-                }
-                if (this.getGameManager().getNowFrameIndex() - nowResource.getLastUsedFrameIndex() < 50) {
-                    newInMemoryResources.add(nowResource);
-                } else {
-                    nowResource.close();
-                }
-            }
+        this.evict(true);
+    }
+
+    private void evict(boolean force) {
+        for (NormalResource resource : this.getResidencyManager().collectEvictions(
+                this.getGameManager().getNowFrameIndex(), force)) {
+            this.getResourceTelemetry().recordEviction(resource);
+            resource.close();
         }
-        this.getInMemoryResources().clear();
-        this.getInMemoryResources().addAll(newInMemoryResources);
     }
 }
@@ -0,0 +1,335 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * <p>ResourceStreamer class.</p>
+ * loads resources without blocking who asks for them.
+ * <p>
+ * a request is decoded by a worker thread, taken from a queue ordered by StreamingPriority,
+ * then waits in a second queue until the main thread uploads it,
+ * within a time budget each frame, so that a burst of new resources is spread over several frames.
+ * a resource has at most one request; asking again with a higher priority moves it forward.
+ * if decoding fails, the upload step falls back to the resource's ordinary blocking load.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see StreamingResourceLoader
+ * @see NormalResource#requestLoad(StreamingPriority)
+ */
+@ToString
+public class ResourceStreamer implements Closeable {
+    @JsonIgnore
+    private static final transient Logger LOGGER =
+            LoggerFactory.getLogger(ResourceStreamer.class);
+
+    /**
+     * default num of decoding worker threads.
+     */
+    public static final int DEFAULT_WORKER_NUM = 2;
+
+    /**
+     * default time of uploading per frame, in milliseconds.
+     */
+    public static final int DEFAULT_UPLOAD_BUDGET_MILLIS = 2;
+
+    private static final int STATE_QUEUED = 0;
+    private static final int STATE_DECODING = 1;
+    private static final int STATE_DECODED = 2;
+
+    /**
+     * a resource waiting to be streamed.
+     * fields other than decoded are guarded by the streamer.
+     */
+    static final class Request implements Comparable<Request> {
+        private final NormalResource resource;
+        private final StreamingResourceLoader<NormalResource, Object> loader;
+        private StreamingPriority priority;
+        private long sequence;
+        private int state = STATE_QUEUED;
+        private volatile Object decoded;
+
+        private Request(NormalResource resource, StreamingResourceLoader<NormalResource, Object> loader,
+                        StreamingPriority priority, long sequence) {
+            this.resource = resource;
+            this.loader = loader;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo(Request o) {
+            final int res = Integer.compare(this.priority.ordinal(), o.priority.ordinal());
+            return res != 0 ? res : Long.compare(this.sequence, o.sequence);
+        }
+    }
+
+    @ToString.Exclude
+    private final PriorityBlockingQueue<Request> decodeQueue = new PriorityBlockingQueue<>();
+
+    @ToString.Exclude
+    private final PriorityBlockingQueue<Request> uploadQueue = new PriorityBlockingQueue<>();
+
+    @ToString.Exclude
+    private final List<Thread> workers = new ArrayList<>();
+
+    @Getter
+    private final int workerNum;
+
+    private long nextSequence;
+
+    private volatile boolean closed;
+
+    /**
+     * where decoding time goes, or null.
+     */
+    @ToString.Exclude
+    private final ResourceTelemetry resourceTelemetry;
+
+    /**
+     * <p>Constructor for ResourceStreamer.</p>
+     *
+     * @param workerNum num of decoding worker threads, started on the first request.
+     *                  0 means no worker; then decodeOne must be called by hand.
+     */
+    public ResourceStreamer(int workerNum) {
+        this(workerNum, null);
+    }
+
+    /**
+     * <p>Constructor for ResourceStreamer.</p>
+     *
+     * @param workerNum         num of decoding worker threads, started on the first request.
+     *                          0 means no worker; then decodeOne must be called by hand.
+     * @param resourceTelemetry where decoding time goes, or null.
+     */
+    public ResourceStreamer(int workerNum, ResourceTelemetry resourceTelemetry) {
+        this.workerNum = workerNum;
+        this.resourceTelemetry = resourceTelemetry;
+    }
+
+    /**
+     * <p>request.</p>
+     * ask for resource to be streamed.
+     *
+     * @param resource resource
+     * @param loader   loader
+     * @param priority priority
+     * @return true if a new request is made; false if resource was already requested.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized boolean request(NormalResource resource,
+                                        StreamingResourceLoader<? extends NormalResource, ?> loader,
+                                        StreamingPriority priority) {
+        if (this.closed) {
+            return false;
+        }
+        final Request existing = resource.streamingRequest;
+        if (existing != null) {
+            if (priority.ordinal() < existing.priority.ordinal()) {
+                this.raisePriority(existing, priority);
+            }
+            return false;
+        }
+        final Request request = new Request(resource, (StreamingResourceLoader<NormalResource, Object>) loader,
+                priority, this.nextSequence++);
+        resource.streamingRequest = request;
+        this.decodeQueue.add(request);
+        this.ensureWorkers();
+        return true;
+    }
+
+    private void raisePriority(Request request, StreamingPriority priority) {
+        //the queues only sort on insertion, so the request is taken out and put back.
+        final PriorityBlockingQueue<Request> queue;
+        if (request.state == STATE_QUEUED) {
+            queue = this.decodeQueue;
+        } else if (request.state == STATE_DECODED) {
+            queue = this.uploadQueue;
+        } else {
+            request.priority = priority;
+            return;
+        }
+        final boolean removed = queue.remove(request);
+        request.priority = priority;
+        request.sequence = this.nextSequence++;
+        if (removed) {
+            queue.add(request);
+        }
+    }
+
+    private void ensureWorkers() {
+        while (this.workers.size() < this.workerNum) {
+            final Thread worker = new Thread(this::runWorker,
+                    "cyan_potion resource streamer " + this.workers.size());
+            worker.setDaemon(true);
+            worker.setPriority(Thread.NORM_PRIORITY - 1);
+            this.workers.add(worker);
+            worker.start();
+        }
+    }
+
+    private void runWorker() {
+        while (!this.closed) {
+            try {
+                this.decode(this.decodeQueue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * <p>decodeOne.</p>
+     * decode the most wanted request, on this thread.
+     *
+     * @return false if nothing to decode.
+     */
+    public boolean decodeOne() {
+        final Request request = this.decodeQueue.poll();
+        if (request == null) {
+            return false;
+        }
+        this.decode(request);
+        return true;
+    }
+
+    private void decode(Request request) {
+        synchronized (this) {
+            request.state = STATE_DECODING;
+        }
+        Object decoded = null;
+        final long decodeBeginNanos = this.resourceTelemetry == null ? 0 : this.resourceTelemetry.beginMeasure();
+        try {
+            decoded = request.loader.decode(request.resource);
+        } catch (RuntimeException e) {
+            LOGGER.error("decode resource failed, will load it blocking : {}", request.resource, e);
+        }
+        if (this.resourceTelemetry != null) {
+            this.resourceTelemetry.endMeasure(request.resource, ResourceLoadPhase.DECODE, decodeBeginNanos);
+        }
+        request.decoded = decoded;
+        synchronized (this) {
+            request.state = STATE_DECODED;
+            if (this.closed) {
+                this.discard(request);
+                return;
+            }
+            this.uploadQueue.add(request);
+        }
+    }
+
+    /**
+     * <p>uploadReady.</p>
+     * upload decoded requests, most wanted first, until budgetNanos is spent.
+     * at least one is uploaded if there is any, so streaming always makes progress.
+     * shall only be called by the main thread.
+     *
+     * @param budgetNanos time budget
+     * @return num of requests uploaded.
+     */
+    public int uploadReady(long budgetNanos) {
+        final long deadline = System.nanoTime() + budgetNanos;
+        int res = 0;
+        do {
+            final Request request = this.uploadQueue.poll();
+            if (request == null) {
+                break;
+            }
+            synchronized (this) {
+                request.resource.streamingRequest = null;
+            }
+            try {
+                request.resource.finishStreamedLoad(request.loader, request.decoded);
+            } catch (RuntimeException e) {
+                LOGGER.error("upload resource failed : {}", request.resource, e);
+            }
+            res++;
+        } while (System.nanoTime() - deadline < 0);
+        return res;
+    }
+
+    /**
+     * <p>getDecodeQueueSize.</p>
+     *
+     * @return num of requests waiting for decoding.
+     */
+    public int getDecodeQueueSize() {
+        return this.decodeQueue.size();
+    }
+
+    /**
+     * <p>getUploadQueueSize.</p>
+     *
+     * @return num of requests waiting for uploading.
+     */
+    public int getUploadQueueSize() {
+        return this.uploadQueue.size();
+    }
+
+    private void discard(Request request) {
+        request.resource.streamingRequest = null;
+        final Object decoded = request.decoded;
+        request.decoded = null;
+        if (decoded != null) {
+            request.loader.discard(decoded);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * stop the workers and discard every request not uploaded yet.
+     */
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+        for (Thread worker : this.workers) {
+            worker.interrupt();
+        }
+        this.workers.clear();
+        for (Request request = this.decodeQueue.poll(); request != null; request = this.decodeQueue.poll()) {
+            this.discard(request);
+        }
+        for (Request request = this.uploadQueue.poll(); request != null; request = this.uploadQueue.poll()) {
+            this.discard(request);
+        }
+    }
+}
@@ -0,0 +1,494 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.xenoamess.cyan_potion.base.DataCenter;
+import com.xenoamess.cyan_potion.base.profiler.LatencyHistogram;
+import lombok.ToString;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>ResourceTelemetry class.</p>
+ * counts loads, evictions, reloads after eviction and fetch hits,
+ * and times loads by ResourceLoadPhase, per resource class and per resource type.
+ * resident bytes are read from the ResidencyManager when asked.
+ * <p>
+ * recording is lock free and may be done from any thread.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class ResourceTelemetry {
+    /**
+     * type of resources without a ResourceInfo.
+     */
+    public static final String UNKNOWN_TYPE = "";
+
+    /**
+     * IO nanoseconds recorded on this thread since the last beginMeasure,
+     * so that the measured phase does not count them again.
+     */
+    private static final ThreadLocal<long[]> IO_NANOS_OF_THREAD = ThreadLocal.withInitial(() -> new long[1]);
+
+    @ToString.Exclude
+    private final ResidencyManager residencyManager;
+
+    @ToString.Exclude
+    private final ConcurrentHashMap<Class<?>, ResourceStats> classStatsMap = new ConcurrentHashMap<>();
+
+    @ToString.Exclude
+    private final ConcurrentHashMap<String, ResourceStats> typeStatsMap = new ConcurrentHashMap<>();
+
+    /**
+     * <p>ResourceStats class.</p>
+     * counters and load latencies of one resource class or type.
+     */
+    @ToString
+    public static class ResourceStats {
+        private final AtomicLong loads = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+        private final AtomicLong reloadsAfterEviction = new AtomicLong();
+        private final AtomicLong fetchHits = new AtomicLong();
+        private final AtomicLong fetchMisses = new AtomicLong();
+        @ToString.Exclude
+        private final LatencyHistogram[] latencies = new LatencyHistogram[ResourceLoadPhase.values().length];
+
+        ResourceStats() {
+            for (int i = 0; i < this.latencies.length; i++) {
+                this.latencies[i] = new LatencyHistogram();
+            }
+        }
+
+        /**
+         * <p>getLoads.</p>
+         *
+         * @return num of loads
+         */
+        public long getLoads() {
+            return this.loads.get();
+        }
+
+        /**
+         * <p>getEvictions.</p>
+         *
+         * @return num of evictions by the ResidencyManager
+         */
+        public long getEvictions() {
+            return this.evictions.get();
+        }
+
+        /**
+         * <p>getReloadsAfterEviction.</p>
+         * a high ratio of it to evictions means the budget is too small, and resources thrash.
+         *
+         * @return num of loads of evicted resources
+         */
+        public long getReloadsAfterEviction() {
+            return this.reloadsAfterEviction.get();
+        }
+
+        /**
+         * <p>getFetchHits.</p>
+         *
+         * @return num of fetchResource finding the resource already in memory
+         */
+        public long getFetchHits() {
+            return this.fetchHits.get();
+        }
+
+        /**
+         * <p>getFetchMisses.</p>
+         *
+         * @return num of fetchResource finding the resource not created or not in memory
+         */
+        public long getFetchMisses() {
+            return this.fetchMisses.get();
+        }
+
+        /**
+         * <p>getFetchHitRate.</p>
+         *
+         * @return fetch hits / fetches, 0 if no fetch.
+         */
+        public double getFetchHitRate() {
+            final long hits = this.getFetchHits();
+            final long fetches = hits + this.getFetchMisses();
+            return fetches == 0 ? 0 : (double) hits / fetches;
+        }
+
+        /**
+         * <p>getLatency.</p>
+         *
+         * @param phase phase
+         * @return histogram of the phase
+         */
+        public LatencyHistogram getLatency(ResourceLoadPhase phase) {
+            return this.latencies[phase.ordinal()];
+        }
+
+        void clear() {
+            this.loads.set(0);
+            this.evictions.set(0);
+            this.reloadsAfterEviction.set(0);
+            this.fetchHits.set(0);
+            this.fetchMisses.set(0);
+            for (LatencyHistogram latency : this.latencies) {
+                latency.clear();
+            }
+        }
+    }
+
+    /**
+     * <p>Constructor for ResourceTelemetry.</p>
+     *
+     * @param residencyManager where resident bytes are read from
+     */
+    public ResourceTelemetry(ResidencyManager residencyManager) {
+        this.residencyManager = residencyManager;
+    }
+
+    //---record begin---
+
+    /**
+     * <p>recordFetch.</p>
+     *
+     * @param resourceClass resourceClass
+     * @param type          type
+     * @param hit           if the resource was already in memory
+     */
+    public void recordFetch(Class<?> resourceClass, String type, boolean hit) {
+        this.increment(resourceClass, type, hit ? stats -> stats.fetchHits : stats -> stats.fetchMisses);
+    }
+
+    /**
+     * <p>recordLoad.</p>
+     * count a load, and a reload if the resource was evicted before.
+     *
+     * @param resource resource
+     */
+    public void recordLoad(NormalResource resource) {
+        this.increment(resource.getClass(), typeOf(resource), stats -> stats.loads);
+        if (resource.evictedBefore) {
+            resource.evictedBefore = false;
+            this.increment(resource.getClass(), typeOf(resource), stats -> stats.reloadsAfterEviction);
+        }
+    }
+
+    /**
+     * <p>recordEviction.</p>
+     *
+     * @param resource resource evicted by the ResidencyManager
+     */
+    public void recordEviction(NormalResource resource) {
+        resource.evictedBefore = true;
+        this.increment(resource.getClass(), typeOf(resource), stats -> stats.evictions);
+    }
+
+    /**
+     * <p>recordIo.</p>
+     * loaders call it with time spent reading files,
+     * which is then not counted again in the phase measured around them.
+     *
+     * @param resource resource
+     * @param nanos    nanos
+     */
+    public void recordIo(NormalResource resource, long nanos) {
+        IO_NANOS_OF_THREAD.get()[0] += nanos;
+        this.record(resource, ResourceLoadPhase.IO, nanos);
+    }
+
+    /**
+     * <p>beginMeasure.</p>
+     *
+     * @return begin nanos, for endMeasure
+     */
+    public long beginMeasure() {
+        IO_NANOS_OF_THREAD.get()[0] = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * <p>endMeasure.</p>
+     * record time since beginMeasure on this thread, besides IO recorded meanwhile.
+     *
+     * @param resource   resource
+     * @param phase      phase
+     * @param beginNanos return value of beginMeasure
+     */
+    public void endMeasure(NormalResource resource, ResourceLoadPhase phase, long beginNanos) {
+        final long[] ioNanos = IO_NANOS_OF_THREAD.get();
+        this.record(resource, phase, System.nanoTime() - beginNanos - ioNanos[0]);
+        ioNanos[0] = 0;
+    }
+
+    /**
+     * <p>record.</p>
+     *
+     * @param resource resource
+     * @param phase    phase
+     * @param nanos    nanos
+     */
+    public void record(NormalResource resource, ResourceLoadPhase phase, long nanos) {
+        this.statsOfClass(resource.getClass()).getLatency(phase).record(nanos);
+        this.statsOfType(typeOf(resource)).getLatency(phase).record(nanos);
+    }
+
+    private interface CounterGetter {
+        AtomicLong get(ResourceStats resourceStats);
+    }
+
+    private void increment(Class<?> resourceClass, String type, CounterGetter counterGetter) {
+        counterGetter.get(this.statsOfClass(resourceClass)).incrementAndGet();
+        counterGetter.get(this.statsOfType(type)).incrementAndGet();
+    }
+
+    private static String typeOf(NormalResource resource) {
+        final ResourceInfo<?> resourceInfo = resource.getResourceInfo();
+        return resourceInfo == null || resourceInfo.getType() == null ? UNKNOWN_TYPE : resourceInfo.getType();
+    }
+
+    private ResourceStats statsOfClass(Class<?> resourceClass) {
+        final ResourceStats res = this.classStatsMap.get(resourceClass);
+        return res != null ? res : this.classStatsMap.computeIfAbsent(resourceClass, key -> new ResourceStats());
+    }
+
+    private ResourceStats statsOfType(String type) {
+        final ResourceStats res = this.typeStatsMap.get(type);
+        return res != null ? res : this.typeStatsMap.computeIfAbsent(type, key -> new ResourceStats());
+    }
+
+    //---record end---
+
+    //---read begin---
+
+    /**
+     * <p>getClassStats.</p>
+     *
+     * @param resourceClass resourceClass
+     * @return stats of the class, null if nothing recorded.
+     */
+    public ResourceStats getClassStats(Class<?> resourceClass) {
+        return this.classStatsMap.get(resourceClass);
+    }
+
+    /**
+     * <p>getTypeStats.</p>
+     *
+     * @param type type
+     * @return stats of the type, null if nothing recorded.
+     */
+    public ResourceStats getTypeStats(String type) {
+        return this.typeStatsMap.get(type);
+    }
+
+    /**
+     * <p>getClassStatsMap.</p>
+     *
+     * @return a new map of stats by class name, sorted.
+     */
+    public Map<String, ResourceStats> getClassStatsMap() {
+        final Map<String, ResourceStats> res = new TreeMap<>();
+        for (Map.Entry<Class<?>, ResourceStats> entry : this.classStatsMap.entrySet()) {
+            res.put(entry.getKey().getName(), entry.getValue());
+        }
+        return res;
+    }
+
+    /**
+     * <p>getTypeStatsMap.</p>
+     *
+     * @return a new map of stats by type, sorted.
+     */
+    public Map<String, ResourceStats> getTypeStatsMap() {
+        return new TreeMap<>(this.typeStatsMap);
+    }
+
+    /**
+     * <p>getResidentBytesByClass.</p>
+     *
+     * @return a new map of resident bytes by class name, sorted.
+     */
+    public Map<String, Long> getResidentBytesByClass() {
+        final Map<String, Long> res = new TreeMap<>();
+        this.residencyManager.forEachResident((resource, charge) ->
+                res.merge(resource.getClass().getName(), charge, Long::sum));
+        return res;
+    }
+
+    /**
+     * <p>getResidentBytesByType.</p>
+     *
+     * @return a new map of resident bytes by type, sorted.
+     */
+    public Map<String, Long> getResidentBytesByType() {
+        final Map<String, Long> res = new TreeMap<>();
+        this.residencyManager.forEachResident((resource, charge) ->
+                res.merge(typeOf(resource), charge, Long::sum));
+        return res;
+    }
+
+    /**
+     * one line per resource class and per resource type:
+     * resident bytes, loads, evictions, reloads, fetch hit rate, and p50/p99 of each recorded phase in milliseconds.
+     *
+     * @return report
+     */
+    public String report() {
+        final StringBuilder stringBuilder = new StringBuilder();
+        final Map<String, Long> residentBytesByClass = this.getResidentBytesByClass();
+        for (Map.Entry<String, ResourceStats> entry : this.getClassStatsMap().entrySet()) {
+            appendReportLine(stringBuilder, "class " + entry.getKey(),
+                    residentBytesByClass.getOrDefault(entry.getKey(), 0L), entry.getValue());
+        }
+        final Map<String, Long> residentBytesByType = this.getResidentBytesByType();
+        for (Map.Entry<String, ResourceStats> entry : this.getTypeStatsMap().entrySet()) {
+            appendReportLine(stringBuilder, "type " + entry.getKey(),
+                    residentBytesByType.getOrDefault(entry.getKey(), 0L), entry.getValue());
+        }
+        return stringBuilder.toString();
+    }
+
+    private static void appendReportLine(StringBuilder stringBuilder, String name, long residentBytes,
+                                         ResourceStats resourceStats) {
+        stringBuilder.append(String.format("%-48s resident %10dB loads %6d evictions %6d reloads %6d hit %5.1f%%",
+                name,
+                residentBytes,
+                resourceStats.getLoads(),
+                resourceStats.getEvictions(),
+                resourceStats.getReloadsAfterEviction(),
+                resourceStats.getFetchHitRate() * 100));
+        for (ResourceLoadPhase phase : ResourceLoadPhase.values()) {
+            final LatencyHistogram latency = resourceStats.getLatency(phase);
+            if (latency.getCount() == 0) {
+                continue;
+            }
+            stringBuilder.append(String.format(" %s p50 %.3fms p99 %.3fms",
+                    phase,
+                    latency.getPercentileNanos(50) / 1e6,
+                    latency.getPercentileNanos(99) / 1e6));
+        }
+        stringBuilder.append(String.format("%n"));
+    }
+
+    /**
+     * write a snapshot of every counter, resident bytes and histogram as json.
+     *
+     * @param outputStream outputStream, not closed
+     * @throws IOException IOException
+     */
+    public void writeSnapshot(OutputStream outputStream) throws IOException {
+        final Map<String, Long> residentBytesByClass = this.getResidentBytesByClass();
+        final Map<String, Long> residentBytesByType = this.getResidentBytesByType();
+        try (JsonGenerator jsonGenerator = DataCenter.getObjectMapper().getFactory().createGenerator(outputStream)) {
+            jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeNumberField("timeMillis", System.currentTimeMillis());
+            writeStatsMap(jsonGenerator, "classes", this.getClassStatsMap(), residentBytesByClass);
+            writeStatsMap(jsonGenerator, "types", this.getTypeStatsMap(), residentBytesByType);
+            jsonGenerator.writeEndObject();
+        }
+    }
+
+    private static void writeStatsMap(JsonGenerator jsonGenerator, String fieldName,
+                                      Map<String, ResourceStats> statsMap, Map<String, Long> residentBytesMap)
+            throws IOException {
+        jsonGenerator.writeObjectFieldStart(fieldName);
+        for (Map.Entry<String, ResourceStats> entry : statsMap.entrySet()) {
+            final ResourceStats resourceStats = entry.getValue();
+            jsonGenerator.writeObjectFieldStart(entry.getKey());
+            jsonGenerator.writeNumberField("residentBytes", residentBytesMap.getOrDefault(entry.getKey(), 0L));
+            jsonGenerator.writeNumberField("loads", resourceStats.getLoads());
+            jsonGenerator.writeNumberField("evictions", resourceStats.getEvictions());
+            jsonGenerator.writeNumberField("reloadsAfterEviction", resourceStats.getReloadsAfterEviction());
+            jsonGenerator.writeNumberField("fetchHits", resourceStats.getFetchHits());
+            jsonGenerator.writeNumberField("fetchMisses", resourceStats.getFetchMisses());
+            jsonGenerator.writeObjectFieldStart("latencies");
+            for (ResourceLoadPhase phase : ResourceLoadPhase.values()) {
+                final LatencyHistogram latency = resourceStats.getLatency(phase);
+                if (latency.getCount() == 0) {
+                    continue;
+                }
+                jsonGenerator.writeObjectFieldStart(phase.name());
+                jsonGenerator.writeNumberField("count", latency.getCount());
+                jsonGenerator.writeNumberField("meanNanos", latency.getMeanNanos());
+                jsonGenerator.writeNumberField("p50Nanos", latency.getPercentileNanos(50));
+                jsonGenerator.writeNumberField("p99Nanos", latency.getPercentileNanos(99));
+                jsonGenerator.writeNumberField("maxNanos", latency.getMaxNanos());
+                //bucket i counts durations in [2^i, 2^(i+1)) nanoseconds.
+                jsonGenerator.writeArrayFieldStart("log2Buckets");
+                for (int i = 0; i < LatencyHistogram.BUCKET_NUM; i++) {
+                    jsonGenerator.writeNumber(latency.getBucketCount(i));
+                }
+                jsonGenerator.writeEndArray();
+                jsonGenerator.writeEndObject();
+            }
+            jsonGenerator.writeEndObject();
+            jsonGenerator.writeEndObject();
+        }
+        jsonGenerator.writeEndObject();
+    }
+
+    /**
+     * write a snapshot into a json file.
+     *
+     * @param file file
+     * @throws IOException IOException
+     * @see #writeSnapshot(OutputStream)
+     */
+    public void dumpSnapshot(File file) throws IOException {
+        final File parentFile = file.getAbsoluteFile().getParentFile();
+        if (parentFile != null && !parentFile.exists() && !parentFile.mkdirs()) {
+            throw new IOException("cannot create folder " + parentFile);
+        }
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            this.writeSnapshot(outputStream);
+        }
+    }
+
+    /**
+     * <p>clear.</p>
+     * reset every counter and histogram. resident bytes are not counters, so they stay.
+     */
+    public void clear() {
+        for (ResourceStats resourceStats : this.classStatsMap.values()) {
+            resourceStats.clear();
+        }
+        for (ResourceStats resourceStats : this.typeStatsMap.values()) {
+            resourceStats.clear();
+        }
+    }
+
+    //---read end---
+}
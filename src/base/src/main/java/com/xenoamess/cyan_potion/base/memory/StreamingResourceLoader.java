@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+/**
+ * <p>StreamingResourceLoader class.</p>
+ * a resource loader split in two, so that a resource can be loaded without blocking the main thread:
+ * decode does the slow part (reading and decoding the file) on a worker thread,
+ * and upload hands the decoded data to the gpu/audio device on the main thread.
+ * <p>
+ * resource types without one are loaded by their ordinary loader, blocking.
+ *
+ * @param <T> resource class
+ * @param <D> decoded data class
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see ResourceManager#putStreamingResourceLoader(Class, String, StreamingResourceLoader)
+ */
+public interface StreamingResourceLoader<T extends NormalResource, D> {
+    /**
+     * <p>decode.</p>
+     * runs on a worker thread; must not touch the gpu/audio device.
+     *
+     * @param resource resource
+     * @return decoded data, or null if failed.
+     */
+    D decode(T resource);
+
+    /**
+     * <p>upload.</p>
+     * runs on the main thread. owns decoded from now on.
+     *
+     * @param resource resource
+     * @param decoded  decoded data
+     * @return if succeeded
+     */
+    boolean upload(T resource, D decoded);
+
+    /**
+     * <p>discard.</p>
+     * release decoded data that will never be uploaded.
+     *
+     * @param decoded decoded data
+     */
+    default void discard(D decoded) {
+        //do nothing
+    }
+}
@@ -51,5 +51,8 @@ public enum CodePluginPosition {
     rightAfterSolveEvents,
 
     rightBeforeUpdate,
-    rightAfterUpdate;
+    rightAfterUpdate,
+
+    rightBeforeDraw,
+    rightAfterDraw;
 }
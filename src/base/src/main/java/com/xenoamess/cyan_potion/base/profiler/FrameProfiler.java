@@ -0,0 +1,470 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.profiler;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.xenoamess.cyan_potion.base.DataCenter;
+import com.xenoamess.cyan_potion.base.GameManager;
+import com.xenoamess.cyan_potion.base.plugins.CodePluginManager;
+import com.xenoamess.cyan_potion.base.plugins.CodePluginPosition;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>FrameProfiler class.</p>
+ * records how long each frame phase and each named scope takes, in nanoseconds.
+ * <p>
+ * Spans are written into a fixed size ring buffer without locks, from any thread,
+ * so it can stay on in production builds; when the ring is full the oldest spans are overwritten.
+ * Reading (percentiles, Chrome trace export) copies what is in the ring at that moment,
+ * skipping spans that are being written.
+ * <p>
+ * Usage:
+ * <pre>
+ * final long beginNanos = frameProfiler.begin();
+ * //work
+ * frameProfiler.end(FrameProfiler.SCOPE_XXX, beginNanos);
+ * </pre>
+ * When not enabled, begin and end do nothing.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class FrameProfiler {
+    /**
+     * default num of spans kept.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * whole loopOnce.
+     */
+    public static final int SCOPE_LOGIC_FRAME = 0;
+    /**
+     * solveEvents.
+     */
+    public static final int SCOPE_SOLVE_EVENTS = 1;
+    /**
+     * update.
+     */
+    public static final int SCOPE_UPDATE = 2;
+    /**
+     * drawing a frame.
+     */
+    public static final int SCOPE_DRAW = 3;
+    /**
+     * applying events, inside solveEvents.
+     */
+    public static final int SCOPE_EVENT_DISPATCH = 4;
+    /**
+     * updating the game window component tree, inside update.
+     */
+    public static final int SCOPE_COMPONENT_TREE_UPDATE = 5;
+    /**
+     * drawing the game window component tree, inside draw.
+     */
+    public static final int SCOPE_COMPONENT_TREE_DRAW = 6;
+    /**
+     * loading one resource, on whatever thread loads it.
+     */
+    public static final int SCOPE_RESOURCE_LOAD = 7;
+
+    @ToString.Exclude
+    private final List<String> scopeNames = new CopyOnWriteArrayList<>(Arrays.asList(
+            "logicFrame",
+            "solveEvents",
+            "update",
+            "draw",
+            "eventDispatch",
+            "componentTreeUpdate",
+            "componentTreeDraw",
+            "resourceLoad"
+    ));
+
+    /**
+     * <p>Span class.</p>
+     * one recorded span.
+     */
+    @Getter
+    @ToString
+    public static class Span {
+        private final int scopeId;
+        private final long threadId;
+        private final long beginNanos;
+        private final long durationNanos;
+
+        Span(int scopeId, long threadId, long beginNanos, long durationNanos) {
+            this.scopeId = scopeId;
+            this.threadId = threadId;
+            this.beginNanos = beginNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+
+    @Getter
+    @Setter
+    private volatile boolean enabled;
+
+    @Getter
+    private final int capacity;
+
+    private final int mask;
+
+    /*
+     * fields of the span in each slot.
+     * they are atomic arrays, so that their reads and writes are ordered with those of sequences:
+     * with plain arrays a writer's field writes may move before it marks the slot as being written,
+     * and a reader's field reads may move after it checks the sequence again.
+     */
+    @ToString.Exclude
+    private final AtomicIntegerArray scopeIds;
+    @ToString.Exclude
+    private final AtomicLongArray threadIds;
+    @ToString.Exclude
+    private final AtomicLongArray beginNanosArray;
+    @ToString.Exclude
+    private final AtomicLongArray durationNanosArray;
+
+    /**
+     * sequence of the span in each slot plus 1; 0 means empty, -1 means being written.
+     */
+    @ToString.Exclude
+    private final AtomicLongArray sequences;
+
+    @ToString.Exclude
+    private final AtomicLong writeCursor = new AtomicLong();
+
+    /**
+     * begin time of each phase run by {@link #installPhaseHooks(CodePluginManager)}.
+     * only touched by the thread running the loop.
+     */
+    @ToString.Exclude
+    private final long[] phaseBeginNanos = new long[SCOPE_DRAW + 1];
+
+    /**
+     * <p>Constructor for FrameProfiler.</p>
+     */
+    public FrameProfiler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * <p>Constructor for FrameProfiler.</p>
+     *
+     * @param capacity num of spans kept. rounded up to a power of 2.
+     */
+    public FrameProfiler(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive : " + capacity);
+        }
+        int roundedCapacity = Integer.highestOneBit(capacity);
+        if (roundedCapacity < capacity) {
+            roundedCapacity <<= 1;
+        }
+        this.capacity = roundedCapacity;
+        this.mask = this.capacity - 1;
+        this.scopeIds = new AtomicIntegerArray(this.capacity);
+        this.threadIds = new AtomicLongArray(this.capacity);
+        this.beginNanosArray = new AtomicLongArray(this.capacity);
+        this.durationNanosArray = new AtomicLongArray(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+    }
+
+    /**
+     * register a named scope.
+     * registering a name twice returns the same id.
+     *
+     * @param scopeName scopeName
+     * @return scope id to pass to {@link #end(int, long)}.
+     */
+    public synchronized int registerScope(String scopeName) {
+        final int index = this.scopeNames.indexOf(scopeName);
+        if (index >= 0) {
+            return index;
+        }
+        this.scopeNames.add(scopeName);
+        return this.scopeNames.size() - 1;
+    }
+
+    /**
+     * <p>getScopeName.</p>
+     *
+     * @param scopeId scopeId
+     * @return name of the scope.
+     */
+    public String getScopeName(int scopeId) {
+        return this.scopeNames.get(scopeId);
+    }
+
+    /**
+     * <p>getScopeNum.</p>
+     *
+     * @return num of registered scopes.
+     */
+    public int getScopeNum() {
+        return this.scopeNames.size();
+    }
+
+    //---record start---
+
+    /**
+     * <p>begin.</p>
+     *
+     * @return begin time to pass to {@link #end(int, long)}. 0 if not enabled.
+     */
+    public long begin() {
+        return this.isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * record a span of a scope from beginNanos to now.
+     *
+     * @param scopeId    scopeId
+     * @param beginNanos what {@link #begin()} returned
+     */
+    public void end(int scopeId, long beginNanos) {
+        if (beginNanos == 0 || !this.isEnabled()) {
+            return;
+        }
+        this.record(scopeId, Thread.currentThread().getId(), beginNanos, System.nanoTime() - beginNanos);
+    }
+
+    /**
+     * record a span.
+     *
+     * @param scopeId       scopeId
+     * @param threadId      threadId
+     * @param beginNanos    beginNanos
+     * @param durationNanos durationNanos
+     */
+    public void record(int scopeId, long threadId, long beginNanos, long durationNanos) {
+        final long sequence = this.writeCursor.getAndIncrement();
+        final int slot = (int) (sequence & this.mask);
+        this.sequences.set(slot, -1);
+        this.scopeIds.set(slot, scopeId);
+        this.threadIds.set(slot, threadId);
+        this.beginNanosArray.set(slot, beginNanos);
+        this.durationNanosArray.set(slot, durationNanos);
+        this.sequences.set(slot, sequence + 1);
+    }
+
+    /**
+     * put hooks recording the logicFrame, solveEvents, update and draw phases
+     * at their CodePluginPositions.
+     *
+     * @param codePluginManager codePluginManager
+     */
+    public void installPhaseHooks(CodePluginManager codePluginManager) {
+        this.installPhaseHooks(codePluginManager, SCOPE_LOGIC_FRAME,
+                CodePluginPosition.rightBeforeLogicFrame, CodePluginPosition.rightAfterLogicFrame);
+        this.installPhaseHooks(codePluginManager, SCOPE_SOLVE_EVENTS,
+                CodePluginPosition.rightBeforeSolveEvents, CodePluginPosition.rightAfterSolveEvents);
+        this.installPhaseHooks(codePluginManager, SCOPE_UPDATE,
+                CodePluginPosition.rightBeforeUpdate, CodePluginPosition.rightAfterUpdate);
+        this.installPhaseHooks(codePluginManager, SCOPE_DRAW,
+                CodePluginPosition.rightBeforeDraw, CodePluginPosition.rightAfterDraw);
+    }
+
+    private void installPhaseHooks(CodePluginManager codePluginManager, int scopeId,
+                                   CodePluginPosition before, CodePluginPosition after) {
+        codePluginManager.putCodePlugin(before, (GameManager gameManager) -> {
+            this.phaseBeginNanos[scopeId] = this.begin();
+            return null;
+        });
+        codePluginManager.putCodePlugin(after, (GameManager gameManager) -> {
+            this.end(scopeId, this.phaseBeginNanos[scopeId]);
+            return null;
+        });
+    }
+
+    /**
+     * forget all recorded spans.
+     * spans being recorded at the same time may survive.
+     */
+    public void clear() {
+        for (int i = 0; i < this.capacity; i++) {
+            this.sequences.set(i, 0);
+        }
+    }
+
+    //---record end---
+
+    //---read start---
+
+    /**
+     * <p>getSpans.</p>
+     *
+     * @return copy of spans in the ring now, sorted by begin time.
+     */
+    public List<Span> getSpans() {
+        final List<Span> res = new ArrayList<>();
+        for (int slot = 0; slot < this.capacity; slot++) {
+            final long sequence = this.sequences.get(slot);
+            if (sequence <= 0) {
+                continue;
+            }
+            final Span span = new Span(this.scopeIds.get(slot), this.threadIds.get(slot),
+                    this.beginNanosArray.get(slot), this.durationNanosArray.get(slot));
+            if (this.sequences.get(slot) == sequence) {
+                res.add(span);
+            }
+        }
+        res.sort((a, b) -> Long.compare(a.getBeginNanos(), b.getBeginNanos()));
+        return res;
+    }
+
+    private static long[] durationsOf(List<Span> spans, int scopeId) {
+        int num = 0;
+        for (Span span : spans) {
+            if (span.getScopeId() == scopeId) {
+                num++;
+            }
+        }
+        final long[] res = new long[num];
+        int index = 0;
+        for (Span span : spans) {
+            if (span.getScopeId() == scopeId) {
+                res[index++] = span.getDurationNanos();
+            }
+        }
+        Arrays.sort(res);
+        return res;
+    }
+
+    private static long percentileOf(long[] sortedDurations, double percentile) {
+        if (sortedDurations.length == 0) {
+            return 0;
+        }
+        final int index = (int) Math.ceil(percentile / 100 * sortedDurations.length) - 1;
+        return sortedDurations[Math.min(Math.max(index, 0), sortedDurations.length - 1)];
+    }
+
+    /**
+     * nearest-rank percentile of durations of a scope, among spans in the ring now.
+     *
+     * @param scopeId    scopeId
+     * @param percentile percentile, in (0, 100]
+     * @return duration in nanoseconds, 0 if no span of this scope.
+     */
+    public long getPercentileNanos(int scopeId, double percentile) {
+        return percentileOf(durationsOf(this.getSpans(), scopeId), percentile);
+    }
+
+    /**
+     * one line per scope with spans in the ring now: name, count, p50, p99 and max, in milliseconds.
+     *
+     * @return report
+     */
+    public String report() {
+        final List<Span> spans = this.getSpans();
+        final StringBuilder stringBuilder = new StringBuilder();
+        for (int scopeId = 0; scopeId < this.getScopeNum(); scopeId++) {
+            final long[] durations = durationsOf(spans, scopeId);
+            if (durations.length == 0) {
+                continue;
+            }
+            stringBuilder.append(String.format("%-24s count %7d p50 %9.3fms p99 %9.3fms max %9.3fms%n",
+                    this.getScopeName(scopeId),
+                    durations.length,
+                    percentileOf(durations, 50) / 1e6,
+                    percentileOf(durations, 99) / 1e6,
+                    durations[durations.length - 1] / 1e6));
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * write spans in the ring now as Chrome trace_event json (complete events, microseconds),
+     * which chrome://tracing and Perfetto can open.
+     *
+     * @param outputStream outputStream, not closed
+     * @throws IOException IOException
+     */
+    public void writeChromeTrace(OutputStream outputStream) throws IOException {
+        final List<Span> spans = this.getSpans();
+        final long originNanos = spans.isEmpty() ? 0 : spans.get(0).getBeginNanos();
+        try (JsonGenerator jsonGenerator = DataCenter.getObjectMapper().getFactory().createGenerator(outputStream)) {
+            jsonGenerator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            jsonGenerator.writeStartObject();
+            jsonGenerator.writeArrayFieldStart("traceEvents");
+            for (Span span : spans) {
+                jsonGenerator.writeStartObject();
+                jsonGenerator.writeStringField("name", this.getScopeName(span.getScopeId()));
+                jsonGenerator.writeStringField("ph", "X");
+                jsonGenerator.writeNumberField("ts", (span.getBeginNanos() - originNanos) / 1e3);
+                jsonGenerator.writeNumberField("dur", span.getDurationNanos() / 1e3);
+                jsonGenerator.writeNumberField("pid", 1);
+                jsonGenerator.writeNumberField("tid", span.getThreadId());
+                jsonGenerator.writeEndObject();
+            }
+            jsonGenerator.writeEndArray();
+            jsonGenerator.writeStringField("displayTimeUnit", "ms");
+            jsonGenerator.writeEndObject();
+        }
+    }
+
+    /**
+     * write spans in the ring now into a Chrome trace_event json file.
+     *
+     * @param file file
+     * @throws IOException IOException
+     * @see #writeChromeTrace(OutputStream)
+     */
+    public void dumpChromeTrace(File file) throws IOException {
+        final File parentFile = file.getAbsoluteFile().getParentFile();
+        if (parentFile != null && !parentFile.exists() && !parentFile.mkdirs()) {
+            throw new IOException("cannot create folder " + parentFile);
+        }
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            this.writeChromeTrace(outputStream);
+        }
+    }
+
+    //---read end---
+
+    /**
+     * <p>getScopeNames.</p>
+     *
+     * @return names of registered scopes, indexed by scope id.
+     */
+    public List<String> getScopeNames() {
+        return Collections.unmodifiableList(this.scopeNames);
+    }
+}
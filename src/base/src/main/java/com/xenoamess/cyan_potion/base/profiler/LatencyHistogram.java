@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.profiler;
+
+import lombok.ToString;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>LatencyHistogram class.</p>
+ * counts durations in power of two buckets, without locks, from any thread.
+ * <p>
+ * bucket i counts durations in [2^i, 2^(i+1)) nanoseconds,
+ * so percentiles are upper bounds at most twice the real value; count, mean and max are exact.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class LatencyHistogram {
+    /**
+     * num of buckets; one per bit of a long.
+     */
+    public static final int BUCKET_NUM = 64;
+
+    @ToString.Exclude
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_NUM);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * <p>record.</p>
+     *
+     * @param nanos duration; negative is taken as 0.
+     */
+    public void record(long nanos) {
+        final long duration = Math.max(nanos, 0);
+        this.buckets.incrementAndGet(bucketOf(duration));
+        this.count.incrementAndGet();
+        this.totalNanos.addAndGet(duration);
+        long nowMax = this.maxNanos.get();
+        while (duration > nowMax && !this.maxNanos.compareAndSet(nowMax, duration)) {
+            nowMax = this.maxNanos.get();
+        }
+    }
+
+    /**
+     * <p>bucketOf.</p>
+     *
+     * @param nanos duration, &gt;= 0
+     * @return bucket of it
+     */
+    public static int bucketOf(long nanos) {
+        return nanos <= 1 ? 0 : 63 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * <p>getCount.</p>
+     *
+     * @return num of durations recorded
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * <p>getTotalNanos.</p>
+     *
+     * @return sum of durations recorded
+     */
+    public long getTotalNanos() {
+        return this.totalNanos.get();
+    }
+
+    /**
+     * <p>getMaxNanos.</p>
+     *
+     * @return longest duration recorded
+     */
+    public long getMaxNanos() {
+        return this.maxNanos.get();
+    }
+
+    /**
+     * <p>getMeanNanos.</p>
+     *
+     * @return mean duration, 0 if none recorded
+     */
+    public double getMeanNanos() {
+        final long nowCount = this.getCount();
+        return nowCount == 0 ? 0 : (double) this.getTotalNanos() / nowCount;
+    }
+
+    /**
+     * <p>getBucketCount.</p>
+     *
+     * @param bucket bucket
+     * @return num of durations in [2^bucket, 2^(bucket+1))
+     */
+    public long getBucketCount(int bucket) {
+        return this.buckets.get(bucket);
+    }
+
+    /**
+     * <p>getPercentileNanos.</p>
+     *
+     * @param percentile in [0, 100]
+     * @return upper bound of the bucket holding the percentile, capped by max; 0 if none recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        final long[] nowBuckets = new long[BUCKET_NUM];
+        long nowCount = 0;
+        for (int i = 0; i < BUCKET_NUM; i++) {
+            nowBuckets[i] = this.buckets.get(i);
+            nowCount += nowBuckets[i];
+        }
+        if (nowCount == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(nowCount * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_NUM; i++) {
+            seen += nowBuckets[i];
+            if (seen >= rank) {
+                final long upperBound = i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                return Math.min(upperBound, this.getMaxNanos());
+            }
+        }
+        return this.getMaxNanos();
+    }
+
+    /**
+     * <p>clear.</p>
+     */
+    public void clear() {
+        for (int i = 0; i < BUCKET_NUM; i++) {
+            this.buckets.set(i, 0);
+        }
+        this.count.set(0);
+        this.totalNanos.set(0);
+        this.maxNanos.set(0);
+    }
+}
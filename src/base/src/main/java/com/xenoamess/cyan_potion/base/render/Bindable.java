@@ -26,8 +26,6 @@ package com.xenoamess.cyan_potion.base.render;
 
 import org.lwjgl.opengl.GL11;
 
-import static org.lwjgl.opengl.GL11.glBindTexture;
-
 /**
  * Bindable is something who can bind.
  * It is usually a kind of resource, a picture or something else that once bind, it can draw to something.
@@ -48,7 +46,7 @@ public interface Bindable {
      * <p>unbind.</p>
      */
     default void unbind() {
-        glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        RenderBackends.getCurrent().bindTexture(GL11.GL_TEXTURE_2D, 0);
     }
 
     /**
@@ -57,4 +55,51 @@ public interface Bindable {
     default void bind() {
         bind(0);
     }
+
+    /**
+     * get the object which really owns the gl texture this bindable binds.
+     * quads whose bindables have the same bind target can be drawn in one draw call.
+     *
+     * @return bind target
+     * @see SpriteBatch
+     */
+    default Object getBindTarget() {
+        return this;
+    }
+
+    /**
+     * left of the texture coordinate rect this bindable covers.
+     *
+     * @return s0
+     */
+    default float getS0() {
+        return 0f;
+    }
+
+    /**
+     * top of the texture coordinate rect this bindable covers.
+     *
+     * @return t0
+     */
+    default float getT0() {
+        return 0f;
+    }
+
+    /**
+     * right of the texture coordinate rect this bindable covers.
+     *
+     * @return s1
+     */
+    default float getS1() {
+        return 1f;
+    }
+
+    /**
+     * bottom of the texture coordinate rect this bindable covers.
+     *
+     * @return t1
+     */
+    default float getT1() {
+        return 1f;
+    }
 }
@@ -0,0 +1,671 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL15.GL_ELEMENT_ARRAY_BUFFER;
+
+/**
+ * <p>CachingRenderBackend class.</p>
+ * RenderBackend that remembers the GL state it has set,
+ * and does not forward calls that would set it to what it already is.
+ * <p>
+ * It tracks the program in use, the 2D texture bound to each texture unit, the active unit,
+ * array/element buffer bindings, enabled caps, the blend function,
+ * and the last value uploaded to each uniform of each program.
+ * Anything it does not know yet is treated as unknown, so the first call always goes through.
+ * <p>
+ * Anyone who changes GL state without going through this backend must call {@link #invalidate()} afterwards.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class CachingRenderBackend implements RenderBackend {
+    /**
+     * num of texture units tracked. binds on other units are always forwarded.
+     */
+    public static final int MAX_TRACKED_TEXTURE_UNITS = 32;
+
+    /**
+     * caps in [0, MAX_TRACKED_CAP) are tracked. enable/disable of other caps are always forwarded.
+     */
+    public static final int MAX_TRACKED_CAP = 0x10000;
+
+    private static final int UNKNOWN = -1;
+
+    @Getter
+    @ToString.Exclude
+    private final RenderBackend delegate;
+
+    private int currentProgram = UNKNOWN;
+    private int activeTextureUnit = UNKNOWN;
+    private final int[] boundTextures2D = new int[MAX_TRACKED_TEXTURE_UNITS];
+    private int boundArrayBuffer = UNKNOWN;
+    private int boundElementArrayBuffer = UNKNOWN;
+    private int blendSrcFactor = UNKNOWN;
+    private int blendDstFactor = UNKNOWN;
+
+    /**
+     * caps whose state is known.
+     */
+    @ToString.Exclude
+    private final BitSet knownCaps = new BitSet();
+
+    /**
+     * caps known to be enabled. only meaningful where knownCaps is set.
+     */
+    @ToString.Exclude
+    private final BitSet enabledCaps = new BitSet();
+
+    /**
+     * program -> (uniform location -> last uploaded value).
+     */
+    @ToString.Exclude
+    private final Map<Integer, Map<Integer, int[]>> uniformValues = new HashMap<>();
+
+    @Getter
+    private long skippedProgramBindCount;
+    @Getter
+    private long skippedTextureBindCount;
+    @Getter
+    private long skippedBufferBindCount;
+    @Getter
+    private long skippedStateChangeCount;
+    @Getter
+    private long skippedUniformUploadCount;
+
+    /**
+     * <p>Constructor for CachingRenderBackend.</p>
+     *
+     * @param delegate backend to forward calls to.
+     */
+    public CachingRenderBackend(RenderBackend delegate) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        this.delegate = delegate;
+        this.invalidate();
+    }
+
+    /**
+     * forget all cached state.
+     */
+    public void invalidate() {
+        this.currentProgram = UNKNOWN;
+        this.activeTextureUnit = UNKNOWN;
+        Arrays.fill(this.boundTextures2D, UNKNOWN);
+        this.boundArrayBuffer = UNKNOWN;
+        this.boundElementArrayBuffer = UNKNOWN;
+        this.blendSrcFactor = UNKNOWN;
+        this.blendDstFactor = UNKNOWN;
+        this.knownCaps.clear();
+        this.enabledCaps.clear();
+        this.uniformValues.clear();
+    }
+
+    /**
+     * <p>getSkippedCallCount.</p>
+     *
+     * @return num of all calls skipped so far.
+     */
+    public long getSkippedCallCount() {
+        return this.getSkippedProgramBindCount()
+                + this.getSkippedTextureBindCount()
+                + this.getSkippedBufferBindCount()
+                + this.getSkippedStateChangeCount()
+                + this.getSkippedUniformUploadCount();
+    }
+
+    /**
+     * set all skip counters to 0.
+     */
+    public void resetSkippedCounts() {
+        this.skippedProgramBindCount = 0;
+        this.skippedTextureBindCount = 0;
+        this.skippedBufferBindCount = 0;
+        this.skippedStateChangeCount = 0;
+        this.skippedUniformUploadCount = 0;
+    }
+
+    /**
+     * <p>findDelegate.</p>
+     * find a backend of some class in the delegate chain.
+     *
+     * @param backendClass class
+     * @param <T>          class
+     * @return the first backend of this class, or null if not found.
+     */
+    public <T extends RenderBackend> T findDelegate(Class<T> backendClass) {
+        RenderBackend now = this.getDelegate();
+        while (now != null) {
+            if (backendClass.isInstance(now)) {
+                return backendClass.cast(now);
+            }
+            if (now instanceof CachingRenderBackend) {
+                now = ((CachingRenderBackend) now).getDelegate();
+            } else if (now instanceof RecordingRenderBackend) {
+                now = ((RecordingRenderBackend) now).getDelegate();
+            } else {
+                now = null;
+            }
+        }
+        return null;
+    }
+
+    private Map<Integer, int[]> currentProgramUniforms() {
+        return this.uniformValues.computeIfAbsent(this.currentProgram, key -> new HashMap<>());
+    }
+
+    /**
+     * check if the value equals the cached value of this uniform, and cache it if not.
+     * values are compared by their raw bits.
+     *
+     * @return true if the upload can be skipped.
+     */
+    private boolean uniformUnchanged(int location, int bits0, int bits1, int bits2, int bits3) {
+        if (this.currentProgram == UNKNOWN || location == -1) {
+            return false;
+        }
+        final Map<Integer, int[]> programUniforms = this.currentProgramUniforms();
+        int[] cached = programUniforms.get(location);
+        if (cached != null && cached.length == 4
+                && cached[0] == bits0 && cached[1] == bits1 && cached[2] == bits2 && cached[3] == bits3) {
+            this.skippedUniformUploadCount++;
+            return true;
+        }
+        if (cached == null || cached.length != 4) {
+            cached = new int[4];
+            programUniforms.put(location, cached);
+        }
+        cached[0] = bits0;
+        cached[1] = bits1;
+        cached[2] = bits2;
+        cached[3] = bits3;
+        return false;
+    }
+
+    /**
+     * check if the cap is known to be in this state already, and remember the state if not.
+     *
+     * @return true if the call can be skipped.
+     */
+    private boolean capUnchanged(int cap, boolean enabled) {
+        if (cap < 0 || cap >= MAX_TRACKED_CAP) {
+            return false;
+        }
+        if (this.knownCaps.get(cap) && this.enabledCaps.get(cap) == enabled) {
+            return true;
+        }
+        this.knownCaps.set(cap);
+        this.enabledCaps.set(cap, enabled);
+        return false;
+    }
+
+    //---frame start---
+
+    @Override
+    public void beginFrame() {
+        this.getDelegate().beginFrame();
+    }
+
+    @Override
+    public void endFrame() {
+        this.getDelegate().endFrame();
+    }
+
+    //---frame end---
+
+    //---state start---
+
+    @Override
+    public void enable(int cap) {
+        if (this.capUnchanged(cap, true)) {
+            this.skippedStateChangeCount++;
+            return;
+        }
+        this.getDelegate().enable(cap);
+    }
+
+    @Override
+    public void disable(int cap) {
+        if (this.capUnchanged(cap, false)) {
+            this.skippedStateChangeCount++;
+            return;
+        }
+        this.getDelegate().disable(cap);
+    }
+
+    @Override
+    public void blendFunc(int sfactor, int dfactor) {
+        if (this.blendSrcFactor == sfactor && this.blendDstFactor == dfactor) {
+            this.skippedStateChangeCount++;
+            return;
+        }
+        this.blendSrcFactor = sfactor;
+        this.blendDstFactor = dfactor;
+        this.getDelegate().blendFunc(sfactor, dfactor);
+    }
+
+    @Override
+    public void viewport(int x, int y, int width, int height) {
+        this.getDelegate().viewport(x, y, width, height);
+    }
+
+    @Override
+    public void clearColor(float red, float green, float blue, float alpha) {
+        this.getDelegate().clearColor(red, green, blue, alpha);
+    }
+
+    @Override
+    public void clear(int mask) {
+        this.getDelegate().clear(mask);
+    }
+
+    @Override
+    public int getInteger(int pname) {
+        return this.getDelegate().getInteger(pname);
+    }
+
+    //---state end---
+
+    //---program start---
+
+    @Override
+    public int createProgram() {
+        return this.getDelegate().createProgram();
+    }
+
+    @Override
+    public void deleteProgram(int program) {
+        this.uniformValues.remove(program);
+        if (this.currentProgram == program) {
+            this.currentProgram = UNKNOWN;
+        }
+        this.getDelegate().deleteProgram(program);
+    }
+
+    @Override
+    public int createShader(int type) {
+        return this.getDelegate().createShader(type);
+    }
+
+    @Override
+    public void deleteShader(int shader) {
+        this.getDelegate().deleteShader(shader);
+    }
+
+    @Override
+    public void shaderSource(int shader, CharSequence source) {
+        this.getDelegate().shaderSource(shader, source);
+    }
+
+    @Override
+    public void compileShader(int shader) {
+        this.getDelegate().compileShader(shader);
+    }
+
+    @Override
+    public int getShaderi(int shader, int pname) {
+        return this.getDelegate().getShaderi(shader, pname);
+    }
+
+    @Override
+    public String getShaderInfoLog(int shader) {
+        return this.getDelegate().getShaderInfoLog(shader);
+    }
+
+    @Override
+    public void attachShader(int program, int shader) {
+        this.getDelegate().attachShader(program, shader);
+    }
+
+    @Override
+    public void detachShader(int program, int shader) {
+        this.getDelegate().detachShader(program, shader);
+    }
+
+    @Override
+    public void bindAttribLocation(int program, int index, CharSequence name) {
+        this.getDelegate().bindAttribLocation(program, index, name);
+    }
+
+    @Override
+    public void linkProgram(int program) {
+        //linking resets all uniforms of the program.
+        this.uniformValues.remove(program);
+        this.getDelegate().linkProgram(program);
+    }
+
+    @Override
+    public void validateProgram(int program) {
+        this.getDelegate().validateProgram(program);
+    }
+
+    @Override
+    public int getProgrami(int program, int pname) {
+        return this.getDelegate().getProgrami(program, pname);
+    }
+
+    @Override
+    public String getProgramInfoLog(int program) {
+        return this.getDelegate().getProgramInfoLog(program);
+    }
+
+    @Override
+    public String getActiveUniformName(int program, int index) {
+        return this.getDelegate().getActiveUniformName(program, index);
+    }
+
+    @Override
+    public void useProgram(int program) {
+        if (this.currentProgram == program) {
+            this.skippedProgramBindCount++;
+            return;
+        }
+        this.currentProgram = program;
+        this.getDelegate().useProgram(program);
+    }
+
+    @Override
+    public int getUniformLocation(int program, CharSequence name) {
+        return this.getDelegate().getUniformLocation(program, name);
+    }
+
+    @Override
+    public void uniform1i(int location, int v0) {
+        if (this.uniformUnchanged(location, v0, 0, 0, 0)) {
+            return;
+        }
+        this.getDelegate().uniform1i(location, v0);
+    }
+
+    @Override
+    public void uniform3f(int location, float v0, float v1, float v2) {
+        if (this.uniformUnchanged(location, Float.floatToRawIntBits(v0), Float.floatToRawIntBits(v1),
+                Float.floatToRawIntBits(v2), 0)) {
+            return;
+        }
+        this.getDelegate().uniform3f(location, v0, v1, v2);
+    }
+
+    @Override
+    public void uniform4f(int location, float v0, float v1, float v2, float v3) {
+        if (this.uniformUnchanged(location, Float.floatToRawIntBits(v0), Float.floatToRawIntBits(v1),
+                Float.floatToRawIntBits(v2), Float.floatToRawIntBits(v3))) {
+            return;
+        }
+        this.getDelegate().uniform4f(location, v0, v1, v2, v3);
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+        if (this.currentProgram != UNKNOWN && location != -1) {
+            final Map<Integer, int[]> programUniforms = this.currentProgramUniforms();
+            if (transpose || value.remaining() != 16) {
+                programUniforms.remove(location);
+            } else {
+                final int position = value.position();
+                int[] cached = programUniforms.get(location);
+                if (cached != null && cached.length == 16) {
+                    boolean same = true;
+                    for (int i = 0; i < 16; i++) {
+                        if (cached[i] != Float.floatToRawIntBits(value.get(position + i))) {
+                            same = false;
+                            break;
+                        }
+                    }
+                    if (same) {
+                        this.skippedUniformUploadCount++;
+                        return;
+                    }
+                } else {
+                    cached = new int[16];
+                    programUniforms.put(location, cached);
+                }
+                for (int i = 0; i < 16; i++) {
+                    cached[i] = Float.floatToRawIntBits(value.get(position + i));
+                }
+            }
+        }
+        this.getDelegate().uniformMatrix4fv(location, transpose, value);
+    }
+
+    //---program end---
+
+    //---texture start---
+
+    @Override
+    public int genTexture() {
+        return this.getDelegate().genTexture();
+    }
+
+    @Override
+    public void deleteTexture(int texture) {
+        //GL unbinds a deleted texture from every unit.
+        for (int i = 0; i < MAX_TRACKED_TEXTURE_UNITS; i++) {
+            if (this.boundTextures2D[i] == texture) {
+                this.boundTextures2D[i] = 0;
+            }
+        }
+        this.getDelegate().deleteTexture(texture);
+    }
+
+    @Override
+    public void activeTexture(int texture) {
+        if (this.activeTextureUnit == texture) {
+            this.skippedStateChangeCount++;
+            return;
+        }
+        this.activeTextureUnit = texture;
+        this.getDelegate().activeTexture(texture);
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        final int unit = this.activeTextureUnit == UNKNOWN ? UNKNOWN : this.activeTextureUnit - GL_TEXTURE0;
+        if (target != GL_TEXTURE_2D || unit < 0 || unit >= MAX_TRACKED_TEXTURE_UNITS) {
+            if (target == GL_TEXTURE_2D) {
+                //we do not know which unit it went to.
+                Arrays.fill(this.boundTextures2D, UNKNOWN);
+            }
+            this.getDelegate().bindTexture(target, texture);
+            return;
+        }
+        if (this.boundTextures2D[unit] == texture) {
+            this.skippedTextureBindCount++;
+            return;
+        }
+        this.boundTextures2D[unit] = texture;
+        this.getDelegate().bindTexture(target, texture);
+    }
+
+    @Override
+    public void texParameteri(int target, int pname, int param) {
+        this.getDelegate().texParameteri(target, pname, param);
+    }
+
+    @Override
+    public void texParameterf(int target, int pname, float param) {
+        this.getDelegate().texParameterf(target, pname, param);
+    }
+
+    @Override
+    public void texImage2D(int target, int level, int internalformat, int width, int height, int border, int format,
+                           int type, ByteBuffer pixels) {
+        this.getDelegate().texImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+    }
+
+    @Override
+    public void texSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format,
+                              int type, ByteBuffer pixels) {
+        this.getDelegate().texSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+    }
+
+    //---texture end---
+
+    //---buffer start---
+
+    @Override
+    public void genBuffers(int[] buffers) {
+        this.getDelegate().genBuffers(buffers);
+    }
+
+    @Override
+    public void deleteBuffers(int[] buffers) {
+        //GL unbinds a deleted buffer.
+        for (int buffer : buffers) {
+            if (this.boundArrayBuffer == buffer) {
+                this.boundArrayBuffer = 0;
+            }
+            if (this.boundElementArrayBuffer == buffer) {
+                this.boundElementArrayBuffer = 0;
+            }
+        }
+        this.getDelegate().deleteBuffers(buffers);
+    }
+
+    @Override
+    public void bindBuffer(int target, int buffer) {
+        if (target == GL_ARRAY_BUFFER) {
+            if (this.boundArrayBuffer == buffer) {
+                this.skippedBufferBindCount++;
+                return;
+            }
+            this.boundArrayBuffer = buffer;
+        } else if (target == GL_ELEMENT_ARRAY_BUFFER) {
+            if (this.boundElementArrayBuffer == buffer) {
+                this.skippedBufferBindCount++;
+                return;
+            }
+            this.boundElementArrayBuffer = buffer;
+        }
+        this.getDelegate().bindBuffer(target, buffer);
+    }
+
+    @Override
+    public void bufferData(int target, long size, int usage) {
+        this.getDelegate().bufferData(target, size, usage);
+    }
+
+    @Override
+    public void bufferData(int target, FloatBuffer data, int usage) {
+        this.getDelegate().bufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferData(int target, IntBuffer data, int usage) {
+        this.getDelegate().bufferData(target, data, usage);
+    }
+
+    @Override
+    public void bufferSubData(int target, long offset, FloatBuffer data) {
+        this.getDelegate().bufferSubData(target, offset, data);
+    }
+
+    @Override
+    public void enableVertexAttribArray(int index) {
+        this.getDelegate().enableVertexAttribArray(index);
+    }
+
+    @Override
+    public void disableVertexAttribArray(int index) {
+        this.getDelegate().disableVertexAttribArray(index);
+    }
+
+    @Override
+    public void vertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+        this.getDelegate().vertexAttribPointer(index, size, type, normalized, stride, pointer);
+    }
+
+    @Override
+    public void drawElements(int mode, int count, int type, long indices) {
+        this.getDelegate().drawElements(mode, count, type, indices);
+    }
+
+    //---buffer end---
+
+    //---fixed function start---
+
+    @Override
+    public void matrixMode(int mode) {
+        this.getDelegate().matrixMode(mode);
+    }
+
+    @Override
+    public void loadIdentity() {
+        this.getDelegate().loadIdentity();
+    }
+
+    @Override
+    public void ortho(double left, double right, double bottom, double top, double zNear, double zFar) {
+        this.getDelegate().ortho(left, right, bottom, top, zNear, zFar);
+    }
+
+    @Override
+    public void color4f(float red, float green, float blue, float alpha) {
+        this.getDelegate().color4f(red, green, blue, alpha);
+    }
+
+    @Override
+    public void begin(int mode) {
+        this.getDelegate().begin(mode);
+    }
+
+    @Override
+    public void end() {
+        this.getDelegate().end();
+    }
+
+    @Override
+    public void texCoord2f(float s, float t) {
+        this.getDelegate().texCoord2f(s, t);
+    }
+
+    @Override
+    public void vertex2f(float x, float y) {
+        this.getDelegate().vertex2f(x, y);
+    }
+
+    @Override
+    public void rectf(float x1, float y1, float x2, float y2) {
+        this.getDelegate().rectf(x1, y1, x2, y2);
+    }
+
+    //---fixed function end---
+}
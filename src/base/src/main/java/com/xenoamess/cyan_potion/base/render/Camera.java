@@ -46,6 +46,25 @@ public class Camera implements AbstractMutablePoint {
     @Setter
     private float posY;
 
+    /**
+     * position at the end of the last tick, and of the tick before it.
+     * NaN before the first tick.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private float lastTickPosX = Float.NaN;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private float lastTickPosY = Float.NaN;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private float previousTickPosX = Float.NaN;
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private float previousTickPosY = Float.NaN;
+
     /**
      * <p>Constructor for Camera.</p>
      *
@@ -56,4 +75,53 @@ public class Camera implements AbstractMutablePoint {
         this.setPosX(initX);
         this.setPosY(initY);
     }
+
+    /**
+     * <p>rememberTickPosition.</p>
+     * remember where the camera is, called at the end of every tick.
+     */
+    public void rememberTickPosition() {
+        this.previousTickPosX = Float.isNaN(this.lastTickPosX) ? this.getPosX() : this.lastTickPosX;
+        this.previousTickPosY = Float.isNaN(this.lastTickPosY) ? this.getPosY() : this.lastTickPosY;
+        this.lastTickPosX = this.getPosX();
+        this.lastTickPosY = this.getPosY();
+    }
+
+    /**
+     * <p>getMotionX.</p>
+     *
+     * @return how far the camera moved since the end of the tick before the last one.
+     */
+    public float getMotionX() {
+        return Float.isNaN(this.getPreviousTickPosX()) ? 0 : this.getPosX() - this.getPreviousTickPosX();
+    }
+
+    /**
+     * <p>getMotionY.</p>
+     *
+     * @return how far the camera moved since the end of the tick before the last one.
+     */
+    public float getMotionY() {
+        return Float.isNaN(this.getPreviousTickPosY()) ? 0 : this.getPosY() - this.getPreviousTickPosY();
+    }
+
+    /**
+     * <p>getInterpolatedPosX.</p>
+     *
+     * @param interpolationAlpha interpolation alpha
+     * @return posX moved back by (1 - interpolationAlpha) * motionX.
+     */
+    public float getInterpolatedPosX(float interpolationAlpha) {
+        return this.getPosX() - (1 - interpolationAlpha) * this.getMotionX();
+    }
+
+    /**
+     * <p>getInterpolatedPosY.</p>
+     *
+     * @param interpolationAlpha interpolation alpha
+     * @return posY moved back by (1 - interpolationAlpha) * motionY.
+     */
+    public float getInterpolatedPosY(float interpolationAlpha) {
+        return this.getPosY() - (1 - interpolationAlpha) * this.getMotionY();
+    }
 }
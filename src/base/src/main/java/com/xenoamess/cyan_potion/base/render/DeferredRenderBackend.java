@@ -0,0 +1,841 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <p>DeferredRenderBackend class.</p>
+ * RenderBackend used by the logic thread when the game runs with a separate render thread.
+ * <p>
+ * Calls that return nothing are not run, but recorded (buffers are copied, so the caller can reuse them).
+ * Everything recorded between two {@link #endFrame()} calls is one frame snapshot;
+ * the render thread (the one owning the GL context) replays snapshots into the delegate,
+ * in order, by {@link #runUntilFrameEnd(long)}, and swaps buffers after each one.
+ * <p>
+ * Calls that return a value (genTexture, getUniformLocation, etc) can not wait for the next snapshot.
+ * They send what was recorded so far plus themselves to the render thread, and block until it has run them.
+ * So GL objects are still created in the same order as they were asked for.
+ * <p>
+ * At most maxFramesInFlight finished snapshots can wait for the render thread;
+ * endFrame blocks the logic thread when there are more, so a slow GPU slows the logic down
+ * instead of letting the queue grow.
+ * <p>
+ * The last replayed snapshot is retained, so the render thread can {@link #redraw(float)} it
+ * while the logic thread is still working on the next one.
+ * Uploads that only need to happen once (texImage2D, bufferData with data, shader sources, etc)
+ * are not replayed again, and deletes are delayed until the snapshot that may still use the object retires.
+ * Vertices and matrices recorded by bufferSubDataInterpolated and uniformMatrix4fvInterpolated
+ * are interpolated by the alpha of the replay, so redrawn frames move smoothly between two ticks.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see RenderBackends#setThreadBackend(Thread, RenderBackend)
+ */
+@ToString
+public class DeferredRenderBackend implements RenderBackend {
+    /**
+     * default max num of finished frames waiting for the render thread.
+     */
+    public static final int DEFAULT_MAX_FRAMES_IN_FLIGHT = 2;
+
+    /**
+     * what the logic thread sends to the render thread at once.
+     */
+    private static class Batch {
+        final List<Consumer<RenderBackend>> commands;
+        /**
+         * indexes of commands that shall not be run again on redraw.
+         */
+        final BitSet once;
+        /**
+         * run when the snapshot containing this batch is no longer drawn.
+         */
+        final List<Consumer<RenderBackend>> onRetire;
+        final FutureTask<?> call;
+        final boolean frameEnd;
+        final long frameEndNanos;
+
+        Batch(List<Consumer<RenderBackend>> commands, BitSet once, List<Consumer<RenderBackend>> onRetire,
+              FutureTask<?> call, boolean frameEnd, long frameEndNanos) {
+            this.commands = commands;
+            this.once = once;
+            this.onRetire = onRetire;
+            this.call = call;
+            this.frameEnd = frameEnd;
+            this.frameEndNanos = frameEndNanos;
+        }
+    }
+
+    private static final Consumer<RenderBackend> BEGIN_FRAME = RenderBackend::beginFrame;
+
+    @Getter
+    @ToString.Exclude
+    private final RenderBackend delegate;
+
+    @Getter
+    private final int maxFramesInFlight;
+
+    @ToString.Exclude
+    private final Semaphore freeFrameSlots;
+
+    @ToString.Exclude
+    private final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+
+    @ToString.Exclude
+    private List<Consumer<RenderBackend>> recording = new ArrayList<>();
+
+    @ToString.Exclude
+    private BitSet recordingOnce = new BitSet();
+
+    @ToString.Exclude
+    private List<Consumer<RenderBackend>> recordingOnRetire = new ArrayList<>();
+
+    @Getter
+    private volatile long publishedFrameCount;
+
+    @Getter
+    private volatile long renderedFrameCount;
+
+    /*
+     * fields below are only touched by the render thread.
+     */
+
+    @ToString.Exclude
+    private List<Consumer<RenderBackend>> replayingCommands = new ArrayList<>();
+
+    @ToString.Exclude
+    private List<Consumer<RenderBackend>> replayingOnRetire = new ArrayList<>();
+
+    /**
+     * true if commands of the next snapshot were already run, so redrawing now would break in between them.
+     */
+    private boolean replayingUnfinished = false;
+
+    @ToString.Exclude
+    private List<Consumer<RenderBackend>> snapshotCommands = new ArrayList<>();
+
+    @ToString.Exclude
+    private List<Consumer<RenderBackend>> snapshotOnRetire = new ArrayList<>();
+
+    /**
+     * System.nanoTime() when the logic thread ended the snapshot replayed last.
+     */
+    @Getter
+    private volatile long snapshotFrameEndNanos;
+
+    @Getter
+    private volatile long redrawnFrameCount;
+
+    @Getter
+    private float replayInterpolationAlpha = 1F;
+
+    @ToString.Exclude
+    private FloatBuffer interpolationScratch;
+
+    /**
+     * <p>Constructor for DeferredRenderBackend.</p>
+     *
+     * @param delegate backend the render thread replays into.
+     */
+    public DeferredRenderBackend(RenderBackend delegate) {
+        this(delegate, DEFAULT_MAX_FRAMES_IN_FLIGHT);
+    }
+
+    /**
+     * <p>Constructor for DeferredRenderBackend.</p>
+     *
+     * @param delegate          backend the render thread replays into.
+     * @param maxFramesInFlight max num of finished frames waiting for the render thread.
+     */
+    public DeferredRenderBackend(RenderBackend delegate, int maxFramesInFlight) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate must not be null");
+        }
+        if (maxFramesInFlight <= 0) {
+            throw new IllegalArgumentException("maxFramesInFlight must be positive : " + maxFramesInFlight);
+        }
+        this.delegate = delegate;
+        this.maxFramesInFlight = maxFramesInFlight;
+        this.freeFrameSlots = new Semaphore(maxFramesInFlight);
+    }
+
+    //---logic thread side start---
+
+    private void record(Consumer<RenderBackend> command) {
+        this.recording.add(command);
+    }
+
+    /**
+     * record a command that shall run only once, and not on redraw.
+     */
+    private void recordOnce(Consumer<RenderBackend> command) {
+        this.recordingOnce.set(this.recording.size());
+        this.recording.add(command);
+    }
+
+    /**
+     * record a command that shall run when the snapshot being recorded is no longer drawn.
+     */
+    private void recordOnRetire(Consumer<RenderBackend> command) {
+        this.recordingOnRetire.add(command);
+    }
+
+    private Batch takeRecording(FutureTask<?> call, boolean frameEnd) {
+        final Batch res = new Batch(this.recording, this.recordingOnce, this.recordingOnRetire, call, frameEnd,
+                frameEnd ? System.nanoTime() : 0L);
+        this.recording = new ArrayList<>();
+        this.recordingOnce = new BitSet();
+        this.recordingOnRetire = new ArrayList<>();
+        return res;
+    }
+
+    private <T> T call(Callable<T> callable) {
+        final FutureTask<T> futureTask = new FutureTask<>(callable);
+        this.batches.add(this.takeRecording(futureTask, false));
+        try {
+            return futureTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted when waiting for the render thread", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("render thread failed", e.getCause());
+        }
+    }
+
+    /**
+     * send what was recorded but not yet sent to the render thread, without ending the frame.
+     * does not wait for it to be run.
+     */
+    public void flush() {
+        if (!this.recording.isEmpty() || !this.recordingOnRetire.isEmpty()) {
+            this.batches.add(this.takeRecording(null, false));
+        }
+    }
+
+    //---logic thread side end---
+
+    //---render thread side start---
+
+    private void run(Batch batch) {
+        this.replayInterpolationAlpha = 0F;
+        for (int i = 0; i < batch.commands.size(); i++) {
+            final Consumer<RenderBackend> command = batch.commands.get(i);
+            if (command == BEGIN_FRAME) {
+                this.replayingCommands.clear();
+            }
+            command.accept(this.getDelegate());
+            if (!batch.once.get(i)) {
+                this.replayingCommands.add(command);
+            }
+        }
+        this.replayingOnRetire.addAll(batch.onRetire);
+        if (batch.call != null) {
+            batch.call.run();
+        }
+        this.replayingUnfinished = !batch.frameEnd;
+        if (batch.frameEnd) {
+            runAll(this.snapshotOnRetire, this.getDelegate());
+            this.snapshotCommands = this.replayingCommands;
+            this.snapshotOnRetire = this.replayingOnRetire;
+            this.replayingCommands = new ArrayList<>();
+            this.replayingOnRetire = new ArrayList<>();
+            this.snapshotFrameEndNanos = batch.frameEndNanos;
+            this.renderedFrameCount++;
+            this.freeFrameSlots.release();
+        }
+    }
+
+    private static void runAll(List<Consumer<RenderBackend>> commands, RenderBackend backend) {
+        for (Consumer<RenderBackend> command : commands) {
+            command.accept(backend);
+        }
+        commands.clear();
+    }
+
+    /**
+     * run what the logic thread sent, until a frame snapshot ends or there is nothing to run for timeoutNanos.
+     * must be called by the thread owning the GL context.
+     *
+     * @param timeoutNanos max time to wait for the next batch
+     * @return true if a frame snapshot ended, and buffers shall be swapped.
+     */
+    public boolean runUntilFrameEnd(long timeoutNanos) {
+        try {
+            Batch batch;
+            while ((batch = this.batches.poll(timeoutNanos, TimeUnit.NANOSECONDS)) != null) {
+                this.run(batch);
+                if (batch.frameEnd) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * run everything the logic thread sent, without waiting.
+     * must be called by the thread owning the GL context.
+     *
+     * @return num of frame snapshots ended.
+     */
+    public int runPending() {
+        int res = 0;
+        Batch batch;
+        while ((batch = this.batches.poll()) != null) {
+            this.run(batch);
+            if (batch.frameEnd) {
+                res++;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * draw the last replayed frame snapshot again, with vertices and matrices interpolated by interpolationAlpha.
+     * alpha 0 is where things were one tick before the snapshot, and alpha 1 is where they are in it.
+     * must be called by the thread owning the GL context.
+     *
+     * @param interpolationAlpha interpolation alpha
+     * @return false if nothing was drawn, because no frame snapshot was replayed yet,
+     * or because part of the next one was already run.
+     */
+    public boolean redraw(float interpolationAlpha) {
+        if (this.renderedFrameCount == 0 || this.replayingUnfinished) {
+            return false;
+        }
+        this.replayInterpolationAlpha = interpolationAlpha;
+        for (Consumer<RenderBackend> command : this.snapshotCommands) {
+            command.accept(this.getDelegate());
+        }
+        this.redrawnFrameCount++;
+        return true;
+    }
+
+    /**
+     * drop the retained frame snapshot, running the deletes delayed for it and freeing its copies.
+     * called by the render thread after the logic thread stopped and everything it sent was run.
+     */
+    public void discardSnapshot() {
+        this.snapshotCommands = new ArrayList<>();
+        this.replayingCommands = new ArrayList<>();
+        runAll(this.snapshotOnRetire, this.getDelegate());
+        runAll(this.replayingOnRetire, this.getDelegate());
+        if (this.interpolationScratch != null) {
+            MemoryUtil.memFree(this.interpolationScratch);
+            this.interpolationScratch = null;
+        }
+    }
+
+    private FloatBuffer interpolationScratch(int capacity) {
+        if (this.interpolationScratch == null) {
+            this.interpolationScratch = MemoryUtil.memAllocFloat(Math.max(capacity, 16));
+        } else if (this.interpolationScratch.capacity() < capacity) {
+            this.interpolationScratch = MemoryUtil.memRealloc(this.interpolationScratch, capacity);
+        }
+        this.interpolationScratch.clear();
+        return this.interpolationScratch;
+    }
+
+    private FloatBuffer interpolateVertices(FloatBuffer data, FloatBuffer motions, int floatsPerVertex,
+                                            int verticesPerMotion) {
+        final float back = 1F - this.replayInterpolationAlpha;
+        if (back == 0F) {
+            return data;
+        }
+        final int size = data.remaining();
+        final FloatBuffer res = this.interpolationScratch(size);
+        final int base = data.position();
+        final int motionBase = motions.position();
+        for (int i = 0; i < size; i++) {
+            res.put(i, data.get(base + i));
+        }
+        for (int vertex = 0; vertex * floatsPerVertex < size; vertex++) {
+            final int motion = motionBase + vertex / verticesPerMotion * 2;
+            final int index = vertex * floatsPerVertex;
+            res.put(index, res.get(index) - back * motions.get(motion));
+            res.put(index + 1, res.get(index + 1) - back * motions.get(motion + 1));
+        }
+        res.limit(size);
+        return res;
+    }
+
+    private FloatBuffer interpolateMatrix(FloatBuffer value, FloatBuffer previousValue) {
+        final float alpha = this.replayInterpolationAlpha;
+        if (alpha == 1F) {
+            return value;
+        }
+        final int size = value.remaining();
+        final FloatBuffer res = this.interpolationScratch(size);
+        for (int i = 0; i < size; i++) {
+            final float previous = previousValue.get(previousValue.position() + i);
+            res.put(i, previous + (value.get(value.position() + i) - previous) * alpha);
+        }
+        res.limit(size);
+        return res;
+    }
+
+    //---render thread side end---
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        if (buffer == null) {
+            return null;
+        }
+        final ByteBuffer res = MemoryUtil.memAlloc(buffer.remaining());
+        MemoryUtil.memCopy(buffer, res);
+        return res;
+    }
+
+    private static FloatBuffer copy(FloatBuffer buffer) {
+        final FloatBuffer res = MemoryUtil.memAllocFloat(buffer.remaining());
+        MemoryUtil.memCopy(buffer, res);
+        return res;
+    }
+
+    private static IntBuffer copy(IntBuffer buffer) {
+        final IntBuffer res = MemoryUtil.memAllocInt(buffer.remaining());
+        MemoryUtil.memCopy(buffer, res);
+        return res;
+    }
+
+    //---frame start---
+
+    @Override
+    public void beginFrame() {
+        this.record(BEGIN_FRAME);
+    }
+
+    /**
+     * end the frame snapshot and hand it to the render thread.
+     * blocks while maxFramesInFlight snapshots are already waiting.
+     */
+    @Override
+    public void endFrame() {
+        this.record(RenderBackend::endFrame);
+        this.freeFrameSlots.acquireUninterruptibly();
+        this.batches.add(this.takeRecording(null, true));
+        this.publishedFrameCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isInterpolatingOnReplay() {
+        return true;
+    }
+
+    //---frame end---
+
+    //---state start---
+
+    @Override
+    public void enable(int cap) {
+        this.record(backend -> backend.enable(cap));
+    }
+
+    @Override
+    public void disable(int cap) {
+        this.record(backend -> backend.disable(cap));
+    }
+
+    @Override
+    public void blendFunc(int sfactor, int dfactor) {
+        this.record(backend -> backend.blendFunc(sfactor, dfactor));
+    }
+
+    @Override
+    public void viewport(int x, int y, int width, int height) {
+        this.record(backend -> backend.viewport(x, y, width, height));
+    }
+
+    @Override
+    public void clearColor(float red, float green, float blue, float alpha) {
+        this.record(backend -> backend.clearColor(red, green, blue, alpha));
+    }
+
+    @Override
+    public void clear(int mask) {
+        this.record(backend -> backend.clear(mask));
+    }
+
+    @Override
+    public int getInteger(int pname) {
+        return this.call(() -> this.getDelegate().getInteger(pname));
+    }
+
+    //---state end---
+
+    //---program start---
+
+    @Override
+    public int createProgram() {
+        return this.call(() -> this.getDelegate().createProgram());
+    }
+
+    @Override
+    public void deleteProgram(int program) {
+        this.recordOnRetire(backend -> backend.deleteProgram(program));
+    }
+
+    @Override
+    public int createShader(int type) {
+        return this.call(() -> this.getDelegate().createShader(type));
+    }
+
+    @Override
+    public void deleteShader(int shader) {
+        this.recordOnRetire(backend -> backend.deleteShader(shader));
+    }
+
+    @Override
+    public void shaderSource(int shader, CharSequence source) {
+        final String sourceString = source.toString();
+        this.recordOnce(backend -> backend.shaderSource(shader, sourceString));
+    }
+
+    @Override
+    public void compileShader(int shader) {
+        this.recordOnce(backend -> backend.compileShader(shader));
+    }
+
+    @Override
+    public int getShaderi(int shader, int pname) {
+        return this.call(() -> this.getDelegate().getShaderi(shader, pname));
+    }
+
+    @Override
+    public String getShaderInfoLog(int shader) {
+        return this.call(() -> this.getDelegate().getShaderInfoLog(shader));
+    }
+
+    @Override
+    public void attachShader(int program, int shader) {
+        this.recordOnce(backend -> backend.attachShader(program, shader));
+    }
+
+    @Override
+    public void detachShader(int program, int shader) {
+        this.recordOnce(backend -> backend.detachShader(program, shader));
+    }
+
+    @Override
+    public void bindAttribLocation(int program, int index, CharSequence name) {
+        final String nameString = name.toString();
+        this.recordOnce(backend -> backend.bindAttribLocation(program, index, nameString));
+    }
+
+    @Override
+    public void linkProgram(int program) {
+        this.recordOnce(backend -> backend.linkProgram(program));
+    }
+
+    @Override
+    public void validateProgram(int program) {
+        this.recordOnce(backend -> backend.validateProgram(program));
+    }
+
+    @Override
+    public int getProgrami(int program, int pname) {
+        return this.call(() -> this.getDelegate().getProgrami(program, pname));
+    }
+
+    @Override
+    public String getProgramInfoLog(int program) {
+        return this.call(() -> this.getDelegate().getProgramInfoLog(program));
+    }
+
+    @Override
+    public String getActiveUniformName(int program, int index) {
+        return this.call(() -> this.getDelegate().getActiveUniformName(program, index));
+    }
+
+    @Override
+    public void useProgram(int program) {
+        this.record(backend -> backend.useProgram(program));
+    }
+
+    @Override
+    public int getUniformLocation(int program, CharSequence name) {
+        final String nameString = name.toString();
+        return this.call(() -> this.getDelegate().getUniformLocation(program, nameString));
+    }
+
+    @Override
+    public void uniform1i(int location, int v0) {
+        this.record(backend -> backend.uniform1i(location, v0));
+    }
+
+    @Override
+    public void uniform3f(int location, float v0, float v1, float v2) {
+        this.record(backend -> backend.uniform3f(location, v0, v1, v2));
+    }
+
+    @Override
+    public void uniform4f(int location, float v0, float v1, float v2, float v3) {
+        this.record(backend -> backend.uniform4f(location, v0, v1, v2, v3));
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+        final FloatBuffer valueCopy = copy(value);
+        this.record(backend -> backend.uniformMatrix4fv(location, transpose, valueCopy));
+        this.recordOnRetire(backend -> MemoryUtil.memFree(valueCopy));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void uniformMatrix4fvInterpolated(int location, boolean transpose, FloatBuffer value,
+                                             FloatBuffer previousValue) {
+        final FloatBuffer valueCopy = copy(value);
+        final FloatBuffer previousValueCopy = copy(previousValue);
+        this.record(backend -> backend.uniformMatrix4fv(location, transpose,
+                this.interpolateMatrix(valueCopy, previousValueCopy)));
+        this.recordOnRetire(backend -> {
+            MemoryUtil.memFree(valueCopy);
+            MemoryUtil.memFree(previousValueCopy);
+        });
+    }
+
+    //---program end---
+
+    //---texture start---
+
+    @Override
+    public int genTexture() {
+        return this.call(() -> this.getDelegate().genTexture());
+    }
+
+    @Override
+    public void deleteTexture(int texture) {
+        this.recordOnRetire(backend -> backend.deleteTexture(texture));
+    }
+
+    @Override
+    public void activeTexture(int texture) {
+        this.record(backend -> backend.activeTexture(texture));
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        this.record(backend -> backend.bindTexture(target, texture));
+    }
+
+    @Override
+    public void texParameteri(int target, int pname, int param) {
+        this.record(backend -> backend.texParameteri(target, pname, param));
+    }
+
+    @Override
+    public void texParameterf(int target, int pname, float param) {
+        this.record(backend -> backend.texParameterf(target, pname, param));
+    }
+
+    @Override
+    public void texImage2D(int target, int level, int internalformat, int width, int height, int border, int format,
+                           int type, ByteBuffer pixels) {
+        final ByteBuffer pixelsCopy = copy(pixels);
+        this.recordOnce(backend -> {
+            backend.texImage2D(target, level, internalformat, width, height, border, format, type, pixelsCopy);
+            MemoryUtil.memFree(pixelsCopy);
+        });
+    }
+
+    @Override
+    public void texSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format,
+                              int type, ByteBuffer pixels) {
+        final ByteBuffer pixelsCopy = copy(pixels);
+        this.recordOnce(backend -> {
+            backend.texSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixelsCopy);
+            MemoryUtil.memFree(pixelsCopy);
+        });
+    }
+
+    //---texture end---
+
+    //---buffer start---
+
+    @Override
+    public void genBuffers(int[] buffers) {
+        final int[] res = this.call(() -> {
+            final int[] generated = new int[buffers.length];
+            this.getDelegate().genBuffers(generated);
+            return generated;
+        });
+        System.arraycopy(res, 0, buffers, 0, buffers.length);
+    }
+
+    @Override
+    public void deleteBuffers(int[] buffers) {
+        final int[] buffersCopy = buffers.clone();
+        this.recordOnRetire(backend -> backend.deleteBuffers(buffersCopy));
+    }
+
+    @Override
+    public void bindBuffer(int target, int buffer) {
+        this.record(backend -> backend.bindBuffer(target, buffer));
+    }
+
+    @Override
+    public void bufferData(int target, long size, int usage) {
+        this.record(backend -> backend.bufferData(target, size, usage));
+    }
+
+    @Override
+    public void bufferData(int target, FloatBuffer data, int usage) {
+        final FloatBuffer dataCopy = copy(data);
+        this.recordOnce(backend -> {
+            backend.bufferData(target, dataCopy, usage);
+            MemoryUtil.memFree(dataCopy);
+        });
+    }
+
+    @Override
+    public void bufferData(int target, IntBuffer data, int usage) {
+        final IntBuffer dataCopy = copy(data);
+        this.recordOnce(backend -> {
+            backend.bufferData(target, dataCopy, usage);
+            MemoryUtil.memFree(dataCopy);
+        });
+    }
+
+    @Override
+    public void bufferSubData(int target, long offset, FloatBuffer data) {
+        final FloatBuffer dataCopy = copy(data);
+        this.record(backend -> backend.bufferSubData(target, offset, dataCopy));
+        this.recordOnRetire(backend -> MemoryUtil.memFree(dataCopy));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void bufferSubDataInterpolated(int target, long offset, FloatBuffer data, FloatBuffer motions,
+                                          int floatsPerVertex, int verticesPerMotion) {
+        final FloatBuffer dataCopy = copy(data);
+        final FloatBuffer motionsCopy = copy(motions);
+        this.record(backend -> backend.bufferSubData(target, offset,
+                this.interpolateVertices(dataCopy, motionsCopy, floatsPerVertex, verticesPerMotion)));
+        this.recordOnRetire(backend -> {
+            MemoryUtil.memFree(dataCopy);
+            MemoryUtil.memFree(motionsCopy);
+        });
+    }
+
+    @Override
+    public void enableVertexAttribArray(int index) {
+        this.record(backend -> backend.enableVertexAttribArray(index));
+    }
+
+    @Override
+    public void disableVertexAttribArray(int index) {
+        this.record(backend -> backend.disableVertexAttribArray(index));
+    }
+
+    @Override
+    public void vertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+        this.record(backend -> backend.vertexAttribPointer(index, size, type, normalized, stride, pointer));
+    }
+
+    @Override
+    public void drawElements(int mode, int count, int type, long indices) {
+        this.record(backend -> backend.drawElements(mode, count, type, indices));
+    }
+
+    //---buffer end---
+
+    //---fixed function start---
+
+    @Override
+    public void matrixMode(int mode) {
+        this.record(backend -> backend.matrixMode(mode));
+    }
+
+    @Override
+    public void loadIdentity() {
+        this.record(RenderBackend::loadIdentity);
+    }
+
+    @Override
+    public void ortho(double left, double right, double bottom, double top, double zNear, double zFar) {
+        this.record(backend -> backend.ortho(left, right, bottom, top, zNear, zFar));
+    }
+
+    @Override
+    public void color4f(float red, float green, float blue, float alpha) {
+        this.record(backend -> backend.color4f(red, green, blue, alpha));
+    }
+
+    @Override
+    public void begin(int mode) {
+        this.record(backend -> backend.begin(mode));
+    }
+
+    @Override
+    public void end() {
+        this.record(RenderBackend::end);
+    }
+
+    @Override
+    public void texCoord2f(float s, float t) {
+        this.record(backend -> backend.texCoord2f(s, t));
+    }
+
+    @Override
+    public void vertex2f(float x, float y) {
+        this.record(backend -> backend.vertex2f(x, y));
+    }
+
+    @Override
+    public void rectf(float x1, float y1, float x2, float y2) {
+        this.record(backend -> backend.rectf(x1, y1, x2, y2));
+    }
+
+    //---fixed function end---
+}
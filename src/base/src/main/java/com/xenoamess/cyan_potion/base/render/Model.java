@@ -29,7 +29,6 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
-import org.lwjgl.opengl.GL15;
 import org.lwjgl.system.MemoryStack;
 
 import java.io.Closeable;
@@ -40,13 +39,6 @@ import static org.lwjgl.opengl.GL20.GL_FLOAT;
 import static org.lwjgl.opengl.GL20.GL_STATIC_DRAW;
 import static org.lwjgl.opengl.GL20.GL_TRIANGLES;
 import static org.lwjgl.opengl.GL20.GL_UNSIGNED_INT;
-import static org.lwjgl.opengl.GL20.glBindBuffer;
-import static org.lwjgl.opengl.GL20.glBufferData;
-import static org.lwjgl.opengl.GL20.glDeleteBuffers;
-import static org.lwjgl.opengl.GL20.glDisableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glDrawElements;
-import static org.lwjgl.opengl.GL20.glEnableVertexAttribArray;
-import static org.lwjgl.opengl.GL20.glVertexAttribPointer;
 
 /**
  * <p>Model class.</p>
@@ -122,24 +114,25 @@ public class Model implements Closeable {
         if (this.getDrawCount() == INITIALIZED_VALUE) {
             setDrawCount(indices.length);
 
+            final RenderBackend renderBackend = RenderBackends.getCurrent();
             try (MemoryStack stack = MemoryStack.stackPush()) {
                 int[] intArray = new int[3];
-                GL15.glGenBuffers(intArray);
+                renderBackend.genBuffers(intArray);
 
                 setVertexObject(intArray[0]);
-                glBindBuffer(GL_ARRAY_BUFFER, getVertexObject());
-                glBufferData(GL_ARRAY_BUFFER, stack.floats(vertices), GL_STATIC_DRAW);
-                glBindBuffer(GL_ARRAY_BUFFER, 0);
+                renderBackend.bindBuffer(GL_ARRAY_BUFFER, getVertexObject());
+                renderBackend.bufferData(GL_ARRAY_BUFFER, stack.floats(vertices), GL_STATIC_DRAW);
+                renderBackend.bindBuffer(GL_ARRAY_BUFFER, 0);
 
                 setTextureCoordObject(intArray[1]);
-                glBindBuffer(GL_ARRAY_BUFFER, getTextureCoordObject());
-                glBufferData(GL_ARRAY_BUFFER, stack.floats(texCoords), GL_STATIC_DRAW);
-                glBindBuffer(GL_ARRAY_BUFFER, 0);
+                renderBackend.bindBuffer(GL_ARRAY_BUFFER, getTextureCoordObject());
+                renderBackend.bufferData(GL_ARRAY_BUFFER, stack.floats(texCoords), GL_STATIC_DRAW);
+                renderBackend.bindBuffer(GL_ARRAY_BUFFER, 0);
 
                 setIndexObject(intArray[2]);
-                glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, getIndexObject());
-                glBufferData(GL_ELEMENT_ARRAY_BUFFER, stack.ints(indices), GL_STATIC_DRAW);
-                glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+                renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, getIndexObject());
+                renderBackend.bufferData(GL_ELEMENT_ARRAY_BUFFER, stack.ints(indices), GL_STATIC_DRAW);
+                renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
             }
         }
     }
@@ -149,30 +142,31 @@ public class Model implements Closeable {
      */
     @Override
     public void close() {
-        glDeleteBuffers(new int[]{getVertexObject(), getTextureCoordObject(), getIndexObject()});
+        RenderBackends.getCurrent().deleteBuffers(new int[]{getVertexObject(), getTextureCoordObject(), getIndexObject()});
     }
 
     /**
      * <p>render.</p>
      */
     public void render() {
-        glEnableVertexAttribArray(0);
-        glEnableVertexAttribArray(1);
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        renderBackend.enableVertexAttribArray(0);
+        renderBackend.enableVertexAttribArray(1);
 
-        glBindBuffer(GL_ARRAY_BUFFER, getVertexObject());
-        glVertexAttribPointer(0, 3, GL_FLOAT, false, 0, 0);
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, getVertexObject());
+        renderBackend.vertexAttribPointer(0, 3, GL_FLOAT, false, 0, 0);
 
-        glBindBuffer(GL_ARRAY_BUFFER, getTextureCoordObject());
-        glVertexAttribPointer(1, 2, GL_FLOAT, false, 0, 0);
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, getTextureCoordObject());
+        renderBackend.vertexAttribPointer(1, 2, GL_FLOAT, false, 0, 0);
 
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, getIndexObject());
-        glDrawElements(GL_TRIANGLES, getDrawCount(), GL_UNSIGNED_INT, 0);
+        renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, getIndexObject());
+        renderBackend.drawElements(GL_TRIANGLES, getDrawCount(), GL_UNSIGNED_INT, 0);
 
-        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, 0);
 
-        glDisableVertexAttribArray(0);
-        glDisableVertexAttribArray(1);
+        renderBackend.disableVertexAttribArray(0);
+        renderBackend.disableVertexAttribArray(1);
 
     }
 
@@ -0,0 +1,740 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL20;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>RecordingRenderBackend class.</p>
+ * RenderBackend that counts every call by {@link RenderCommandType.Category},
+ * and records the command stream of each frame.
+ * <p>
+ * If constructed with a delegate, every call is forwarded to it, so it can wrap a {@link GlRenderBackend}
+ * to measure a real game.
+ * If constructed without one, it runs headless: no GL context is needed,
+ * handles are made up, shaders always compile and link, and programs have no active uniforms.
+ * <p>
+ * {@link #endFrame()} moves the counters and the command stream to the lastFrame ones and starts new ones,
+ * so calls made between two frames (uploads during update, etc) are counted into the next frame.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class RecordingRenderBackend implements RenderBackend {
+    /**
+     * what glGetInteger(GL_MAX_TEXTURE_SIZE) returns when headless.
+     */
+    public static final int HEADLESS_MAX_TEXTURE_SIZE = 4096;
+
+    private static final int CATEGORY_NUM = RenderCommandType.Category.values().length;
+
+    @Getter
+    @ToString.Exclude
+    private final RenderBackend delegate;
+
+    /**
+     * if false then only count, do not keep the command stream.
+     */
+    @Getter
+    @Setter
+    private boolean recordingCommands = true;
+
+    @Getter
+    private long frameCount;
+
+    @ToString.Exclude
+    private final int[] counts = new int[CATEGORY_NUM];
+
+    @ToString.Exclude
+    private final int[] lastFrameCounts = new int[CATEGORY_NUM];
+
+    @ToString.Exclude
+    private List<RenderCommand> commands = new ArrayList<>();
+
+    @ToString.Exclude
+    private List<RenderCommand> lastFrameCommands = Collections.emptyList();
+
+    @ToString.Exclude
+    private final Map<String, Integer> headlessUniformLocations = new HashMap<>();
+
+    private int headlessNextHandle = 1;
+
+    /**
+     * <p>Constructor for RecordingRenderBackend.</p>
+     * headless.
+     */
+    public RecordingRenderBackend() {
+        this(null);
+    }
+
+    /**
+     * <p>Constructor for RecordingRenderBackend.</p>
+     *
+     * @param delegate backend to forward calls to, or null to run headless.
+     */
+    public RecordingRenderBackend(RenderBackend delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * <p>isHeadless.</p>
+     *
+     * @return true if there is no delegate.
+     */
+    public boolean isHeadless() {
+        return this.getDelegate() == null;
+    }
+
+    private void record(RenderCommandType type, Object... arguments) {
+        this.counts[type.getCategory().ordinal()]++;
+        if (this.isRecordingCommands()) {
+            this.commands.add(new RenderCommand(type, arguments));
+        }
+    }
+
+    private static int sizeOf(Buffer buffer) {
+        return buffer == null ? 0 : buffer.remaining();
+    }
+
+    private int nextHandle() {
+        return headlessNextHandle++;
+    }
+
+    //---statistics start---
+
+    /**
+     * <p>getCount.</p>
+     *
+     * @param category category
+     * @return num of calls of this category since last endFrame.
+     */
+    public int getCount(RenderCommandType.Category category) {
+        return this.counts[category.ordinal()];
+    }
+
+    /**
+     * <p>getLastFrameCount.</p>
+     *
+     * @param category category
+     * @return num of calls of this category in the last finished frame.
+     */
+    public int getLastFrameCount(RenderCommandType.Category category) {
+        return this.lastFrameCounts[category.ordinal()];
+    }
+
+    /**
+     * <p>getDrawCallCount.</p>
+     *
+     * @return num of draw calls since last endFrame.
+     */
+    public int getDrawCallCount() {
+        return this.getCount(RenderCommandType.Category.DRAW);
+    }
+
+    /**
+     * <p>getBindCount.</p>
+     *
+     * @return num of program/texture/buffer binds since last endFrame.
+     */
+    public int getBindCount() {
+        return this.getCount(RenderCommandType.Category.BIND);
+    }
+
+    /**
+     * <p>getUniformUploadCount.</p>
+     *
+     * @return num of uniform uploads since last endFrame.
+     */
+    public int getUniformUploadCount() {
+        return this.getCount(RenderCommandType.Category.UNIFORM);
+    }
+
+    /**
+     * <p>getCommands.</p>
+     *
+     * @return commands recorded since last endFrame.
+     */
+    public List<RenderCommand> getCommands() {
+        return Collections.unmodifiableList(this.commands);
+    }
+
+    /**
+     * <p>getLastFrameCommands.</p>
+     *
+     * @return commands recorded in the last finished frame.
+     */
+    public List<RenderCommand> getLastFrameCommands() {
+        return this.lastFrameCommands;
+    }
+
+    /**
+     * forget the counters and commands since last endFrame.
+     */
+    public void reset() {
+        for (int i = 0; i < CATEGORY_NUM; i++) {
+            this.counts[i] = 0;
+        }
+        this.commands = new ArrayList<>();
+    }
+
+    //---statistics end---
+
+    //---frame start---
+
+    @Override
+    public void beginFrame() {
+        if (!this.isHeadless()) {
+            this.getDelegate().beginFrame();
+        }
+    }
+
+    @Override
+    public void endFrame() {
+        if (!this.isHeadless()) {
+            this.getDelegate().endFrame();
+        }
+        System.arraycopy(this.counts, 0, this.lastFrameCounts, 0, CATEGORY_NUM);
+        this.lastFrameCommands = Collections.unmodifiableList(this.commands);
+        this.reset();
+        this.frameCount++;
+    }
+
+    //---frame end---
+
+    //---state start---
+
+    @Override
+    public void enable(int cap) {
+        record(RenderCommandType.ENABLE, cap);
+        if (!this.isHeadless()) {
+            this.getDelegate().enable(cap);
+        }
+    }
+
+    @Override
+    public void disable(int cap) {
+        record(RenderCommandType.DISABLE, cap);
+        if (!this.isHeadless()) {
+            this.getDelegate().disable(cap);
+        }
+    }
+
+    @Override
+    public void blendFunc(int sfactor, int dfactor) {
+        record(RenderCommandType.BLEND_FUNC, sfactor, dfactor);
+        if (!this.isHeadless()) {
+            this.getDelegate().blendFunc(sfactor, dfactor);
+        }
+    }
+
+    @Override
+    public void viewport(int x, int y, int width, int height) {
+        record(RenderCommandType.VIEWPORT, x, y, width, height);
+        if (!this.isHeadless()) {
+            this.getDelegate().viewport(x, y, width, height);
+        }
+    }
+
+    @Override
+    public void clearColor(float red, float green, float blue, float alpha) {
+        record(RenderCommandType.CLEAR_COLOR, red, green, blue, alpha);
+        if (!this.isHeadless()) {
+            this.getDelegate().clearColor(red, green, blue, alpha);
+        }
+    }
+
+    @Override
+    public void clear(int mask) {
+        record(RenderCommandType.CLEAR, mask);
+        if (!this.isHeadless()) {
+            this.getDelegate().clear(mask);
+        }
+    }
+
+    @Override
+    public int getInteger(int pname) {
+        record(RenderCommandType.GET_INTEGER, pname);
+        if (!this.isHeadless()) {
+            return this.getDelegate().getInteger(pname);
+        }
+        return pname == GL11.GL_MAX_TEXTURE_SIZE ? HEADLESS_MAX_TEXTURE_SIZE : 0;
+    }
+
+    //---state end---
+
+    //---program start---
+
+    @Override
+    public int createProgram() {
+        record(RenderCommandType.CREATE_PROGRAM);
+        if (!this.isHeadless()) {
+            return this.getDelegate().createProgram();
+        }
+        return nextHandle();
+    }
+
+    @Override
+    public void deleteProgram(int program) {
+        record(RenderCommandType.DELETE_PROGRAM, program);
+        if (!this.isHeadless()) {
+            this.getDelegate().deleteProgram(program);
+        }
+    }
+
+    @Override
+    public int createShader(int type) {
+        record(RenderCommandType.CREATE_SHADER, type);
+        if (!this.isHeadless()) {
+            return this.getDelegate().createShader(type);
+        }
+        return nextHandle();
+    }
+
+    @Override
+    public void deleteShader(int shader) {
+        record(RenderCommandType.DELETE_SHADER, shader);
+        if (!this.isHeadless()) {
+            this.getDelegate().deleteShader(shader);
+        }
+    }
+
+    @Override
+    public void shaderSource(int shader, CharSequence source) {
+        record(RenderCommandType.SHADER_SOURCE, shader, source.length());
+        if (!this.isHeadless()) {
+            this.getDelegate().shaderSource(shader, source);
+        }
+    }
+
+    @Override
+    public void compileShader(int shader) {
+        record(RenderCommandType.COMPILE_SHADER, shader);
+        if (!this.isHeadless()) {
+            this.getDelegate().compileShader(shader);
+        }
+    }
+
+    @Override
+    public int getShaderi(int shader, int pname) {
+        record(RenderCommandType.GET_SHADER_I, shader, pname);
+        if (!this.isHeadless()) {
+            return this.getDelegate().getShaderi(shader, pname);
+        }
+        return pname == GL20.GL_COMPILE_STATUS ? GL11.GL_TRUE : 0;
+    }
+
+    @Override
+    public String getShaderInfoLog(int shader) {
+        record(RenderCommandType.GET_SHADER_INFO_LOG, shader);
+        if (!this.isHeadless()) {
+            return this.getDelegate().getShaderInfoLog(shader);
+        }
+        return "";
+    }
+
+    @Override
+    public void attachShader(int program, int shader) {
+        record(RenderCommandType.ATTACH_SHADER, program, shader);
+        if (!this.isHeadless()) {
+            this.getDelegate().attachShader(program, shader);
+        }
+    }
+
+    @Override
+    public void detachShader(int program, int shader) {
+        record(RenderCommandType.DETACH_SHADER, program, shader);
+        if (!this.isHeadless()) {
+            this.getDelegate().detachShader(program, shader);
+        }
+    }
+
+    @Override
+    public void bindAttribLocation(int program, int index, CharSequence name) {
+        record(RenderCommandType.BIND_ATTRIB_LOCATION, program, index, name);
+        if (!this.isHeadless()) {
+            this.getDelegate().bindAttribLocation(program, index, name);
+        }
+    }
+
+    @Override
+    public void linkProgram(int program) {
+        record(RenderCommandType.LINK_PROGRAM, program);
+        if (!this.isHeadless()) {
+            this.getDelegate().linkProgram(program);
+        }
+    }
+
+    @Override
+    public void validateProgram(int program) {
+        record(RenderCommandType.VALIDATE_PROGRAM, program);
+        if (!this.isHeadless()) {
+            this.getDelegate().validateProgram(program);
+        }
+    }
+
+    @Override
+    public int getProgrami(int program, int pname) {
+        record(RenderCommandType.GET_PROGRAM_I, program, pname);
+        if (!this.isHeadless()) {
+            return this.getDelegate().getProgrami(program, pname);
+        }
+        return pname == GL20.GL_LINK_STATUS || pname == GL20.GL_VALIDATE_STATUS ? GL11.GL_TRUE : 0;
+    }
+
+    @Override
+    public String getProgramInfoLog(int program) {
+        record(RenderCommandType.GET_PROGRAM_INFO_LOG, program);
+        if (!this.isHeadless()) {
+            return this.getDelegate().getProgramInfoLog(program);
+        }
+        return "";
+    }
+
+    @Override
+    public String getActiveUniformName(int program, int index) {
+        record(RenderCommandType.GET_ACTIVE_UNIFORM_NAME, program, index);
+        if (!this.isHeadless()) {
+            return this.getDelegate().getActiveUniformName(program, index);
+        }
+        return "";
+    }
+
+    @Override
+    public void useProgram(int program) {
+        record(RenderCommandType.USE_PROGRAM, program);
+        if (!this.isHeadless()) {
+            this.getDelegate().useProgram(program);
+        }
+    }
+
+    @Override
+    public int getUniformLocation(int program, CharSequence name) {
+        record(RenderCommandType.GET_UNIFORM_LOCATION, program, name);
+        if (!this.isHeadless()) {
+            return this.getDelegate().getUniformLocation(program, name);
+        }
+        final String key = program + ":" + name;
+        Integer location = this.headlessUniformLocations.get(key);
+        if (location == null) {
+            location = this.headlessUniformLocations.size();
+            this.headlessUniformLocations.put(key, location);
+        }
+        return location;
+    }
+
+    @Override
+    public void uniform1i(int location, int v0) {
+        record(RenderCommandType.UNIFORM_1I, location, v0);
+        if (!this.isHeadless()) {
+            this.getDelegate().uniform1i(location, v0);
+        }
+    }
+
+    @Override
+    public void uniform3f(int location, float v0, float v1, float v2) {
+        record(RenderCommandType.UNIFORM_3F, location, v0, v1, v2);
+        if (!this.isHeadless()) {
+            this.getDelegate().uniform3f(location, v0, v1, v2);
+        }
+    }
+
+    @Override
+    public void uniform4f(int location, float v0, float v1, float v2, float v3) {
+        record(RenderCommandType.UNIFORM_4F, location, v0, v1, v2, v3);
+        if (!this.isHeadless()) {
+            this.getDelegate().uniform4f(location, v0, v1, v2, v3);
+        }
+    }
+
+    @Override
+    public void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value) {
+        record(RenderCommandType.UNIFORM_MATRIX_4FV, location, transpose, sizeOf(value));
+        if (!this.isHeadless()) {
+            this.getDelegate().uniformMatrix4fv(location, transpose, value);
+        }
+    }
+
+    //---program end---
+
+    //---texture start---
+
+    @Override
+    public int genTexture() {
+        record(RenderCommandType.GEN_TEXTURE);
+        if (!this.isHeadless()) {
+            return this.getDelegate().genTexture();
+        }
+        return nextHandle();
+    }
+
+    @Override
+    public void deleteTexture(int texture) {
+        record(RenderCommandType.DELETE_TEXTURE, texture);
+        if (!this.isHeadless()) {
+            this.getDelegate().deleteTexture(texture);
+        }
+    }
+
+    @Override
+    public void activeTexture(int texture) {
+        record(RenderCommandType.ACTIVE_TEXTURE, texture);
+        if (!this.isHeadless()) {
+            this.getDelegate().activeTexture(texture);
+        }
+    }
+
+    @Override
+    public void bindTexture(int target, int texture) {
+        record(RenderCommandType.BIND_TEXTURE, target, texture);
+        if (!this.isHeadless()) {
+            this.getDelegate().bindTexture(target, texture);
+        }
+    }
+
+    @Override
+    public void texParameteri(int target, int pname, int param) {
+        record(RenderCommandType.TEX_PARAMETER_I, target, pname, param);
+        if (!this.isHeadless()) {
+            this.getDelegate().texParameteri(target, pname, param);
+        }
+    }
+
+    @Override
+    public void texParameterf(int target, int pname, float param) {
+        record(RenderCommandType.TEX_PARAMETER_F, target, pname, param);
+        if (!this.isHeadless()) {
+            this.getDelegate().texParameterf(target, pname, param);
+        }
+    }
+
+    @Override
+    public void texImage2D(int target, int level, int internalformat, int width, int height, int border, int format,
+                           int type, ByteBuffer pixels) {
+        record(RenderCommandType.TEX_IMAGE_2D, target, level, internalformat, width, height, border, format, type,
+                sizeOf(pixels));
+        if (!this.isHeadless()) {
+            this.getDelegate().texImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+        }
+    }
+
+    @Override
+    public void texSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format,
+                              int type, ByteBuffer pixels) {
+        record(RenderCommandType.TEX_SUB_IMAGE_2D, target, level, xoffset, yoffset, width, height, format, type,
+                sizeOf(pixels));
+        if (!this.isHeadless()) {
+            this.getDelegate().texSubImage2D(target, level, xoffset, yoffset, width, height, format, type, pixels);
+        }
+    }
+
+    //---texture end---
+
+    //---buffer start---
+
+    @Override
+    public void genBuffers(int[] buffers) {
+        record(RenderCommandType.GEN_BUFFERS, buffers.length);
+        if (!this.isHeadless()) {
+            this.getDelegate().genBuffers(buffers);
+            return;
+        }
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = nextHandle();
+        }
+    }
+
+    @Override
+    public void deleteBuffers(int[] buffers) {
+        record(RenderCommandType.DELETE_BUFFERS, buffers.length);
+        if (!this.isHeadless()) {
+            this.getDelegate().deleteBuffers(buffers);
+        }
+    }
+
+    @Override
+    public void bindBuffer(int target, int buffer) {
+        record(RenderCommandType.BIND_BUFFER, target, buffer);
+        if (!this.isHeadless()) {
+            this.getDelegate().bindBuffer(target, buffer);
+        }
+    }
+
+    @Override
+    public void bufferData(int target, long size, int usage) {
+        record(RenderCommandType.BUFFER_DATA, target, size, usage);
+        if (!this.isHeadless()) {
+            this.getDelegate().bufferData(target, size, usage);
+        }
+    }
+
+    @Override
+    public void bufferData(int target, FloatBuffer data, int usage) {
+        record(RenderCommandType.BUFFER_DATA, target, sizeOf(data), usage);
+        if (!this.isHeadless()) {
+            this.getDelegate().bufferData(target, data, usage);
+        }
+    }
+
+    @Override
+    public void bufferData(int target, IntBuffer data, int usage) {
+        record(RenderCommandType.BUFFER_DATA, target, sizeOf(data), usage);
+        if (!this.isHeadless()) {
+            this.getDelegate().bufferData(target, data, usage);
+        }
+    }
+
+    @Override
+    public void bufferSubData(int target, long offset, FloatBuffer data) {
+        record(RenderCommandType.BUFFER_SUB_DATA, target, offset, sizeOf(data));
+        if (!this.isHeadless()) {
+            this.getDelegate().bufferSubData(target, offset, data);
+        }
+    }
+
+    @Override
+    public void enableVertexAttribArray(int index) {
+        record(RenderCommandType.ENABLE_VERTEX_ATTRIB_ARRAY, index);
+        if (!this.isHeadless()) {
+            this.getDelegate().enableVertexAttribArray(index);
+        }
+    }
+
+    @Override
+    public void disableVertexAttribArray(int index) {
+        record(RenderCommandType.DISABLE_VERTEX_ATTRIB_ARRAY, index);
+        if (!this.isHeadless()) {
+            this.getDelegate().disableVertexAttribArray(index);
+        }
+    }
+
+    @Override
+    public void vertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer) {
+        record(RenderCommandType.VERTEX_ATTRIB_POINTER, index, size, type, normalized, stride, pointer);
+        if (!this.isHeadless()) {
+            this.getDelegate().vertexAttribPointer(index, size, type, normalized, stride, pointer);
+        }
+    }
+
+    @Override
+    public void drawElements(int mode, int count, int type, long indices) {
+        record(RenderCommandType.DRAW_ELEMENTS, mode, count, type, indices);
+        if (!this.isHeadless()) {
+            this.getDelegate().drawElements(mode, count, type, indices);
+        }
+    }
+
+    //---buffer end---
+
+    //---fixed function start---
+
+    @Override
+    public void matrixMode(int mode) {
+        record(RenderCommandType.MATRIX_MODE, mode);
+        if (!this.isHeadless()) {
+            this.getDelegate().matrixMode(mode);
+        }
+    }
+
+    @Override
+    public void loadIdentity() {
+        record(RenderCommandType.LOAD_IDENTITY);
+        if (!this.isHeadless()) {
+            this.getDelegate().loadIdentity();
+        }
+    }
+
+    @Override
+    public void ortho(double left, double right, double bottom, double top, double zNear, double zFar) {
+        record(RenderCommandType.ORTHO, left, right, bottom, top, zNear, zFar);
+        if (!this.isHeadless()) {
+            this.getDelegate().ortho(left, right, bottom, top, zNear, zFar);
+        }
+    }
+
+    @Override
+    public void color4f(float red, float green, float blue, float alpha) {
+        record(RenderCommandType.COLOR_4F, red, green, blue, alpha);
+        if (!this.isHeadless()) {
+            this.getDelegate().color4f(red, green, blue, alpha);
+        }
+    }
+
+    @Override
+    public void begin(int mode) {
+        record(RenderCommandType.BEGIN, mode);
+        if (!this.isHeadless()) {
+            this.getDelegate().begin(mode);
+        }
+    }
+
+    @Override
+    public void end() {
+        record(RenderCommandType.END);
+        if (!this.isHeadless()) {
+            this.getDelegate().end();
+        }
+    }
+
+    @Override
+    public void texCoord2f(float s, float t) {
+        record(RenderCommandType.TEX_COORD_2F, s, t);
+        if (!this.isHeadless()) {
+            this.getDelegate().texCoord2f(s, t);
+        }
+    }
+
+    @Override
+    public void vertex2f(float x, float y) {
+        record(RenderCommandType.VERTEX_2F, x, y);
+        if (!this.isHeadless()) {
+            this.getDelegate().vertex2f(x, y);
+        }
+    }
+
+    @Override
+    public void rectf(float x1, float y1, float x2, float y2) {
+        record(RenderCommandType.RECTF, x1, y1, x2, y2);
+        if (!this.isHeadless()) {
+            this.getDelegate().rectf(x1, y1, x2, y2);
+        }
+    }
+
+    //---fixed function end---
+}
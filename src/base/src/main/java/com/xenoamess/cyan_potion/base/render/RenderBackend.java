@@ -0,0 +1,261 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * RenderBackend is the only door from the engine to the graphics api.
+ * <p>
+ * Everything in the render path (GameWindow, Shader, Model, Texture, Font, SpriteBatch, etc)
+ * calls the current backend instead of static GL functions,
+ * so the backend can be swapped for one that records or counts what the engine asks for,
+ * or for one that runs without any GL context at all.
+ * <p>
+ * Methods are named after the GL functions they stand for, without the "gl" prefix,
+ * and take the same GL enums.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see GlRenderBackend
+ * @see RecordingRenderBackend
+ * @see RenderBackends
+ */
+public interface RenderBackend {
+
+    //---frame start---
+
+    /**
+     * called by GameWindow before drawing a frame.
+     */
+    default void beginFrame() {
+        //do nothing
+    }
+
+    /**
+     * called by GameWindow after drawing a frame, before swapping buffers.
+     */
+    default void endFrame() {
+        //do nothing
+    }
+
+    /**
+     * whether what is recorded through this backend is replayed later, maybe more than once,
+     * at an interpolation alpha only known at replay time.
+     * <p>
+     * when true, callers that know how far their vertices moved during the last tick should use
+     * bufferSubDataInterpolated and uniformMatrix4fvInterpolated,
+     * instead of blending positions themselves.
+     *
+     * @return true if interpolating on replay
+     * @see DeferredRenderBackend
+     */
+    default boolean isInterpolatingOnReplay() {
+        return false;
+    }
+
+    //---frame end---
+
+    //---state start---
+
+    void enable(int cap);
+
+    void disable(int cap);
+
+    void blendFunc(int sfactor, int dfactor);
+
+    void viewport(int x, int y, int width, int height);
+
+    void clearColor(float red, float green, float blue, float alpha);
+
+    void clear(int mask);
+
+    int getInteger(int pname);
+
+    //---state end---
+
+    //---program start---
+
+    int createProgram();
+
+    void deleteProgram(int program);
+
+    int createShader(int type);
+
+    void deleteShader(int shader);
+
+    void shaderSource(int shader, CharSequence source);
+
+    void compileShader(int shader);
+
+    int getShaderi(int shader, int pname);
+
+    String getShaderInfoLog(int shader);
+
+    void attachShader(int program, int shader);
+
+    void detachShader(int program, int shader);
+
+    void bindAttribLocation(int program, int index, CharSequence name);
+
+    void linkProgram(int program);
+
+    void validateProgram(int program);
+
+    int getProgrami(int program, int pname);
+
+    String getProgramInfoLog(int program);
+
+    /**
+     * name of the index-th active uniform of the program, as glGetActiveUniform returns it.
+     * active uniforms are counted by getProgrami(program, GL_ACTIVE_UNIFORMS).
+     *
+     * @param program program
+     * @param index   index
+     * @return name
+     */
+    String getActiveUniformName(int program, int index);
+
+    void useProgram(int program);
+
+    int getUniformLocation(int program, CharSequence name);
+
+    void uniform1i(int location, int v0);
+
+    void uniform3f(int location, float v0, float v1, float v2);
+
+    void uniform4f(int location, float v0, float v1, float v2, float v3);
+
+    void uniformMatrix4fv(int location, boolean transpose, FloatBuffer value);
+
+    /**
+     * uniformMatrix4fv, but the matrix reaching the graphics api is
+     * previousValue + (value - previousValue) * alpha, alpha being the interpolation alpha at that time.
+     * backends that do not interpolate on replay just upload value as it is.
+     *
+     * @param location      location
+     * @param transpose     transpose
+     * @param value         value
+     * @param previousValue value one tick ago
+     */
+    default void uniformMatrix4fvInterpolated(int location, boolean transpose, FloatBuffer value,
+                                              FloatBuffer previousValue) {
+        this.uniformMatrix4fv(location, transpose, value);
+    }
+
+    //---program end---
+
+    //---texture start---
+
+    int genTexture();
+
+    void deleteTexture(int texture);
+
+    void activeTexture(int texture);
+
+    void bindTexture(int target, int texture);
+
+    void texParameteri(int target, int pname, int param);
+
+    void texParameterf(int target, int pname, float param);
+
+    void texImage2D(int target, int level, int internalformat, int width, int height, int border, int format,
+                    int type, ByteBuffer pixels);
+
+    void texSubImage2D(int target, int level, int xoffset, int yoffset, int width, int height, int format,
+                       int type, ByteBuffer pixels);
+
+    //---texture end---
+
+    //---buffer start---
+
+    void genBuffers(int[] buffers);
+
+    void deleteBuffers(int[] buffers);
+
+    void bindBuffer(int target, int buffer);
+
+    void bufferData(int target, long size, int usage);
+
+    void bufferData(int target, FloatBuffer data, int usage);
+
+    void bufferData(int target, IntBuffer data, int usage);
+
+    void bufferSubData(int target, long offset, FloatBuffer data);
+
+    /**
+     * bufferSubData, but the x and y of every vertex in data are moved back by (1 - alpha) * motion
+     * when the data reaches the graphics api, alpha being the interpolation alpha at that time.
+     * <p>
+     * motions hold two floats (x, y) for every verticesPerMotion vertices in data,
+     * and x, y are the first two floats of every vertex.
+     * backends that do not interpolate on replay just upload data as it is.
+     *
+     * @param target            target
+     * @param offset            offset
+     * @param data              data
+     * @param motions           motions
+     * @param floatsPerVertex   floats per vertex
+     * @param verticesPerMotion vertices per motion
+     */
+    default void bufferSubDataInterpolated(int target, long offset, FloatBuffer data, FloatBuffer motions,
+                                           int floatsPerVertex, int verticesPerMotion) {
+        this.bufferSubData(target, offset, data);
+    }
+
+    void enableVertexAttribArray(int index);
+
+    void disableVertexAttribArray(int index);
+
+    void vertexAttribPointer(int index, int size, int type, boolean normalized, int stride, long pointer);
+
+    void drawElements(int mode, int count, int type, long indices);
+
+    //---buffer end---
+
+    //---fixed function start---
+
+    void matrixMode(int mode);
+
+    void loadIdentity();
+
+    void ortho(double left, double right, double bottom, double top, double zNear, double zFar);
+
+    void color4f(float red, float green, float blue, float alpha);
+
+    void begin(int mode);
+
+    void end();
+
+    void texCoord2f(float s, float t);
+
+    void vertex2f(float x, float y);
+
+    void rectf(float x1, float y1, float x2, float y2);
+
+    //---fixed function end---
+}
@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+/**
+ * <p>RenderBackends class.</p>
+ * holds the RenderBackend the engine draws with.
+ * Defaults to a {@link CachingRenderBackend} over a {@link GlRenderBackend}.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+public final class RenderBackends {
+    private static volatile RenderBackend current = new CachingRenderBackend(new GlRenderBackend());
+
+    private static volatile Thread overriddenThread;
+    private static volatile RenderBackend threadBackend;
+
+    private RenderBackends() {
+    }
+
+    /**
+     * <p>getCurrent.</p>
+     *
+     * @return the RenderBackend now in use.
+     */
+    public static RenderBackend getCurrent() {
+        if (Thread.currentThread() == overriddenThread) {
+            return threadBackend;
+        }
+        return current;
+    }
+
+    /**
+     * <p>setCurrent.</p>
+     * must be called before anything creates GL objects,
+     * or those objects will be released through another backend than the one that created them.
+     *
+     * @param renderBackend renderBackend
+     */
+    public static void setCurrent(RenderBackend renderBackend) {
+        if (renderBackend == null) {
+            throw new IllegalArgumentException("renderBackend must not be null");
+        }
+        current = renderBackend;
+    }
+
+    /**
+     * <p>setThreadBackend.</p>
+     * let one thread draw with another backend than every other thread.
+     * used to give the logic thread a {@link DeferredRenderBackend} when the game runs with a separate render thread.
+     * only one thread can be overridden at a time.
+     *
+     * @param thread        thread
+     * @param renderBackend renderBackend this thread gets from {@link #getCurrent()}
+     */
+    public static void setThreadBackend(Thread thread, RenderBackend renderBackend) {
+        if (thread == null || renderBackend == null) {
+            throw new IllegalArgumentException("thread and renderBackend must not be null");
+        }
+        overriddenThread = null;
+        threadBackend = renderBackend;
+        overriddenThread = thread;
+    }
+
+    /**
+     * <p>clearThreadBackend.</p>
+     * undo {@link #setThreadBackend(Thread, RenderBackend)}.
+     */
+    public static void clearThreadBackend() {
+        overriddenThread = null;
+        threadBackend = null;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * <p>RenderCommand class.</p>
+ * one call recorded by a {@link RecordingRenderBackend}.
+ * Buffers are recorded by their remaining size, not their content.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@EqualsAndHashCode
+@Getter
+public class RenderCommand {
+    private final RenderCommandType type;
+    private final Object[] arguments;
+
+    /**
+     * <p>Constructor for RenderCommand.</p>
+     *
+     * @param type      type
+     * @param arguments arguments
+     */
+    public RenderCommand(RenderCommandType type, Object... arguments) {
+        this.type = type;
+        this.arguments = arguments;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        final StringBuilder stringBuilder = new StringBuilder(type.getFunctionName()).append('(');
+        for (int i = 0; i < arguments.length; i++) {
+            if (i != 0) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(arguments[i]);
+        }
+        return stringBuilder.append(')').toString();
+    }
+}
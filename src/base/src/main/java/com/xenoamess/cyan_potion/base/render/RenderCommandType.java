@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import lombok.Getter;
+
+/**
+ * <p>RenderCommandType enum.</p>
+ * every kind of call a {@link RenderBackend} accepts, and what it is counted as.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+public enum RenderCommandType {
+    ENABLE("glEnable", Category.STATE),
+    DISABLE("glDisable", Category.STATE),
+    BLEND_FUNC("glBlendFunc", Category.STATE),
+    VIEWPORT("glViewport", Category.STATE),
+    CLEAR_COLOR("glClearColor", Category.STATE),
+    CLEAR("glClear", Category.CLEAR),
+    GET_INTEGER("glGetInteger", Category.QUERY),
+
+    CREATE_PROGRAM("glCreateProgram", Category.RESOURCE),
+    DELETE_PROGRAM("glDeleteProgram", Category.RESOURCE),
+    CREATE_SHADER("glCreateShader", Category.RESOURCE),
+    DELETE_SHADER("glDeleteShader", Category.RESOURCE),
+    SHADER_SOURCE("glShaderSource", Category.RESOURCE),
+    COMPILE_SHADER("glCompileShader", Category.RESOURCE),
+    GET_SHADER_I("glGetShaderi", Category.QUERY),
+    GET_SHADER_INFO_LOG("glGetShaderInfoLog", Category.QUERY),
+    ATTACH_SHADER("glAttachShader", Category.RESOURCE),
+    DETACH_SHADER("glDetachShader", Category.RESOURCE),
+    BIND_ATTRIB_LOCATION("glBindAttribLocation", Category.RESOURCE),
+    LINK_PROGRAM("glLinkProgram", Category.RESOURCE),
+    VALIDATE_PROGRAM("glValidateProgram", Category.RESOURCE),
+    GET_PROGRAM_I("glGetProgrami", Category.QUERY),
+    GET_PROGRAM_INFO_LOG("glGetProgramInfoLog", Category.QUERY),
+    GET_ACTIVE_UNIFORM_NAME("glGetActiveUniform", Category.QUERY),
+    USE_PROGRAM("glUseProgram", Category.BIND),
+    GET_UNIFORM_LOCATION("glGetUniformLocation", Category.QUERY),
+    UNIFORM_1I("glUniform1i", Category.UNIFORM),
+    UNIFORM_3F("glUniform3f", Category.UNIFORM),
+    UNIFORM_4F("glUniform4f", Category.UNIFORM),
+    UNIFORM_MATRIX_4FV("glUniformMatrix4fv", Category.UNIFORM),
+
+    GEN_TEXTURE("glGenTextures", Category.RESOURCE),
+    DELETE_TEXTURE("glDeleteTextures", Category.RESOURCE),
+    ACTIVE_TEXTURE("glActiveTexture", Category.STATE),
+    BIND_TEXTURE("glBindTexture", Category.BIND),
+    TEX_PARAMETER_I("glTexParameteri", Category.RESOURCE),
+    TEX_PARAMETER_F("glTexParameterf", Category.RESOURCE),
+    TEX_IMAGE_2D("glTexImage2D", Category.UPLOAD),
+    TEX_SUB_IMAGE_2D("glTexSubImage2D", Category.UPLOAD),
+
+    GEN_BUFFERS("glGenBuffers", Category.RESOURCE),
+    DELETE_BUFFERS("glDeleteBuffers", Category.RESOURCE),
+    BIND_BUFFER("glBindBuffer", Category.BIND),
+    BUFFER_DATA("glBufferData", Category.UPLOAD),
+    BUFFER_SUB_DATA("glBufferSubData", Category.UPLOAD),
+    ENABLE_VERTEX_ATTRIB_ARRAY("glEnableVertexAttribArray", Category.STATE),
+    DISABLE_VERTEX_ATTRIB_ARRAY("glDisableVertexAttribArray", Category.STATE),
+    VERTEX_ATTRIB_POINTER("glVertexAttribPointer", Category.STATE),
+    DRAW_ELEMENTS("glDrawElements", Category.DRAW),
+
+    MATRIX_MODE("glMatrixMode", Category.STATE),
+    LOAD_IDENTITY("glLoadIdentity", Category.STATE),
+    ORTHO("glOrtho", Category.STATE),
+    COLOR_4F("glColor4f", Category.STATE),
+    BEGIN("glBegin", Category.IMMEDIATE),
+    END("glEnd", Category.DRAW),
+    TEX_COORD_2F("glTexCoord2f", Category.IMMEDIATE),
+    VERTEX_2F("glVertex2f", Category.IMMEDIATE),
+    RECTF("glRectf", Category.DRAW);
+
+    /**
+     * what a call is counted as.
+     */
+    public enum Category {
+        /**
+         * a call that really draws something: glDrawElements, glEnd, glRectf.
+         */
+        DRAW,
+        /**
+         * binding a program, texture or buffer.
+         */
+        BIND,
+        /**
+         * uploading a uniform.
+         */
+        UNIFORM,
+        /**
+         * uploading texture or buffer data.
+         */
+        UPLOAD,
+        /**
+         * clearing the frame buffer.
+         */
+        CLEAR,
+        /**
+         * any other state change.
+         */
+        STATE,
+        /**
+         * vertex data sent between glBegin and glEnd.
+         */
+        IMMEDIATE,
+        /**
+         * creating, configuring or deleting GL objects.
+         */
+        RESOURCE,
+        /**
+         * reading something back from GL.
+         */
+        QUERY
+    }
+
+    @Getter
+    private final String functionName;
+
+    @Getter
+    private final Category category;
+
+    RenderCommandType(String functionName, Category category) {
+        this.functionName = functionName;
+        this.category = category;
+    }
+}
@@ -43,32 +43,12 @@ import java.nio.FloatBuffer;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static org.lwjgl.opengl.GL20.GL_ACTIVE_UNIFORMS;
 import static org.lwjgl.opengl.GL20.GL_COMPILE_STATUS;
 import static org.lwjgl.opengl.GL20.GL_FRAGMENT_SHADER;
 import static org.lwjgl.opengl.GL20.GL_LINK_STATUS;
 import static org.lwjgl.opengl.GL20.GL_VALIDATE_STATUS;
 import static org.lwjgl.opengl.GL20.GL_VERTEX_SHADER;
-import static org.lwjgl.opengl.GL20.glAttachShader;
-import static org.lwjgl.opengl.GL20.glBindAttribLocation;
-import static org.lwjgl.opengl.GL20.glCompileShader;
-import static org.lwjgl.opengl.GL20.glCreateProgram;
-import static org.lwjgl.opengl.GL20.glCreateShader;
-import static org.lwjgl.opengl.GL20.glDeleteProgram;
-import static org.lwjgl.opengl.GL20.glDeleteShader;
-import static org.lwjgl.opengl.GL20.glDetachShader;
-import static org.lwjgl.opengl.GL20.glGetProgramInfoLog;
-import static org.lwjgl.opengl.GL20.glGetProgrami;
-import static org.lwjgl.opengl.GL20.glGetShaderInfoLog;
-import static org.lwjgl.opengl.GL20.glGetShaderi;
-import static org.lwjgl.opengl.GL20.glGetUniformLocation;
-import static org.lwjgl.opengl.GL20.glLinkProgram;
-import static org.lwjgl.opengl.GL20.glShaderSource;
-import static org.lwjgl.opengl.GL20.glUniform1i;
-import static org.lwjgl.opengl.GL20.glUniform3f;
-import static org.lwjgl.opengl.GL20.glUniform4f;
-import static org.lwjgl.opengl.GL20.glUniformMatrix4fv;
-import static org.lwjgl.opengl.GL20.glUseProgram;
-import static org.lwjgl.opengl.GL20.glValidateProgram;
 
 /**
  * <p>Shader class.</p>
@@ -83,11 +63,6 @@ public class Shader implements Closeable {
     private static final transient Logger LOGGER =
             LoggerFactory.getLogger(Shader.class);
 
-    /**
-     * try to clear when reach CLEAR_TIME_MILLIS to last clear time.
-     */
-    public static final int CLEAR_TIME_MILLIS = 10000;
-
     @Getter
     private final GameManager gameManager;
 
@@ -103,16 +78,19 @@ public class Shader implements Closeable {
     @Setter
     private int fragmentShaderObject;
 
-    @Getter
-    @Setter
-    private long lastClearTime = System.currentTimeMillis();
-
+    /**
+     * uniform name -> uniform location.
+     * filled with all active uniforms when the program is linked.
+     */
     @Getter
     private final Map<String, Integer> uniformLocationMap = new ConcurrentHashMap<>();
 
     @Getter
     private final FloatBuffer matrixData = MemoryUtil.memAllocFloat(16);
 
+    @Getter
+    private final FloatBuffer previousMatrixData = MemoryUtil.memAllocFloat(16);
+
     /**
      * <p>Constructor for Shader.</p>
      *
@@ -120,47 +98,78 @@ public class Shader implements Closeable {
      * @param filename filename
      */
     public Shader(GameManager gameManager, String filename) {
-        this.gameManager = gameManager;
-        final String shaderFolderPath = this.gameManager.getDataCenter().getGameSettings().getShaderFolderPath();
-        setProgramObject(glCreateProgram());
-
-        setVertexShaderObject(glCreateShader(GL_VERTEX_SHADER));
-        glShaderSource(getVertexShaderObject(),
-                ResourceManager.loadString(shaderFolderPath + filename + ".vs"
+        this(
+                gameManager,
+                ResourceManager.loadString(
+                        gameManager.getDataCenter().getGameSettings().getShaderFolderPath() + filename + ".vs"
+                ),
+                ResourceManager.loadString(
+                        gameManager.getDataCenter().getGameSettings().getShaderFolderPath() + filename + ".fs"
                 )
         );
-        glCompileShader(getVertexShaderObject());
-        if (glGetShaderi(getVertexShaderObject(), GL_COMPILE_STATUS) != 1) {
-            LOGGER.error(glGetShaderInfoLog(getVertexShaderObject()));
+    }
+
+    /**
+     * <p>Constructor for Shader.</p>
+     *
+     * @param gameManager          gameManager
+     * @param vertexShaderSource   source of the vertex shader
+     * @param fragmentShaderSource source of the fragment shader
+     */
+    public Shader(GameManager gameManager, String vertexShaderSource, String fragmentShaderSource) {
+        this.gameManager = gameManager;
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        setProgramObject(renderBackend.createProgram());
+
+        setVertexShaderObject(renderBackend.createShader(GL_VERTEX_SHADER));
+        renderBackend.shaderSource(getVertexShaderObject(), vertexShaderSource);
+        renderBackend.compileShader(getVertexShaderObject());
+        if (renderBackend.getShaderi(getVertexShaderObject(), GL_COMPILE_STATUS) != 1) {
+            LOGGER.error(renderBackend.getShaderInfoLog(getVertexShaderObject()));
             System.exit(1);
         }
 
-        setFragmentShaderObject(glCreateShader(GL_FRAGMENT_SHADER));
-        glShaderSource(getFragmentShaderObject(),
-                ResourceManager.loadString(shaderFolderPath + filename + ".fs")
-        );
-        glCompileShader(getFragmentShaderObject());
-        if (glGetShaderi(getFragmentShaderObject(), GL_COMPILE_STATUS) != 1) {
-            LOGGER.error(glGetShaderInfoLog(getFragmentShaderObject()));
+        setFragmentShaderObject(renderBackend.createShader(GL_FRAGMENT_SHADER));
+        renderBackend.shaderSource(getFragmentShaderObject(), fragmentShaderSource);
+        renderBackend.compileShader(getFragmentShaderObject());
+        if (renderBackend.getShaderi(getFragmentShaderObject(), GL_COMPILE_STATUS) != 1) {
+            LOGGER.error(renderBackend.getShaderInfoLog(getFragmentShaderObject()));
             System.exit(1);
         }
 
-        glAttachShader(getProgramObject(), getVertexShaderObject());
-        glAttachShader(getProgramObject(), getFragmentShaderObject());
+        renderBackend.attachShader(getProgramObject(), getVertexShaderObject());
+        renderBackend.attachShader(getProgramObject(), getFragmentShaderObject());
 
-        glBindAttribLocation(getProgramObject(), 0, "vertices");
-        glBindAttribLocation(getProgramObject(), 1, "textures");
+        renderBackend.bindAttribLocation(getProgramObject(), 0, "vertices");
+        renderBackend.bindAttribLocation(getProgramObject(), 1, "textures");
+        renderBackend.bindAttribLocation(getProgramObject(), 2, "colors");
 
-        glLinkProgram(getProgramObject());
-        if (glGetProgrami(getProgramObject(), GL_LINK_STATUS) != 1) {
-            LOGGER.error(glGetProgramInfoLog(getProgramObject()));
+        renderBackend.linkProgram(getProgramObject());
+        if (renderBackend.getProgrami(getProgramObject(), GL_LINK_STATUS) != 1) {
+            LOGGER.error(renderBackend.getProgramInfoLog(getProgramObject()));
             System.exit(1);
         }
-        glValidateProgram(getProgramObject());
-        if (glGetProgrami(getProgramObject(), GL_VALIDATE_STATUS) != 1) {
-            LOGGER.error(glGetProgramInfoLog(getProgramObject()));
+        renderBackend.validateProgram(getProgramObject());
+        if (renderBackend.getProgrami(getProgramObject(), GL_VALIDATE_STATUS) != 1) {
+            LOGGER.error(renderBackend.getProgramInfoLog(getProgramObject()));
             System.exit(1);
         }
+
+        this.resolveUniformLocations(renderBackend);
+    }
+
+    /**
+     * locations never change after link, so resolve all of them once here.
+     */
+    private void resolveUniformLocations(RenderBackend renderBackend) {
+        final int activeUniformNum = renderBackend.getProgrami(getProgramObject(), GL_ACTIVE_UNIFORMS);
+        for (int i = 0; i < activeUniformNum; i++) {
+            String uniformName = renderBackend.getActiveUniformName(getProgramObject(), i);
+            if (uniformName.endsWith("[0]")) {
+                uniformName = uniformName.substring(0, uniformName.length() - 3);
+            }
+            getUniformLocationMap().put(uniformName, renderBackend.getUniformLocation(getProgramObject(), uniformName));
+        }
     }
 
     /**
@@ -168,34 +177,33 @@ public class Shader implements Closeable {
      */
     @Override
     public void close() {
-        glDetachShader(getProgramObject(), getVertexShaderObject());
-        glDetachShader(getProgramObject(), getFragmentShaderObject());
-        glDeleteShader(getVertexShaderObject());
-        glDeleteShader(getFragmentShaderObject());
-        glDeleteProgram(getProgramObject());
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        renderBackend.detachShader(getProgramObject(), getVertexShaderObject());
+        renderBackend.detachShader(getProgramObject(), getFragmentShaderObject());
+        renderBackend.deleteShader(getVertexShaderObject());
+        renderBackend.deleteShader(getFragmentShaderObject());
+        renderBackend.deleteProgram(getProgramObject());
         MemoryUtil.memFree(matrixData);
+        MemoryUtil.memFree(previousMatrixData);
     }
 
 
     /**
      * <p>iGetUniformLocation.</p>
+     * names not resolved at link time (inactive uniforms, array elements, etc)
+     * are queried once and then remembered too.
      *
      * @param uniformName uniformName
      * @return a int.
      */
     protected int iGetUniformLocation(String uniformName) {
-        long nowClearTime = System.currentTimeMillis();
-        if (nowClearTime - getLastClearTime() > CLEAR_TIME_MILLIS) {
-            this.getUniformLocationMap().clear();
-            setLastClearTime(nowClearTime);
-        }
-        if (getUniformLocationMap().containsKey(uniformName)) {
-            return getUniformLocationMap().get(uniformName);
-        } else {
-            int res = glGetUniformLocation(getProgramObject(), uniformName);
-            getUniformLocationMap().put(uniformName, res);
-            return res;
+        final Integer location = getUniformLocationMap().get(uniformName);
+        if (location != null) {
+            return location;
         }
+        final int res = RenderBackends.getCurrent().getUniformLocation(getProgramObject(), uniformName);
+        getUniformLocationMap().put(uniformName, res);
+        return res;
     }
 
     /**
@@ -207,7 +215,7 @@ public class Shader implements Closeable {
     public void setUniform(String uniformName, int value) {
         int location = iGetUniformLocation(uniformName);
         if (location != -1) {
-            glUniform1i(location, value);
+            RenderBackends.getCurrent().uniform1i(location, value);
         }
     }
 
@@ -221,7 +229,7 @@ public class Shader implements Closeable {
     public void setUniform(String uniformName, Vector3f value) {
         int location = iGetUniformLocation(uniformName);
         if (location != -1) {
-            glUniform3f(location, value.x, value.y, value.z);
+            RenderBackends.getCurrent().uniform3f(location, value.x, value.y, value.z);
         }
     }
 
@@ -234,7 +242,7 @@ public class Shader implements Closeable {
     public void setUniform(String uniformName, Vector4fc value) {
         int location = iGetUniformLocation(uniformName);
         if (location != -1) {
-            glUniform4f(location, value.x(), value.y(), value.z(), value.w());
+            RenderBackends.getCurrent().uniform4f(location, value.x(), value.y(), value.z(), value.w());
         }
     }
 
@@ -249,7 +257,26 @@ public class Shader implements Closeable {
         final int location = iGetUniformLocation(uniformName);
         value.get(getMatrixData());
         if (location != -1) {
-            glUniformMatrix4fv(location, false, getMatrixData());
+            RenderBackends.getCurrent().uniformMatrix4fv(location, false, getMatrixData());
+        }
+    }
+
+    /**
+     * <p>setUniform.</p>
+     * set a matrix that shall be interpolated from previousValue to value, by the interpolation alpha at replay time.
+     *
+     * @param uniformName   uniformName
+     * @param value         a {@link org.joml.Matrix4f} object.
+     * @param previousValue value one tick ago.
+     * @see RenderBackend#uniformMatrix4fvInterpolated(int, boolean, FloatBuffer, FloatBuffer)
+     */
+    public void setUniform(String uniformName, Matrix4f value, Matrix4f previousValue) {
+        final int location = iGetUniformLocation(uniformName);
+        value.get(getMatrixData());
+        previousValue.get(getPreviousMatrixData());
+        if (location != -1) {
+            RenderBackends.getCurrent().uniformMatrix4fvInterpolated(location, false, getMatrixData(),
+                    getPreviousMatrixData());
         }
     }
 
@@ -257,13 +284,13 @@ public class Shader implements Closeable {
      * <p>unbind.</p>
      */
     public static void unbind() {
-        glUseProgram(0);
+        RenderBackends.getCurrent().useProgram(0);
     }
 
     /**
      * <p>bind.</p>
      */
     public void bind() {
-        glUseProgram(getProgramObject());
+        RenderBackends.getCurrent().useProgram(getProgramObject());
     }
 }
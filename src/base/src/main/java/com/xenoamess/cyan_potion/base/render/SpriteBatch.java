@@ -0,0 +1,441 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import com.xenoamess.commons.main_thread_only.MainThreadOnly;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.joml.Vector4fc;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.Closeable;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL20.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL20.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL20.GL_FLOAT;
+import static org.lwjgl.opengl.GL20.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL20.GL_STREAM_DRAW;
+import static org.lwjgl.opengl.GL20.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL20.GL_UNSIGNED_INT;
+
+/**
+ * <p>SpriteBatch class.</p>
+ * <p>
+ * SpriteBatch gathers textured quads into one streaming vertex buffer,
+ * and only issues a real draw call when the shader or the bind target changes,
+ * when the buffer is full, or when someone asks it to flush.
+ * <p>
+ * Bindables that are regions of one TextureAtlas share a bind target, so they batch together.
+ * Quads are never reordered, so painter's order (and thus alpha blending) is the same as drawing them one by one.
+ * Glyphs of TextMesh are queued here too, with the text shader.
+ * Anything that draws through other GL paths (Font.bind, glRectf, custom models)
+ * must call {@link #flush()} first.
+ * The shader and texture are left bound after a flush, so that a state caching backend can skip rebinding them;
+ * fixed-function paths must call {@link Shader#unbind()} themselves.
+ * <p>
+ * Each vertex is {vertices.xy, textures.xy, colors.rgba}, and positions are already in normalized device coordinates.
+ * <p>
+ * Quads can carry how far they moved during the last tick ({@link #setMotion(float, float)}).
+ * They are then drawn moved back by (1 - alpha) * motion, alpha being the interpolation alpha of the frame;
+ * when the render backend interpolates on replay, the motions go to it instead, and it does the same at replay time.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see com.xenoamess.cyan_potion.base.GameWindow#drawBindableRelativeCenter
+ */
+@ToString
+public class SpriteBatch implements Closeable {
+    /**
+     * Constant <code>INITIALIZED_VALUE=-1</code>
+     */
+    public static final int INITIALIZED_VALUE = -1;
+
+    /**
+     * default max num of quads in one draw call.
+     */
+    public static final int DEFAULT_MAX_SPRITES = 4096;
+
+    /**
+     * Constant <code>FLOATS_PER_VERTEX=8</code>
+     */
+    public static final int FLOATS_PER_VERTEX = 8;
+
+    /**
+     * Constant <code>VERTICES_PER_SPRITE=4</code>
+     */
+    public static final int VERTICES_PER_SPRITE = 4;
+
+    /**
+     * Constant <code>INDICES_PER_SPRITE=6</code>
+     */
+    public static final int INDICES_PER_SPRITE = 6;
+
+    private static final int BYTES_PER_FLOAT = 4;
+    private static final int STRIDE = FLOATS_PER_VERTEX * BYTES_PER_FLOAT;
+
+    @Getter
+    private final int maxSprites;
+
+    @Getter(AccessLevel.PROTECTED)
+    @ToString.Exclude
+    private final FloatBuffer vertexData;
+
+    /**
+     * motion of every queued quad, two floats each, only filled when interpolatingOnReplay.
+     */
+    @Getter(AccessLevel.PROTECTED)
+    @ToString.Exclude
+    private final FloatBuffer motionData;
+
+    /**
+     * how far quads queued from now on moved during the last tick, in NDC.
+     */
+    @Getter
+    private float motionX;
+
+    @Getter
+    private float motionY;
+
+    @Getter
+    private float interpolationAlpha = 1F;
+
+    @Getter
+    private boolean interpolatingOnReplay = false;
+
+    private float vertexOffsetX;
+
+    private float vertexOffsetY;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private int vertexObject = INITIALIZED_VALUE;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private int indexObject = INITIALIZED_VALUE;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private int spriteCount;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    @ToString.Exclude
+    private Shader currentShader;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    @ToString.Exclude
+    private Bindable currentBindable;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    @ToString.Exclude
+    private Object currentBindTarget;
+
+    /**
+     * <p>Constructor for SpriteBatch.</p>
+     */
+    public SpriteBatch() {
+        this(DEFAULT_MAX_SPRITES);
+    }
+
+    /**
+     * <p>Constructor for SpriteBatch.</p>
+     *
+     * @param maxSprites max num of quads in one draw call.
+     */
+    public SpriteBatch(int maxSprites) {
+        if (maxSprites <= 0) {
+            throw new IllegalArgumentException("maxSprites must be positive : " + maxSprites);
+        }
+        this.maxSprites = maxSprites;
+        this.vertexData = MemoryUtil.memAllocFloat(maxSprites * VERTICES_PER_SPRITE * FLOATS_PER_VERTEX);
+        this.motionData = MemoryUtil.memAllocFloat(maxSprites * 2);
+    }
+
+    /**
+     * <p>setInterpolation.</p>
+     * called at the start of every frame.
+     *
+     * @param interpolationAlpha    interpolation alpha of the frame.
+     * @param interpolatingOnReplay whether the render backend interpolates on replay,
+     *                              so motions shall be sent to it instead of applied here.
+     * @see RenderBackend#isInterpolatingOnReplay()
+     */
+    public void setInterpolation(float interpolationAlpha, boolean interpolatingOnReplay) {
+        if (interpolatingOnReplay != this.isInterpolatingOnReplay()) {
+            this.flush();
+        }
+        this.interpolationAlpha = interpolationAlpha;
+        this.interpolatingOnReplay = interpolatingOnReplay;
+    }
+
+    /**
+     * <p>setMotion.</p>
+     * set how far quads queued from now on moved during the last tick, in NDC.
+     * (0, 0) for things that did not move.
+     *
+     * @param motionX motion x in NDC.
+     * @param motionY motion y in NDC.
+     */
+    public void setMotion(float motionX, float motionY) {
+        this.motionX = motionX;
+        this.motionY = motionY;
+    }
+
+    /**
+     * <p>init.</p>
+     * create the streaming vertex buffer and the static index buffer.
+     */
+    @MainThreadOnly
+    public void init() {
+        if (this.getVertexObject() != INITIALIZED_VALUE) {
+            return;
+        }
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        int[] intArray = new int[2];
+        renderBackend.genBuffers(intArray);
+
+        setVertexObject(intArray[0]);
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, getVertexObject());
+        renderBackend.bufferData(GL_ARRAY_BUFFER, (long) getVertexData().capacity() * BYTES_PER_FLOAT, GL_STREAM_DRAW);
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, 0);
+
+        setIndexObject(intArray[1]);
+        IntBuffer indices = MemoryUtil.memAllocInt(getMaxSprites() * INDICES_PER_SPRITE);
+        for (int i = 0; i < getMaxSprites(); i++) {
+            int base = i * VERTICES_PER_SPRITE;
+            indices.put(base).put(base + 1).put(base + 2)
+                    .put(base + 2).put(base + 3).put(base);
+        }
+        indices.flip();
+        renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, getIndexObject());
+        renderBackend.bufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);
+        renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+        MemoryUtil.memFree(indices);
+    }
+
+    /**
+     * <p>draw.</p>
+     * Queue a quad.
+     * The quad is the parallelogram center + (±1) * axisX + (±1) * axisY, all in normalized device coordinates,
+     * which is exactly what Model.COMMON_MODEL looks like after the old per-quad projection matrix.
+     *
+     * @param shader     shader to draw with. it must accept vertices/textures/colors attributes.
+     * @param bindable   bindable to sample from.
+     * @param centerX    center x in NDC.
+     * @param centerY    center y in NDC.
+     * @param axisXx     x of the half axis along the quad's width.
+     * @param axisXy     y of the half axis along the quad's width.
+     * @param axisYx     x of the half axis along the quad's height.
+     * @param axisYy     y of the half axis along the quad's height.
+     * @param colorScale color multiplied onto the texture.
+     */
+    public void draw(
+            Shader shader,
+            Bindable bindable,
+            float centerX,
+            float centerY,
+            float axisXx,
+            float axisXy,
+            float axisYx,
+            float axisYy,
+            Vector4fc colorScale
+    ) {
+        this.prepare(shader, bindable);
+        this.putMotion();
+
+        final float s0 = bindable.getS0();
+        final float t0 = bindable.getT0();
+        final float s1 = bindable.getS1();
+        final float t1 = bindable.getT1();
+        final float r = colorScale.x();
+        final float g = colorScale.y();
+        final float b = colorScale.z();
+        final float a = colorScale.w();
+        //TOP LEFT
+        putVertex(centerX - axisXx + axisYx, centerY - axisXy + axisYy, s0, t0, r, g, b, a);
+        //TOP RIGHT
+        putVertex(centerX + axisXx + axisYx, centerY + axisXy + axisYy, s1, t0, r, g, b, a);
+        //BOTTOM RIGHT
+        putVertex(centerX + axisXx - axisYx, centerY + axisXy - axisYy, s1, t1, r, g, b, a);
+        //BOTTOM LEFT
+        putVertex(centerX - axisXx - axisYx, centerY - axisXy - axisYy, s0, t1, r, g, b, a);
+        this.setSpriteCount(this.getSpriteCount() + 1);
+    }
+
+    /**
+     * <p>drawRegion.</p>
+     * Queue an axis aligned quad with explicit texture coordinates,
+     * for example a glyph cut from a font page.
+     *
+     * @param shader   shader to draw with. it must accept vertices/textures/colors attributes.
+     * @param bindable bindable to sample from. its own s0/t0/s1/t1 are ignored.
+     * @param x0       left in NDC.
+     * @param y0       top in NDC.
+     * @param x1       right in NDC.
+     * @param y1       bottom in NDC.
+     * @param s0       texture x at left.
+     * @param t0       texture y at top.
+     * @param s1       texture x at right.
+     * @param t1       texture y at bottom.
+     * @param r        red multiplied onto the texture.
+     * @param g        green multiplied onto the texture.
+     * @param b        blue multiplied onto the texture.
+     * @param a        alpha multiplied onto the texture.
+     */
+    public void drawRegion(
+            Shader shader,
+            Bindable bindable,
+            float x0,
+            float y0,
+            float x1,
+            float y1,
+            float s0,
+            float t0,
+            float s1,
+            float t1,
+            float r,
+            float g,
+            float b,
+            float a
+    ) {
+        this.prepare(shader, bindable);
+        this.putMotion();
+
+        //TOP LEFT
+        putVertex(x0, y0, s0, t0, r, g, b, a);
+        //TOP RIGHT
+        putVertex(x1, y0, s1, t0, r, g, b, a);
+        //BOTTOM RIGHT
+        putVertex(x1, y1, s1, t1, r, g, b, a);
+        //BOTTOM LEFT
+        putVertex(x0, y1, s0, t1, r, g, b, a);
+        this.setSpriteCount(this.getSpriteCount() + 1);
+    }
+
+    /**
+     * flush if the next quad cannot join the queued ones.
+     */
+    private void prepare(Shader shader, Bindable bindable) {
+        final Object bindTarget = bindable.getBindTarget();
+        if (shader != this.getCurrentShader() || bindTarget != this.getCurrentBindTarget()) {
+            this.flush();
+            this.setCurrentShader(shader);
+            this.setCurrentBindable(bindable);
+            this.setCurrentBindTarget(bindTarget);
+        } else if (this.getSpriteCount() >= this.getMaxSprites()) {
+            this.flush();
+        }
+    }
+
+    private void putMotion() {
+        if (this.isInterpolatingOnReplay()) {
+            getMotionData().put(this.getMotionX()).put(this.getMotionY());
+            this.vertexOffsetX = 0;
+            this.vertexOffsetY = 0;
+        } else {
+            final float back = 1F - this.getInterpolationAlpha();
+            this.vertexOffsetX = -back * this.getMotionX();
+            this.vertexOffsetY = -back * this.getMotionY();
+        }
+    }
+
+    private void putVertex(float x, float y, float s, float t, float r, float g, float b, float a) {
+        getVertexData().put(x + this.vertexOffsetX).put(y + this.vertexOffsetY)
+                .put(s).put(t).put(r).put(g).put(b).put(a);
+    }
+
+    /**
+     * <p>flush.</p>
+     * Draw all queued quads in one draw call.
+     * Does nothing if nothing is queued.
+     */
+    @MainThreadOnly
+    public void flush() {
+        if (this.getSpriteCount() == 0) {
+            return;
+        }
+        final Shader shader = this.getCurrentShader();
+        final Bindable bindable = this.getCurrentBindable();
+
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        shader.bind();
+        bindable.bind();
+        shader.setUniform("sampler", 0);
+
+        getVertexData().flip();
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, getVertexObject());
+        //orphan the old storage so the driver need not wait for the last draw.
+        renderBackend.bufferData(GL_ARRAY_BUFFER, (long) getVertexData().capacity() * BYTES_PER_FLOAT, GL_STREAM_DRAW);
+        if (this.isInterpolatingOnReplay()) {
+            getMotionData().flip();
+            renderBackend.bufferSubDataInterpolated(GL_ARRAY_BUFFER, 0, getVertexData(), getMotionData(),
+                    FLOATS_PER_VERTEX, VERTICES_PER_SPRITE);
+            getMotionData().clear();
+        } else {
+            renderBackend.bufferSubData(GL_ARRAY_BUFFER, 0, getVertexData());
+        }
+
+        renderBackend.enableVertexAttribArray(0);
+        renderBackend.enableVertexAttribArray(1);
+        renderBackend.enableVertexAttribArray(2);
+        renderBackend.vertexAttribPointer(0, 2, GL_FLOAT, false, STRIDE, 0);
+        renderBackend.vertexAttribPointer(1, 2, GL_FLOAT, false, STRIDE, 2L * BYTES_PER_FLOAT);
+        renderBackend.vertexAttribPointer(2, 4, GL_FLOAT, false, STRIDE, 4L * BYTES_PER_FLOAT);
+
+        renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, getIndexObject());
+        renderBackend.drawElements(GL_TRIANGLES, getSpriteCount() * INDICES_PER_SPRITE, GL_UNSIGNED_INT, 0);
+
+        renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, 0);
+
+        renderBackend.disableVertexAttribArray(0);
+        renderBackend.disableVertexAttribArray(1);
+        renderBackend.disableVertexAttribArray(2);
+
+        getVertexData().clear();
+        this.setSpriteCount(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        if (this.getVertexObject() != INITIALIZED_VALUE) {
+            RenderBackends.getCurrent().deleteBuffers(new int[]{getVertexObject(), getIndexObject()});
+            setVertexObject(INITIALIZED_VALUE);
+            setIndexObject(INITIALIZED_VALUE);
+        }
+        MemoryUtil.memFree(getVertexData());
+        MemoryUtil.memFree(getMotionData());
+    }
+}
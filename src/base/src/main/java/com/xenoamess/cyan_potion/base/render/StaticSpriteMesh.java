@@ -0,0 +1,352 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import com.xenoamess.commons.main_thread_only.MainThreadOnly;
+import com.xenoamess.cyan_potion.base.memory.NormalResource;
+import com.xenoamess.cyan_potion.base.memory.StreamingPriority;
+import lombok.Getter;
+import lombok.ToString;
+import org.joml.Matrix4f;
+import org.joml.Vector4fc;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.Closeable;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.lwjgl.opengl.GL20.GL_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL20.GL_ELEMENT_ARRAY_BUFFER;
+import static org.lwjgl.opengl.GL20.GL_FLOAT;
+import static org.lwjgl.opengl.GL20.GL_STATIC_DRAW;
+import static org.lwjgl.opengl.GL20.GL_TRIANGLES;
+import static org.lwjgl.opengl.GL20.GL_UNSIGNED_INT;
+
+/**
+ * <p>StaticSpriteMesh class.</p>
+ * <p>
+ * StaticSpriteMesh is the static counterpart of SpriteBatch.
+ * Quads are added once in the mesh's own coordinate space (for example scene absolute positions),
+ * uploaded once into a static vertex buffer, and then drawn every frame with one projection matrix,
+ * issuing one draw call per run of quads that share a bind target.
+ * <p>
+ * Quads are never reordered, so add them in painter's order.
+ * Vertices are the same as SpriteBatch's: {vertices.xy, textures.xy, colors.rgba}.
+ * Texture coordinates are read from the bindables when added,
+ * so call {@link #touchBindables()} before drawing to know if they are still valid.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see SpriteBatch
+ */
+@ToString
+public class StaticSpriteMesh implements Closeable {
+    /**
+     * Constant <code>INITIALIZED_VALUE=-1</code>
+     */
+    public static final int INITIALIZED_VALUE = -1;
+
+    private static final int BYTES_PER_FLOAT = 4;
+    private static final int BYTES_PER_INT = 4;
+    private static final int FLOATS_PER_SPRITE = SpriteBatch.VERTICES_PER_SPRITE * SpriteBatch.FLOATS_PER_VERTEX;
+    private static final int STRIDE = SpriteBatch.FLOATS_PER_VERTEX * BYTES_PER_FLOAT;
+
+    @ToString.Exclude
+    private float[] vertexData = new float[FLOATS_PER_SPRITE * 64];
+
+    @Getter
+    private int spriteCount;
+
+    /**
+     * first bindable of each run. it is what gets bound when the run is drawn.
+     */
+    @ToString.Exclude
+    private final List<Bindable> runBindables = new ArrayList<>();
+
+    @ToString.Exclude
+    private final List<Object> runBindTargets = new ArrayList<>();
+
+    /**
+     * first quad of each run.
+     */
+    @ToString.Exclude
+    private int[] runStarts = new int[16];
+
+    /**
+     * every bindable added, and the bind target it had when added.
+     */
+    @ToString.Exclude
+    private final Map<Bindable, Object> bindTargets = new IdentityHashMap<>();
+
+    @Getter
+    private int vertexObject = INITIALIZED_VALUE;
+
+    @Getter
+    private int indexObject = INITIALIZED_VALUE;
+
+    /**
+     * num of quads the index buffer covers.
+     */
+    private int indexedSpriteCount;
+
+    /**
+     * true if quads were added or cleared after the last upload.
+     */
+    @Getter
+    private boolean dirty = true;
+
+    /**
+     * <p>clear.</p>
+     * forget every added quad.
+     */
+    public void clear() {
+        this.dirty = true;
+        this.spriteCount = 0;
+        this.runBindables.clear();
+        this.runBindTargets.clear();
+        this.bindTargets.clear();
+    }
+
+    /**
+     * <p>getRunNum.</p>
+     *
+     * @return num of runs, that is num of draw calls {@link #draw(Shader, Matrix4f)} issues.
+     */
+    public int getRunNum() {
+        return this.runBindables.size();
+    }
+
+    /**
+     * <p>add.</p>
+     * Add an axis aligned quad covering the whole of bindable.
+     *
+     * @param bindable   bindable to sample from.
+     * @param x0         left
+     * @param y0         top
+     * @param x1         right
+     * @param y1         bottom
+     * @param colorScale color multiplied onto the texture.
+     */
+    public void add(Bindable bindable, float x0, float y0, float x1, float y1, Vector4fc colorScale) {
+        this.dirty = true;
+        final Object bindTarget = bindable.getBindTarget();
+        final int runNum = this.runBindTargets.size();
+        if (runNum == 0 || this.runBindTargets.get(runNum - 1) != bindTarget) {
+            if (runNum == this.runStarts.length) {
+                this.runStarts = Arrays.copyOf(this.runStarts, runNum * 2);
+            }
+            this.runStarts[runNum] = this.spriteCount;
+            this.runBindables.add(bindable);
+            this.runBindTargets.add(bindTarget);
+        }
+        this.bindTargets.put(bindable, bindTarget);
+
+        if ((this.spriteCount + 1) * FLOATS_PER_SPRITE > this.vertexData.length) {
+            this.vertexData = Arrays.copyOf(this.vertexData, this.vertexData.length * 2);
+        }
+        final float s0 = bindable.getS0();
+        final float t0 = bindable.getT0();
+        final float s1 = bindable.getS1();
+        final float t1 = bindable.getT1();
+        final float r = colorScale.x();
+        final float g = colorScale.y();
+        final float b = colorScale.z();
+        final float a = colorScale.w();
+        int index = this.spriteCount * FLOATS_PER_SPRITE;
+        //TOP LEFT
+        index = putVertex(index, x0, y0, s0, t0, r, g, b, a);
+        //TOP RIGHT
+        index = putVertex(index, x1, y0, s1, t0, r, g, b, a);
+        //BOTTOM RIGHT
+        index = putVertex(index, x1, y1, s1, t1, r, g, b, a);
+        //BOTTOM LEFT
+        putVertex(index, x0, y1, s0, t1, r, g, b, a);
+        this.spriteCount++;
+    }
+
+    private int putVertex(int index, float x, float y, float s, float t, float r, float g, float b, float a) {
+        final float[] data = this.vertexData;
+        data[index++] = x;
+        data[index++] = y;
+        data[index++] = s;
+        data[index++] = t;
+        data[index++] = r;
+        data[index++] = g;
+        data[index++] = b;
+        data[index++] = a;
+        return index;
+    }
+
+    /**
+     * <p>upload.</p>
+     * upload added quads into the static buffers, replacing what was uploaded before.
+     */
+    @MainThreadOnly
+    public void upload() {
+        this.dirty = false;
+        if (this.spriteCount == 0) {
+            return;
+        }
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        if (this.vertexObject == INITIALIZED_VALUE) {
+            int[] intArray = new int[2];
+            renderBackend.genBuffers(intArray);
+            this.vertexObject = intArray[0];
+            this.indexObject = intArray[1];
+        }
+        final int count = this.spriteCount;
+
+        final FloatBuffer vertices = MemoryUtil.memAllocFloat(count * FLOATS_PER_SPRITE);
+        vertices.put(this.vertexData, 0, count * FLOATS_PER_SPRITE).flip();
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, this.vertexObject);
+        renderBackend.bufferData(GL_ARRAY_BUFFER, vertices, GL_STATIC_DRAW);
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, 0);
+        MemoryUtil.memFree(vertices);
+
+        if (count > this.indexedSpriteCount) {
+            final IntBuffer indices = MemoryUtil.memAllocInt(count * SpriteBatch.INDICES_PER_SPRITE);
+            for (int i = 0; i < count; i++) {
+                int base = i * SpriteBatch.VERTICES_PER_SPRITE;
+                indices.put(base).put(base + 1).put(base + 2)
+                        .put(base + 2).put(base + 3).put(base);
+            }
+            indices.flip();
+            renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.indexObject);
+            renderBackend.bufferData(GL_ELEMENT_ARRAY_BUFFER, indices, GL_STATIC_DRAW);
+            renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+            MemoryUtil.memFree(indices);
+            this.indexedSpriteCount = count;
+        }
+    }
+
+    /**
+     * <p>touchBindables.</p>
+     * mark every bindable of this mesh as used (loading it again if it was freed),
+     * and check that each one still has the bind target and texture coordinates it had when added.
+     * if streaming, a freed bindable is requested instead of loaded,
+     * and the mesh is built again with its placeholder until it is in memory.
+     *
+     * @return false if any bindable moved, which means the mesh must be built again.
+     */
+    public boolean touchBindables() {
+        for (Map.Entry<Bindable, Object> entry : this.bindTargets.entrySet()) {
+            final Bindable bindable = entry.getKey();
+            if (bindable instanceof NormalResource) {
+                final NormalResource resource = (NormalResource) bindable;
+                if (resource.getResourceManager().isStreaming()) {
+                    resource.requestLoad(StreamingPriority.VISIBLE);
+                } else {
+                    resource.load();
+                }
+            }
+            if (bindable.getBindTarget() != entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>draw.</p>
+     * draw the uploaded quads. does nothing if the mesh is dirty.
+     * anything queued in the SpriteBatch must be flushed first, to keep painter's order.
+     *
+     * @param shader     shader to draw with. it must accept vertices/textures/colors attributes,
+     *                   and a projection uniform, see static_sprite_mesh.vs
+     * @param projection matrix from this mesh's space to normalized device coordinates.
+     */
+    @MainThreadOnly
+    public void draw(Shader shader, Matrix4f projection) {
+        this.draw(shader, projection, null);
+    }
+
+    /**
+     * <p>draw.</p>
+     * draw the uploaded quads, with the projection interpolated from previousProjection to projection
+     * when the render backend interpolates on replay.
+     *
+     * @param shader             shader to draw with.
+     * @param projection         matrix from this mesh's space to normalized device coordinates.
+     * @param previousProjection projection one tick ago. null if it did not change.
+     * @see Shader#setUniform(String, Matrix4f, Matrix4f)
+     */
+    @MainThreadOnly
+    public void draw(Shader shader, Matrix4f projection, Matrix4f previousProjection) {
+        if (this.dirty || this.spriteCount == 0) {
+            return;
+        }
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        shader.bind();
+        shader.setUniform("sampler", 0);
+        if (previousProjection == null) {
+            shader.setUniform("projection", projection);
+        } else {
+            shader.setUniform("projection", projection, previousProjection);
+        }
+
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, this.vertexObject);
+        renderBackend.enableVertexAttribArray(0);
+        renderBackend.enableVertexAttribArray(1);
+        renderBackend.enableVertexAttribArray(2);
+        renderBackend.vertexAttribPointer(0, 2, GL_FLOAT, false, STRIDE, 0);
+        renderBackend.vertexAttribPointer(1, 2, GL_FLOAT, false, STRIDE, 2L * BYTES_PER_FLOAT);
+        renderBackend.vertexAttribPointer(2, 4, GL_FLOAT, false, STRIDE, 4L * BYTES_PER_FLOAT);
+        renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, this.indexObject);
+
+        final int runNum = this.runBindables.size();
+        for (int i = 0; i < runNum; i++) {
+            final int start = this.runStarts[i];
+            final int end = i + 1 < runNum ? this.runStarts[i + 1] : this.spriteCount;
+            this.runBindables.get(i).bind();
+            renderBackend.drawElements(GL_TRIANGLES, (end - start) * SpriteBatch.INDICES_PER_SPRITE,
+                    GL_UNSIGNED_INT, (long) start * SpriteBatch.INDICES_PER_SPRITE * BYTES_PER_INT);
+        }
+
+        renderBackend.bindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+        renderBackend.bindBuffer(GL_ARRAY_BUFFER, 0);
+        renderBackend.disableVertexAttribArray(0);
+        renderBackend.disableVertexAttribArray(1);
+        renderBackend.disableVertexAttribArray(2);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        if (this.vertexObject != INITIALIZED_VALUE) {
+            RenderBackends.getCurrent().deleteBuffers(new int[]{this.vertexObject, this.indexObject});
+            this.vertexObject = INITIALIZED_VALUE;
+            this.indexObject = INITIALIZED_VALUE;
+        }
+        this.indexedSpriteCount = 0;
+        this.clear();
+    }
+}
@@ -31,14 +31,18 @@ import com.xenoamess.cyan_potion.base.DataCenter;
 import com.xenoamess.cyan_potion.base.GameManager;
 import com.xenoamess.cyan_potion.base.exceptions.TextureStateDisorderException;
 import com.xenoamess.cyan_potion.base.memory.NormalResource;
+import com.xenoamess.cyan_potion.base.memory.ResidencyPool;
 import com.xenoamess.cyan_potion.base.memory.ResourceInfo;
 import com.xenoamess.cyan_potion.base.memory.ResourceManager;
+import com.xenoamess.cyan_potion.base.memory.StreamingPriority;
+import com.xenoamess.cyan_potion.base.memory.StreamingResourceLoader;
 import com.xenoamess.cyan_potion.base.visual.Colors;
 import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.apache.commons.io.IOUtils;
 import org.lwjgl.opengl.GL13;
 import org.lwjgl.system.MemoryUtil;
 import org.slf4j.Logger;
@@ -53,6 +57,7 @@ import javax.imageio.ImageIO;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
@@ -64,13 +69,6 @@ import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glDeleteTextures;
-import static org.lwjgl.opengl.GL11.glGenTextures;
-import static org.lwjgl.opengl.GL11.glTexImage2D;
-import static org.lwjgl.opengl.GL11.glTexParameterf;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-
 
 /**
  * <p>Texture class.</p>
@@ -114,6 +112,32 @@ public class Texture extends NormalResource implements Bindable {
     @Setter(AccessLevel.PRIVATE)
     private int height;
 
+    /**
+     * the atlas page this texture is a region of.
+     * null if this texture owns its gl texture.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private TextureAtlas atlas;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private float s0 = 0f;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private float t0 = 0f;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private float s1 = 1f;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private float t1 = 1f;
+
 
     /**
      * Constant <code>STRING_PICTURE="picture"</code>
@@ -130,6 +154,46 @@ public class Texture extends NormalResource implements Bindable {
      */
     public static final String STRING_SVG = "svg";
 
+    /**
+     * color of the placeholder drawn instead of a texture still being streamed: transparent.
+     */
+    public static final String STRING_PLACEHOLDER_COLOR = "0.0,0.0,0.0,0.0";
+
+    /**
+     * pixels of a picture decoded by a streaming worker, in RGBA order, in native memory.
+     */
+    private static final class DecodedPicture {
+        private final int width;
+        private final int height;
+        private final ByteBuffer byteBuffer;
+
+        private DecodedPicture(int width, int height, ByteBuffer byteBuffer) {
+            this.width = width;
+            this.height = height;
+            this.byteBuffer = byteBuffer;
+        }
+    }
+
+    private static final StreamingResourceLoader<Texture, DecodedPicture> PICTURE_STREAMING_LOADER =
+            new StreamingResourceLoader<Texture, DecodedPicture>() {
+                @Override
+                public DecodedPicture decode(Texture texture) {
+                    return decodePicture(texture);
+                }
+
+                @Override
+                public boolean upload(Texture texture, DecodedPicture decoded) {
+                    texture.bake(decoded.width, decoded.height, decoded.byteBuffer);
+                    MemoryUtil.memFree(decoded.byteBuffer);
+                    return true;
+                }
+
+                @Override
+                public void discard(DecodedPicture decoded) {
+                    MemoryUtil.memFree(decoded.byteBuffer);
+                }
+            };
+
     /**
      * !!!NOTICE!!!
      * This function is used by reflection and don't delete it if you don't know about the plugin mechanism here.
@@ -142,6 +206,11 @@ public class Texture extends NormalResource implements Bindable {
                 STRING_PICTURE,
                 Texture::loadAsPictureTexture
         );
+        resourceManager.putStreamingResourceLoader(
+                Texture.class,
+                STRING_PICTURE,
+                PICTURE_STREAMING_LOADER
+        );
         resourceManager.putResourceLoader(
                 Texture.class,
                 STRING_PURE_COLOR,
@@ -176,6 +245,10 @@ public class Texture extends NormalResource implements Bindable {
     @Override
     public void bind(int sampler) {
         super.bind(sampler);
+        if (!this.isInMemory() && this.getResourceManager().isStreaming()) {
+            this.getPlaceholder().bind(sampler);
+            return;
+        }
         if ((this.getGlTexture2DInt() == -1) == (this.isInMemory())) {
             throw new TextureStateDisorderException(this);
         }
@@ -183,9 +256,73 @@ public class Texture extends NormalResource implements Bindable {
             throw new TextureStateDisorderException(this);
         }
         if (sampler >= MIN_SAMPLER && sampler <= MAX_SAMPLER) {
-            glActiveTexture(GL13.GL_TEXTURE0 + sampler);
-            glBindTexture(GL_TEXTURE_2D, this.getGlTexture2DInt());
+            RenderBackends.getCurrent().activeTexture(GL13.GL_TEXTURE0 + sampler);
+            RenderBackends.getCurrent().bindTexture(GL_TEXTURE_2D, this.getGlTexture2DInt());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * regions of one TextureAtlas share their atlas as bind target.
+     * notice that this function loads this texture if it is not in memory,
+     * for we cannot know the atlas before that.
+     * if streaming, it requests the load instead, and the placeholder is the bind target until loaded.
+     * it touches this texture, as SpriteBatch only binds the first bindable of each batch.
+     */
+    @Override
+    public Object getBindTarget() {
+        if (this.isInMemory()) {
+            this.touch();
+        } else if (!this.getResourceManager().isStreaming()) {
+            this.load();
+        } else if (!this.requestLoad(StreamingPriority.VISIBLE)) {
+            return this.getPlaceholder();
         }
+        if (this.getAtlas() != null) {
+            return this.getAtlas();
+        }
+        return this;
+    }
+
+    /**
+     * <p>getPlaceholder.</p>
+     *
+     * @return the texture drawn instead of this one while it is being streamed.
+     */
+    protected Texture getPlaceholder() {
+        final Texture placeholder = this.getResourceManager().fetchResource(
+                Colors.getPureColorTextureResourceInfo(STRING_PLACEHOLDER_COLOR)
+        );
+        placeholder.load();
+        return placeholder;
+    }
+
+    /**
+     * <p>bakeRegion.</p>
+     * make this texture a region of a TextureAtlas page instead of owning a gl texture.
+     *
+     * @param atlas  atlas page
+     * @param x      x of the region's left top pixel in atlas
+     * @param y      y of the region's left top pixel in atlas
+     * @param width  width of the region
+     * @param height height of the region
+     * @see TextureAtlasBuilder
+     */
+    @MainThreadOnly
+    public void bakeRegion(TextureAtlas atlas, int x, int y, int width, int height) {
+        this.setWidth(width);
+        this.setHeight(height);
+        atlas.retain();
+        this.setAtlas(atlas);
+        this.setGlTexture2DInt(atlas.getGlTexture2DInt());
+        this.setS0((float) x / atlas.getWidth());
+        this.setT0((float) y / atlas.getHeight());
+        this.setS1((float) (x + width) / atlas.getWidth());
+        this.setT1((float) (y + height) / atlas.getHeight());
+
+        this.setMemorySize(1L * width * height * 4);
+        this.getResourceManager().load(this);
     }
 
     /**
@@ -224,10 +361,25 @@ public class Texture extends NormalResource implements Bindable {
         this.setWidth(singleWidth);
         this.setHeight(singleHeight);
 
-        final ByteBuffer byteBuffer = MemoryUtil.memAlloc(getWidth() * getHeight() * 4);
+        final ByteBuffer byteBuffer = toRgbaByteBuffer(singleWidth, singleHeight, entireWidth,
+                startWidth, startHeight, pixelsRaw);
+        generate(byteBuffer);
+        MemoryUtil.memFree(byteBuffer);
+
+        this.setMemorySize(1L * singleWidth * singleHeight * 4);
+        this.getResourceManager().load(this);
+    }
+
+    /**
+     * copy a part of ARGB pixels into a new RGBA native buffer; free it with MemoryUtil.memFree.
+     * any thread can call this.
+     */
+    private static ByteBuffer toRgbaByteBuffer(int singleWidth, int singleHeight, int entireWidth,
+                                               int startWidth, int startHeight, int[] pixelsRaw) {
+        final ByteBuffer byteBuffer = MemoryUtil.memAlloc(singleWidth * singleHeight * 4);
 
-        for (int i = 0; i < getHeight(); i++) {
-            for (int j = 0; j < getWidth(); j++) {
+        for (int i = 0; i < singleHeight; i++) {
+            for (int j = 0; j < singleWidth; j++) {
                 int pixel =
                         pixelsRaw[(startHeight + i) * entireWidth + startWidth + j];
 
@@ -245,20 +397,17 @@ public class Texture extends NormalResource implements Bindable {
             }
         }
         byteBuffer.flip();
-        generate(byteBuffer);
-        MemoryUtil.memFree(byteBuffer);
-
-        this.setMemorySize(1L * singleWidth * singleHeight * 4);
-        this.getResourceManager().load(this);
+        return byteBuffer;
     }
 
     @MainThreadOnly
     private void generate(ByteBuffer byteBuffer) {
-        this.setGlTexture2DInt(glGenTextures());
-        glBindTexture(GL_TEXTURE_2D, this.getGlTexture2DInt());
-        glTexParameterf(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
-        glTexParameterf(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
-        glTexImage2D(GL_TEXTURE_2D, 0, GL_RGBA, getWidth(), getHeight(), 0,
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        this.setGlTexture2DInt(renderBackend.genTexture());
+        renderBackend.bindTexture(GL_TEXTURE_2D, this.getGlTexture2DInt());
+        renderBackend.texParameterf(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        renderBackend.texParameterf(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        renderBackend.texImage2D(GL_TEXTURE_2D, 0, GL_RGBA, getWidth(), getHeight(), 0,
                 GL_RGBA, GL_UNSIGNED_BYTE, byteBuffer);
     }
 
@@ -279,8 +428,8 @@ public class Texture extends NormalResource implements Bindable {
         assert (resourceInfo.getType().equals(STRING_PICTURE));
 
         BufferedImage bufferedImage = null;
-        try (InputStream inputStream = resourceInfo.getFileObject().getContent().getInputStream()) {
-            bufferedImage = ImageIO.read(inputStream);
+        try {
+            bufferedImage = readPicture(texture);
         } catch (IOException e) {
             LOGGER.error("Texture.loadAsPictureTexture(String fullResourceURI) fails:{}", resourceInfo, e);
         }
@@ -297,6 +446,52 @@ public class Texture extends NormalResource implements Bindable {
         return true;
     }
 
+    /**
+     * <p>readPicture.</p>
+     * read the file first and decode it then, so that ResourceTelemetry can tell IO from decoding.
+     *
+     * @param texture texture
+     * @return picture, or null if no reader can decode it
+     * @throws IOException IOException
+     */
+    private static BufferedImage readPicture(Texture texture) throws IOException {
+        final long ioBeginNanos = System.nanoTime();
+        final byte[] bytes;
+        try (InputStream inputStream = texture.getResourceInfo().getFileObject().getContent().getInputStream()) {
+            bytes = IOUtils.toByteArray(inputStream);
+        }
+        texture.getResourceManager().getResourceTelemetry().recordIo(texture, System.nanoTime() - ioBeginNanos);
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * <p>decodePicture.</p>
+     * the part of loadAsPictureTexture that does not need the main thread.
+     *
+     * @param texture texture
+     * @return decoded picture, or null if failed
+     */
+    private static DecodedPicture decodePicture(Texture texture) {
+        ResourceInfo<?> resourceInfo = texture.getResourceInfo();
+        assert (resourceInfo.getType().equals(STRING_PICTURE));
+
+        BufferedImage bufferedImage = null;
+        try {
+            bufferedImage = readPicture(texture);
+        } catch (IOException e) {
+            LOGGER.error("Texture.decodePicture(Texture texture) fails:{}", resourceInfo, e);
+        }
+        if (bufferedImage == null) {
+            return null;
+        }
+        final int entireWidth = bufferedImage.getWidth();
+        final int entireHeight = bufferedImage.getHeight();
+        final int[] pixelsRaw = bufferedImage.getRGB(0, 0, entireWidth,
+                entireHeight, null, 0, entireWidth);
+        return new DecodedPicture(entireWidth, entireHeight,
+                toRgbaByteBuffer(entireWidth, entireHeight, entireWidth, 0, 0, pixelsRaw));
+    }
+
     /**
      * <p>loadAsPureColorTexture.</p>
      *
@@ -423,13 +618,35 @@ public class Texture extends NormalResource implements Bindable {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ResidencyPool getResidencyPool() {
+        return ResidencyPool.GPU_TEXTURE;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void forceClose() {
-        if (this.getGlTexture2DInt() != -1) {
-            glDeleteTextures(this.getGlTexture2DInt());
+        if (this.getAtlas() != null) {
+            this.getAtlas().freeRegion(
+                    Math.round(this.getS0() * this.getAtlas().getWidth()),
+                    Math.round(this.getT0() * this.getAtlas().getHeight()),
+                    this.getWidth(),
+                    this.getHeight()
+            );
+            this.getAtlas().release();
+            this.setAtlas(null);
+            this.setGlTexture2DInt(-1);
+            this.setS0(0f);
+            this.setT0(0f);
+            this.setS1(1f);
+            this.setT1(1f);
+        } else if (this.getGlTexture2DInt() != -1) {
+            RenderBackends.getCurrent().deleteTexture(this.getGlTexture2DInt());
             this.setGlTexture2DInt(-1);
         }
         this.setMemorySize(0);
@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import com.xenoamess.commons.main_thread_only.MainThreadOnly;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.xenoamess.cyan_potion.base.render.TextureAtlasBuilder.PADDING;
+import static org.lwjgl.opengl.GL11.GL_NEAREST;
+import static org.lwjgl.opengl.GL11.GL_RGBA;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
+import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
+
+/**
+ * <p>TextureAtlas class.</p>
+ * <p>
+ * One gl texture page shared by several region Textures.
+ * The page is reference counted by its regions,
+ * and the gl texture is deleted when the last region is closed.
+ * <p>
+ * Cells of closed regions are remembered as free,
+ * so a region reloaded later can be packed back into this page instead of a new one.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see TextureAtlasBuilder
+ * @see Texture#bakeRegion(TextureAtlas, int, int, int, int)
+ */
+@ToString
+public class TextureAtlas implements Closeable {
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private int glTexture2DInt = -1;
+
+    @Getter
+    private final int width;
+
+    @Getter
+    private final int height;
+
+    @Getter
+    @Setter(AccessLevel.PRIVATE)
+    private int referenceCount = 0;
+
+    /**
+     * {x, y, width, height} of cells no region uses, padding included.
+     */
+    @ToString.Exclude
+    private final List<int[]> freeCells = new ArrayList<>();
+
+    /**
+     * <p>Constructor for TextureAtlas.</p>
+     *
+     * @param width  width of the page
+     * @param height height of the page
+     */
+    public TextureAtlas(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * <p>bake.</p>
+     *
+     * @param byteBuffer RGBA pixels of the whole page.
+     */
+    @MainThreadOnly
+    public void bake(ByteBuffer byteBuffer) {
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        this.setGlTexture2DInt(renderBackend.genTexture());
+        renderBackend.bindTexture(GL_TEXTURE_2D, this.getGlTexture2DInt());
+        renderBackend.texParameterf(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        renderBackend.texParameterf(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        renderBackend.texImage2D(GL_TEXTURE_2D, 0, GL_RGBA, getWidth(), getHeight(), 0,
+                GL_RGBA, GL_UNSIGNED_BYTE, byteBuffer);
+    }
+
+    /**
+     * <p>bakeSubImage.</p>
+     *
+     * @param x          x of the left top pixel to upload
+     * @param y          y of the left top pixel to upload
+     * @param width      width of the pixels
+     * @param height     height of the pixels
+     * @param byteBuffer RGBA pixels
+     */
+    @MainThreadOnly
+    public void bakeSubImage(int x, int y, int width, int height, ByteBuffer byteBuffer) {
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        renderBackend.bindTexture(GL_TEXTURE_2D, this.getGlTexture2DInt());
+        renderBackend.texSubImage2D(GL_TEXTURE_2D, 0, x, y, width, height, GL_RGBA, GL_UNSIGNED_BYTE, byteBuffer);
+    }
+
+    /**
+     * find a free cell for a region, and take it.
+     * the smallest free cell that fits is used, and what is left of it stays free.
+     *
+     * @param width  width of the region
+     * @param height height of the region
+     * @return {x, y} of the region's left top pixel (padding excluded), or null if no free cell fits.
+     */
+    public int[] allocateRegion(int width, int height) {
+        if (this.getGlTexture2DInt() == -1) {
+            return null;
+        }
+        final int cellWidth = width + 2 * PADDING;
+        final int cellHeight = height + 2 * PADDING;
+        int best = -1;
+        long bestArea = Long.MAX_VALUE;
+        for (int i = 0; i < this.freeCells.size(); i++) {
+            final int[] freeCell = this.freeCells.get(i);
+            final long area = 1L * freeCell[2] * freeCell[3];
+            if (freeCell[2] >= cellWidth && freeCell[3] >= cellHeight && area < bestArea) {
+                best = i;
+                bestArea = area;
+            }
+        }
+        if (best == -1) {
+            return null;
+        }
+        final int[] freeCell = this.freeCells.remove(best);
+        if (freeCell[2] > cellWidth) {
+            this.freeCells.add(new int[]{freeCell[0] + cellWidth, freeCell[1], freeCell[2] - cellWidth, cellHeight});
+        }
+        if (freeCell[3] > cellHeight) {
+            this.freeCells.add(new int[]{freeCell[0], freeCell[1] + cellHeight, freeCell[2], freeCell[3] - cellHeight});
+        }
+        return new int[]{freeCell[0] + PADDING, freeCell[1] + PADDING};
+    }
+
+    /**
+     * a region's cell is not used any longer.
+     *
+     * @param x      x of the region's left top pixel (padding excluded)
+     * @param y      y of the region's left top pixel (padding excluded)
+     * @param width  width of the region
+     * @param height height of the region
+     */
+    public void freeRegion(int x, int y, int width, int height) {
+        this.freeCells.add(new int[]{x - PADDING, y - PADDING, width + 2 * PADDING, height + 2 * PADDING});
+    }
+
+    /**
+     * <p>getFreeCellNum.</p>
+     *
+     * @return num of free cells.
+     */
+    public int getFreeCellNum() {
+        return this.freeCells.size();
+    }
+
+    /**
+     * a region starts using this page.
+     */
+    public void retain() {
+        this.setReferenceCount(this.getReferenceCount() + 1);
+    }
+
+    /**
+     * a region stops using this page.
+     * the gl texture is deleted when nobody uses this page any longer.
+     */
+    @MainThreadOnly
+    public void release() {
+        this.setReferenceCount(this.getReferenceCount() - 1);
+        if (this.getReferenceCount() <= 0) {
+            this.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        if (this.getGlTexture2DInt() != -1) {
+            RenderBackends.getCurrent().deleteTexture(this.getGlTexture2DInt());
+            this.setGlTexture2DInt(-1);
+        }
+        this.freeCells.clear();
+    }
+}
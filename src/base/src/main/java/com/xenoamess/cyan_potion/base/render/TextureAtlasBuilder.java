@@ -0,0 +1,319 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import com.xenoamess.commons.main_thread_only.MainThreadOnly;
+import com.xenoamess.cyan_potion.base.exceptions.TextureStateDisorderException;
+import lombok.Getter;
+import lombok.ToString;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.lwjgl.opengl.GL11.GL_MAX_TEXTURE_SIZE;
+
+/**
+ * <p>TextureAtlasBuilder class.</p>
+ * <p>
+ * Collects many small pictures (for example tiles cut from one tileset sheet),
+ * packs them into as few TextureAtlas pages as possible,
+ * and bakes every collected Texture as a region of its page.
+ * <p>
+ * Each region gets a {@link #PADDING} pixel border made of its own edge pixels,
+ * so that neighbours never bleed in when a region is drawn scaled.
+ * <p>
+ * Pages added by {@link #addPage(TextureAtlas)} are tried first,
+ * so pictures reloaded after being evicted go back into the free cells of their old pages.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class TextureAtlasBuilder {
+    /**
+     * default max width/height of one page.
+     * the real limit is min(this, GL_MAX_TEXTURE_SIZE).
+     */
+    public static final int DEFAULT_MAX_PAGE_SIZE = 4096;
+
+    /**
+     * border around each region, in pixels.
+     */
+    public static final int PADDING = 1;
+
+    private static class Region {
+        final Texture texture;
+        final int width;
+        final int height;
+        final int[] pixels;
+        final int offset;
+        final int scanSize;
+
+        Region(Texture texture, int width, int height, int[] pixels, int offset, int scanSize) {
+            this.texture = texture;
+            this.width = width;
+            this.height = height;
+            this.pixels = pixels;
+            this.offset = offset;
+            this.scanSize = scanSize;
+        }
+    }
+
+    @Getter
+    private final int maxPageSize;
+
+    @ToString.Exclude
+    private final List<Region> regions = new ArrayList<>();
+
+    @ToString.Exclude
+    private final List<TextureAtlas> pages = new ArrayList<>();
+
+    /**
+     * <p>Constructor for TextureAtlasBuilder.</p>
+     */
+    public TextureAtlasBuilder() {
+        this(DEFAULT_MAX_PAGE_SIZE);
+    }
+
+    /**
+     * <p>Constructor for TextureAtlasBuilder.</p>
+     *
+     * @param maxPageSize max width/height of one page.
+     */
+    public TextureAtlasBuilder(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * add a picture to pack.
+     * pixels are ARGB ints, in the same layout as BufferedImage.getRGB returns.
+     *
+     * @param texture  texture that will be baked as a region.
+     * @param width    width of the picture
+     * @param height   height of the picture
+     * @param pixels   ARGB pixels
+     * @param offset   index of the picture's left top pixel in pixels
+     * @param scanSize row length of pixels
+     */
+    public void add(Texture texture, int width, int height, int[] pixels, int offset, int scanSize) {
+        this.regions.add(new Region(texture, width, height, pixels, offset, scanSize));
+    }
+
+    /**
+     * add a page whose free cells can be used before new pages are created.
+     *
+     * @param textureAtlas page, or null to do nothing.
+     */
+    public void addPage(TextureAtlas textureAtlas) {
+        if (textureAtlas != null && !this.pages.contains(textureAtlas)) {
+            this.pages.add(textureAtlas);
+        }
+    }
+
+    /**
+     * <p>size.</p>
+     *
+     * @return num of pictures waiting to be packed.
+     */
+    public int size() {
+        return this.regions.size();
+    }
+
+    /**
+     * <p>isEmpty.</p>
+     *
+     * @return if no picture is waiting to be packed.
+     */
+    public boolean isEmpty() {
+        return this.regions.isEmpty();
+    }
+
+    /**
+     * pack every added picture into pages, upload the pages, and bake every added Texture as a region.
+     * pictures that fit in a free cell of an added page go there, the others go to new pages.
+     *
+     * @return pages created.
+     */
+    @MainThreadOnly
+    public List<TextureAtlas> build() {
+        this.regions.removeIf(this::buildInPages);
+        this.pages.clear();
+        if (this.regions.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final int pageSizeLimit = Math.min(this.getMaxPageSize(),
+                RenderBackends.getCurrent().getInteger(GL_MAX_TEXTURE_SIZE));
+        final int regionNum = this.regions.size();
+        final int[] widths = new int[regionNum];
+        final int[] heights = new int[regionNum];
+        for (int i = 0; i < regionNum; i++) {
+            widths[i] = this.regions.get(i).width;
+            heights[i] = this.regions.get(i).height;
+        }
+        final int[] pages = new int[regionNum];
+        final int[] xs = new int[regionNum];
+        final int[] ys = new int[regionNum];
+        final List<int[]> pageSizes = pack(widths, heights, pageSizeLimit, pages, xs, ys);
+
+        final List<TextureAtlas> result = new ArrayList<>(pageSizes.size());
+        for (int page = 0; page < pageSizes.size(); page++) {
+            final int pageWidth = pageSizes.get(page)[0];
+            final int pageHeight = pageSizes.get(page)[1];
+            final ByteBuffer byteBuffer = MemoryUtil.memCalloc(pageWidth * pageHeight * 4);
+            for (int i = 0; i < regionNum; i++) {
+                if (pages[i] == page) {
+                    blit(byteBuffer, pageWidth, this.regions.get(i), xs[i], ys[i]);
+                }
+            }
+            final TextureAtlas textureAtlas = new TextureAtlas(pageWidth, pageHeight);
+            textureAtlas.bake(byteBuffer);
+            MemoryUtil.memFree(byteBuffer);
+            for (int i = 0; i < regionNum; i++) {
+                if (pages[i] == page) {
+                    final Region region = this.regions.get(i);
+                    region.texture.bakeRegion(textureAtlas, xs[i], ys[i], region.width, region.height);
+                    if ((region.texture.getGlTexture2DInt() == -1) == (region.texture.isInMemory())) {
+                        throw new TextureStateDisorderException(region.texture);
+                    }
+                }
+            }
+            result.add(textureAtlas);
+        }
+        this.regions.clear();
+        return result;
+    }
+
+    /**
+     * bake the region into a free cell of an added page.
+     *
+     * @return if it found a free cell.
+     */
+    private boolean buildInPages(Region region) {
+        for (TextureAtlas textureAtlas : this.pages) {
+            final int[] position = textureAtlas.allocateRegion(region.width, region.height);
+            if (position == null) {
+                continue;
+            }
+            final int cellWidth = region.width + 2 * PADDING;
+            final int cellHeight = region.height + 2 * PADDING;
+            final ByteBuffer byteBuffer = MemoryUtil.memAlloc(cellWidth * cellHeight * 4);
+            blit(byteBuffer, cellWidth, region, PADDING, PADDING);
+            textureAtlas.bakeSubImage(position[0] - PADDING, position[1] - PADDING, cellWidth, cellHeight, byteBuffer);
+            MemoryUtil.memFree(byteBuffer);
+            region.texture.bakeRegion(textureAtlas, position[0], position[1], region.width, region.height);
+            if ((region.texture.getGlTexture2DInt() == -1) == (region.texture.isInMemory())) {
+                throw new TextureStateDisorderException(region.texture);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void blit(ByteBuffer byteBuffer, int pageWidth, Region region, int x, int y) {
+        for (int i = -PADDING; i < region.height + PADDING; i++) {
+            final int sourceRow = region.offset + Math.min(Math.max(i, 0), region.height - 1) * region.scanSize;
+            int index = ((y + i) * pageWidth + x - PADDING) * 4;
+            for (int j = -PADDING; j < region.width + PADDING; j++) {
+                final int pixel = region.pixels[sourceRow + Math.min(Math.max(j, 0), region.width - 1)];
+                // RED
+                byteBuffer.put(index++, (byte) ((pixel >> 16) & 0xFF));
+                // GREEN
+                byteBuffer.put(index++, (byte) ((pixel >> 8) & 0xFF));
+                // BLUE
+                byteBuffer.put(index++, (byte) (pixel & 0xFF));
+                // ALPHA
+                byteBuffer.put(index++, (byte) ((pixel >> 24) & 0xFF));
+            }
+        }
+    }
+
+    /**
+     * shelf packing.
+     * rectangles are placed from the tallest to the shortest, left to right, shelf by shelf,
+     * and a new page is opened when a page is full.
+     * every rectangle keeps a {@link #PADDING} border inside its cell.
+     *
+     * @param widths      widths of rectangles
+     * @param heights     heights of rectangles
+     * @param maxPageSize max width/height of one page
+     * @param pages       output, page index of each rectangle
+     * @param xs          output, x of each rectangle's left top pixel (padding excluded)
+     * @param ys          output, y of each rectangle's left top pixel (padding excluded)
+     * @return {width, height} of each page
+     */
+    public static List<int[]> pack(int[] widths, int[] heights, int maxPageSize, int[] pages, int[] xs, int[] ys) {
+        final int num = widths.length;
+        if (num == 0) {
+            return new ArrayList<>();
+        }
+        final List<Integer> order = new ArrayList<>(num);
+        long totalArea = 0;
+        int maxCellWidth = 0;
+        for (int i = 0; i < num; i++) {
+            final int cellWidth = widths[i] + 2 * PADDING;
+            final int cellHeight = heights[i] + 2 * PADDING;
+            if (cellWidth > maxPageSize || cellHeight > maxPageSize) {
+                throw new IllegalArgumentException("picture larger than max page size : " + widths[i] + "x" + heights[i]);
+            }
+            totalArea += 1L * cellWidth * cellHeight;
+            maxCellWidth = Math.max(maxCellWidth, cellWidth);
+            order.add(i);
+        }
+        order.sort((a, b) -> Integer.compare(heights[b], heights[a]));
+
+        final int pageWidth = (int) Math.min(maxPageSize, Math.max(maxCellWidth, (long) Math.ceil(Math.sqrt(totalArea))));
+        final List<int[]> pageSizes = new ArrayList<>();
+        int page = 0;
+        int cursorX = 0;
+        int cursorY = 0;
+        int shelfHeight = 0;
+        for (int i : order) {
+            final int cellWidth = widths[i] + 2 * PADDING;
+            final int cellHeight = heights[i] + 2 * PADDING;
+            if (cursorX + cellWidth > pageWidth) {
+                cursorY += shelfHeight;
+                cursorX = 0;
+                shelfHeight = 0;
+            }
+            if (cursorY + cellHeight > maxPageSize) {
+                pageSizes.add(new int[]{pageWidth, cursorY});
+                page++;
+                cursorX = 0;
+                cursorY = 0;
+                shelfHeight = 0;
+            }
+            pages[i] = page;
+            xs[i] = cursorX + PADDING;
+            ys[i] = cursorY + PADDING;
+            cursorX += cellWidth;
+            shelfHeight = Math.max(shelfHeight, cellHeight);
+        }
+        pageSizes.add(new int[]{pageWidth, cursorY + shelfHeight});
+        return pageSizes;
+    }
+}
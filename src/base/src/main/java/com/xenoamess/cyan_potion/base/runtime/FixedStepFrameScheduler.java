@@ -0,0 +1,259 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.runtime;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>FixedStepFrameScheduler class.</p>
+ * runs logic ticks at a fixed rate, measured by {@link System#nanoTime()}.
+ * <p>
+ * While waiting for the next tick it parks the thread, and only spins (yielding) for the last spinNanos,
+ * because parkNanos can wake up late by about a timer slice.
+ * So an idle game does not burn a whole core, and ticks still start on time.
+ * <p>
+ * Frames are drawn between ticks too, at most one per minFrameNanos (and usually paced by the vsync),
+ * so the interpolation alpha sweeps from 0 to 1 between two ticks instead of always being about 0.
+ * <p>
+ * If the loop falls behind (a stall, a slow frame), it runs at most maxCatchUpTicks ticks in one frame
+ * and drops the rest of the backlog, instead of trying to catch up forever.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class FixedStepFrameScheduler implements FrameScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FixedStepFrameScheduler.class);
+
+    /**
+     * default max num of ticks run in one frame.
+     */
+    public static final int DEFAULT_MAX_CATCH_UP_TICKS = 5;
+
+    /**
+     * default time spent spinning instead of parking before a tick is due.
+     */
+    public static final long DEFAULT_SPIN_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Getter
+    private final long tickNanos;
+
+    @Getter
+    private final int maxCatchUpTicks;
+
+    @Getter
+    private final long spinNanos;
+
+    @Getter
+    private final long minFrameNanos;
+
+    @ToString.Exclude
+    private final LongSupplier nanoTimeSupplier;
+
+    private long lastNanos;
+
+    /**
+     * time passed but not yet consumed by ticks.
+     */
+    private long accumulatedNanos;
+
+    /**
+     * lastNanos when the last frame was returned.
+     */
+    private long lastFrameNanos;
+
+    @Getter
+    private long droppedTickCount;
+
+    /**
+     * <p>Constructor for FixedStepFrameScheduler.</p>
+     *
+     * @param ticksPerSecond ticksPerSecond
+     */
+    public FixedStepFrameScheduler(int ticksPerSecond) {
+        this(ticksPerSecond, DEFAULT_MAX_CATCH_UP_TICKS);
+    }
+
+    /**
+     * <p>Constructor for FixedStepFrameScheduler.</p>
+     *
+     * @param ticksPerSecond  ticksPerSecond
+     * @param maxCatchUpTicks max num of ticks run in one frame
+     */
+    public FixedStepFrameScheduler(int ticksPerSecond, int maxCatchUpTicks) {
+        this(ticksPerSecond, maxCatchUpTicks, DEFAULT_SPIN_NANOS, System::nanoTime);
+    }
+
+    /**
+     * <p>Constructor for FixedStepFrameScheduler.</p>
+     *
+     * @param ticksPerSecond   ticksPerSecond
+     * @param maxCatchUpTicks  max num of ticks run in one frame
+     * @param spinNanos        time spent spinning instead of parking before a tick is due
+     * @param nanoTimeSupplier clock, System::nanoTime except in tests
+     */
+    public FixedStepFrameScheduler(int ticksPerSecond, int maxCatchUpTicks, long spinNanos,
+                                   LongSupplier nanoTimeSupplier) {
+        this(ticksPerSecond, maxCatchUpTicks, spinNanos, DEFAULT_MIN_FRAME_NANOS, nanoTimeSupplier);
+    }
+
+    /**
+     * <p>Constructor for FixedStepFrameScheduler.</p>
+     *
+     * @param ticksPerSecond   ticksPerSecond
+     * @param maxCatchUpTicks  max num of ticks run in one frame
+     * @param spinNanos        time spent spinning instead of parking before a tick is due
+     * @param minFrameNanos    min time between two frames. frames with ticks are never delayed by it.
+     * @param nanoTimeSupplier clock, System::nanoTime except in tests
+     */
+    public FixedStepFrameScheduler(int ticksPerSecond, int maxCatchUpTicks, long spinNanos, long minFrameNanos,
+                                   LongSupplier nanoTimeSupplier) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive : " + ticksPerSecond);
+        }
+        if (maxCatchUpTicks <= 0) {
+            throw new IllegalArgumentException("maxCatchUpTicks must be positive : " + maxCatchUpTicks);
+        }
+        this.tickNanos = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.spinNanos = Math.max(spinNanos, 0);
+        this.minFrameNanos = Math.max(minFrameNanos, 0);
+        this.nanoTimeSupplier = nanoTimeSupplier;
+        this.reset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        this.lastNanos = this.nanoTimeSupplier.getAsLong();
+        this.accumulatedNanos = 0;
+        this.lastFrameNanos = this.lastNanos;
+    }
+
+    private void accumulate() {
+        final long nowNanos = this.nanoTimeSupplier.getAsLong();
+        this.accumulatedNanos += nowNanos - this.lastNanos;
+        this.lastNanos = nowNanos;
+    }
+
+    /**
+     * take the ticks due now, without waiting.
+     *
+     * @return num of ticks to run now, 0 if none is due.
+     */
+    public int pollTicks() {
+        this.accumulate();
+        long ticks = this.accumulatedNanos / this.getTickNanos();
+        if (ticks > this.getMaxCatchUpTicks()) {
+            final long dropped = ticks - this.getMaxCatchUpTicks();
+            this.droppedTickCount += dropped;
+            LOGGER.debug("fell behind, {} ticks dropped", dropped);
+            this.accumulatedNanos -= dropped * this.getTickNanos();
+            ticks = this.getMaxCatchUpTicks();
+        }
+        this.accumulatedNanos -= ticks * this.getTickNanos();
+        return (int) ticks;
+    }
+
+    /**
+     * <p>getNanosToNextTick.</p>
+     *
+     * @return time until the next tick is due, as of the last poll. 0 if already due.
+     */
+    public long getNanosToNextTick() {
+        return Math.max(this.getTickNanos() - this.accumulatedNanos, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * returns when a tick is due, or when minFrameNanos passed since the last frame.
+     */
+    @Override
+    public int waitForNextFrame() {
+        int ticks;
+        while ((ticks = this.pollTicks()) == 0) {
+            final long nanosToNextFrame = this.lastFrameNanos + this.getMinFrameNanos() - this.lastNanos;
+            if (nanosToNextFrame <= 0) {
+                break;
+            }
+            this.waitForNextTickAtMost(nanosToNextFrame);
+        }
+        this.lastFrameNanos = this.lastNanos;
+        return ticks;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int waitForNextTicks() {
+        int ticks;
+        while ((ticks = this.pollTicks()) == 0) {
+            this.waitForNextTickAtMost(Long.MAX_VALUE);
+        }
+        this.lastFrameNanos = this.lastNanos;
+        return ticks;
+    }
+
+    private void waitForNextTickAtMost(long maxParkNanos) {
+        final long parkNanos = this.getNanosToNextTick() - this.getSpinNanos();
+        if (parkNanos > 0) {
+            LockSupport.parkNanos(Math.min(parkNanos, maxParkNanos));
+        } else {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getTickSeconds() {
+        return this.getTickNanos() / 1e9;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * the part of a tick passed since the current tick, clamped to 1,
+     * so the frame drawn is one tick behind the game time at most.
+     * measured when called, so the time the ticks of this frame took counts too.
+     */
+    @Override
+    public float getInterpolationAlpha() {
+        final long sinceTickNanos = this.accumulatedNanos + this.nanoTimeSupplier.getAsLong() - this.lastNanos;
+        return Math.max(0F, Math.min((float) sinceTickNanos / this.getTickNanos(), 1F));
+    }
+}
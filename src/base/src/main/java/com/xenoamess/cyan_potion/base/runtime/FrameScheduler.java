@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.runtime;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>FrameScheduler interface.</p>
+ * decides when the game loop runs logic ticks and draws,
+ * and how long each tick lasts in game time.
+ * <p>
+ * The loop calls {@link #waitForNextFrame()}, runs the returned num of ticks
+ * (each one advancing the game by {@link #getTickSeconds()}, and maybe none at all),
+ * then draws with {@link #getInterpolationAlpha()}.
+ * If frames are drawn elsewhere (see the renderThread setting), it calls {@link #waitForNextTicks()} instead.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see FixedStepFrameScheduler
+ * @see VariableStepFrameScheduler
+ */
+public interface FrameScheduler {
+    /**
+     * default min time between two frames.
+     * so that without vsync the loop sleeps instead of spinning.
+     * 250 frames per second is above usual refresh rates, so with vsync the loop never waits for it.
+     */
+    long DEFAULT_MIN_FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(4);
+
+    /**
+     * forget all time passed so far.
+     * called when the loop starts.
+     */
+    void reset();
+
+    /**
+     * block until the next frame is due.
+     *
+     * @return num of logic ticks to run before drawing this frame. may be 0.
+     */
+    int waitForNextFrame();
+
+    /**
+     * block until at least one tick is due, whatever frames are due meanwhile.
+     *
+     * @return num of logic ticks to run, at least 1.
+     */
+    default int waitForNextTicks() {
+        int ticks;
+        while ((ticks = this.waitForNextFrame()) == 0) {
+            //frames are not drawn here.
+        }
+        return ticks;
+    }
+
+    /**
+     * <p>getTickSeconds.</p>
+     *
+     * @return game time each tick returned by the last {@link #waitForNextFrame()} advances, in seconds.
+     */
+    double getTickSeconds();
+
+    /**
+     * blend weight of this frame, in [0, 1], from the state of the previous tick (0)
+     * to the state of the current tick (1).
+     * draw code uses it to draw things somewhere between where they were one tick ago and where they are now.
+     *
+     * @return interpolation alpha
+     */
+    float getInterpolationAlpha();
+}
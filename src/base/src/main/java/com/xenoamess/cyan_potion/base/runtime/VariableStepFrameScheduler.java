@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.runtime;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>VariableStepFrameScheduler class.</p>
+ * runs one logic tick per frame as soon as possible,
+ * each one lasting the time passed since the previous one.
+ * Pacing is left to whatever blocks the loop (usually the vsync in swap buffers),
+ * but two frames are at least minFrameNanos apart, so that the loop sleeps instead of spinning without vsync.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class VariableStepFrameScheduler implements FrameScheduler {
+    @ToString.Exclude
+    private final LongSupplier nanoTimeSupplier;
+
+    @Getter
+    private final long minFrameNanos;
+
+    private long lastNanos;
+
+    private double tickSeconds;
+
+    /**
+     * <p>Constructor for VariableStepFrameScheduler.</p>
+     */
+    public VariableStepFrameScheduler() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * <p>Constructor for VariableStepFrameScheduler.</p>
+     *
+     * @param nanoTimeSupplier clock, System::nanoTime except in tests
+     */
+    public VariableStepFrameScheduler(LongSupplier nanoTimeSupplier) {
+        this(DEFAULT_MIN_FRAME_NANOS, nanoTimeSupplier);
+    }
+
+    /**
+     * <p>Constructor for VariableStepFrameScheduler.</p>
+     *
+     * @param minFrameNanos    min time between two frames
+     * @param nanoTimeSupplier clock, System::nanoTime except in tests
+     */
+    public VariableStepFrameScheduler(long minFrameNanos, LongSupplier nanoTimeSupplier) {
+        this.minFrameNanos = Math.max(minFrameNanos, 0);
+        this.nanoTimeSupplier = nanoTimeSupplier;
+        this.reset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() {
+        this.lastNanos = this.nanoTimeSupplier.getAsLong();
+        this.tickSeconds = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int waitForNextFrame() {
+        long nowNanos = this.nanoTimeSupplier.getAsLong();
+        long parkNanos;
+        while ((parkNanos = this.lastNanos + this.getMinFrameNanos() - nowNanos) > 0) {
+            LockSupport.parkNanos(parkNanos);
+            nowNanos = this.nanoTimeSupplier.getAsLong();
+        }
+        this.tickSeconds = (nowNanos - this.lastNanos) / 1e9;
+        this.lastNanos = nowNanos;
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getTickSeconds() {
+        return this.tickSeconds;
+    }
+
+    /**
+     * {@inheritDoc}
+     * always 1, as every frame draws right after its own tick, so it sits exactly on the current tick.
+     */
+    @Override
+    public float getInterpolationAlpha() {
+        return 1F;
+    }
+}
@@ -24,7 +24,8 @@
 
 /**
  * Package to hold classes about game runtime,
- * including runtime variable structure's create, management, save, load, and other things.
+ * including runtime variable structure's create, management, save, load, and other things,
+ * and the frame schedulers pacing the game loop.
  *
  * @since 0.148.0
  */
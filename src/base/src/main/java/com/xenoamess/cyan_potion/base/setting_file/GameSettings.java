@@ -142,6 +142,71 @@ public class GameSettings {
      */
     private boolean noConsoleThread;
 
+    /**
+     * if true then count and record render commands of every frame.
+     */
+    private boolean recordRenderCommands;
+
+    /**
+     * max num of glyph pages each font keeps packed. &lt;= 0 means no limit.
+     */
+    private int maxResidentFontPages;
+
+    /**
+     * folder where packed glyph pages are cached between launches. empty means no cache.
+     */
+    private String glyphCacheFolderPath;
+
+    /**
+     * if true then draw on a separate render thread.
+     */
+    private boolean renderThread;
+
+    /**
+     * max num of logic ticks run in one frame when the loop falls behind.
+     */
+    private int maxCatchUpTicks;
+
+    /**
+     * if true then record how long each frame phase takes.
+     */
+    private boolean frameProfiler;
+
+    /**
+     * budget of textures in video memory, in MB. &lt;= 0 means no limit.
+     */
+    private int gpuTextureBudgetMB;
+
+    /**
+     * budget of audio buffers, in MB. &lt;= 0 means no limit.
+     */
+    private int audioBufferBudgetMB;
+
+    /**
+     * budget of other resources, in MB. &lt;= 0 means no limit.
+     */
+    private int heapCacheBudgetMB;
+
+    /**
+     * if true then load resources without blocking when drawn, showing placeholders meanwhile.
+     */
+    private boolean streamingResources;
+
+    /**
+     * time of uploading streamed resources per frame, in milliseconds.
+     */
+    private int streamingUploadBudgetMillis;
+
+    /**
+     * num of worker threads decoding streamed resources.
+     */
+    private int streamingWorkerNum;
+
+    /**
+     * asset archive paths separated by ',', mounted when the resource manager starts.
+     */
+    private String assetArchives;
+
     //views----------
 
     private int logicWindowWidth;
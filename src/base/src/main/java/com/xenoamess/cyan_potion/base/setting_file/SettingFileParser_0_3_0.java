@@ -26,8 +26,12 @@ package com.xenoamess.cyan_potion.base.setting_file;
 
 import com.xenoamess.commons.version.Version;
 import com.xenoamess.commonx.java.lang.IllegalArgumentExceptionUtilsx;
+import com.xenoamess.cyan_potion.base.memory.ResidencyPool;
 import com.xenoamess.cyan_potion.base.memory.ResourceManager;
+import com.xenoamess.cyan_potion.base.memory.ResourceStreamer;
 import com.xenoamess.cyan_potion.base.plugins.CodePluginPosition;
+import com.xenoamess.cyan_potion.base.runtime.FixedStepFrameScheduler;
+import com.xenoamess.cyan_potion.base.visual.GlyphPageCache;
 import com.xenoamess.x8l.AbstractTreeNode;
 import com.xenoamess.x8l.ContentNode;
 import com.xenoamess.x8l.TextNode;
@@ -39,26 +43,39 @@ import org.lwjgl.system.Configuration;
 
 import java.awt.Toolkit;
 
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_ASSET_ARCHIVES;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_AUDIO_BUFFER_BUDGET_MB;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_AUTO_SHOW_GAME_WINDOW_AFTER_INIT;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_DEFAULT_FONT_RESOURCE_URI;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_DEFAULT_RESOURCES_FOLDER_PATH;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_FRAME_PROFILER;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_FULL_SCREEN;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_GAME_NAME;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_GAME_VERSION;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_GAME_WINDOW_CLASS_NAME;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_GLYPH_CACHE_FOLDER_PATH;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_GPU_TEXTURE_BUDGET_MB;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_HEAP_CACHE_BUDGET_MB;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_ICON_FILE_PATH;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_LANGUAGE;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_LOGIC_WINDOW_HEIGHT;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_LOGIC_WINDOW_WIDTH;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_LOGO_CLASS_NAME;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_MAX_CATCH_UP_TICKS;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_MAX_FPS;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_MAX_RESIDENT_FONT_PAGES;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_NO_CONSOLE_THREAD;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_REAL_WINDOW_HEIGHT;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_REAL_WINDOW_WIDTH;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_RECORD_RENDER_COMMANDS;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_RENDER_THREAD;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_RUN_WITH_STEAM;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_SHADER_FOLDER_PATH;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_STEAM_APPID;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_STEAM_RUN_CALL_BACKS_TIME;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_STREAMING_RESOURCES;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_STREAMING_UPLOAD_BUDGET_MILLIS;
+import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_STREAMING_WORKER_NUM;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_TEXT_FILE_PATH;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_TITLE_CLASS_NAME;
 import static com.xenoamess.cyan_potion.base.GameManagerConfig.STRING_TITLE_TEXT_ID;
@@ -213,6 +230,52 @@ public class SettingFileParser_0_3_0 extends AbstractSettingFileParser {
         gameSettings.setNoConsoleThread(
                 getBoolean(gameSettings.getSpecialSettings(), STRING_NO_CONSOLE_THREAD)
         );
+        gameSettings.setRecordRenderCommands(
+                getBoolean(gameSettings.getSpecialSettings(), STRING_RECORD_RENDER_COMMANDS)
+        );
+        gameSettings.setRenderThread(
+                getBoolean(gameSettings.getSpecialSettings(), STRING_RENDER_THREAD)
+        );
+        gameSettings.setFrameProfiler(
+                getBoolean(gameSettings.getSpecialSettings(), STRING_FRAME_PROFILER)
+        );
+        gameSettings.setMaxCatchUpTicks(
+                getInteger(gameSettings.getSpecialSettings(), STRING_MAX_CATCH_UP_TICKS,
+                        FixedStepFrameScheduler.DEFAULT_MAX_CATCH_UP_TICKS)
+        );
+        gameSettings.setGpuTextureBudgetMB(
+                getInteger(gameSettings.getSpecialSettings(), STRING_GPU_TEXTURE_BUDGET_MB,
+                        ResidencyPool.GPU_TEXTURE.getDefaultBudgetMB())
+        );
+        gameSettings.setAudioBufferBudgetMB(
+                getInteger(gameSettings.getSpecialSettings(), STRING_AUDIO_BUFFER_BUDGET_MB,
+                        ResidencyPool.AUDIO_BUFFER.getDefaultBudgetMB())
+        );
+        gameSettings.setHeapCacheBudgetMB(
+                getInteger(gameSettings.getSpecialSettings(), STRING_HEAP_CACHE_BUDGET_MB,
+                        ResidencyPool.HEAP_CACHE.getDefaultBudgetMB())
+        );
+        gameSettings.setStreamingResources(
+                getBoolean(gameSettings.getSpecialSettings(), STRING_STREAMING_RESOURCES)
+        );
+        gameSettings.setStreamingUploadBudgetMillis(
+                getInteger(gameSettings.getSpecialSettings(), STRING_STREAMING_UPLOAD_BUDGET_MILLIS,
+                        ResourceStreamer.DEFAULT_UPLOAD_BUDGET_MILLIS)
+        );
+        gameSettings.setStreamingWorkerNum(
+                getInteger(gameSettings.getSpecialSettings(), STRING_STREAMING_WORKER_NUM,
+                        ResourceStreamer.DEFAULT_WORKER_NUM)
+        );
+        gameSettings.setAssetArchives(
+                getString(gameSettings.getSpecialSettings(), STRING_ASSET_ARCHIVES)
+        );
+        gameSettings.setMaxResidentFontPages(
+                getInteger(gameSettings.getSpecialSettings(), STRING_MAX_RESIDENT_FONT_PAGES, 0)
+        );
+        gameSettings.setGlyphCacheFolderPath(
+                getString(gameSettings.getSpecialSettings(), STRING_GLYPH_CACHE_FOLDER_PATH,
+                        GlyphPageCache.DEFAULT_CACHE_FOLDER_PATH)
+        );
         gameSettings.setDefaultFontResourceJsonString(
                 getString(
                         gameSettings.getCommonSettings(),
@@ -99,4 +99,52 @@ public abstract class AbstractBindablePicture extends AbstractPicture implements
             bindable.bind(sampler);
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getBindTarget() {
+        Bindable bindable = this.getCurrentBindable();
+        if (bindable != null) {
+            return bindable.getBindTarget();
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getS0() {
+        Bindable bindable = this.getCurrentBindable();
+        return bindable != null ? bindable.getS0() : 0f;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getT0() {
+        Bindable bindable = this.getCurrentBindable();
+        return bindable != null ? bindable.getT0() : 0f;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getS1() {
+        Bindable bindable = this.getCurrentBindable();
+        return bindable != null ? bindable.getS1() : 1f;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getT1() {
+        Bindable bindable = this.getCurrentBindable();
+        return bindable != null ? bindable.getT1() : 1f;
+    }
 }
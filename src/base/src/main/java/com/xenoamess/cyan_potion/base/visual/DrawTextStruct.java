@@ -25,20 +25,19 @@
 package com.xenoamess.cyan_potion.base.visual;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.xenoamess.cyan_potion.base.GameWindow;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.joml.Vector4f;
 import org.joml.Vector4fc;
 import org.lwjgl.stb.STBTruetype;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static org.lwjgl.opengl.GL11.GL_QUADS;
-import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glBegin;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glEnable;
-import static org.lwjgl.opengl.GL11.glEnd;
-
 /**
  * DrawTextStruct
  * DrawTextStruct is a struct to describe how to draw texts.
@@ -68,6 +67,40 @@ public class DrawTextStruct {
     private final Vector4f color = new Vector4f(1, 1, 1, 1);
     private String text = "";
 
+    /**
+     * glyph quads of the last layout.
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final TextMesh textMesh = new TextMesh();
+
+    /**
+     * font, text, scale and position used by the last layout.
+     * textMesh is reused as long as none of them changed.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Font laidOutFont;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String laidOutText;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final float[] laidOutParams = new float[6];
+
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private float laidOutWidth = Float.NaN;
+
     /**
      * <p>Constructor for DrawTextStruct.</p>
      */
@@ -168,12 +201,10 @@ public class DrawTextStruct {
         assert (!Float.isNaN(this.getWidth()) || !Float.isNaN(this.getHeight()));
         assert (this.getText() != null);
 
-        this.getFont().bind();
+        this.getFont().load();
         getFont().getXb().put(0, 0);
         getFont().getYb().put(0, 0);
 
-        glEnable(GL_TEXTURE_2D);
-
         float lastXReal = 0;
         //noinspection unused
         float lastYReal = 0;
@@ -187,13 +218,8 @@ public class DrawTextStruct {
             if (this.getText().charAt(i) < 32) {
                 continue;
             }
-            glBindTexture(
-                    GL_TEXTURE_2D,
-                    getFont().getFontTextures().getPrimitive(this.getText().charAt(i) / Font.EACH_CHAR_NUM)
-            );
-            glBegin(GL_QUADS);
             STBTruetype.stbtt_GetPackedQuad(
-                    getFont().getCharDatas().get(this.getText().charAt(i) / Font.EACH_CHAR_NUM),
+                    getFont().getCharData(this.getText().charAt(i)),
                     Font.BITMAP_W,
                     Font.BITMAP_H,
                     this.getText().charAt(i) % Font.EACH_CHAR_NUM,
@@ -226,7 +252,6 @@ public class DrawTextStruct {
             lastYReal = 0;
             lastXShould = getFont().getQ().x1();
             lastYShould = 0;
-            glEnd();
         }
         assert (!Float.isNaN(this.getWidth()) || !Float.isNaN(this.getHeight()));
         float calculatedScaleX = Float.isNaN(this.getWidth()) ? Float.NaN : this.getWidth() / (x3 - 0);
@@ -269,16 +294,64 @@ public class DrawTextStruct {
 
     /**
      * <p>draw.</p>
+     * <p>
+     * a baked DrawTextStruct can be drawn again and again,
+     * and its glyph quads are only laid out again when its text, font, scale or position changed.
      */
     public void draw() {
         if (Float.isNaN(getLeftTopPosX()) || Float.isNaN(getLeftTopPosY()) || Float.isNaN(getCenterPosX()) || Float.isNaN(getCenterPosY()) || Float.isNaN(getScaleX()) || Float.isNaN(getScaleY()) || Float.isNaN(getCharacterSpace()) || getText() == null || Float.isNaN(getHeight())) {
             this.bake();
             if (Float.isNaN(getLeftTopPosX()) || Float.isNaN(getLeftTopPosY()) || Float.isNaN(getCenterPosX()) || Float.isNaN(getCenterPosY()) || Float.isNaN(getScaleX()) || Float.isNaN(getScaleY()) || Float.isNaN(getCharacterSpace()) || getText() == null || Float.isNaN(getHeight())) {
                 LOGGER.info("This DrawTextStruct still cannot draw after bake, thus we will not draw it : {}" + this.toString());
-            } else {
-                this.getFont().drawTextLeftTop(this);
+                return;
             }
         }
+        this.getFont().drawTextLeftTop(this);
+    }
+
+    /**
+     * <p>isLayoutOutdated.</p>
+     *
+     * @param font font going to draw this
+     * @return if textMesh must be laid out again before drawn by font.
+     */
+    boolean isLayoutOutdated(Font font) {
+        return font != this.laidOutFont
+                || !this.getText().equals(this.laidOutText)
+                || Float.compare(this.getScaleX(), this.laidOutParams[0]) != 0
+                || Float.compare(this.getScaleY(), this.laidOutParams[1]) != 0
+                || Float.compare(this.getLeftTopPosX(), this.laidOutParams[2]) != 0
+                || Float.compare(this.getLeftTopPosY(), this.laidOutParams[3]) != 0
+                || Float.compare(this.getCharacterSpace(), this.laidOutParams[4]) != 0
+                || Float.compare(this.getHeight(), this.laidOutParams[5]) != 0;
+    }
+
+    /**
+     * remember what textMesh was laid out from.
+     *
+     * @param font  font that laid out textMesh
+     * @param width width of the laid out line
+     */
+    void markLaidOut(Font font, float width) {
+        this.laidOutFont = font;
+        this.laidOutText = this.getText();
+        this.laidOutParams[0] = this.getScaleX();
+        this.laidOutParams[1] = this.getScaleY();
+        this.laidOutParams[2] = this.getLeftTopPosX();
+        this.laidOutParams[3] = this.getLeftTopPosY();
+        this.laidOutParams[4] = this.getCharacterSpace();
+        this.laidOutParams[5] = this.getHeight();
+        this.laidOutWidth = width;
+    }
+
+    /**
+     * queue textMesh, colored with color.
+     *
+     * @param gameWindow gameWindow
+     * @param font       font that laid out textMesh
+     */
+    void drawTextMesh(GameWindow gameWindow, Font font) {
+        this.getTextMesh().draw(gameWindow, font, this.color);
     }
 
     /**
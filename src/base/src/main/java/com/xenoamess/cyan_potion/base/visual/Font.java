@@ -28,23 +28,27 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.xenoamess.commons.as_final_field.AsFinalField;
 import com.xenoamess.commons.io.FileObjectUtilsx;
 import com.xenoamess.commons.main_thread_only.MainThreadOnly;
-import com.xenoamess.commons.primitive.collections.lists.array_lists.IntArrayList;
-import com.xenoamess.commons.primitive.iterators.IntIterator;
 import com.xenoamess.cyan_potion.base.GameManager;
 import com.xenoamess.cyan_potion.base.GameWindow;
 import com.xenoamess.cyan_potion.base.exceptions.ResourceSizeLargerThanGlMaxTextureSizeException;
 import com.xenoamess.cyan_potion.base.memory.NormalResource;
+import com.xenoamess.cyan_potion.base.memory.ResidencyPool;
 import com.xenoamess.cyan_potion.base.memory.ResourceInfo;
 import com.xenoamess.cyan_potion.base.memory.ResourceManager;
+import com.xenoamess.cyan_potion.base.render.Bindable;
+import com.xenoamess.cyan_potion.base.render.RenderBackend;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
 import com.xenoamess.cyan_potion.base.render.Shader;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.Synchronized;
 import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.vfs2.FileObject;
 import org.joml.Vector4fc;
 import org.lwjgl.stb.STBTTAlignedQuad;
+import org.lwjgl.stb.STBTTFontinfo;
 import org.lwjgl.stb.STBTTPackContext;
 import org.lwjgl.stb.STBTTPackedchar;
 import org.lwjgl.system.MemoryUtil;
@@ -53,12 +57,8 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.function.Function;
 
 import static com.xenoamess.commons.as_final_field.AsFinalFieldUtils.asFinalFieldSet;
@@ -71,22 +71,11 @@ import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_MAG_FILTER;
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_MIN_FILTER;
 import static org.lwjgl.opengl.GL11.GL_UNSIGNED_BYTE;
-import static org.lwjgl.opengl.GL11.glBegin;
-import static org.lwjgl.opengl.GL11.glBindTexture;
-import static org.lwjgl.opengl.GL11.glColor4f;
-import static org.lwjgl.opengl.GL11.glDeleteTextures;
-import static org.lwjgl.opengl.GL11.glEnable;
-import static org.lwjgl.opengl.GL11.glEnd;
-import static org.lwjgl.opengl.GL11.glGenTextures;
-import static org.lwjgl.opengl.GL11.glLoadIdentity;
-import static org.lwjgl.opengl.GL11.glMatrixMode;
-import static org.lwjgl.opengl.GL11.glOrtho;
-import static org.lwjgl.opengl.GL11.glTexCoord2f;
-import static org.lwjgl.opengl.GL11.glTexImage2D;
-import static org.lwjgl.opengl.GL11.glTexParameteri;
-import static org.lwjgl.opengl.GL11.glVertex2f;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
 import static org.lwjgl.stb.STBImageWrite.stbi_write_bmp;
+import static org.lwjgl.stb.STBTruetype.stbtt_GetFontOffsetForIndex;
 import static org.lwjgl.stb.STBTruetype.stbtt_GetPackedQuad;
+import static org.lwjgl.stb.STBTruetype.stbtt_InitFont;
 import static org.lwjgl.stb.STBTruetype.stbtt_PackBegin;
 import static org.lwjgl.stb.STBTruetype.stbtt_PackEnd;
 import static org.lwjgl.stb.STBTruetype.stbtt_PackFontRange;
@@ -140,11 +129,65 @@ public class Font extends NormalResource {
      */
     public static final float SCALE = 36.0f;
 
+    /**
+     * index of the glyph page packed together with the ttf file.
+     * it covers ascii, so most latin-only games never pack another page.
+     */
+    public static final int PRELOAD_PAGE_INDEX = 0;
+
+    /**
+     * max num of glyph pages that can stay resident at the same time.
+     * the least recently used page is evicted when more pages are needed.
+     * a value &lt;= 0 means no limit.
+     */
     @Getter
-    private final IntArrayList fontTextures = new IntArrayList();
+    @Setter
+    private int maxResidentPages = 0;
+
+    /**
+     * glyph pages currently packed, in least recently used order.
+     * a page is packed (and uploaded) the first time a character in its range is drawn or measured.
+     */
+    @ToString.Exclude
+    private final LinkedHashMap<Integer, GlyphPage> residentPages = new LinkedHashMap<>(16, 0.75f, true);
 
+    /**
+     * ttf file content.
+     * kept until forceClose(), as pages can be packed at any time.
+     */
+    @ToString.Exclude
+    private ByteBuffer ttf;
+
+    /**
+     * if true, glyph pages are packed as signed distance fields and drawn with the sdf_text shader,
+     * so one font stays sharp at every size.
+     * it takes effect the next time this font is loaded.
+     *
+     * @see #STRING_SDF
+     */
     @Getter
-    private final List<STBTTPackedchar.Buffer> charDatas = new ArrayList<>();
+    @Setter
+    private boolean sdf;
+
+    /**
+     * font info of ttf, only used in sdf mode.
+     */
+    @ToString.Exclude
+    private STBTTFontinfo fontInfo;
+
+    /**
+     * disk cache of packed glyph pages.
+     * null means every page is packed from the ttf file.
+     * it takes effect the next time this font is loaded.
+     */
+    @Getter
+    @Setter
+    private GlyphPageCache glyphPageCache;
+
+    /**
+     * key of this font in glyphPageCache, computed when loaded.
+     */
+    private long glyphPageCacheKey;
 
     @Getter
     @Setter
@@ -159,17 +202,19 @@ public class Font extends NormalResource {
     @Setter
     private GameWindow gameWindow;
 
+    /*
+     * scratch buffers of stbtt_GetPackedQuad.
+     * allocated when loaded and freed by forceClose(), as the font can be evicted and loaded again.
+     */
+
     @Getter
-    @Setter
-    private final STBTTAlignedQuad q = STBTTAlignedQuad.malloc();
+    private STBTTAlignedQuad q;
 
     @Getter
-    @Setter
-    private final FloatBuffer xb = MemoryUtil.memAllocFloat(1);
+    private FloatBuffer xb;
 
     @Getter
-    @Setter
-    private final FloatBuffer yb = MemoryUtil.memAllocFloat(1);
+    private FloatBuffer yb;
 
     /**
      * !!!NOTICE!!!
@@ -190,6 +235,13 @@ public class Font extends NormalResource {
      */
     public static final String STRING_TTF_FILE = "ttfFile";
 
+    /**
+     * Constant <code>STRING_SDF="sdf"</code>
+     * put it as the first value of a ttfFile resource info to load the font in sdf mode, for example
+     * <code>["com.xenoamess.cyan_potion.base.visual.Font","ttfFile","/www/fonts/a.ttf","sdf"]</code>
+     */
+    public static final String STRING_SDF = "sdf";
+
     /**
      * !!!NOTICE!!!
      * This function is used by reflection and don't delete it if you don't know about the plugin mechanism here.
@@ -197,101 +249,282 @@ public class Font extends NormalResource {
     @SuppressWarnings({"unused", "unchecked"})
     public static final Function<GameManager, Void> PUT_FONT_LOADER_TTF_FILE = (GameManager gameManager) -> {
         gameManager.getResourceManager().putResourceLoader(Font.class, STRING_TTF_FILE,
-                (Font font) -> font.loadAsTtfFileFont(font.getResourceInfo())
+                (Font font) -> {
+                    font.setMaxResidentPages(
+                            gameManager.getDataCenter().getGameSettings().getMaxResidentFontPages()
+                    );
+                    final String glyphCacheFolderPath =
+                            gameManager.getDataCenter().getGameSettings().getGlyphCacheFolderPath();
+                    font.setGlyphPageCache(
+                            StringUtils.isEmpty(glyphCacheFolderPath) ? null : new GlyphPageCache(glyphCacheFolderPath)
+                    );
+                    return font.loadAsTtfFileFont(font.getResourceInfo());
+                }
         );
         return null;
     };
 
     private boolean loadAsTtfFileFont(ResourceInfo<Font> resourceInfo) {
+        final String[] values = resourceInfo.getValues();
+        this.setSdf(values != null && values.length > 0 && STRING_SDF.equals(values[0]));
         return this.loadBitmap(resourceInfo.getFileObject());
     }
 
-    /**
-     * this buffer will be freed after init(),
-     * so please does never use it after that.
-     */
-    private final List<ByteBuffer> bitmaps = new ArrayList<>(PIC_NUM);
-
-    private static class LoadBitmapPojo {
+    private static class GlyphPage implements Bindable {
         final int index;
-        final ByteBuffer bitmapLocal;
-        final STBTTPackedchar.Buffer charDataLocal;
-
-        LoadBitmapPojo(int index, ByteBuffer bitmapLocal, STBTTPackedchar.Buffer charDataLocal) {
+        final STBTTPackedchar.Buffer charData;
+        /**
+         * alpha bitmap waiting for upload.
+         * freed after uploaded.
+         */
+        ByteBuffer bitmap;
+        int texture = -1;
+
+        GlyphPage(int index, ByteBuffer bitmap, STBTTPackedchar.Buffer charData) {
             this.index = index;
-            this.bitmapLocal = bitmapLocal;
-            this.charDataLocal = charDataLocal;
+            this.bitmap = bitmap;
+            this.charData = charData;
+        }
+
+        @Override
+        public void bind(int sampler) {
+            RenderBackends.getCurrent().activeTexture(GL_TEXTURE0 + sampler);
+            RenderBackends.getCurrent().bindTexture(GL_TEXTURE_2D, this.texture);
         }
     }
 
     /**
      * <p>loadBitmap.</p>
+     * <p>
+     * only {@link #PRELOAD_PAGE_INDEX} is packed here.
+     * other pages are packed on demand.
      *
      * @param fileObject fileObject
      * @return a boolean.
      */
     public boolean loadBitmap(FileObject fileObject) {
         System.out.println(fileObject);
-        final ByteBuffer ttf = FileObjectUtilsx.loadBuffer(fileObject, true);
-        if (ttf == null) {
+        final ByteBuffer ttfLocal = FileObjectUtilsx.loadBuffer(fileObject, true);
+        if (ttfLocal == null) {
             throw new IllegalArgumentException("ttf buffer load failed!:" + fileObject);
         }
-        this.setMemorySize(1L * PIC_NUM * BITMAP_W * BITMAP_H);
-        ResourceSizeLargerThanGlMaxTextureSizeException.check(this);
-
-        final ExecutorService executorService = Executors.newCachedThreadPool();
-        final List<Callable<LoadBitmapPojo>> returnValueList = new ArrayList<>();
-        for (int i = 0; i < PIC_NUM; i++) {
-            final int ti = i;
-            returnValueList.add(
-                    new Callable<LoadBitmapPojo>() {
-                        @Override
-                        public LoadBitmapPojo call() {
-                            try (STBTTPackContext pc = STBTTPackContext.malloc()) {
-                                ByteBuffer bitmapLocal = MemoryUtil.memAlloc(BITMAP_W * BITMAP_H);
-                                stbtt_PackBegin(pc, bitmapLocal, BITMAP_W, BITMAP_H, 0, 1, 0);
-                                STBTTPackedchar.Buffer charDataLocal =
-                                        STBTTPackedchar.malloc(6 * EACH_CHAR_NUM);
-                                charDataLocal.position(0);
-                                charDataLocal.limit(EACH_CHAR_NUM);
-                                stbtt_PackSetOversampling(pc, 1, 1);
-                                stbtt_PackFontRange(pc, ttf, 0, SCALE, ti * EACH_CHAR_NUM, charDataLocal);
-
-                                stbtt_PackEnd(pc);
-                                if (testPrintFontBmp) {
-                                    stbi_write_bmp("font_texture" + ti + ".bmp", BITMAP_W, BITMAP_H, 1,
-                                            bitmapLocal);
-                                }
-                                return new LoadBitmapPojo(ti, bitmapLocal, charDataLocal);
-                            }
-                        }
+        synchronized (this) {
+            this.freePages();
+            this.freeTtf();
+            this.allocateScratchBuffers();
+            this.ttf = ttfLocal;
+            this.setMemorySize(ttfLocal.capacity());
+            try {
+                if (this.getGlyphPageCache() != null) {
+                    this.glyphPageCacheKey = GlyphPageCache.computeKey(ttfLocal, this.isSdf());
+                }
+                if (this.isSdf()) {
+                    this.fontInfo = STBTTFontinfo.malloc();
+                    if (!stbtt_InitFont(this.fontInfo, ttfLocal, stbtt_GetFontOffsetForIndex(ttfLocal, 0))) {
+                        LOGGER.error("Font.loadBitmap fails, stbtt_InitFont fails: Font:{}, fileObject:{}",
+                                this, fileObject);
+                        return false;
                     }
-            );
+                }
+                this.putPage(this.packPage(PRELOAD_PAGE_INDEX));
+            } catch (Exception e) {
+                LOGGER.error("Font.loadBitmap fails: Font:{}, fileObject:{}", this, fileObject, e);
+                return false;
+            }
+            ResourceSizeLargerThanGlMaxTextureSizeException.check(this);
+        }
+        return true;
+    }
+
+    /**
+     * get a glyph page from glyphPageCache, or pack it from the ttf file and then put it into glyphPageCache.
+     */
+    private GlyphPage packPage(int index) {
+        final GlyphPageCache cache = this.getGlyphPageCache();
+        if (cache == null) {
+            return this.packPageFromTtf(index);
+        }
+        final ByteBuffer bitmapLocal = MemoryUtil.memAlloc(BITMAP_W * BITMAP_H);
+        final STBTTPackedchar.Buffer charDataLocal = STBTTPackedchar.malloc(EACH_CHAR_NUM);
+        if (cache.load(this.glyphPageCacheKey, index, bitmapLocal, charDataLocal)) {
+            return new GlyphPage(index, bitmapLocal, charDataLocal);
+        }
+        MemoryUtil.memFree(bitmapLocal);
+        charDataLocal.free();
+        final GlyphPage page = this.packPageFromTtf(index);
+        cache.save(this.glyphPageCacheKey, index, page.bitmap, page.charData);
+        return page;
+    }
+
+    private GlyphPage packPageFromTtf(int index) {
+        if (this.isSdf()) {
+            STBTTPackedchar.Buffer charDataLocal = STBTTPackedchar.malloc(EACH_CHAR_NUM);
+            ByteBuffer bitmapLocal = SdfGlyphPacker.packPage(this.fontInfo, index, charDataLocal);
+            if (testPrintFontBmp) {
+                stbi_write_bmp("font_texture_sdf" + index + ".bmp", BITMAP_W, BITMAP_H, 1,
+                        bitmapLocal);
+            }
+            return new GlyphPage(index, bitmapLocal, charDataLocal);
+        }
+        final ByteBuffer ttf = this.ttf;
+        try (STBTTPackContext pc = STBTTPackContext.malloc()) {
+            ByteBuffer bitmapLocal = MemoryUtil.memAlloc(BITMAP_W * BITMAP_H);
+            stbtt_PackBegin(pc, bitmapLocal, BITMAP_W, BITMAP_H, 0, 1, 0);
+            STBTTPackedchar.Buffer charDataLocal =
+                    STBTTPackedchar.malloc(6 * EACH_CHAR_NUM);
+            charDataLocal.position(0);
+            charDataLocal.limit(EACH_CHAR_NUM);
+            stbtt_PackSetOversampling(pc, 1, 1);
+            stbtt_PackFontRange(pc, ttf, 0, SCALE, index * EACH_CHAR_NUM, charDataLocal);
+
+            stbtt_PackEnd(pc);
+            if (testPrintFontBmp) {
+                stbi_write_bmp("font_texture" + index + ".bmp", BITMAP_W, BITMAP_H, 1,
+                        bitmapLocal);
+            }
+            return new GlyphPage(index, bitmapLocal, charDataLocal);
         }
+    }
 
-        this.bitmaps.clear();
-        this.getCharDatas().clear();
-
-        try {
-            List<Future<LoadBitmapPojo>> result = executorService.invokeAll(returnValueList);
-            int ti = 0;
-            for (Future<LoadBitmapPojo> au : result) {
-                LoadBitmapPojo pojo = au.get();
-                assert (ti == pojo.index);
-                ti++;
-                this.bitmaps.add(pojo.bitmapLocal);
-                this.getCharDatas().add(pojo.charDataLocal);
+    private void putPage(GlyphPage page) {
+        this.residentPages.put(page.index, page);
+        this.changeMemorySize((long) BITMAP_W * BITMAP_H);
+        if (this.getMaxResidentPages() <= 0) {
+            return;
+        }
+        Iterator<GlyphPage> iterator = this.residentPages.values().iterator();
+        while (this.residentPages.size() > this.getMaxResidentPages()) {
+            GlyphPage eldest = iterator.next();
+            if (eldest == page) {
+                break;
             }
-        } catch (Exception e) {
-            LOGGER.error("Font.loadBitmap fails: Font:{}, fileObject:{}", this, fileObject, e);
-            return false;
+            iterator.remove();
+            if (eldest.texture != -1 && this.getGameWindow() != null) {
+                // queued glyphs may still sample from it.
+                this.getGameWindow().flushSpriteBatch();
+            }
+            freePage(eldest);
+            this.changeMemorySize(-(long) BITMAP_W * BITMAP_H);
         }
+    }
 
-        executorService.shutdown();
-        MemoryUtil.memFree(ttf);
-        return true;
+    private static void freePage(GlyphPage page) {
+        if (page.bitmap != null) {
+            MemoryUtil.memFree(page.bitmap);
+            page.bitmap = null;
+        }
+        if (page.texture != -1) {
+            RenderBackends.getCurrent().deleteTexture(page.texture);
+            page.texture = -1;
+        }
+        page.charData.free();
     }
 
+    private void freeTtf() {
+        if (this.fontInfo != null) {
+            this.fontInfo.free();
+            this.fontInfo = null;
+        }
+        if (this.ttf != null) {
+            MemoryUtil.memFree(this.ttf);
+            this.ttf = null;
+        }
+    }
+
+    private void freePages() {
+        for (GlyphPage page : this.residentPages.values()) {
+            freePage(page);
+        }
+        this.residentPages.clear();
+    }
+
+    /**
+     * change memorySize, and keep the resource manager's total in step if this font is in memory.
+     */
+    private void changeMemorySize(long delta) {
+        this.setMemorySize(this.getMemorySize() + delta);
+        if (this.isInMemory()) {
+            this.getResourceManager().updateMemorySize(this);
+        }
+    }
+
+    /**
+     * get a glyph page, packing and uploading it if it is not resident.
+     *
+     * @param index page index
+     * @return the page
+     */
+    @MainThreadOnly
+    private synchronized GlyphPage getPage(int index) {
+        GlyphPage page = this.residentPages.get(index);
+        if (page == null) {
+            if (this.ttf == null) {
+                throw new IllegalStateException("font not loaded : " + this.getResourceInfo());
+            }
+            page = this.packPage(index);
+            this.putPage(page);
+        }
+        if (page.texture == -1) {
+            uploadPage(page);
+        }
+        return page;
+    }
+
+    private static void uploadPage(GlyphPage page) {
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        page.texture = renderBackend.genTexture();
+        renderBackend.bindTexture(GL_TEXTURE_2D, page.texture);
+        renderBackend.texImage2D(GL_TEXTURE_2D, 0, GL_ALPHA, BITMAP_W, BITMAP_H, 0,
+                GL_ALPHA, GL_UNSIGNED_BYTE, page.bitmap);
+        renderBackend.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
+        renderBackend.texParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+        MemoryUtil.memFree(page.bitmap);
+        page.bitmap = null;
+    }
+
+    /**
+     * <p>getFontTexture.</p>
+     *
+     * @param character character
+     * @return texture of the glyph page that holds the character.
+     */
+    @MainThreadOnly
+    public int getFontTexture(char character) {
+        return this.getPage(character / EACH_CHAR_NUM).texture;
+    }
+
+    /**
+     * <p>getCharData.</p>
+     * <p>
+     * index the result with {@code character % EACH_CHAR_NUM}.
+     *
+     * @param character character
+     * @return packed chars of the glyph page that holds the character.
+     */
+    @MainThreadOnly
+    public STBTTPackedchar.Buffer getCharData(char character) {
+        return this.getPage(character / EACH_CHAR_NUM).charData;
+    }
+
+    /**
+     * <p>getPageBindable.</p>
+     *
+     * @param pageIndex page index, that is character / EACH_CHAR_NUM
+     * @return a bindable that binds the glyph page's texture.
+     */
+    @MainThreadOnly
+    public Bindable getPageBindable(int pageIndex) {
+        return this.getPage(pageIndex);
+    }
+
+    /**
+     * <p>getResidentPageNum.</p>
+     *
+     * @return num of glyph pages currently packed.
+     */
+    public synchronized int getResidentPageNum() {
+        return this.residentPages.size();
+    }
 
     /**
      * <p>init.</p>
@@ -299,20 +532,14 @@ public class Font extends NormalResource {
      * @param gameWindow gameWindow
      */
     @MainThreadOnly
-    public void init(GameWindow gameWindow) {
+    public synchronized void init(GameWindow gameWindow) {
         this.setGameWindow(gameWindow);
 
-        for (int i = 0; i < PIC_NUM; i++) {
-            int nowTextureIndex = glGenTextures();
-            this.getFontTextures().addPrimitive(nowTextureIndex);
-            glBindTexture(GL_TEXTURE_2D, nowTextureIndex);
-            glTexImage2D(GL_TEXTURE_2D, 0, GL_ALPHA, BITMAP_W, BITMAP_H, 0,
-                    GL_ALPHA, GL_UNSIGNED_BYTE, this.bitmaps.get(i));
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_LINEAR);
-            glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-            MemoryUtil.memFree(this.bitmaps.get(i));
+        for (GlyphPage page : this.residentPages.values()) {
+            if (page.texture == -1) {
+                uploadPage(page);
+            }
         }
-        this.bitmaps.clear();
     }
 
     /**
@@ -321,11 +548,12 @@ public class Font extends NormalResource {
     @Override
     public void bind(int sampler) {
         super.bind(sampler);
+        getGameWindow().flushSpriteBatch();
         Shader.unbind();
         getGameWindow().bindGlViewportToFullWindow();
-        glMatrixMode(GL_PROJECTION);
-        glLoadIdentity();
-        glOrtho(
+        RenderBackends.getCurrent().matrixMode(GL_PROJECTION);
+        RenderBackends.getCurrent().loadIdentity();
+        RenderBackends.getCurrent().ortho(
                 0.0,
                 getGameWindow().getRealWindowWidth(),
                 getGameWindow().getRealWindowHeight(),
@@ -333,8 +561,8 @@ public class Font extends NormalResource {
                 -1.0,
                 1.0
         );
-        glMatrixMode(GL_MODELVIEW);
-        glLoadIdentity();
+        RenderBackends.getCurrent().matrixMode(GL_MODELVIEW);
+        RenderBackends.getCurrent().loadIdentity();
     }
 
 
@@ -352,14 +580,15 @@ public class Font extends NormalResource {
      */
     public static void drawBoxTC(float x0, float y0, float x1, float y1,
                                  float s0, float t0, float s1, float t1) {
-        glTexCoord2f(s0, t0);
-        glVertex2f(x0, y0);
-        glTexCoord2f(s1, t0);
-        glVertex2f(x1, y0);
-        glTexCoord2f(s1, t1);
-        glVertex2f(x1, y1);
-        glTexCoord2f(s0, t1);
-        glVertex2f(x0, y1);
+        final RenderBackend renderBackend = RenderBackends.getCurrent();
+        renderBackend.texCoord2f(s0, t0);
+        renderBackend.vertex2f(x0, y0);
+        renderBackend.texCoord2f(s1, t0);
+        renderBackend.vertex2f(x1, y0);
+        renderBackend.texCoord2f(s1, t1);
+        renderBackend.vertex2f(x1, y1);
+        renderBackend.texCoord2f(s0, t1);
+        renderBackend.vertex2f(x0, y1);
     }
 
     /**
@@ -396,6 +625,9 @@ public class Font extends NormalResource {
 
     /**
      * <p>drawText.</p>
+     * <p>
+     * glyph quads are laid out only when the text, font, scale or position of drawTextStruct changed,
+     * and are queued into the SpriteBatch, one draw call per glyph page.
      *
      * @param drawTextStruct drawStruct.
      * @return a {@link com.xenoamess.cyan_potion.base.visual.DrawTextStruct} object.
@@ -403,40 +635,45 @@ public class Font extends NormalResource {
      */
     @SuppressWarnings("UnusedReturnValue")
     public DrawTextStruct drawTextLeftTop(DrawTextStruct drawTextStruct) {
-        this.bind();
+        this.load();
+        if (drawTextStruct.isLayoutOutdated(this)) {
+            final float width = this.layoutText(drawTextStruct, drawTextStruct.getTextMesh());
+            drawTextStruct.markLaidOut(this, width);
+        }
+        drawTextStruct.drawTextMesh(getGameWindow(), this);
+        drawTextStruct.setWidth(drawTextStruct.getLaidOutWidth());
+        drawTextStruct.bake();
+        return drawTextStruct;
+    }
 
+    /**
+     * <p>layoutText.</p>
+     * lay out drawTextStruct's text as one line, starting at its left top.
+     *
+     * @param drawTextStruct drawStruct.
+     * @param textMesh       mesh to put glyph quads into. it is cleared first.
+     * @return width of the line.
+     */
+    @MainThreadOnly
+    public float layoutText(DrawTextStruct drawTextStruct, TextMesh textMesh) {
+        textMesh.clear();
         getXb().put(0, drawTextStruct.getLeftTopPosX());
         getYb().put(0, drawTextStruct.getLeftTopPosY());
 
-        glEnable(GL_TEXTURE_2D);
-
-        if (drawTextStruct.getColor() != null) {
-            glColor4f(
-                    drawTextStruct.getColor().x(),
-                    drawTextStruct.getColor().y(),
-                    drawTextStruct.getColor().z(),
-                    drawTextStruct.getColor().w()
-            );
-        }
-
+        final String text = drawTextStruct.getText();
         float lastXReal = drawTextStruct.getLeftTopPosX();
-        float lastYReal = drawTextStruct.getLeftTopPosY();
         float lastXShould = drawTextStruct.getLeftTopPosX();
         float lastYShould = drawTextStruct.getLeftTopPosY();
-        for (int i = 0; i < drawTextStruct.getText().length(); i++) {
-            if (drawTextStruct.getText().charAt(i) < 32) {
+        for (int i = 0; i < text.length(); i++) {
+            final char nowChar = text.charAt(i);
+            if (nowChar < 32) {
                 continue;
             }
-            glBindTexture(
-                    GL_TEXTURE_2D,
-                    getFontTextures().getPrimitive(drawTextStruct.getText().charAt(i) / EACH_CHAR_NUM)
-            );
-            glBegin(GL_QUADS);
             stbtt_GetPackedQuad(
-                    getCharDatas().get(drawTextStruct.getText().charAt(i) / EACH_CHAR_NUM),
+                    getCharData(nowChar),
                     BITMAP_W,
                     BITMAP_H,
-                    drawTextStruct.getText().charAt(i) % EACH_CHAR_NUM,
+                    nowChar % EACH_CHAR_NUM,
                     getXb(),
                     getYb(),
                     getQ(),
@@ -448,23 +685,21 @@ public class Font extends NormalResource {
             float spaceLeftToCharShould = getQ().x0() - lastXShould;
             float spaceUpToCharShould = getQ().y0() - lastYShould;
             float nowX0 = lastXReal + spaceLeftToCharShould * drawTextStruct.getScaleX();
-            float nowY0 = lastYReal + spaceUpToCharShould * drawTextStruct.getScaleY();
+            float nowY0 = drawTextStruct.getLeftTopPosY() + spaceUpToCharShould * drawTextStruct.getScaleY();
 
-            drawBoxTC(
+            textMesh.addGlyph(
+                    nowChar / EACH_CHAR_NUM,
                     nowX0, nowY0 + drawTextStruct.getHeight() * 0.8f,
                     nowX0 + charWidthShould * drawTextStruct.getScaleX(),
                     nowY0 + charHeightShould * drawTextStruct.getScaleY() + drawTextStruct.getHeight() * 0.8f,
-                    getQ().s0(), getQ().t0(), getQ().s1(), getQ().t1()
+                    getQ().s0(), getQ().t0(), getQ().s1(), getQ().t1(),
+                    null
             );
             lastXReal = nowX0 + charWidthShould * drawTextStruct.getScaleX();
-            lastYReal = drawTextStruct.getLeftTopPosY();
             lastXShould = getQ().x1() + drawTextStruct.getCharacterSpace();
             lastYShould = drawTextStruct.getLeftTopPosY();
-            glEnd();
         }
-        drawTextStruct.setWidth(lastXReal - drawTextStruct.getLeftTopPosX());
-        drawTextStruct.bake();
-        return drawTextStruct;
+        return lastXReal - drawTextStruct.getLeftTopPosX();
     }
 
     /**
@@ -512,11 +747,9 @@ public class Font extends NormalResource {
      */
     public float getMaxCharHeight() {
         if (Float.isNaN(maxCharHeight)) {
-            this.bind();
+            this.load();
             getXb().put(0, 0);
             getYb().put(0, 0);
-            glEnable(GL_TEXTURE_2D);
-            glBindTexture(GL_TEXTURE_2D, getFontTextures().get(0));
 
 //            glBegin(GL_QUADS);
 
@@ -529,8 +762,7 @@ public class Font extends NormalResource {
             float maxY = Float.MIN_VALUE;
 
             for (char chr : ALL_CHARACTERS.toCharArray()) {
-                glBindTexture(GL_TEXTURE_2D, getFontTextures().getPrimitive(chr / EACH_CHAR_NUM));
-                stbtt_GetPackedQuad(getCharDatas().get(chr / EACH_CHAR_NUM), BITMAP_W, BITMAP_H,
+                stbtt_GetPackedQuad(getCharData(chr), BITMAP_W, BITMAP_H,
                         chr % EACH_CHAR_NUM, getXb(), getYb(), getQ(), false);
                 minY = Math.min(minY, getQ().y0());
                 maxY = Math.max(maxY, getQ().y1());
@@ -554,19 +786,38 @@ public class Font extends NormalResource {
      * {@inheritDoc}
      */
     @Override
-    public void forceClose() {
-        for (STBTTPackedchar.Buffer au : this.getCharDatas()) {
-            au.close();
+    public ResidencyPool getResidencyPool() {
+        return ResidencyPool.GPU_TEXTURE;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void forceClose() {
+        // memorySize is left as it is, so that ResourceManager.close subtracts the whole size.
+        this.freePages();
+        this.freeTtf();
+        this.freeScratchBuffers();
+    }
+
+    private void allocateScratchBuffers() {
+        if (this.q == null) {
+            this.q = STBTTAlignedQuad.malloc();
+            this.xb = MemoryUtil.memAllocFloat(1);
+            this.yb = MemoryUtil.memAllocFloat(1);
         }
-        MemoryUtil.memFree(getXb());
-        MemoryUtil.memFree(getYb());
-        getQ().free();
+    }
 
-        IntIterator it = this.getFontTextures().iterator();
-        while (it.hasNext()) {
-            glDeleteTextures(it.nextPrimitive());
+    private void freeScratchBuffers() {
+        if (this.q != null) {
+            MemoryUtil.memFree(this.xb);
+            MemoryUtil.memFree(this.yb);
+            this.q.free();
+            this.q = null;
+            this.xb = null;
+            this.yb = null;
         }
-        this.getFontTextures().clear();
     }
 
     /**
@@ -27,15 +27,14 @@ package com.xenoamess.cyan_potion.base.visual;
 import com.xenoamess.commons.main_thread_only.MainThreadOnly;
 import com.xenoamess.cyan_potion.base.GameWindow;
 import com.xenoamess.cyan_potion.base.game_window_components.AbstractScene;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
+import com.xenoamess.cyan_potion.base.render.Shader;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.joml.Vector4f;
 import org.joml.Vector4fc;
 
 import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
-import static org.lwjgl.opengl.GL11.glColor4f;
-import static org.lwjgl.opengl.GL11.glDisable;
-import static org.lwjgl.opengl.GL11.glRectf;
 
 /**
  * GlRectfRectanglePicture
@@ -65,6 +64,7 @@ public class GlRectfRectanglePicture extends AbstractPicture {
     @SuppressWarnings("unused")
     @Override
     public void draw(GameWindow gameWindow) {
+        gameWindow.flushSpriteBatch();
         Vector4fc drawColor = this.getColor().mul(this.getColorScale(), new Vector4f());
         GlRectfRectanglePicture.drawRectangleLeftTop(
                 this.getLeftTopPosX(),
@@ -80,6 +80,7 @@ public class GlRectfRectanglePicture extends AbstractPicture {
      */
     @Override
     public void draw(AbstractScene scene) {
+        scene.getGameWindow().flushSpriteBatch();
         Vector4fc drawColor = this.getColor().mul(this.getColorScale(), new Vector4f());
         GlRectfRectanglePicture.drawRectangleLeftTop(
                 scene.absolutePosToRelativeX(this.getLeftTopPosX()),
@@ -107,9 +108,10 @@ public class GlRectfRectanglePicture extends AbstractPicture {
             float height,
             Vector4fc color
     ) {
-        glDisable(GL_TEXTURE_2D);
-        glColor4f(color.x(), color.y(), color.z(), color.w());
-        glRectf(leftTopPosX, leftTopPosY, leftTopPosX + width, leftTopPosX + height);
+        Shader.unbind();
+        RenderBackends.getCurrent().disable(GL_TEXTURE_2D);
+        RenderBackends.getCurrent().color4f(color.x(), color.y(), color.z(), color.w());
+        RenderBackends.getCurrent().rectf(leftTopPosX, leftTopPosY, leftTopPosX + width, leftTopPosX + height);
     }
 
     /**
@@ -0,0 +1,257 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.visual;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.lwjgl.stb.STBTTPackedchar;
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static org.lwjgl.util.lz4.LZ4.LZ4_compressBound;
+import static org.lwjgl.util.lz4.LZ4.LZ4_compress_default;
+import static org.lwjgl.util.lz4.LZ4.LZ4_decompress_safe;
+import static org.lwjgl.util.xxhash.XXHash.XXH64;
+
+/**
+ * <p>GlyphPageCache class.</p>
+ * <p>
+ * Keeps packed glyph pages on disk, so a Font packs each page only once on a machine.
+ * <p>
+ * A page is stored in one file named after its key and page index.
+ * The key is a xxhash of the ttf file content and every parameter that changes the packed result,
+ * so editing the ttf or the pack parameters just misses the cache.
+ * The file holds a small header, the raw STBTTPackedchar array, then the lz4 compressed alpha bitmap.
+ * It is memory mapped when read.
+ * <p>
+ * Any problem with a cache file is logged and treated as a miss.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see Font#setGlyphPageCache(GlyphPageCache)
+ */
+@ToString
+public class GlyphPageCache {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(GlyphPageCache.class);
+
+    /**
+     * Constant <code>DEFAULT_CACHE_FOLDER_PATH="System.getProperty(user.home) +
+     * /AppData/Roaming/cyan_potion_glyph_cache/"</code>
+     */
+    public static final String DEFAULT_CACHE_FOLDER_PATH =
+            System.getProperty("user.home")
+                    + "/AppData/Roaming"
+                    + "/cyan_potion_glyph_cache/";
+
+    /**
+     * version of the cache file format.
+     * change it whenever the file layout or the way pages are packed changes.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x43504750;
+
+    /**
+     * magic, version, key, page index, compressed bitmap size.
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+
+    private static final int CHAR_DATA_SIZE = Font.EACH_CHAR_NUM * STBTTPackedchar.SIZEOF;
+
+    private static final int BITMAP_SIZE = Font.BITMAP_W * Font.BITMAP_H;
+
+    private static final String FILE_SUFFIX = ".glyphs";
+
+    @Getter
+    private final File folder;
+
+    /**
+     * <p>Constructor for GlyphPageCache.</p>
+     *
+     * @param folderPath folder to put cache files in. created when first written.
+     */
+    public GlyphPageCache(String folderPath) {
+        this.folder = new File(folderPath);
+    }
+
+    /**
+     * compute the cache key of a font.
+     *
+     * @param ttf ttf file content, from position to limit
+     * @param sdf if the font is packed in sdf mode
+     * @return the key
+     */
+    public static long computeKey(ByteBuffer ttf, boolean sdf) {
+        final ByteBuffer params = MemoryUtil.memAlloc(11 * 4);
+        try {
+            params.putInt(FORMAT_VERSION)
+                    .putInt(STBTTPackedchar.SIZEOF)
+                    .putFloat(Font.SCALE)
+                    .putInt(Font.BITMAP_W)
+                    .putInt(Font.BITMAP_H)
+                    .putInt(Font.EACH_CHAR_NUM)
+                    .putInt(sdf ? 1 : 0)
+                    .putFloat(SdfGlyphPacker.SDF_PIXEL_HEIGHT)
+                    .putInt(SdfGlyphPacker.SDF_PADDING)
+                    .putInt(SdfGlyphPacker.SDF_ON_EDGE_VALUE)
+                    .putFloat(SdfGlyphPacker.SHRINK_FACTOR);
+            params.flip();
+            return XXH64(ttf, XXH64(params, 0));
+        } finally {
+            MemoryUtil.memFree(params);
+        }
+    }
+
+    /**
+     * <p>getPageFile.</p>
+     *
+     * @param key       key of the font
+     * @param pageIndex page index
+     * @return the cache file of the page.
+     */
+    public File getPageFile(long key, int pageIndex) {
+        return new File(this.getFolder(), String.format("%016x_%d%s", key, pageIndex, FILE_SUFFIX));
+    }
+
+    /**
+     * read a cached page.
+     *
+     * @param key       key of the font
+     * @param pageIndex page index
+     * @param bitmap    output, alpha bitmap of Font.BITMAP_W * Font.BITMAP_H bytes
+     * @param charData  output, Font.EACH_CHAR_NUM packed chars
+     * @return true if the page is read, false if it is not cached or the cache file is broken.
+     */
+    public boolean load(long key, int pageIndex, ByteBuffer bitmap, STBTTPackedchar.Buffer charData) {
+        final File file = this.getPageFile(key, pageIndex);
+        if (!file.isFile()) {
+            return false;
+        }
+        try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long fileSize = fileChannel.size();
+            if (fileSize < HEADER_SIZE + CHAR_DATA_SIZE) {
+                LOGGER.warn("glyph cache file too short, ignored : {}", file);
+                return false;
+            }
+            final MappedByteBuffer mapped = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            mapped.order(ByteOrder.nativeOrder());
+            final int compressedSize = mapped.getInt(20);
+            if (mapped.getInt(0) != MAGIC
+                    || mapped.getInt(4) != FORMAT_VERSION
+                    || mapped.getLong(8) != key
+                    || mapped.getInt(16) != pageIndex
+                    || fileSize != (long) HEADER_SIZE + CHAR_DATA_SIZE + compressedSize) {
+                LOGGER.warn("glyph cache file header mismatch, ignored : {}", file);
+                return false;
+            }
+            MemoryUtil.memCopy(MemoryUtil.memAddress(mapped) + HEADER_SIZE, charData.address(), CHAR_DATA_SIZE);
+            mapped.position(HEADER_SIZE + CHAR_DATA_SIZE);
+            final ByteBuffer bitmapView = bitmap.duplicate();
+            bitmapView.clear().limit(BITMAP_SIZE);
+            if (LZ4_decompress_safe(mapped, bitmapView) != BITMAP_SIZE) {
+                LOGGER.warn("glyph cache file bitmap broken, ignored : {}", file);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("glyph cache file read fails : {}", file, e);
+            return false;
+        }
+    }
+
+    /**
+     * write a packed page to the cache.
+     * the file is written aside then moved in place, so readers never see a half written file.
+     *
+     * @param key       key of the font
+     * @param pageIndex page index
+     * @param bitmap    alpha bitmap of Font.BITMAP_W * Font.BITMAP_H bytes
+     * @param charData  Font.EACH_CHAR_NUM packed chars
+     */
+    public void save(long key, int pageIndex, ByteBuffer bitmap, STBTTPackedchar.Buffer charData) {
+        final File file = this.getPageFile(key, pageIndex);
+        final ByteBuffer bitmapView = bitmap.duplicate();
+        bitmapView.clear().limit(BITMAP_SIZE);
+        final ByteBuffer out = MemoryUtil.memAlloc(HEADER_SIZE + CHAR_DATA_SIZE + LZ4_compressBound(BITMAP_SIZE));
+        Path tempPath = null;
+        try {
+            final ByteBuffer compressed = MemoryUtil.memSlice(out, HEADER_SIZE + CHAR_DATA_SIZE,
+                    out.capacity() - HEADER_SIZE - CHAR_DATA_SIZE);
+            final int compressedSize = LZ4_compress_default(bitmapView, compressed);
+            if (compressedSize <= 0) {
+                LOGGER.warn("glyph cache bitmap compress fails : {}", file);
+                return;
+            }
+            MemoryUtil.memCopy(charData.address(), MemoryUtil.memAddress(out) + HEADER_SIZE, CHAR_DATA_SIZE);
+            out.order(ByteOrder.nativeOrder())
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(key)
+                    .putInt(pageIndex)
+                    .putInt(compressedSize);
+            out.clear().limit(HEADER_SIZE + CHAR_DATA_SIZE + compressedSize);
+
+            Files.createDirectories(this.getFolder().toPath());
+            tempPath = Files.createTempFile(this.getFolder().toPath(), file.getName(), ".tmp");
+            try (FileChannel fileChannel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) {
+                    fileChannel.write(out);
+                }
+            }
+            try {
+                Files.move(tempPath, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            tempPath = null;
+        } catch (IOException e) {
+            LOGGER.warn("glyph cache file write fails : {}", file, e);
+        } finally {
+            MemoryUtil.memFree(out);
+            if (tempPath != null) {
+                try {
+                    Files.deleteIfExists(tempPath);
+                } catch (IOException e) {
+                    LOGGER.debug("glyph cache temp file delete fails : {}", tempPath, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.visual;
+
+import com.xenoamess.cyan_potion.base.render.TextureAtlasBuilder;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTTPackedchar;
+import org.lwjgl.system.MemoryUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.lwjgl.stb.STBTruetype.stbtt_FindGlyphIndex;
+import static org.lwjgl.stb.STBTruetype.stbtt_FreeSDF;
+import static org.lwjgl.stb.STBTruetype.stbtt_GetCodepointHMetrics;
+import static org.lwjgl.stb.STBTruetype.stbtt_GetGlyphSDF;
+import static org.lwjgl.stb.STBTruetype.stbtt_ScaleForPixelHeight;
+
+/**
+ * <p>SdfGlyphPacker class.</p>
+ * <p>
+ * Packs one glyph page of a Font as signed distance fields instead of coverage bitmaps.
+ * <p>
+ * Glyphs are rasterized at {@link #SDF_PIXEL_HEIGHT}, which is smaller than Font.SCALE,
+ * but their metrics are written in Font.SCALE units, so layout code sees the same quads as in bitmap mode.
+ * The distance field is then sharp at any size when drawn with the sdf_text shader.
+ * If a page does not fit, it is rasterized again at a smaller size; again the metrics do not change.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+final class SdfGlyphPacker {
+    private static final Logger LOGGER =
+            LoggerFactory.getLogger(SdfGlyphPacker.class);
+
+    /**
+     * pixel height glyphs are rasterized at.
+     */
+    static final float SDF_PIXEL_HEIGHT = 24.0f;
+
+    /**
+     * pixels of distance field around each glyph.
+     */
+    static final int SDF_PADDING = 4;
+
+    /**
+     * distance value (0..255) on the glyph edge.
+     * the shader treats 0.5 as the edge.
+     */
+    static final int SDF_ON_EDGE_VALUE = 128;
+
+    /**
+     * how much the raster size shrinks each time a page does not fit.
+     */
+    static final float SHRINK_FACTOR = 0.85f;
+
+    private SdfGlyphPacker() {
+    }
+
+    /**
+     * <p>packPage.</p>
+     *
+     * @param fontInfo  font info
+     * @param pageIndex page index
+     * @param charData  output, metrics of each char of the page. its limit must be Font.EACH_CHAR_NUM
+     * @return alpha bitmap of the page, Font.BITMAP_W * Font.BITMAP_H, allocated by MemoryUtil.
+     */
+    static ByteBuffer packPage(STBTTFontinfo fontInfo, int pageIndex, STBTTPackedchar.Buffer charData) {
+        final int firstChar = pageIndex * Font.EACH_CHAR_NUM;
+        final float metricScale = stbtt_ScaleForPixelHeight(fontInfo, Font.SCALE);
+        float rasterPixelHeight = SDF_PIXEL_HEIGHT;
+
+        final ByteBuffer[] sdfs = new ByteBuffer[Font.EACH_CHAR_NUM];
+        final int[] widths = new int[Font.EACH_CHAR_NUM];
+        final int[] heights = new int[Font.EACH_CHAR_NUM];
+        final int[] xOffsets = new int[Font.EACH_CHAR_NUM];
+        final int[] yOffsets = new int[Font.EACH_CHAR_NUM];
+        final int[] pages = new int[Font.EACH_CHAR_NUM];
+        final int[] xs = new int[Font.EACH_CHAR_NUM];
+        final int[] ys = new int[Font.EACH_CHAR_NUM];
+        final int[] intBuffer0 = new int[1];
+        final int[] intBuffer1 = new int[1];
+        final int[] intBuffer2 = new int[1];
+        final int[] intBuffer3 = new int[1];
+
+        while (true) {
+            final float rasterScale = stbtt_ScaleForPixelHeight(fontInfo, rasterPixelHeight);
+            for (int i = 0; i < Font.EACH_CHAR_NUM; i++) {
+                final int glyphIndex = stbtt_FindGlyphIndex(fontInfo, firstChar + i);
+                // glyphs the font does not have are left empty, instead of one distance field of .notdef each.
+                sdfs[i] = glyphIndex == 0 ? null : stbtt_GetGlyphSDF(fontInfo, rasterScale, glyphIndex, SDF_PADDING,
+                        (byte) SDF_ON_EDGE_VALUE, (float) SDF_ON_EDGE_VALUE / SDF_PADDING,
+                        intBuffer0, intBuffer1, intBuffer2, intBuffer3);
+                if (sdfs[i] == null) {
+                    widths[i] = 0;
+                    heights[i] = 0;
+                    xOffsets[i] = 0;
+                    yOffsets[i] = 0;
+                } else {
+                    widths[i] = intBuffer0[0];
+                    heights[i] = intBuffer1[0];
+                    xOffsets[i] = intBuffer2[0];
+                    yOffsets[i] = intBuffer3[0];
+                }
+            }
+            final List<int[]> pageSizes = TextureAtlasBuilder.pack(widths, heights,
+                    Math.min(Font.BITMAP_W, Font.BITMAP_H), pages, xs, ys);
+            if (pageSizes.size() <= 1) {
+                break;
+            }
+            freeSdfs(sdfs);
+            rasterPixelHeight *= SHRINK_FACTOR;
+            LOGGER.debug("sdf glyph page {} does not fit, retry at pixel height {}", pageIndex, rasterPixelHeight);
+        }
+
+        final float metricsPerRasterPixel = Font.SCALE / rasterPixelHeight;
+        final ByteBuffer bitmap = MemoryUtil.memCalloc(Font.BITMAP_W * Font.BITMAP_H);
+        final int[] advances = intBuffer0;
+        for (int i = 0; i < Font.EACH_CHAR_NUM; i++) {
+            stbtt_GetCodepointHMetrics(fontInfo, firstChar + i, advances, intBuffer1);
+            final STBTTPackedchar packedchar = charData.get(i);
+            packedchar.xadvance(advances[0] * metricScale);
+            if (sdfs[i] == null) {
+                packedchar.x0((short) 0).y0((short) 0).x1((short) 0).y1((short) 0);
+                packedchar.xoff(0).yoff(0).xoff2(0).yoff2(0);
+                continue;
+            }
+            for (int row = 0; row < heights[i]; row++) {
+                for (int column = 0; column < widths[i]; column++) {
+                    bitmap.put((ys[i] + row) * Font.BITMAP_W + xs[i] + column, sdfs[i].get(row * widths[i] + column));
+                }
+            }
+            // the quad covers the glyph without padding, just like the quad of a coverage bitmap.
+            final int innerWidth = Math.max(widths[i] - 2 * SDF_PADDING, 0);
+            final int innerHeight = Math.max(heights[i] - 2 * SDF_PADDING, 0);
+            packedchar.x0((short) (xs[i] + SDF_PADDING));
+            packedchar.y0((short) (ys[i] + SDF_PADDING));
+            packedchar.x1((short) (xs[i] + SDF_PADDING + innerWidth));
+            packedchar.y1((short) (ys[i] + SDF_PADDING + innerHeight));
+            packedchar.xoff((xOffsets[i] + SDF_PADDING) * metricsPerRasterPixel);
+            packedchar.yoff((yOffsets[i] + SDF_PADDING) * metricsPerRasterPixel);
+            packedchar.xoff2((xOffsets[i] + SDF_PADDING + innerWidth) * metricsPerRasterPixel);
+            packedchar.yoff2((yOffsets[i] + SDF_PADDING + innerHeight) * metricsPerRasterPixel);
+        }
+        freeSdfs(sdfs);
+        return bitmap;
+    }
+
+    private static void freeSdfs(ByteBuffer[] sdfs) {
+        for (int i = 0; i < sdfs.length; i++) {
+            if (sdfs[i] != null) {
+                stbtt_FreeSDF(sdfs[i]);
+                sdfs[i] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.visual;
+
+import com.xenoamess.commons.main_thread_only.MainThreadOnly;
+import com.xenoamess.cyan_potion.base.GameWindow;
+import com.xenoamess.cyan_potion.base.render.Bindable;
+import com.xenoamess.cyan_potion.base.render.Shader;
+import com.xenoamess.cyan_potion.base.render.SpriteBatch;
+import lombok.Getter;
+import lombok.ToString;
+import org.joml.Vector4fc;
+
+import java.util.Arrays;
+
+/**
+ * <p>TextMesh class.</p>
+ * <p>
+ * Glyph quads that are laid out once, in real window pixels,
+ * and then drawn through the GameWindow's SpriteBatch with the text shader
+ * (or the sdf_text shader for sdf fonts) as many times as needed.
+ * <p>
+ * Glyphs are queued page by page, so drawing a mesh costs one draw call per glyph page it uses.
+ * Glyphs do not overlap, so drawing them out of text order changes nothing on screen.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see GameWindow#getTextShader()
+ */
+@ToString
+public class TextMesh {
+    /**
+     * x0, y0, x1, y1, s0, t0, s1, t1, r, g, b, a
+     */
+    private static final int FLOATS_PER_GLYPH = 12;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    @ToString.Exclude
+    private float[] glyphData = new float[DEFAULT_CAPACITY * FLOATS_PER_GLYPH];
+
+    @ToString.Exclude
+    private int[] glyphPages = new int[DEFAULT_CAPACITY];
+
+    @Getter
+    private int glyphCount;
+
+    /**
+     * <p>clear.</p>
+     * remove all glyphs, keeping the arrays for reuse.
+     */
+    public void clear() {
+        this.glyphCount = 0;
+    }
+
+    /**
+     * <p>isEmpty.</p>
+     *
+     * @return if this mesh has no glyph.
+     */
+    public boolean isEmpty() {
+        return this.glyphCount == 0;
+    }
+
+    /**
+     * <p>addGlyph.</p>
+     *
+     * @param pageIndex glyph page index, that is character / Font.EACH_CHAR_NUM
+     * @param x0        left in real window pixels
+     * @param y0        top in real window pixels
+     * @param x1        right in real window pixels
+     * @param y1        bottom in real window pixels
+     * @param s0        texture x at left
+     * @param t0        texture y at top
+     * @param s1        texture x at right
+     * @param t1        texture y at bottom
+     * @param color     color of this glyph, multiplied by the color given to draw. null means white.
+     */
+    public void addGlyph(int pageIndex,
+                         float x0, float y0, float x1, float y1,
+                         float s0, float t0, float s1, float t1,
+                         Vector4fc color) {
+        if (this.glyphCount == this.glyphPages.length) {
+            this.glyphPages = Arrays.copyOf(this.glyphPages, this.glyphCount * 2);
+            this.glyphData = Arrays.copyOf(this.glyphData, this.glyphCount * 2 * FLOATS_PER_GLYPH);
+        }
+        this.glyphPages[this.glyphCount] = pageIndex;
+        int index = this.glyphCount * FLOATS_PER_GLYPH;
+        final float[] data = this.glyphData;
+        data[index++] = x0;
+        data[index++] = y0;
+        data[index++] = x1;
+        data[index++] = y1;
+        data[index++] = s0;
+        data[index++] = t0;
+        data[index++] = s1;
+        data[index++] = t1;
+        data[index++] = color == null ? 1 : color.x();
+        data[index++] = color == null ? 1 : color.y();
+        data[index++] = color == null ? 1 : color.z();
+        data[index] = color == null ? 1 : color.w();
+        this.glyphCount++;
+    }
+
+    /**
+     * <p>draw.</p>
+     * queue every glyph into gameWindow's SpriteBatch.
+     *
+     * @param gameWindow gameWindow
+     * @param font       font whose pages the glyphs were cut from
+     * @param colorScale color multiplied onto every glyph. null means white.
+     */
+    @MainThreadOnly
+    public void draw(GameWindow gameWindow, Font font, Vector4fc colorScale) {
+        if (this.glyphCount == 0) {
+            return;
+        }
+        final SpriteBatch spriteBatch = gameWindow.getSpriteBatch();
+        final Shader shader = font.isSdf() ? gameWindow.getSdfTextShader() : gameWindow.getTextShader();
+        final float xScale = 2f / gameWindow.getRealWindowWidth();
+        final float yScale = 2f / gameWindow.getRealWindowHeight();
+        final float r = colorScale == null ? 1 : colorScale.x();
+        final float g = colorScale == null ? 1 : colorScale.y();
+        final float b = colorScale == null ? 1 : colorScale.z();
+        final float a = colorScale == null ? 1 : colorScale.w();
+        final float[] data = this.glyphData;
+
+        // Font.PIC_NUM is 64, so one long can mark every page.
+        long drawnPages = 0L;
+        for (int i = 0; i < this.glyphCount; i++) {
+            final int pageIndex = this.glyphPages[i];
+            if ((drawnPages & (1L << pageIndex)) != 0) {
+                continue;
+            }
+            drawnPages |= 1L << pageIndex;
+            final Bindable page = font.getPageBindable(pageIndex);
+            for (int j = i; j < this.glyphCount; j++) {
+                if (this.glyphPages[j] != pageIndex) {
+                    continue;
+                }
+                final int index = j * FLOATS_PER_GLYPH;
+                spriteBatch.drawRegion(
+                        shader,
+                        page,
+                        data[index] * xScale - 1,
+                        1 - data[index + 1] * yScale,
+                        data[index + 2] * xScale - 1,
+                        1 - data[index + 3] * yScale,
+                        data[index + 4],
+                        data[index + 5],
+                        data[index + 6],
+                        data[index + 7],
+                        data[index + 8] * r,
+                        data[index + 9] * g,
+                        data[index + 10] * b,
+                        data[index + 11] * a
+                );
+            }
+        }
+    }
+}
@@ -33,6 +33,8 @@ import lombok.ToString;
 import org.joml.Vector4f;
 import org.joml.Vector4fc;
 
+import java.util.Objects;
+
 /**
  * TextPicture
  * TextPicture is a class that allow you to pack up some text into an
@@ -71,12 +73,24 @@ public class TextPicture extends AbstractPicture {
     @Setter
     private String text = "";
 
+    /**
+     * DrawTextStruct of the last draw.
+     * it is reused while the inputs stay the same, so the text is not measured and laid out every frame.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private DrawTextStruct lastDrawTextStruct;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final float[] lastDrawTextStructParams = new float[9];
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void draw(GameWindow gameWindow) {
-        TextPicture.draw(gameWindow,
+        this.drawReusingDrawTextStruct(gameWindow,
                 this.getLeftTopPosX(),
                 this.getLeftTopPosY(),
                 this.getCenterPosX(),
@@ -95,7 +109,7 @@ public class TextPicture extends AbstractPicture {
     @SuppressWarnings("unused")
     @Override
     public void draw(AbstractScene scene) {
-        TextPicture.draw(scene.getGameWindow(),
+        this.drawReusingDrawTextStruct(scene.getGameWindow(),
                 scene.absolutePosToRelativeX(this.getLeftTopPosX()),
                 scene.absolutePosToRelativeY(this.getLeftTopPosY()),
                 scene.absolutePosToRelativeX(this.getCenterPosX()),
@@ -135,6 +149,66 @@ public class TextPicture extends AbstractPicture {
             Font font,
             Vector4fc color,
             String text
+    ) {
+        createDrawTextStruct(gameWindow, leftTopPosX, leftTopPosY, centerPosX, centerPosY, width, height,
+                characterSpace, font, color, text).draw();
+    }
+
+    private void drawReusingDrawTextStruct(
+            GameWindow gameWindow,
+            float leftTopPosX,
+            float leftTopPosY,
+            float centerPosX,
+            float centerPosY,
+            float width,
+            float height,
+            float characterSpace,
+            Font font,
+            Vector4fc color,
+            String text
+    ) {
+        final float[] params = this.lastDrawTextStructParams;
+        if (this.lastDrawTextStruct == null
+                || this.lastDrawTextStruct.getFont() != (font == null ? Font.getCurrentFont() : font)
+                || !Objects.equals(this.lastDrawTextStruct.getText(), text)
+                || Float.compare(params[0], leftTopPosX) != 0
+                || Float.compare(params[1], leftTopPosY) != 0
+                || Float.compare(params[2], centerPosX) != 0
+                || Float.compare(params[3], centerPosY) != 0
+                || Float.compare(params[4], width) != 0
+                || Float.compare(params[5], height) != 0
+                || Float.compare(params[6], characterSpace) != 0
+                || Float.compare(params[7], gameWindow.getRealWindowWidth()) != 0
+                || Float.compare(params[8], gameWindow.getRealWindowHeight()) != 0) {
+            this.lastDrawTextStruct = createDrawTextStruct(gameWindow, leftTopPosX, leftTopPosY, centerPosX,
+                    centerPosY, width, height, characterSpace, font, color, text);
+            params[0] = leftTopPosX;
+            params[1] = leftTopPosY;
+            params[2] = centerPosX;
+            params[3] = centerPosY;
+            params[4] = width;
+            params[5] = height;
+            params[6] = characterSpace;
+            params[7] = gameWindow.getRealWindowWidth();
+            params[8] = gameWindow.getRealWindowHeight();
+        } else {
+            this.lastDrawTextStruct.setColor(color);
+        }
+        this.lastDrawTextStruct.draw();
+    }
+
+    private static DrawTextStruct createDrawTextStruct(
+            GameWindow gameWindow,
+            float leftTopPosX,
+            float leftTopPosY,
+            float centerPosX,
+            float centerPosY,
+            float width,
+            float height,
+            float characterSpace,
+            Font font,
+            Vector4fc color,
+            String text
     ) {
         leftTopPosX = leftTopPosX / (float) gameWindow.getLogicWindowWidth() * (float) gameWindow.getRealWindowWidth();
         leftTopPosY =
@@ -157,7 +231,7 @@ public class TextPicture extends AbstractPicture {
         drawTextStruct.setCharacterSpace(characterSpace);
         drawTextStruct.setColor(color);
         drawTextStruct.setText(text);
-        drawTextStruct.draw();
+        return drawTextStruct;
     }
 
     /**
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base;
+
+import com.xenoamess.cyan_potion.base.game_window_components.AbstractScene;
+import com.xenoamess.cyan_potion.base.render.RecordingRenderBackend;
+import com.xenoamess.cyan_potion.base.render.RenderBackend;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
+import com.xenoamess.cyan_potion.base.render.Shader;
+import com.xenoamess.cyan_potion.base.render.SpriteBatch;
+import com.xenoamess.cyan_potion.base.render.Texture;
+import com.xenoamess.cyan_potion.base.runtime.FixedStepFrameScheduler;
+import com.xenoamess.cyan_potion.base.setting_file.GameSettings;
+import com.xenoamess.cyan_potion.base.visual.Colors;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RenderThreadTest {
+    private static final int TICKS = 15;
+
+    private static class HeadlessGameWindow extends GameWindow {
+        private final AtomicInteger swapCount = new AtomicInteger();
+
+        HeadlessGameWindow(GameManager gameManager) {
+            super(gameManager);
+            this.setShowing(true);
+        }
+
+        @Override
+        public void pollEvents() {
+            //do nothing
+        }
+
+        @Override
+        public void swapBuffers() {
+            this.swapCount.incrementAndGet();
+        }
+    }
+
+    private static class HeadlessGameManager extends GameManager {
+        private final HeadlessGameWindow headlessGameWindow = new HeadlessGameWindow(this);
+
+        @Override
+        public GameWindow getGameWindow() {
+            return this.headlessGameWindow;
+        }
+
+        @Override
+        protected void update() {
+            this.getGameWindowComponentTree().update();
+        }
+    }
+
+    private static class LoadingScene extends AbstractScene {
+        private volatile Texture texture;
+        private volatile boolean gameThreadSeen = true;
+        private volatile Thread updateThread;
+        private int ticks;
+        private int draws;
+
+        LoadingScene(GameWindow gameWindow) {
+            super(gameWindow);
+            this.setScale(1F);
+        }
+
+        @Override
+        protected void initProcessors() {
+            //do nothing
+        }
+
+        @Override
+        public boolean update() {
+            this.updateThread = Thread.currentThread();
+            this.gameThreadSeen &= DataCenter.ifMainThread();
+            if (this.texture == null) {
+                final Texture localTexture = this.getGameWindow().getGameManager().getResourceManager()
+                        .fetchResource(Colors.getPureColorTextureResourceInfo("1.0,0.0,0.0,1.0"));
+                localTexture.load();
+                this.texture = localTexture;
+            }
+            this.getCamera().setPosX(this.getCamera().getPosX() + 8);
+            if (++this.ticks >= TICKS) {
+                this.getGameWindow().getGameManager().shutdown();
+            }
+            return super.update();
+        }
+
+        @Override
+        public boolean draw() {
+            this.draws++;
+            this.drawBindableAbsolute(this.getCamera(), this.getScale(), this.texture, 0, 0, 16);
+            return true;
+        }
+    }
+
+    @Test
+    public void testSceneRunsOnLogicThread() {
+        final RenderBackend oldRenderBackend = RenderBackends.getCurrent();
+        final RecordingRenderBackend recordingRenderBackend = new RecordingRenderBackend();
+        RenderBackends.setCurrent(recordingRenderBackend);
+        try {
+            final HeadlessGameManager gameManager = new HeadlessGameManager();
+            final GameSettings gameSettings = new GameSettings(null);
+            gameSettings.setRenderThread(true);
+            gameManager.getDataCenter().setGameSettings(gameSettings);
+            gameManager.setFrameScheduler(new FixedStepFrameScheduler(50, 1));
+            Texture.PUT_TEXTURE_LOADERS.apply(gameManager);
+
+            final HeadlessGameWindow gameWindow = gameManager.headlessGameWindow;
+            gameWindow.setSpriteBatchShader(new Shader(gameManager, "", ""));
+            gameWindow.setSpriteBatch(new SpriteBatch());
+            gameWindow.getSpriteBatch().init();
+            gameManager.getGameWindowComponentTree().init();
+            final LoadingScene scene = new LoadingScene(gameWindow);
+            scene.addToGameWindowComponentTree(gameManager.getGameWindowComponentTree().getRoot());
+
+            gameManager.setAlive(true);
+            gameManager.loopWithRenderThread();
+
+            assertNotNull(scene.updateThread);
+            assertFalse(scene.updateThread == Thread.currentThread());
+            assertTrue(scene.gameThreadSeen);
+            assertTrue(scene.texture.isInMemory());
+            assertTrue(DataCenter.ifMainThread());
+            assertEquals(null, gameManager.getLogicThread());
+            assertTrue(scene.draws > 0);
+            //new snapshots are presented once each, and redrawn interpolated in between.
+            assertTrue(gameWindow.swapCount.get() > scene.draws,
+                    "swaps : " + gameWindow.swapCount.get() + " draws : " + scene.draws);
+            assertTrue(recordingRenderBackend.getFrameCount() >= gameWindow.swapCount.get());
+        } finally {
+            RenderBackends.setCurrent(oldRenderBackend);
+        }
+    }
+}
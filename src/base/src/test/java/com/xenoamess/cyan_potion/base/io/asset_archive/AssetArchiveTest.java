@@ -0,0 +1,159 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.io.asset_archive;
+
+import com.xenoamess.cyan_potion.base.memory.ResourceManager;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.commons.vfs2.FileType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AssetArchiveTest {
+    private static final String TEXT = "tiles tiles tiles tiles tiles tiles tiles tiles tiles tiles tiles tiles";
+
+    private File folder;
+    private byte[] noise;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.folder = Files.createTempDirectory("asset_archive_test").toFile();
+        final File assets = new File(this.folder, "assets");
+        FileUtils.writeStringToFile(new File(assets, "www/data/map.json"), TEXT, StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(new File(assets, "www/data/empty.json"), "", StandardCharsets.UTF_8);
+        this.noise = new byte[4096];
+        new Random(1).nextBytes(this.noise);
+        FileUtils.writeByteArrayToFile(new File(assets, "www/img/noise.png"), this.noise);
+        FileUtils.writeStringToFile(new File(assets, "readme.txt"), "hi", StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        ResourceManager.unmountAssetArchives();
+        FileUtils.deleteDirectory(this.folder);
+    }
+
+    private File pack(AssetArchiveCompression compression) throws IOException {
+        final File archiveFile = new File(this.folder, compression + ".cpak");
+        assertEquals(4, AssetArchivePacker.pack(archiveFile, compression, this.folder,
+                Collections.singletonList("assets")));
+        return archiveFile;
+    }
+
+    private static byte[] toBytes(ByteBuffer byteBuffer) {
+        final byte[] res = new byte[byteBuffer.remaining()];
+        byteBuffer.duplicate().get(res);
+        return res;
+    }
+
+    @Test
+    public void testReadEveryCompression() throws IOException {
+        for (AssetArchiveCompression compression : AssetArchiveCompression.values()) {
+            try (AssetArchive archive = AssetArchive.open(this.pack(compression))) {
+                assertEquals(4, archive.getEntryNum());
+                final int mapIndex = archive.indexOf("assets/www/data/map.json");
+                assertTrue(mapIndex >= 0);
+                assertEquals(compression, archive.getCompression(mapIndex));
+                assertEquals(TEXT, new String(toBytes(archive.read(mapIndex)), StandardCharsets.UTF_8));
+
+                //random bytes do not compress, so they are stored as is.
+                final int noiseIndex = archive.indexOf("assets/www/img/noise.png");
+                assertEquals(AssetArchiveCompression.NONE, archive.getCompression(noiseIndex));
+                assertArrayEquals(this.noise, toBytes(archive.read(noiseIndex)));
+
+                final int emptyIndex = archive.indexOf("assets/www/data/empty.json");
+                assertEquals(0, archive.read(emptyIndex).remaining());
+
+                assertTrue(archive.indexOf("assets/www/data/missing.json") < 0);
+                assertTrue(archive.isFolder("assets/www"));
+                assertFalse(archive.isFolder("assets/ww"));
+                assertArrayEquals(new String[]{"readme.txt", "www"}, archive.listChildren("assets"));
+                assertArrayEquals(new String[]{"data", "img"}, archive.listChildren("assets/www"));
+            }
+        }
+    }
+
+    @Test
+    public void testNotAnArchive() {
+        final File file = new File(this.folder, "assets/readme.txt");
+        assertThrows(IOException.class, () -> AssetArchive.open(file));
+    }
+
+    @Test
+    public void testFileProvider() throws IOException {
+        final File archiveFile = this.pack(AssetArchiveCompression.LZ4);
+        final FileObject root = ResourceManager.getFILE_SYSTEM_MANAGER().resolveFile(
+                AssetArchiveFileProvider.SCHEME + ":" + archiveFile.toURI() + "!/");
+        final FileObject map = root.resolveFile("assets/www/data/map.json");
+        assertEquals(FileType.FILE, map.getType());
+        assertEquals(TEXT.length(), map.getContent().getSize());
+        try (InputStream inputStream = map.getContent().getInputStream()) {
+            assertEquals(TEXT, IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+        }
+        assertEquals(FileType.FOLDER, root.resolveFile("assets/www").getType());
+        assertEquals(FileType.IMAGINARY, root.resolveFile("assets/nothing").getType());
+        final String[] children = Arrays.stream(root.resolveFile("assets/www").getChildren())
+                .map(fileObject -> fileObject.getName().getBaseName()).sorted().toArray(String[]::new);
+        assertArrayEquals(new String[]{"data", "img"}, children);
+    }
+
+    @Test
+    public void testMount() throws IOException {
+        final String prefix = "asset_archive_test_" + System.nanoTime();
+        final File assets = new File(this.folder, prefix);
+        FileUtils.writeStringToFile(new File(assets, "a.txt"), TEXT, StandardCharsets.UTF_8);
+        final File archiveFile = new File(this.folder, "mount.cpak");
+        AssetArchivePacker.pack(archiveFile, AssetArchiveCompression.ZSTD, this.folder,
+                Collections.singletonList(prefix));
+
+        //not a loose file relative to the working directory.
+        assertFalse(ResourceManager.resolveFile(prefix + "/a.txt").exists());
+        ResourceManager.mountAssetArchive(archiveFile.getAbsolutePath());
+        final FileObject fileObject = ResourceManager.resolveFile("./" + prefix + "/a.txt");
+        assertEquals(AssetArchiveFileProvider.SCHEME, fileObject.getName().getScheme());
+        assertEquals(TEXT, ResourceManager.loadString(fileObject));
+
+        ResourceManager.unmountAssetArchives();
+        assertFalse(ResourceManager.resolveFile(prefix + "/a.txt").exists());
+    }
+}
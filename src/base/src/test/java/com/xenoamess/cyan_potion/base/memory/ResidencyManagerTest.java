@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResidencyManagerTest {
+    private static class TestResource extends NormalResource {
+        private final ResidencyPool residencyPool;
+
+        TestResource(ResidencyPool residencyPool, long memorySize, long lastUsedFrameIndex) {
+            super(null, null);
+            this.residencyPool = residencyPool;
+            this.setMemorySize(memorySize);
+            this.setLastUsedFrameIndex(lastUsedFrameIndex);
+        }
+
+        @Override
+        public ResidencyPool getResidencyPool() {
+            return this.residencyPool;
+        }
+
+        @Override
+        protected void forceClose() {
+            this.setMemorySize(0);
+        }
+    }
+
+    private static List<TestResource> fill(ResidencyManager residencyManager, ResidencyPool pool, int num) {
+        final List<TestResource> res = new ArrayList<>();
+        for (int i = 0; i < num; i++) {
+            final TestResource resource = new TestResource(pool, 100, i);
+            residencyManager.add(resource);
+            res.add(resource);
+        }
+        return res;
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedDownToLowWatermark() {
+        final ResidencyManager residencyManager = new ResidencyManager();
+        residencyManager.setBudget(ResidencyPool.GPU_TEXTURE, 1000);
+        residencyManager.setMinResidentFrames(0);
+        final List<TestResource> resources = fill(residencyManager, ResidencyPool.GPU_TEXTURE, 10);
+        final TestResource audio = new TestResource(ResidencyPool.AUDIO_BUFFER, 100, 0);
+        residencyManager.add(audio);
+        assertFalse(residencyManager.isOverBudget());
+        assertEquals(1100, residencyManager.getTotalUsage());
+
+        resources.add(new TestResource(ResidencyPool.GPU_TEXTURE, 100, 10));
+        residencyManager.add(resources.get(10));
+        assertTrue(residencyManager.isOverBudget());
+        //used again since added, so it gets a second chance.
+        resources.get(1).setLastUsedFrameIndex(20);
+
+        final List<NormalResource> evicted = residencyManager.collectEvictions(100, false);
+        assertEquals(3, evicted.size());
+        assertSame(resources.get(0), evicted.get(0));
+        assertSame(resources.get(2), evicted.get(1));
+        assertSame(resources.get(3), evicted.get(2));
+        assertEquals(800, residencyManager.getUsage(ResidencyPool.GPU_TEXTURE));
+        assertEquals(8, residencyManager.getResidentNum(ResidencyPool.GPU_TEXTURE));
+        assertEquals(100, residencyManager.getUsage(ResidencyPool.AUDIO_BUFFER));
+        assertFalse(residencyManager.isOverBudget());
+        assertTrue(residencyManager.collectEvictions(100, false).isEmpty());
+    }
+
+    @Test
+    public void testPinnedAndRecentlyUsedAreKept() {
+        final ResidencyManager residencyManager = new ResidencyManager();
+        residencyManager.setBudget(ResidencyPool.HEAP_CACHE, 500);
+        residencyManager.setMinResidentFrames(60);
+        final List<TestResource> resources = fill(residencyManager, ResidencyPool.HEAP_CACHE, 10);
+        resources.get(0).pin();
+
+        //every resource was used in the last 60 frames.
+        assertTrue(residencyManager.collectEvictions(60, false).isEmpty());
+
+        final List<NormalResource> evicted = residencyManager.collectEvictions(65, false);
+        assertEquals(5, evicted.size());
+        for (int i = 0; i < 5; i++) {
+            //resources are equal by value here, so compare identities.
+            assertSame(resources.get(i + 1), evicted.get(i));
+        }
+
+        resources.get(0).unpin();
+        assertThrows(IllegalStateException.class, () -> resources.get(0).unpin());
+        assertEquals(0, resources.get(0).getPinCount());
+    }
+
+    @Test
+    public void testChargeKeptUntilRemoved() {
+        final ResidencyManager residencyManager = new ResidencyManager();
+        final TestResource resource = new TestResource(ResidencyPool.GPU_TEXTURE, 100, 0);
+        residencyManager.add(resource);
+        residencyManager.add(resource);
+        assertEquals(100, residencyManager.getUsage(ResidencyPool.GPU_TEXTURE));
+
+        resource.setMemorySize(150);
+        residencyManager.recharge(resource);
+        assertEquals(150, residencyManager.getUsage(ResidencyPool.GPU_TEXTURE));
+
+        resource.forceClose();
+        residencyManager.remove(resource);
+        residencyManager.remove(resource);
+        assertEquals(0, residencyManager.getUsage(ResidencyPool.GPU_TEXTURE));
+        assertEquals(0, residencyManager.getResidentNum(ResidencyPool.GPU_TEXTURE));
+        assertTrue(residencyManager.getResidentResources().isEmpty());
+    }
+
+    @Test
+    public void testForce() {
+        final ResidencyManager residencyManager = new ResidencyManager();
+        residencyManager.setBudget(ResidencyPool.HEAP_CACHE, 1000);
+        residencyManager.setMinResidentFrames(0);
+        fill(residencyManager, ResidencyPool.HEAP_CACHE, 5);
+        assertTrue(residencyManager.collectEvictions(100, false).isEmpty());
+        assertEquals(0, residencyManager.collectEvictions(100, true).size());
+        fill(residencyManager, ResidencyPool.HEAP_CACHE, 5);
+        assertEquals(2, residencyManager.collectEvictions(100, true).size());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import com.xenoamess.cyan_potion.base.render.Texture;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ResourceInfoTest {
+    private static final String FILE_STRING = "resources/www/img/pictures/resource_info_test.png";
+
+    @Test
+    public void testInternedByFields() {
+        final ResourceInfo<Texture> resourceInfo = ResourceInfo.of(Texture.class, "picture", FILE_STRING, "0");
+        final int internedNum = ResourceInfo.internedNum();
+        for (int i = 0; i < 10; i++) {
+            assertSame(resourceInfo, ResourceInfo.of(Texture.class, "picture", FILE_STRING, "0"));
+        }
+        assertEquals(internedNum, ResourceInfo.internedNum());
+
+        final ResourceInfo<Texture> other = ResourceInfo.of(Texture.class, "picture", FILE_STRING, "1");
+        assertNotSame(resourceInfo, other);
+        assertNotEquals(resourceInfo, other);
+        assertEquals(internedNum + 1, ResourceInfo.internedNum());
+    }
+
+    @Test
+    public void testCallerArrayCopied() {
+        final String[] values = {"2", "3"};
+        final ResourceInfo<Texture> resourceInfo = ResourceInfo.of(Texture.class, "picture", FILE_STRING, values);
+        values[0] = "4";
+        assertArrayEquals(new String[]{"2", "3"}, resourceInfo.getValues());
+        assertSame(resourceInfo, ResourceInfo.of(Texture.class, "picture", FILE_STRING, "2", "3"));
+    }
+
+    @Test
+    public void testNoValues() {
+        assertSame(
+                ResourceInfo.of(Texture.class, "picture", FILE_STRING),
+                ResourceInfo.of(Texture.class, "picture", FILE_STRING, (String[]) null)
+        );
+    }
+
+    @Test
+    public void testJsonRoundTrip() {
+        final ResourceInfo<Texture> resourceInfo = ResourceInfo.of(Texture.class, "picture", FILE_STRING, "5");
+        final String json = resourceInfo.toString();
+        assertSame(resourceInfo, ResourceInfo.of(json));
+        assertSame(json, resourceInfo.toString());
+    }
+
+    @Test
+    public void testManyEntries() {
+        final ResourceInfo<?>[] resourceInfos = new ResourceInfo<?>[5000];
+        for (int i = 0; i < resourceInfos.length; i++) {
+            resourceInfos[i] = ResourceInfo.of(Texture.class, "many", FILE_STRING, Integer.toString(i));
+        }
+        for (int i = 0; i < resourceInfos.length; i++) {
+            assertSame(resourceInfos[i], ResourceInfo.of(Texture.class, "many", FILE_STRING, Integer.toString(i)));
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceStreamerTest {
+    private static class TestResource extends NormalResource {
+        private Object uploaded;
+
+        TestResource() {
+            super(null, null);
+        }
+
+        @Override
+        protected boolean finishStreamedLoad(StreamingResourceLoader<NormalResource, Object> loader,
+                                             Object decoded) {
+            this.uploaded = decoded;
+            return loader.upload(this, decoded);
+        }
+
+        @Override
+        protected void forceClose() {
+            //do nothing
+        }
+    }
+
+    /**
+     * records decode and upload order; decodes a resource to itself, or fails for failingResource.
+     */
+    private static class TestLoader implements StreamingResourceLoader<TestResource, Object> {
+        private final List<TestResource> decoded = new ArrayList<>();
+        private final List<TestResource> uploaded = new ArrayList<>();
+        private final List<Object> discarded = new ArrayList<>();
+        private TestResource failingResource;
+
+        @Override
+        public Object decode(TestResource resource) {
+            this.decoded.add(resource);
+            return resource == this.failingResource ? null : resource;
+        }
+
+        @Override
+        public boolean upload(TestResource resource, Object decoded) {
+            this.uploaded.add(resource);
+            return true;
+        }
+
+        @Override
+        public void discard(Object decoded) {
+            this.discarded.add(decoded);
+        }
+    }
+
+    @Test
+    public void testDecodeByPriority() {
+        final ResourceStreamer resourceStreamer = new ResourceStreamer(0);
+        final TestLoader loader = new TestLoader();
+        final TestResource prefetched = new TestResource();
+        final TestResource nearby = new TestResource();
+        final TestResource visible0 = new TestResource();
+        final TestResource visible1 = new TestResource();
+        assertTrue(resourceStreamer.request(prefetched, loader, StreamingPriority.PREFETCH));
+        assertTrue(resourceStreamer.request(nearby, loader, StreamingPriority.NEARBY));
+        assertTrue(resourceStreamer.request(visible0, loader, StreamingPriority.VISIBLE));
+        assertTrue(resourceStreamer.request(visible1, loader, StreamingPriority.VISIBLE));
+        assertFalse(resourceStreamer.request(visible1, loader, StreamingPriority.VISIBLE));
+        assertEquals(4, resourceStreamer.getDecodeQueueSize());
+
+        while (resourceStreamer.decodeOne()) {
+            //decode all
+        }
+        assertEquals(4, loader.decoded.size());
+        assertSame(visible0, loader.decoded.get(0));
+        assertSame(visible1, loader.decoded.get(1));
+        assertSame(nearby, loader.decoded.get(2));
+        assertSame(prefetched, loader.decoded.get(3));
+        assertEquals(4, resourceStreamer.getUploadQueueSize());
+    }
+
+    @Test
+    public void testRaisePriority() {
+        final ResourceStreamer resourceStreamer = new ResourceStreamer(0);
+        final TestLoader loader = new TestLoader();
+        final TestResource prefetched = new TestResource();
+        final TestResource nearby = new TestResource();
+        resourceStreamer.request(prefetched, loader, StreamingPriority.PREFETCH);
+        resourceStreamer.request(nearby, loader, StreamingPriority.NEARBY);
+        assertFalse(resourceStreamer.request(prefetched, loader, StreamingPriority.VISIBLE));
+
+        resourceStreamer.decodeOne();
+        assertSame(prefetched, loader.decoded.get(0));
+        resourceStreamer.decodeOne();
+        assertSame(nearby, loader.decoded.get(1));
+
+        //raised while waiting for upload.
+        final TestResource later = new TestResource();
+        resourceStreamer.request(later, loader, StreamingPriority.PREFETCH);
+        resourceStreamer.decodeOne();
+        assertFalse(resourceStreamer.request(later, loader, StreamingPriority.VISIBLE));
+        resourceStreamer.uploadReady(Long.MAX_VALUE / 2);
+        assertSame(prefetched, loader.uploaded.get(0));
+        assertSame(later, loader.uploaded.get(1));
+        assertSame(nearby, loader.uploaded.get(2));
+    }
+
+    @Test
+    public void testUploadBudget() {
+        final ResourceStreamer resourceStreamer = new ResourceStreamer(0);
+        final TestLoader loader = new TestLoader();
+        final List<TestResource> resources = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            final TestResource resource = new TestResource();
+            resources.add(resource);
+            resourceStreamer.request(resource, loader, StreamingPriority.VISIBLE);
+        }
+        while (resourceStreamer.decodeOne()) {
+            //decode all
+        }
+        //no time left still uploads one.
+        assertEquals(1, resourceStreamer.uploadReady(0));
+        assertEquals(4, resourceStreamer.getUploadQueueSize());
+        assertEquals(4, resourceStreamer.uploadReady(Long.MAX_VALUE / 2));
+        for (int i = 0; i < 5; i++) {
+            assertSame(resources.get(i), loader.uploaded.get(i));
+            assertSame(resources.get(i), resources.get(i).uploaded);
+        }
+
+        //can be requested again once uploaded.
+        assertTrue(resourceStreamer.request(resources.get(0), loader, StreamingPriority.VISIBLE));
+    }
+
+    @Test
+    public void testDecodeFailureIsHandedToUpload() {
+        final ResourceStreamer resourceStreamer = new ResourceStreamer(0);
+        final TestLoader loader = new TestLoader();
+        final TestResource resource = new TestResource();
+        loader.failingResource = resource;
+        resourceStreamer.request(resource, loader, StreamingPriority.VISIBLE);
+        resourceStreamer.decodeOne();
+        assertEquals(1, resourceStreamer.uploadReady(0));
+        assertNull(resource.uploaded);
+    }
+
+    @Test
+    public void testCloseDiscards() {
+        final ResourceStreamer resourceStreamer = new ResourceStreamer(0);
+        final TestLoader loader = new TestLoader();
+        final TestResource decoded = new TestResource();
+        final TestResource queued = new TestResource();
+        resourceStreamer.request(decoded, loader, StreamingPriority.VISIBLE);
+        resourceStreamer.request(queued, loader, StreamingPriority.NEARBY);
+        resourceStreamer.decodeOne();
+        resourceStreamer.close();
+        assertEquals(1, loader.discarded.size());
+        assertSame(decoded, loader.discarded.get(0));
+        assertEquals(0, resourceStreamer.getDecodeQueueSize());
+        assertEquals(0, resourceStreamer.getUploadQueueSize());
+        assertFalse(resourceStreamer.request(queued, loader, StreamingPriority.VISIBLE));
+    }
+
+    @Test
+    public void testWorkers() throws InterruptedException {
+        final ResourceStreamer resourceStreamer = new ResourceStreamer(2);
+        final TestLoader loader = new TestLoader() {
+            @Override
+            public synchronized Object decode(TestResource resource) {
+                return super.decode(resource);
+            }
+        };
+        for (int i = 0; i < 20; i++) {
+            resourceStreamer.request(new TestResource(), loader, StreamingPriority.NEARBY);
+        }
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (resourceStreamer.getUploadQueueSize() < 20 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(20, resourceStreamer.getUploadQueueSize());
+        resourceStreamer.close();
+    }
+}
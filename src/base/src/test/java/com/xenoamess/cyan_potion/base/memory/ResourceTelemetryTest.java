@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.xenoamess.cyan_potion.base.DataCenter;
+import com.xenoamess.cyan_potion.base.profiler.LatencyHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceTelemetryTest {
+    private static class TestResource extends NormalResource {
+        TestResource(long memorySize) {
+            super(null, null);
+            this.setMemorySize(memorySize);
+        }
+
+        @Override
+        protected void forceClose() {
+            this.setMemorySize(0);
+        }
+    }
+
+    @Test
+    public void testCountsReloadsAfterEviction() {
+        final ResourceTelemetry resourceTelemetry = new ResourceTelemetry(new ResidencyManager());
+        final TestResource resource = new TestResource(100);
+        assertNull(resourceTelemetry.getClassStats(TestResource.class));
+
+        resourceTelemetry.recordLoad(resource);
+        resourceTelemetry.recordEviction(resource);
+        resourceTelemetry.recordLoad(resource);
+        resourceTelemetry.recordLoad(resource);
+
+        final ResourceTelemetry.ResourceStats classStats = resourceTelemetry.getClassStats(TestResource.class);
+        assertEquals(3, classStats.getLoads());
+        assertEquals(1, classStats.getEvictions());
+        assertEquals(1, classStats.getReloadsAfterEviction());
+        assertEquals(3, resourceTelemetry.getTypeStats(ResourceTelemetry.UNKNOWN_TYPE).getLoads());
+
+        resourceTelemetry.clear();
+        assertEquals(0, classStats.getLoads());
+    }
+
+    @Test
+    public void testFetchHitRateAndResidentBytes() {
+        final ResidencyManager residencyManager = new ResidencyManager();
+        final ResourceTelemetry resourceTelemetry = new ResourceTelemetry(residencyManager);
+        resourceTelemetry.recordFetch(TestResource.class, "picture", false);
+        resourceTelemetry.recordFetch(TestResource.class, "picture", true);
+        resourceTelemetry.recordFetch(TestResource.class, "picture", true);
+        resourceTelemetry.recordFetch(TestResource.class, "picture", true);
+        assertEquals(0.75, resourceTelemetry.getTypeStats("picture").getFetchHitRate(), 1e-9);
+        assertEquals(0.75, resourceTelemetry.getClassStats(TestResource.class).getFetchHitRate(), 1e-9);
+
+        residencyManager.add(new TestResource(100));
+        residencyManager.add(new TestResource(250));
+        assertEquals(350L, (long) resourceTelemetry.getResidentBytesByClass().get(TestResource.class.getName()));
+        assertEquals(350L, (long) resourceTelemetry.getResidentBytesByType().get(ResourceTelemetry.UNKNOWN_TYPE));
+    }
+
+    @Test
+    public void testMeasureLeavesOutIo() throws InterruptedException {
+        final ResourceTelemetry resourceTelemetry = new ResourceTelemetry(new ResidencyManager());
+        final TestResource resource = new TestResource(100);
+        final long beginNanos = resourceTelemetry.beginMeasure();
+        Thread.sleep(5);
+        //pretend the sleep was reading the file.
+        resourceTelemetry.recordIo(resource, System.nanoTime() - beginNanos);
+        resourceTelemetry.endMeasure(resource, ResourceLoadPhase.DECODE, beginNanos);
+
+        final ResourceTelemetry.ResourceStats classStats = resourceTelemetry.getClassStats(TestResource.class);
+        assertEquals(1, classStats.getLatency(ResourceLoadPhase.IO).getCount());
+        assertTrue(classStats.getLatency(ResourceLoadPhase.IO).getMaxNanos() >= 5_000_000);
+        assertEquals(1, classStats.getLatency(ResourceLoadPhase.DECODE).getCount());
+        assertTrue(classStats.getLatency(ResourceLoadPhase.DECODE).getMaxNanos() < 5_000_000);
+    }
+
+    @Test
+    public void testLatencyHistogramPercentiles() {
+        final LatencyHistogram latencyHistogram = new LatencyHistogram();
+        assertEquals(0, latencyHistogram.getPercentileNanos(50));
+        for (int i = 0; i < 99; i++) {
+            latencyHistogram.record(1000);
+        }
+        latencyHistogram.record(1_000_000);
+        assertEquals(100, latencyHistogram.getCount());
+        assertEquals(1_000_000, latencyHistogram.getMaxNanos());
+        assertEquals(9, LatencyHistogram.bucketOf(1000));
+        //upper bound of [512, 1024).
+        assertEquals(1023, latencyHistogram.getPercentileNanos(50));
+        assertEquals(1023, latencyHistogram.getPercentileNanos(99));
+        assertEquals(1_000_000, latencyHistogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testWriteSnapshot() throws Exception {
+        final ResidencyManager residencyManager = new ResidencyManager();
+        final ResourceTelemetry resourceTelemetry = new ResourceTelemetry(residencyManager);
+        final TestResource resource = new TestResource(100);
+        residencyManager.add(resource);
+        resourceTelemetry.recordLoad(resource);
+        resourceTelemetry.record(resource, ResourceLoadPhase.BLOCKING_LOAD, 2000);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        resourceTelemetry.writeSnapshot(outputStream);
+        final JsonNode classNode = DataCenter.getObjectMapper().readTree(outputStream.toByteArray())
+                .get("classes").get(TestResource.class.getName());
+        assertEquals(100, classNode.get("residentBytes").asLong());
+        assertEquals(1, classNode.get("loads").asLong());
+        final JsonNode latencyNode = classNode.get("latencies").get("BLOCKING_LOAD");
+        assertEquals(1, latencyNode.get("count").asLong());
+        assertEquals(1, latencyNode.get("log2Buckets").get(10).asLong());
+        assertTrue(resourceTelemetry.report().contains(TestResource.class.getName()));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.profiler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.xenoamess.cyan_potion.base.DataCenter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FrameProfilerTest {
+    @Test
+    public void testDisabledRecordsNothing() {
+        final FrameProfiler frameProfiler = new FrameProfiler(16);
+        final long beginNanos = frameProfiler.begin();
+        frameProfiler.end(FrameProfiler.SCOPE_UPDATE, beginNanos);
+        assertEquals(0, beginNanos);
+        assertTrue(frameProfiler.getSpans().isEmpty());
+    }
+
+    @Test
+    public void testPercentiles() {
+        final FrameProfiler frameProfiler = new FrameProfiler(256);
+        for (int i = 1; i <= 100; i++) {
+            frameProfiler.record(FrameProfiler.SCOPE_UPDATE, 1, i * 1000L, i * 10L);
+        }
+        frameProfiler.record(FrameProfiler.SCOPE_DRAW, 1, 5, 7);
+        assertEquals(500, frameProfiler.getPercentileNanos(FrameProfiler.SCOPE_UPDATE, 50));
+        assertEquals(990, frameProfiler.getPercentileNanos(FrameProfiler.SCOPE_UPDATE, 99));
+        assertEquals(7, frameProfiler.getPercentileNanos(FrameProfiler.SCOPE_DRAW, 99));
+        assertEquals(0, frameProfiler.getPercentileNanos(FrameProfiler.SCOPE_RESOURCE_LOAD, 50));
+        assertTrue(frameProfiler.report().contains("update"));
+    }
+
+    @Test
+    public void testRingOverwritesOldest() {
+        final FrameProfiler frameProfiler = new FrameProfiler(5);
+        assertEquals(8, frameProfiler.getCapacity());
+        for (int i = 0; i < 20; i++) {
+            frameProfiler.record(FrameProfiler.SCOPE_UPDATE, 1, i, 1);
+        }
+        assertEquals(8, frameProfiler.getSpans().size());
+        assertEquals(12, frameProfiler.getSpans().get(0).getBeginNanos());
+        frameProfiler.clear();
+        assertTrue(frameProfiler.getSpans().isEmpty());
+    }
+
+    @Test
+    public void testChromeTrace() throws IOException {
+        final FrameProfiler frameProfiler = new FrameProfiler(16);
+        final int scopeId = frameProfiler.registerScope("my \"scope\"");
+        assertEquals(scopeId, frameProfiler.registerScope("my \"scope\""));
+        frameProfiler.record(FrameProfiler.SCOPE_LOGIC_FRAME, 3, 1_000_000, 5_000);
+        frameProfiler.record(scopeId, 4, 1_002_000, 1_500);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        frameProfiler.writeChromeTrace(outputStream);
+        final JsonNode traceEvents = DataCenter.getObjectMapper().readTree(outputStream.toByteArray())
+                .get("traceEvents");
+        assertEquals(2, traceEvents.size());
+        assertEquals("logicFrame", traceEvents.get(0).get("name").asText());
+        assertEquals("X", traceEvents.get(0).get("ph").asText());
+        assertEquals(0, traceEvents.get(0).get("ts").asDouble(), 1e-9);
+        assertEquals(5, traceEvents.get(0).get("dur").asDouble(), 1e-9);
+        assertEquals("my \"scope\"", traceEvents.get(1).get("name").asText());
+        assertEquals(2, traceEvents.get(1).get("ts").asDouble(), 1e-9);
+        assertEquals(4, traceEvents.get(1).get("tid").asLong());
+    }
+}
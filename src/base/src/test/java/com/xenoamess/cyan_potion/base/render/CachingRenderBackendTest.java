@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import org.joml.Matrix4f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.lwjgl.opengl.GL11.GL_BLEND;
+import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE1;
+
+public class CachingRenderBackendTest {
+    private RecordingRenderBackend recordingRenderBackend;
+    private CachingRenderBackend cachingRenderBackend;
+
+    @BeforeEach
+    public void setUp() {
+        recordingRenderBackend = new RecordingRenderBackend();
+        cachingRenderBackend = new CachingRenderBackend(recordingRenderBackend);
+        RenderBackends.setCurrent(cachingRenderBackend);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RenderBackends.setCurrent(new CachingRenderBackend(new GlRenderBackend()));
+    }
+
+    @Test
+    public void testSkipRedundantBinds() {
+        cachingRenderBackend.useProgram(3);
+        cachingRenderBackend.useProgram(3);
+        cachingRenderBackend.activeTexture(GL_TEXTURE0);
+        cachingRenderBackend.bindTexture(GL_TEXTURE_2D, 5);
+        cachingRenderBackend.bindTexture(GL_TEXTURE_2D, 5);
+        cachingRenderBackend.activeTexture(GL_TEXTURE1);
+        cachingRenderBackend.bindTexture(GL_TEXTURE_2D, 5);
+        cachingRenderBackend.enable(GL_BLEND);
+        cachingRenderBackend.enable(GL_BLEND);
+
+        assertEquals(3, recordingRenderBackend.getCount(RenderCommandType.Category.BIND));
+        assertEquals(1, cachingRenderBackend.getSkippedProgramBindCount());
+        assertEquals(1, cachingRenderBackend.getSkippedTextureBindCount());
+        assertEquals(1, cachingRenderBackend.getSkippedStateChangeCount());
+
+        cachingRenderBackend.deleteTexture(5);
+        cachingRenderBackend.bindTexture(GL_TEXTURE_2D, 5);
+        assertEquals(1, cachingRenderBackend.getSkippedTextureBindCount());
+    }
+
+    @Test
+    public void testEnabledCaps() {
+        cachingRenderBackend.disable(GL_DEPTH_TEST);
+        cachingRenderBackend.disable(GL_DEPTH_TEST);
+        cachingRenderBackend.enable(GL_DEPTH_TEST);
+        cachingRenderBackend.enable(GL_BLEND);
+        cachingRenderBackend.enable(GL_DEPTH_TEST);
+        cachingRenderBackend.enable(-1);
+        cachingRenderBackend.enable(-1);
+        assertEquals(5, recordingRenderBackend.getCount(RenderCommandType.Category.STATE));
+        assertEquals(2, cachingRenderBackend.getSkippedStateChangeCount());
+
+        cachingRenderBackend.invalidate();
+        cachingRenderBackend.enable(GL_BLEND);
+        assertEquals(6, recordingRenderBackend.getCount(RenderCommandType.Category.STATE));
+    }
+
+    @Test
+    public void testUniformCachePerProgram() {
+        final Shader shader0 = new Shader(null, "", "");
+        final Shader shader1 = new Shader(null, "", "");
+        final Vector4f color = new Vector4f(1, 0.5f, 0.25f, 1);
+
+        shader0.bind();
+        shader0.setUniform("colorScale", color);
+        shader0.setUniform("colorScale", color);
+        shader0.setUniform("projection", new Matrix4f());
+        shader0.setUniform("projection", new Matrix4f());
+        shader1.bind();
+        shader1.setUniform("colorScale", color);
+        shader0.bind();
+        shader0.setUniform("colorScale", new Vector4f(0, 0, 0, 1));
+
+        assertEquals(4, recordingRenderBackend.getUniformUploadCount());
+        assertEquals(2, cachingRenderBackend.getSkippedUniformUploadCount());
+
+        shader0.close();
+        shader1.close();
+    }
+
+    @Test
+    public void testSpriteBatchFlushesKeepBindings() {
+        final Shader shader = new Shader(null, "", "");
+        final SpriteBatch spriteBatch = new SpriteBatch();
+        spriteBatch.init();
+        final int texture = cachingRenderBackend.genTexture();
+        final Bindable bindable = sampler -> {
+            RenderBackends.getCurrent().activeTexture(GL_TEXTURE0 + sampler);
+            RenderBackends.getCurrent().bindTexture(GL_TEXTURE_2D, texture);
+        };
+        final Vector4f white = new Vector4f(1, 1, 1, 1);
+
+        recordingRenderBackend.endFrame();
+        spriteBatch.draw(shader, bindable, 0, 0, 0.1f, 0, 0, 0.1f, white);
+        spriteBatch.flush();
+        spriteBatch.draw(shader, bindable, 0, 0, 0.1f, 0, 0, 0.1f, white);
+        spriteBatch.flush();
+        recordingRenderBackend.endFrame();
+
+        assertEquals(2, recordingRenderBackend.getLastFrameCount(RenderCommandType.Category.DRAW));
+        assertEquals(1, recordingRenderBackend.getLastFrameCommands().stream()
+                .filter(command -> command.getType() == RenderCommandType.USE_PROGRAM).count());
+        assertEquals(1, recordingRenderBackend.getLastFrameCommands().stream()
+                .filter(command -> command.getType() == RenderCommandType.BIND_TEXTURE).count());
+        assertSame(recordingRenderBackend, cachingRenderBackend.findDelegate(RecordingRenderBackend.class));
+
+        spriteBatch.close();
+        shader.close();
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.lwjgl.opengl.GL11.GL_BLEND;
+import static org.lwjgl.opengl.GL11.GL_COLOR_BUFFER_BIT;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+import static org.lwjgl.opengl.GL15.GL_ARRAY_BUFFER;
+
+public class DeferredRenderBackendTest {
+    private static final long TIMEOUT_NANOS = 1_000_000L;
+
+    @Test
+    public void testFrameReplayedOnlyByRenderThread() {
+        final RecordingRenderBackend recordingRenderBackend = new RecordingRenderBackend();
+        final DeferredRenderBackend deferredRenderBackend = new DeferredRenderBackend(recordingRenderBackend);
+
+        deferredRenderBackend.enable(GL_BLEND);
+        deferredRenderBackend.clear(GL_COLOR_BUFFER_BIT);
+        assertFalse(deferredRenderBackend.runUntilFrameEnd(0));
+        assertEquals(0, recordingRenderBackend.getCommands().size());
+
+        deferredRenderBackend.endFrame();
+        assertEquals(1, deferredRenderBackend.getPublishedFrameCount());
+        assertEquals(0, recordingRenderBackend.getFrameCount());
+
+        assertTrue(deferredRenderBackend.runUntilFrameEnd(0));
+        assertEquals(1, recordingRenderBackend.getFrameCount());
+        assertEquals(1, deferredRenderBackend.getRenderedFrameCount());
+        assertEquals(RenderCommandType.ENABLE, recordingRenderBackend.getLastFrameCommands().get(0).getType());
+        assertEquals(RenderCommandType.CLEAR, recordingRenderBackend.getLastFrameCommands().get(1).getType());
+    }
+
+    @Test
+    public void testCallRunsOnRenderThreadInOrder() throws InterruptedException {
+        final RecordingRenderBackend recordingRenderBackend = new RecordingRenderBackend();
+        final DeferredRenderBackend deferredRenderBackend = new DeferredRenderBackend(recordingRenderBackend, 1);
+        final AtomicInteger texture = new AtomicInteger();
+        final AtomicReference<RenderBackend> backendSeenByLogicThread = new AtomicReference<>();
+
+        final Thread logicThread = new Thread(() -> {
+            backendSeenByLogicThread.set(RenderBackends.getCurrent());
+            final RenderBackend renderBackend = RenderBackends.getCurrent();
+            for (int i = 0; i < 3; i++) {
+                renderBackend.enable(GL_BLEND);
+                texture.set(renderBackend.genTexture());
+                renderBackend.bindTexture(GL_TEXTURE_2D, texture.get());
+                renderBackend.endFrame();
+            }
+        });
+        RenderBackends.setThreadBackend(logicThread, deferredRenderBackend);
+        try {
+            logicThread.start();
+            int frames = 0;
+            while (frames < 3) {
+                if (deferredRenderBackend.runUntilFrameEnd(TIMEOUT_NANOS)) {
+                    frames++;
+                    assertEquals(RenderCommandType.ENABLE,
+                            recordingRenderBackend.getLastFrameCommands().get(0).getType());
+                    assertEquals(RenderCommandType.GEN_TEXTURE,
+                            recordingRenderBackend.getLastFrameCommands().get(1).getType());
+                    assertEquals(RenderCommandType.BIND_TEXTURE,
+                            recordingRenderBackend.getLastFrameCommands().get(2).getType());
+                }
+            }
+            logicThread.join();
+        } finally {
+            RenderBackends.clearThreadBackend();
+        }
+        assertSame(deferredRenderBackend, backendSeenByLogicThread.get());
+        assertTrue(RenderBackends.getCurrent() != deferredRenderBackend);
+        assertEquals(texture.get(),
+                recordingRenderBackend.getLastFrameCommands().get(2).getArguments()[1]);
+        assertEquals(0, deferredRenderBackend.runPending());
+    }
+
+    @Test
+    public void testRedrawInterpolatesLastSnapshot() {
+        final float[] uploaded = new float[8];
+        final RecordingRenderBackend recordingRenderBackend = new RecordingRenderBackend() {
+            @Override
+            public void bufferSubData(int target, long offset, FloatBuffer data) {
+                super.bufferSubData(target, offset, data);
+                for (int i = 0; i < uploaded.length; i++) {
+                    uploaded[i] = data.get(data.position() + i);
+                }
+            }
+        };
+        final DeferredRenderBackend deferredRenderBackend = new DeferredRenderBackend(recordingRenderBackend);
+        assertTrue(deferredRenderBackend.isInterpolatingOnReplay());
+        assertFalse(deferredRenderBackend.redraw(1F));
+
+        //two vertices of 4 floats, sharing one motion of (0.5, -1).
+        final FloatBuffer data = MemoryUtil.memAllocFloat(8);
+        final FloatBuffer motions = MemoryUtil.memAllocFloat(2);
+        try {
+            data.put(new float[]{1, 2, 7, 7, 3, 4, 8, 8}).flip();
+            motions.put(0.5F).put(-1F).flip();
+            deferredRenderBackend.beginFrame();
+            deferredRenderBackend.bufferSubDataInterpolated(GL_ARRAY_BUFFER, 0, data, motions, 4, 2);
+            deferredRenderBackend.deleteTexture(5);
+            deferredRenderBackend.endFrame();
+        } finally {
+            MemoryUtil.memFree(data);
+            MemoryUtil.memFree(motions);
+        }
+
+        assertTrue(deferredRenderBackend.runUntilFrameEnd(0));
+        assertArrayEquals(new float[]{0.5F, 3, 7, 7, 2.5F, 5, 8, 8}, uploaded);
+
+        assertTrue(deferredRenderBackend.redraw(0.5F));
+        assertArrayEquals(new float[]{0.75F, 2.5F, 7, 7, 2.75F, 4.5F, 8, 8}, uploaded);
+        assertTrue(deferredRenderBackend.redraw(1F));
+        assertArrayEquals(new float[]{1, 2, 7, 7, 3, 4, 8, 8}, uploaded);
+        assertFalse(recordingRenderBackend.getLastFrameCommands().stream()
+                .anyMatch(command -> command.getType() == RenderCommandType.DELETE_TEXTURE));
+        assertEquals(2, deferredRenderBackend.getRedrawnFrameCount());
+        assertEquals(1, recordingRenderBackend.getLastFrameCommands().size());
+        assertEquals(RenderCommandType.BUFFER_SUB_DATA, recordingRenderBackend.getLastFrameCommands().get(0).getType());
+
+        //the texture is deleted only when the snapshot that may still draw it retires.
+        deferredRenderBackend.beginFrame();
+        deferredRenderBackend.endFrame();
+        assertTrue(deferredRenderBackend.runUntilFrameEnd(0));
+        assertEquals(RenderCommandType.DELETE_TEXTURE, recordingRenderBackend.getCommands().get(0).getType());
+        deferredRenderBackend.discardSnapshot();
+    }
+}
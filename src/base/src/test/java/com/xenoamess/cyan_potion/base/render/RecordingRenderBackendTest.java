@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import org.joml.Matrix4f;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.lwjgl.opengl.GL11.GL_TEXTURE_2D;
+
+public class RecordingRenderBackendTest {
+    private static final Vector4f WHITE = new Vector4f(1, 1, 1, 1);
+
+    private RecordingRenderBackend renderBackend;
+
+    @BeforeEach
+    public void setUp() {
+        renderBackend = new RecordingRenderBackend();
+        RenderBackends.setCurrent(renderBackend);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RenderBackends.setCurrent(new CachingRenderBackend(new GlRenderBackend()));
+    }
+
+    private static Bindable bindableOf(int texture) {
+        return sampler -> RenderBackends.getCurrent().bindTexture(GL_TEXTURE_2D, texture);
+    }
+
+    @Test
+    public void testSpriteBatchDrawCount() {
+        final Shader shader = new Shader(null, "", "");
+        final SpriteBatch spriteBatch = new SpriteBatch(16);
+        spriteBatch.init();
+        final Bindable bindable = bindableOf(renderBackend.genTexture());
+
+        renderBackend.beginFrame();
+        for (int i = 0; i < 40; i++) {
+            spriteBatch.draw(shader, bindable, 0, 0, 0.1f, 0, 0, 0.1f, WHITE);
+        }
+        spriteBatch.flush();
+        renderBackend.endFrame();
+
+        //16 + 16 + 8
+        assertEquals(3, renderBackend.getLastFrameCount(RenderCommandType.Category.DRAW));
+        assertEquals(0, renderBackend.getDrawCallCount());
+        assertTrue(renderBackend.getLastFrameCommands().stream()
+                .anyMatch(command -> command.getType() == RenderCommandType.DRAW_ELEMENTS));
+
+        spriteBatch.close();
+        shader.close();
+    }
+
+    @Test
+    public void testSpriteBatchBreaksOnBindTargetChange() {
+        final Shader shader = new Shader(null, "", "");
+        final SpriteBatch spriteBatch = new SpriteBatch();
+        spriteBatch.init();
+        final Bindable bindable0 = bindableOf(renderBackend.genTexture());
+        final Bindable bindable1 = bindableOf(renderBackend.genTexture());
+
+        renderBackend.beginFrame();
+        for (int i = 0; i < 10; i++) {
+            spriteBatch.draw(shader, (i & 1) == 0 ? bindable0 : bindable1, 0, 0, 0.1f, 0, 0, 0.1f, WHITE);
+        }
+        spriteBatch.flush();
+        assertEquals(10, renderBackend.getDrawCallCount());
+        renderBackend.endFrame();
+        assertEquals(1, renderBackend.getFrameCount());
+
+        spriteBatch.close();
+        shader.close();
+    }
+
+    @Test
+    public void testCountingOnly() {
+        renderBackend.setRecordingCommands(false);
+        renderBackend.beginFrame();
+        renderBackend.useProgram(1);
+        renderBackend.bindTexture(GL_TEXTURE_2D, 1);
+        renderBackend.uniform1i(0, 0);
+        renderBackend.endFrame();
+        assertEquals(2, renderBackend.getLastFrameCount(RenderCommandType.Category.BIND));
+        assertEquals(1, renderBackend.getLastFrameCount(RenderCommandType.Category.UNIFORM));
+        assertTrue(renderBackend.getLastFrameCommands().isEmpty());
+    }
+
+    @Test
+    public void testStaticSpriteMeshDrawCount() {
+        final Shader shader = new Shader(null, "", "");
+        final StaticSpriteMesh staticSpriteMesh = new StaticSpriteMesh();
+        final Bindable bindableA = bindableOf(renderBackend.genTexture());
+        final Bindable bindableB = bindableOf(renderBackend.genTexture());
+        for (int i = 0; i < 100; i++) {
+            staticSpriteMesh.add(bindableA, i, 0, i + 1, 1, WHITE);
+        }
+        staticSpriteMesh.add(bindableB, 0, 1, 1, 2, WHITE);
+        staticSpriteMesh.add(bindableA, 1, 1, 2, 2, WHITE);
+        assertEquals(3, staticSpriteMesh.getRunNum());
+        assertTrue(staticSpriteMesh.isDirty());
+
+        renderBackend.beginFrame();
+        staticSpriteMesh.draw(shader, new Matrix4f());
+        renderBackend.endFrame();
+        assertEquals(0, renderBackend.getLastFrameCount(RenderCommandType.Category.DRAW));
+
+        staticSpriteMesh.upload();
+        assertFalse(staticSpriteMesh.isDirty());
+        assertTrue(staticSpriteMesh.touchBindables());
+        renderBackend.beginFrame();
+        staticSpriteMesh.draw(shader, new Matrix4f());
+        staticSpriteMesh.draw(shader, new Matrix4f());
+        renderBackend.endFrame();
+        assertEquals(6, renderBackend.getLastFrameCount(RenderCommandType.Category.DRAW));
+
+        staticSpriteMesh.close();
+        shader.close();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.render;
+
+import org.junit.jupiter.api.Test;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TextureAtlasBuilderTest {
+    @Test
+    public void testPackNoOverlap() {
+        final int num = 96;
+        final int[] widths = new int[num];
+        final int[] heights = new int[num];
+        for (int i = 0; i < num; i++) {
+            widths[i] = 16 + (i % 3) * 16;
+            heights[i] = 16 + (i % 5) * 8;
+        }
+        final int[] pages = new int[num];
+        final int[] xs = new int[num];
+        final int[] ys = new int[num];
+        final List<int[]> pageSizes = TextureAtlasBuilder.pack(widths, heights, 256, pages, xs, ys);
+        assertFalse(pageSizes.isEmpty());
+
+        for (int i = 0; i < num; i++) {
+            final int[] pageSize = pageSizes.get(pages[i]);
+            assertTrue(xs[i] >= TextureAtlasBuilder.PADDING);
+            assertTrue(ys[i] >= TextureAtlasBuilder.PADDING);
+            assertTrue(xs[i] + widths[i] + TextureAtlasBuilder.PADDING <= pageSize[0]);
+            assertTrue(ys[i] + heights[i] + TextureAtlasBuilder.PADDING <= pageSize[1]);
+            for (int j = i + 1; j < num; j++) {
+                if (pages[i] != pages[j]) {
+                    continue;
+                }
+                final boolean separated = xs[i] + widths[i] <= xs[j] || xs[j] + widths[j] <= xs[i]
+                        || ys[i] + heights[i] <= ys[j] || ys[j] + heights[j] <= ys[i];
+                assertTrue(separated, "rectangle " + i + " overlaps rectangle " + j);
+            }
+        }
+    }
+
+    @Test
+    public void testPackEmpty() {
+        assertEquals(0, TextureAtlasBuilder.pack(new int[0], new int[0], 256, new int[0], new int[0], new int[0]).size());
+    }
+
+    @Test
+    public void testPackTooLarge() {
+        assertThrows(IllegalArgumentException.class, () -> TextureAtlasBuilder.pack(new int[]{256}, new int[]{16}, 256,
+                new int[1], new int[1], new int[1]));
+    }
+
+    @Test
+    public void testAllocateFreedRegion() {
+        final RenderBackend oldRenderBackend = RenderBackends.getCurrent();
+        final RecordingRenderBackend recordingRenderBackend = new RecordingRenderBackend();
+        RenderBackends.setCurrent(recordingRenderBackend);
+        try {
+            final TextureAtlas textureAtlas = new TextureAtlas(64, 64);
+            assertNull(textureAtlas.allocateRegion(16, 16));
+            final ByteBuffer byteBuffer = MemoryUtil.memCalloc(64 * 64 * 4);
+            textureAtlas.bake(byteBuffer);
+            MemoryUtil.memFree(byteBuffer);
+            assertNull(textureAtlas.allocateRegion(16, 16));
+
+            textureAtlas.freeRegion(19, 1, 32, 16);
+            assertNull(textureAtlas.allocateRegion(16, 17));
+            final int[] first = textureAtlas.allocateRegion(16, 16);
+            assertEquals(19, first[0]);
+            assertEquals(1, first[1]);
+            final int[] second = textureAtlas.allocateRegion(14, 16);
+            assertEquals(19 + 16 + 2 * TextureAtlasBuilder.PADDING, second[0]);
+            assertEquals(1, second[1]);
+            assertNull(textureAtlas.allocateRegion(1, 1));
+
+            textureAtlas.freeRegion(1, 1, 16, 16);
+            textureAtlas.close();
+            assertEquals(0, textureAtlas.getFreeCellNum());
+            assertNull(textureAtlas.allocateRegion(16, 16));
+        } finally {
+            RenderBackends.setCurrent(oldRenderBackend);
+        }
+    }
+}
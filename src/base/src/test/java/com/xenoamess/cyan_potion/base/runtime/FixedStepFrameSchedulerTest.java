@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FixedStepFrameSchedulerTest {
+    private static final long TICK_NANOS = 1_000_000_000L / 50;
+
+    @Test
+    public void testTicksAndAlpha() {
+        final AtomicLong now = new AtomicLong(1000);
+        final FixedStepFrameScheduler frameScheduler = new FixedStepFrameScheduler(50, 5, 0, now::get);
+        assertEquals(TICK_NANOS, frameScheduler.getTickNanos());
+        assertEquals(0.02, frameScheduler.getTickSeconds(), 1e-9);
+
+        assertEquals(0, frameScheduler.pollTicks());
+        assertEquals(TICK_NANOS, frameScheduler.getNanosToNextTick());
+
+        now.addAndGet(TICK_NANOS / 2);
+        assertEquals(0, frameScheduler.pollTicks());
+        assertEquals(0.5f, frameScheduler.getInterpolationAlpha(), 1e-6f);
+
+        now.addAndGet(TICK_NANOS * 2);
+        assertEquals(2, frameScheduler.pollTicks());
+        assertEquals(0.5f, frameScheduler.getInterpolationAlpha(), 1e-6f);
+        assertEquals(TICK_NANOS / 2, frameScheduler.getNanosToNextTick());
+    }
+
+    @Test
+    public void testCatchUpCap() {
+        final AtomicLong now = new AtomicLong();
+        final FixedStepFrameScheduler frameScheduler = new FixedStepFrameScheduler(50, 3, 0, now::get);
+
+        now.addAndGet(TICK_NANOS * 100 + TICK_NANOS / 4);
+        assertEquals(3, frameScheduler.pollTicks());
+        assertEquals(97, frameScheduler.getDroppedTickCount());
+        assertEquals(0.25f, frameScheduler.getInterpolationAlpha(), 1e-6f);
+        assertEquals(0, frameScheduler.pollTicks());
+    }
+
+    @Test
+    public void testFramesBetweenTicks() {
+        final AtomicLong now = new AtomicLong();
+        final FixedStepFrameScheduler frameScheduler =
+                new FixedStepFrameScheduler(50, 5, 0, TICK_NANOS / 4, now::get);
+
+        now.addAndGet(TICK_NANOS / 4);
+        assertEquals(0, frameScheduler.waitForNextFrame());
+        assertEquals(0.25f, frameScheduler.getInterpolationAlpha(), 1e-6f);
+        //alpha is measured when drawing, after the ticks of the frame ran.
+        now.addAndGet(TICK_NANOS / 10);
+        assertEquals(0.35f, frameScheduler.getInterpolationAlpha(), 1e-6f);
+
+        now.addAndGet(TICK_NANOS / 2);
+        assertEquals(0, frameScheduler.waitForNextFrame());
+        assertEquals(0.85f, frameScheduler.getInterpolationAlpha(), 1e-6f);
+
+        now.addAndGet(TICK_NANOS / 4);
+        assertEquals(1, frameScheduler.waitForNextFrame());
+        assertEquals(0.1f, frameScheduler.getInterpolationAlpha(), 1e-6f);
+
+        now.addAndGet(TICK_NANOS);
+        assertEquals(1, frameScheduler.waitForNextTicks());
+    }
+
+    @Test
+    public void testWaitForNextTicks() {
+        final FixedStepFrameScheduler frameScheduler = new FixedStepFrameScheduler(200);
+        final long start = System.nanoTime();
+        final int ticks = frameScheduler.waitForNextTicks();
+        assertEquals(1, ticks);
+        assertTrue(System.nanoTime() - start >= frameScheduler.getTickNanos() / 2);
+    }
+}
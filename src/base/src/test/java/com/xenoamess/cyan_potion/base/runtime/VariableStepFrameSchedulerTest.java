@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.xenoamess.cyan_potion.base.runtime;
+
+import com.xenoamess.cyan_potion.base.render.Bindable;
+import com.xenoamess.cyan_potion.base.render.CachingRenderBackend;
+import com.xenoamess.cyan_potion.base.render.GlRenderBackend;
+import com.xenoamess.cyan_potion.base.render.RecordingRenderBackend;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
+import com.xenoamess.cyan_potion.base.render.Shader;
+import com.xenoamess.cyan_potion.base.render.SpriteBatch;
+import org.joml.Vector4f;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.FloatBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class VariableStepFrameSchedulerTest {
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+
+    /**
+     * keeps the floats of the last bufferSubData call.
+     */
+    private static class VertexCapturingRenderBackend extends RecordingRenderBackend {
+        private float[] lastData = new float[0];
+
+        @Override
+        public void bufferSubData(int target, long offset, FloatBuffer data) {
+            super.bufferSubData(target, offset, data);
+            this.lastData = new float[data.remaining()];
+            data.duplicate().get(this.lastData);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RenderBackends.setCurrent(new CachingRenderBackend(new GlRenderBackend()));
+    }
+
+    @Test
+    public void testTicks() {
+        final AtomicLong now = new AtomicLong(1000);
+        final VariableStepFrameScheduler frameScheduler = new VariableStepFrameScheduler(0, now::get);
+        now.addAndGet(FRAME_NANOS);
+        assertEquals(1, frameScheduler.waitForNextFrame());
+        assertEquals(FRAME_NANOS / 1e9, frameScheduler.getTickSeconds(), 1e-9);
+        assertEquals(1F, frameScheduler.getInterpolationAlpha());
+    }
+
+    @Test
+    public void testNoMotionOffset() {
+        final VertexCapturingRenderBackend renderBackend = new VertexCapturingRenderBackend();
+        RenderBackends.setCurrent(renderBackend);
+        final AtomicLong now = new AtomicLong(1000);
+        final VariableStepFrameScheduler frameScheduler = new VariableStepFrameScheduler(0, now::get);
+        final Shader shader = new Shader(null, "", "");
+        final SpriteBatch spriteBatch = new SpriteBatch();
+        spriteBatch.init();
+        final Bindable bindable = sampler -> {
+        };
+
+        now.addAndGet(FRAME_NANOS);
+        frameScheduler.waitForNextFrame();
+        spriteBatch.setInterpolation(frameScheduler.getInterpolationAlpha(), false);
+        spriteBatch.setMotion(0.25f, -0.5f);
+        spriteBatch.draw(shader, bindable, 0.5f, 0.5f, 0.1f, 0, 0, 0.1f, new Vector4f(1, 1, 1, 1));
+        spriteBatch.flush();
+
+        //TOP LEFT is center - axisX + axisY, drawn where it is at the current tick.
+        assertEquals(0.4f, renderBackend.lastData[0], 1e-6f);
+        assertEquals(0.6f, renderBackend.lastData[1], 1e-6f);
+
+        spriteBatch.close();
+        shader.close();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.visual;
+
+import org.joml.Vector4f;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DrawTextStructTest {
+    private final Font font = new Font(null, null);
+
+    private DrawTextStruct laidOut() {
+        final DrawTextStruct drawTextStruct = new DrawTextStruct();
+        drawTextStruct.setFont(this.font);
+        drawTextStruct.setText("text");
+        drawTextStruct.setScaleXY(1.5f, 2f);
+        drawTextStruct.setLeftTopPosXY(10, 20);
+        drawTextStruct.setCharacterSpace(1);
+        drawTextStruct.setHeight(30);
+        assertTrue(drawTextStruct.isLayoutOutdated(this.font));
+        drawTextStruct.markLaidOut(this.font, 100);
+        return drawTextStruct;
+    }
+
+    @Test
+    public void testReusedIfNothingChanged() {
+        final DrawTextStruct drawTextStruct = this.laidOut();
+        assertFalse(drawTextStruct.isLayoutOutdated(this.font));
+        //equal but not the same instance.
+        drawTextStruct.setText(new String("text"));
+        drawTextStruct.setScaleXY(1.5f, 2f);
+        drawTextStruct.setLeftTopPosXY(10, 20);
+        assertFalse(drawTextStruct.isLayoutOutdated(this.font));
+    }
+
+    @Test
+    public void testColorNotInKey() {
+        final DrawTextStruct drawTextStruct = this.laidOut();
+        drawTextStruct.setColor(new Vector4f(1, 0, 0, 1));
+        assertFalse(drawTextStruct.isLayoutOutdated(this.font));
+    }
+
+    @Test
+    public void testFontChanged() {
+        assertTrue(this.laidOut().isLayoutOutdated(new Font(null, null)));
+    }
+
+    @Test
+    public void testTextChanged() {
+        final DrawTextStruct drawTextStruct = this.laidOut();
+        drawTextStruct.setText("text2");
+        assertTrue(drawTextStruct.isLayoutOutdated(this.font));
+    }
+
+    @Test
+    public void testScaleChanged() {
+        final DrawTextStruct drawTextStruct = this.laidOut();
+        drawTextStruct.setScaleX(1);
+        assertTrue(drawTextStruct.isLayoutOutdated(this.font));
+
+        final DrawTextStruct drawTextStruct2 = this.laidOut();
+        drawTextStruct2.setScaleY(1);
+        assertTrue(drawTextStruct2.isLayoutOutdated(this.font));
+    }
+
+    @Test
+    public void testPositionChanged() {
+        final DrawTextStruct drawTextStruct = this.laidOut();
+        drawTextStruct.setLeftTopPosX(11);
+        assertTrue(drawTextStruct.isLayoutOutdated(this.font));
+
+        final DrawTextStruct drawTextStruct2 = this.laidOut();
+        drawTextStruct2.setLeftTopPosY(21);
+        assertTrue(drawTextStruct2.isLayoutOutdated(this.font));
+    }
+
+    @Test
+    public void testCharacterSpaceChanged() {
+        final DrawTextStruct drawTextStruct = this.laidOut();
+        drawTextStruct.setCharacterSpace(2);
+        assertTrue(drawTextStruct.isLayoutOutdated(this.font));
+    }
+
+    @Test
+    public void testHeightChanged() {
+        final DrawTextStruct drawTextStruct = this.laidOut();
+        drawTextStruct.setHeight(31);
+        assertTrue(drawTextStruct.isLayoutOutdated(this.font));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.visual;
+
+import com.xenoamess.cyan_potion.base.GameWindow;
+import com.xenoamess.cyan_potion.base.memory.ResourceManager;
+import com.xenoamess.cyan_potion.base.render.RecordingRenderBackend;
+import com.xenoamess.cyan_potion.base.render.RenderBackend;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
+import com.xenoamess.cyan_potion.base.render.RenderCommand;
+import com.xenoamess.cyan_potion.base.render.RenderCommandType;
+import com.xenoamess.cyan_potion.base.render.Shader;
+import com.xenoamess.cyan_potion.base.render.SpriteBatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.stb.STBTTPackedchar;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class FontTest {
+    private static final int PAGE_NUM = 4;
+
+    /**
+     * the ttf file is never parsed, as every page it needs is already in the glyph page cache.
+     */
+    private static final byte[] TTF = {1, 2, 3, 4, 5, 6, 7, 8};
+
+    /**
+     * logs texture deletes, and the sprite batch flushes of {@link LoggingGameWindow}, in order.
+     */
+    private static class LoggingRenderBackend extends RecordingRenderBackend {
+        private final List<String> log = new ArrayList<>();
+
+        @Override
+        public void deleteTexture(int texture) {
+            super.deleteTexture(texture);
+            this.log.add("delete " + texture);
+        }
+    }
+
+    private static class LoggingGameWindow extends GameWindow {
+        private final LoggingRenderBackend renderBackend;
+
+        LoggingGameWindow(LoggingRenderBackend renderBackend) {
+            super(null);
+            this.renderBackend = renderBackend;
+        }
+
+        @Override
+        public void flushSpriteBatch() {
+            super.flushSpriteBatch();
+            this.renderBackend.log.add("flush");
+        }
+    }
+
+    private RenderBackend oldRenderBackend;
+    private LoggingRenderBackend renderBackend;
+    private LoggingGameWindow gameWindow;
+    private File folder;
+    private Font font;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.oldRenderBackend = RenderBackends.getCurrent();
+        this.renderBackend = new LoggingRenderBackend();
+        RenderBackends.setCurrent(this.renderBackend);
+        this.gameWindow = new LoggingGameWindow(this.renderBackend);
+
+        this.folder = Files.createTempDirectory("font_test").toFile();
+        final File ttfFile = new File(this.folder, "font.ttf");
+        Files.write(ttfFile.toPath(), TTF);
+        final GlyphPageCache glyphPageCache = new GlyphPageCache(this.folder.getPath());
+        fillGlyphPageCache(glyphPageCache);
+
+        this.font = new Font(new ResourceManager(null), null);
+        this.font.setGlyphPageCache(glyphPageCache);
+        this.font.loadBitmap(ResourceManager.resolveFile(ttfFile.toURI().toString()));
+        this.font.init(this.gameWindow);
+    }
+
+    /**
+     * save pages whose packed chars all have x0 set to the page index.
+     */
+    private static void fillGlyphPageCache(GlyphPageCache glyphPageCache) {
+        final ByteBuffer ttf = MemoryUtil.memAlloc(TTF.length);
+        final ByteBuffer bitmap = MemoryUtil.memCalloc(Font.BITMAP_W * Font.BITMAP_H);
+        final STBTTPackedchar.Buffer charData = STBTTPackedchar.calloc(Font.EACH_CHAR_NUM);
+        try {
+            ttf.put(TTF).flip();
+            final long key = GlyphPageCache.computeKey(ttf, false);
+            for (int pageIndex = 0; pageIndex < PAGE_NUM; pageIndex++) {
+                for (int i = 0; i < Font.EACH_CHAR_NUM; i++) {
+                    charData.get(i).x0((short) pageIndex);
+                }
+                glyphPageCache.save(key, pageIndex, bitmap, charData);
+            }
+        } finally {
+            MemoryUtil.memFree(ttf);
+            MemoryUtil.memFree(bitmap);
+            charData.free();
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        this.font.forceClose();
+        RenderBackends.setCurrent(this.oldRenderBackend);
+        final File[] files = this.folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(this.folder.toPath());
+    }
+
+    private static char charOfPage(int pageIndex) {
+        return (char) (pageIndex * Font.EACH_CHAR_NUM + 5);
+    }
+
+    private int genTextureCount() {
+        int count = 0;
+        for (RenderCommand renderCommand : this.renderBackend.getCommands()) {
+            if (renderCommand.getType() == RenderCommandType.GEN_TEXTURE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testPagesLoadedOnDemand() {
+        assertEquals(1, this.font.getResidentPageNum());
+        assertEquals(1, this.genTextureCount());
+
+        final char character = charOfPage(2);
+        assertEquals(2, this.font.getCharData(character).get(character % Font.EACH_CHAR_NUM).x0());
+        assertEquals(2, this.font.getResidentPageNum());
+        assertEquals(2, this.genTextureCount());
+
+        //already resident, so neither packed nor uploaded again.
+        this.font.getFontTexture(character);
+        this.font.getCharData(charOfPage(0));
+        assertEquals(2, this.font.getResidentPageNum());
+        assertEquals(2, this.genTextureCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPageEvicted() {
+        this.font.setMaxResidentPages(2);
+        final int texture0 = this.font.getFontTexture(charOfPage(0));
+        final int texture1 = this.font.getFontTexture(charOfPage(1));
+        //page 0 is used after page 1, so page 1 is the least recently used one.
+        assertEquals(texture0, this.font.getFontTexture(charOfPage(0)));
+        assertEquals(2, this.font.getResidentPageNum());
+        this.renderBackend.log.clear();
+
+        final int texture2 = this.font.getFontTexture(charOfPage(2));
+        assertEquals(2, this.font.getResidentPageNum());
+        assertNotEquals(texture1, texture2);
+        assertEquals(Arrays.asList("flush", "delete " + texture1), this.renderBackend.log);
+
+        //page 0 stayed resident, and page 1 is packed again when needed.
+        assertEquals(texture0, this.font.getFontTexture(charOfPage(0)));
+        assertEquals(3, this.genTextureCount());
+        assertEquals(1, this.font.getCharData(charOfPage(1)).get(5).x0());
+        assertEquals(4, this.genTextureCount());
+    }
+
+    @Test
+    public void testSdfShaderOnlyInSdfMode() {
+        final Shader textShader = new Shader(null, "", "");
+        final Shader sdfTextShader = new Shader(null, "", "");
+        final SpriteBatch spriteBatch = new SpriteBatch();
+        spriteBatch.init();
+        this.gameWindow.setTextShader(textShader);
+        this.gameWindow.setSdfTextShader(sdfTextShader);
+        this.gameWindow.setSpriteBatch(spriteBatch);
+        final TextMesh textMesh = new TextMesh();
+        textMesh.addGlyph(0, 0, 0, 10, 10, 0, 0, 1, 1, null);
+        try {
+            textMesh.draw(this.gameWindow, this.font, null);
+            assertSame(textShader, spriteBatch.getCurrentShader());
+
+            this.font.setSdf(true);
+            textMesh.draw(this.gameWindow, this.font, null);
+            assertSame(sdfTextShader, spriteBatch.getCurrentShader());
+
+            this.font.setSdf(false);
+            textMesh.draw(this.gameWindow, this.font, null);
+            assertSame(textShader, spriteBatch.getCurrentShader());
+        } finally {
+            spriteBatch.close();
+            textShader.close();
+            sdfTextShader.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.visual;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lwjgl.stb.STBTTPackedchar;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GlyphPageCacheTest {
+    private static final int BITMAP_SIZE = Font.BITMAP_W * Font.BITMAP_H;
+
+    @TempDir
+    File folder;
+
+    @Test
+    public void testSaveThenLoad() {
+        final GlyphPageCache cache = new GlyphPageCache(folder.getPath());
+        final ByteBuffer bitmap = MemoryUtil.memCalloc(BITMAP_SIZE);
+        final ByteBuffer loadedBitmap = MemoryUtil.memAlloc(BITMAP_SIZE);
+        final STBTTPackedchar.Buffer charData = STBTTPackedchar.calloc(Font.EACH_CHAR_NUM);
+        final STBTTPackedchar.Buffer loadedCharData = STBTTPackedchar.calloc(Font.EACH_CHAR_NUM);
+        try {
+            for (int i = 0; i < BITMAP_SIZE; i += 7) {
+                bitmap.put(i, (byte) i);
+            }
+            for (int i = 0; i < Font.EACH_CHAR_NUM; i++) {
+                charData.get(i).x0((short) i).xadvance(i * 0.5f);
+            }
+            assertFalse(cache.load(42L, 3, loadedBitmap, loadedCharData));
+
+            cache.save(42L, 3, bitmap, charData);
+            assertTrue(cache.getPageFile(42L, 3).isFile());
+            assertTrue(cache.getPageFile(42L, 3).length() < BITMAP_SIZE);
+
+            assertTrue(cache.load(42L, 3, loadedBitmap, loadedCharData));
+            assertEquals(bitmap, loadedBitmap);
+            for (int i = 0; i < Font.EACH_CHAR_NUM; i++) {
+                assertEquals(i, loadedCharData.get(i).x0());
+                assertEquals(i * 0.5f, loadedCharData.get(i).xadvance());
+            }
+            assertFalse(cache.load(43L, 3, loadedBitmap, loadedCharData));
+            assertFalse(cache.load(42L, 4, loadedBitmap, loadedCharData));
+        } finally {
+            MemoryUtil.memFree(bitmap);
+            MemoryUtil.memFree(loadedBitmap);
+            charData.free();
+            loadedCharData.free();
+        }
+    }
+
+    @Test
+    public void testBrokenFileIsMiss() throws IOException {
+        final GlyphPageCache cache = new GlyphPageCache(folder.getPath());
+        final ByteBuffer bitmap = MemoryUtil.memCalloc(BITMAP_SIZE);
+        final STBTTPackedchar.Buffer charData = STBTTPackedchar.calloc(Font.EACH_CHAR_NUM);
+        try {
+            cache.save(7L, 0, bitmap, charData);
+            final File file = cache.getPageFile(7L, 0);
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                randomAccessFile.setLength(file.length() - 1);
+            }
+            assertFalse(cache.load(7L, 0, bitmap, charData));
+        } finally {
+            MemoryUtil.memFree(bitmap);
+            charData.free();
+        }
+    }
+
+    @Test
+    public void testComputeKey() {
+        final ByteBuffer ttf = MemoryUtil.memCalloc(64);
+        try {
+            final long key = GlyphPageCache.computeKey(ttf, false);
+            assertEquals(key, GlyphPageCache.computeKey(ttf, false));
+            assertNotEquals(key, GlyphPageCache.computeKey(ttf, true));
+            ttf.put(0, (byte) 1);
+            assertNotEquals(key, GlyphPageCache.computeKey(ttf, false));
+        } finally {
+            MemoryUtil.memFree(ttf);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.visual;
+
+import org.junit.jupiter.api.Test;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.stb.STBTTPackedchar;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.lwjgl.stb.STBTruetype.stbtt_GetFontOffsetForIndex;
+import static org.lwjgl.stb.STBTruetype.stbtt_InitFont;
+
+public class SdfGlyphPackerTest {
+    /**
+     * no font file is shipped with the repo, so a common system one is used if it is there.
+     */
+    private static final Path TTF_PATH = Paths.get("/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf");
+
+    private static int valueAt(ByteBuffer bitmap, int x, int y) {
+        return bitmap.get(y * Font.BITMAP_W + x) & 0xFF;
+    }
+
+    @Test
+    public void testPaddingAndRange() throws IOException {
+        assumeTrue(Files.isRegularFile(TTF_PATH), "no test font at " + TTF_PATH);
+        final byte[] ttfBytes = Files.readAllBytes(TTF_PATH);
+        final ByteBuffer ttf = MemoryUtil.memAlloc(ttfBytes.length);
+        final STBTTFontinfo fontInfo = STBTTFontinfo.malloc();
+        final STBTTPackedchar.Buffer charData = STBTTPackedchar.malloc(Font.EACH_CHAR_NUM);
+        ByteBuffer bitmap = null;
+        try {
+            ttf.put(ttfBytes).flip();
+            assertTrue(stbtt_InitFont(fontInfo, ttf, stbtt_GetFontOffsetForIndex(ttf, 0)));
+            bitmap = SdfGlyphPacker.packPage(fontInfo, 0, charData);
+
+            final STBTTPackedchar packedchar = charData.get('A');
+            final int x0 = packedchar.x0();
+            final int y0 = packedchar.y0();
+            final int x1 = packedchar.x1();
+            final int y1 = packedchar.y1();
+            assertTrue(x1 > x0 && y1 > y0);
+
+            //the quad leaves SDF_PADDING pixels of distance field around the glyph, all of them outside it.
+            int insideMax = 0;
+            for (int y = y0 - SdfGlyphPacker.SDF_PADDING; y < y1 + SdfGlyphPacker.SDF_PADDING; y++) {
+                for (int x = x0 - SdfGlyphPacker.SDF_PADDING; x < x1 + SdfGlyphPacker.SDF_PADDING; x++) {
+                    final int value = valueAt(bitmap, x, y);
+                    if (x < x0 || x >= x1 || y < y0 || y >= y1) {
+                        assertTrue(value < SdfGlyphPacker.SDF_ON_EDGE_VALUE, "(" + x + ", " + y + ") : " + value);
+                    } else {
+                        insideMax = Math.max(insideMax, value);
+                    }
+                }
+            }
+            assertTrue(insideMax >= SdfGlyphPacker.SDF_ON_EDGE_VALUE, "inside max : " + insideMax);
+
+            //values fall from SDF_ON_EDGE_VALUE on the edge to 0 at SDF_PADDING pixels away.
+            assertEquals(0, valueAt(bitmap,
+                    x0 - SdfGlyphPacker.SDF_PADDING, y0 - SdfGlyphPacker.SDF_PADDING));
+            for (int x = x0 - SdfGlyphPacker.SDF_PADDING; x < x1 + SdfGlyphPacker.SDF_PADDING; x++) {
+                final int value = valueAt(bitmap, x, y1 + SdfGlyphPacker.SDF_PADDING - 1);
+                assertTrue(value <= SdfGlyphPacker.SDF_ON_EDGE_VALUE / SdfGlyphPacker.SDF_PADDING,
+                        "(" + x + ", outer row) : " + value);
+            }
+        } finally {
+            if (bitmap != null) {
+                MemoryUtil.memFree(bitmap);
+            }
+            charData.free();
+            fontInfo.free();
+            MemoryUtil.memFree(ttf);
+        }
+    }
+}
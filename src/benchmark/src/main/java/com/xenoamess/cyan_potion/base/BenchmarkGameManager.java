@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base;
+
+/**
+ * <p>BenchmarkGameManager class.</p>
+ * GameManager that can be used without starting up:
+ * its game window never touches glfw, so benchmarks can drive solveEvents and friends headless.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+public class BenchmarkGameManager extends GameManager {
+    /**
+     * <p>HeadlessGameWindow class.</p>
+     * GameWindow whose pollEvents does nothing.
+     */
+    public static class HeadlessGameWindow extends GameWindow {
+        /**
+         * <p>Constructor for HeadlessGameWindow.</p>
+         *
+         * @param gameManager gameManager
+         */
+        public HeadlessGameWindow(GameManager gameManager) {
+            super(gameManager);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void pollEvents() {
+            //do nothing
+        }
+    }
+
+    private final GameWindow headlessGameWindow = new HeadlessGameWindow(this);
+
+    /**
+     * <p>Constructor for BenchmarkGameManager.</p>
+     */
+    public BenchmarkGameManager() {
+        super();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GameWindow getGameWindow() {
+        return this.headlessGameWindow;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.io.input.key;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_F12;
+import static org.lwjgl.glfw.GLFW.GLFW_KEY_W;
+
+/**
+ * <p>KeymapBenchmark class.</p>
+ * Keymap lookups the way input events and components do them:
+ * a fresh raw Key per lookup, then a down check of the mapped key.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeymapBenchmark {
+    private Keymap keymap;
+    private Key upKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.keymap = new Keymap();
+        this.keymap.put("GLFW_KEY_W", "XENOAMESS_KEY_UP");
+        this.keymap.put("GLFW_KEY_A", "XENOAMESS_KEY_LEFT");
+        this.keymap.put("GLFW_KEY_S", "XENOAMESS_KEY_DOWN");
+        this.keymap.put("GLFW_KEY_D", "XENOAMESS_KEY_RIGHT");
+        this.keymap.put("GLFW_KEY_ENTER", "XENOAMESS_KEY_ENTER");
+        this.keymap.put("GLFW_KEY_ESCAPE", "XENOAMESS_KEY_ESCAPE");
+        this.keymap.put("GLFW_MOUSE_BUTTON_LEFT", "XENOAMESS_MOUSE_BUTTON_LEFT");
+        this.upKey = new Key(Keymap.XENOAMESS_KEY_UP);
+    }
+
+    @Benchmark
+    public Key getHit() {
+        return this.keymap.get(new Key(Key.TYPE_KEY, GLFW_KEY_W));
+    }
+
+    @Benchmark
+    public Key getMiss() {
+        return this.keymap.get(new Key(Key.TYPE_KEY, GLFW_KEY_F12));
+    }
+
+    @Benchmark
+    public boolean isKeyDown() {
+        return this.keymap.isKeyDown(this.upKey);
+    }
+
+    @Benchmark
+    public boolean isKeyDownRaw() {
+        return this.keymap.isKeyDownRaw(new Key(Key.TYPE_KEY, GLFW_KEY_W));
+    }
+}
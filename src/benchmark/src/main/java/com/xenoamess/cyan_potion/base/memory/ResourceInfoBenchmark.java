@@ -0,0 +1,97 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.memory;
+
+import com.xenoamess.cyan_potion.base.BenchmarkGameManager;
+import com.xenoamess.cyan_potion.base.render.Texture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>ResourceInfoBenchmark class.</p>
+ * ResourceInfo.of and ResourceManager.fetchResource for a resource already known,
+ * which is what every draw of a tile/character asks for.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceInfoBenchmark {
+    private static final String RESOURCE_TYPE = "picture";
+
+    private File file;
+    private String fileString;
+    private String resourceInfoJson;
+    private ResourceManager resourceManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.file = File.createTempFile("resource_info_benchmark", ".png");
+        this.fileString = this.file.toURI().toString();
+        this.resourceInfoJson = ResourceInfo.of(Texture.class, RESOURCE_TYPE, this.fileString, "0").toString();
+        this.resourceManager = new ResourceManager(new BenchmarkGameManager());
+        this.resourceManager.fetchResource(Texture.class, RESOURCE_TYPE, this.fileString, "0");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        this.file.delete();
+    }
+
+    @Benchmark
+    public ResourceInfo<Texture> resourceInfoOf() {
+        return ResourceInfo.of(Texture.class, RESOURCE_TYPE, this.fileString, "0");
+    }
+
+    @Benchmark
+    public ResourceInfo<?> resourceInfoOfJson() {
+        return ResourceInfo.of(this.resourceInfoJson);
+    }
+
+    @Benchmark
+    public Texture fetchResource() {
+        return this.resourceManager.fetchResource(Texture.class, RESOURCE_TYPE, this.fileString, "0");
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.base.runtime;
+
+import com.xenoamess.cyan_potion.base.DataCenter;
+import com.xenoamess.cyan_potion.rpg_module.GameRuntime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>SaveFileContentBenchmark class.</p>
+ * json round trip of a save file, holding structNum GameRuntime of variableNum switches/integers each.
+ * lives in this package as SaveFileContent is package private.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveFileContentBenchmark {
+    @Param({"1", "8"})
+    private int structNum;
+
+    @Param({"64", "4096"})
+    private int variableNum;
+
+    private SaveFileContent saveFileContent;
+    private String saveFileContentString;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        this.saveFileContent = new SaveFileContent();
+        this.saveFileContent.setSaveTime(System.currentTimeMillis());
+        for (int i = 0; i < this.structNum; i++) {
+            final GameRuntime gameRuntime = new GameRuntime();
+            for (int j = 0; j < this.variableNum; j++) {
+                gameRuntime.getRuntimeSwitches().add((j & 1) == 0);
+                gameRuntime.getRuntimeIntegerVariables().add(j * 31);
+            }
+            this.saveFileContent.getRuntimeVariableStructList().add(gameRuntime);
+        }
+        this.saveFileContentString = DataCenter.getObjectMapper().writeValueAsString(this.saveFileContent);
+    }
+
+    @Benchmark
+    public String serialize() throws IOException {
+        return DataCenter.getObjectMapper().writeValueAsString(this.saveFileContent);
+    }
+
+    @Benchmark
+    public SaveFileContent deserialize() throws IOException {
+        return DataCenter.getObjectMapper().readValue(this.saveFileContentString, SaveFileContent.class);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate;
+
+import com.xenoamess.cyan_potion.base.BenchmarkGameManager;
+import com.xenoamess.cyan_potion.base.GameWindow;
+import com.xenoamess.cyan_potion.coordinate.entity.StaticEntity;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.HorizontalRectangle;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>CanMoveBenchmark class.</p>
+ * AbstractShape.canMove of one 32x32 shape, in a scene where entityNum other 32x32 entities
+ * are registered on a grid around it.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CanMoveBenchmark {
+    /**
+     * <p>BenchmarkScene class.</p>
+     * AbstractEntityScene that processes no event.
+     */
+    public static class BenchmarkScene extends AbstractEntityScene {
+        /**
+         * <p>Constructor for BenchmarkScene.</p>
+         *
+         * @param gameWindow gameWindow
+         */
+        public BenchmarkScene(GameWindow gameWindow) {
+            super(gameWindow);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void initProcessors() {
+            //do nothing
+        }
+    }
+
+    private static final float ENTITY_SIZE = 32;
+    private static final float ENTITY_DISTANCE = 48;
+
+    @Param({"16", "1024"})
+    private int entityNum;
+
+    private AbstractShape movingShape;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final AbstractEntityScene scene = new BenchmarkScene(new BenchmarkGameManager().getGameWindow());
+        final int rowLength = (int) Math.ceil(Math.sqrt(this.entityNum + 1));
+        for (int i = 1; i <= this.entityNum; i++) {
+            this.createEntity(scene, (i % rowLength) * ENTITY_DISTANCE, (i / rowLength) * ENTITY_DISTANCE);
+        }
+        this.movingShape = this.createEntity(scene, 0, 0).getShape();
+    }
+
+    private StaticEntity createEntity(AbstractEntityScene scene, float posX, float posY) {
+        final StaticEntity entity = new StaticEntity(
+                scene,
+                posX, posY,
+                ENTITY_SIZE, ENTITY_SIZE,
+                0,
+                null,
+                new HorizontalRectangle(null, new Vector3f(posX, posY, 0),
+                        new Vector3f(ENTITY_SIZE, ENTITY_SIZE, 0))
+        );
+        entity.registerShape();
+        return entity;
+    }
+
+    @Benchmark
+    public boolean canMoveFree() {
+        return this.movingShape.canMove(1, 0);
+    }
+
+    @Benchmark
+    public boolean canMoveBlocked() {
+        return this.movingShape.canMove(ENTITY_DISTANCE, 0);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.broad_phases;
+
+import com.xenoamess.cyan_potion.coordinate.AbstractEntityScene;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.HorizontalRectangle;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * <p>BroadPhaseBenchmark class.</p>
+ * one tick of a scene for each BroadPhase: every moving shape moves, is updated, and queries its area.
+ * <ul>
+ * <li>uniform: 2000 units of 32x32.</li>
+ * <li>mixedSizes: 40 walls of 2048x64, 200 units of 32x32, and 2000 fast 4x4 bullets.</li>
+ * </ul>
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadPhaseBenchmark {
+    private static final float WORLD_SIZE = 4096;
+
+    @Param({"grid", "tree", "sweepAndPrune"})
+    private String broadPhaseName;
+
+    @Param({"uniform", "mixedSizes"})
+    private String workload;
+
+    private BroadPhase broadPhase;
+    private final List<AbstractShape> movingShapes = new ArrayList<>();
+    private final List<Integer> movingHandles = new ArrayList<>();
+    private final List<Float> movingSpeeds = new ArrayList<>();
+    private float[] velocities;
+    private int visited;
+    private final Predicate<AbstractShape> countingVisitor = shape -> {
+        this.visited++;
+        return true;
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (this.broadPhaseName) {
+            case "grid":
+                this.broadPhase = new SpatialHashGrid(AbstractEntityScene.BOX_SIZE);
+                break;
+            case "tree":
+                this.broadPhase = new DynamicAabbTree();
+                break;
+            case "sweepAndPrune":
+                this.broadPhase = new SweepAndPrune();
+                break;
+            default:
+                throw new IllegalArgumentException(this.broadPhaseName);
+        }
+        final Random random = new Random(0);
+        if ("uniform".equals(this.workload)) {
+            this.addMoving(random, 2000, 32, 2);
+        } else {
+            for (int i = 0; i < 40; i++) {
+                final boolean horizontal = (i & 1) == 0;
+                this.broadPhase.insert(new HorizontalRectangle(null,
+                        new Vector3f(random.nextFloat() * WORLD_SIZE, random.nextFloat() * WORLD_SIZE, 0),
+                        horizontal ? new Vector3f(2048, 64, 0) : new Vector3f(64, 2048, 0)));
+            }
+            this.addMoving(random, 200, 32, 2);
+            this.addMoving(random, 2000, 4, 12);
+        }
+        this.velocities = new float[this.movingShapes.size() * 2];
+        for (int i = 0; i < this.velocities.length; i++) {
+            this.velocities[i] = random.nextFloat() * 2 - 1;
+        }
+    }
+
+    private void addMoving(Random random, int num, float size, float speed) {
+        for (int i = 0; i < num; i++) {
+            final AbstractShape shape = new HorizontalRectangle(null,
+                    new Vector3f(random.nextFloat() * WORLD_SIZE, random.nextFloat() * WORLD_SIZE, 0),
+                    new Vector3f(size, size, 0));
+            this.movingShapes.add(shape);
+            this.movingSpeeds.add(speed);
+            this.movingHandles.add(this.broadPhase.insert(shape));
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        this.visited = 0;
+        for (int i = 0, size = this.movingShapes.size(); i < size; i++) {
+            final AbstractShape shape = this.movingShapes.get(i);
+            final float speed = this.movingSpeeds.get(i);
+            float x = shape.getCenterPosX() + this.velocities[i * 2] * speed;
+            float y = shape.getCenterPosY() + this.velocities[i * 2 + 1] * speed;
+            if (x < 0 || x > WORLD_SIZE) {
+                this.velocities[i * 2] = -this.velocities[i * 2];
+                x = Math.max(0, Math.min(WORLD_SIZE, x));
+            }
+            if (y < 0 || y > WORLD_SIZE) {
+                this.velocities[i * 2 + 1] = -this.velocities[i * 2 + 1];
+                y = Math.max(0, Math.min(WORLD_SIZE, y));
+            }
+            shape.setCenterPosX(x);
+            shape.setCenterPosY(y);
+            this.broadPhase.update(this.movingHandles.get(i));
+            this.broadPhase.forEachInArea(shape.minX(), shape.minY(), shape.maxX(), shape.maxY(),
+                    this.countingVisitor);
+        }
+        return this.visited;
+    }
+}
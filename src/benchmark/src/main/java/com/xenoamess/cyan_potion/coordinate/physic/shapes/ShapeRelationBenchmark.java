@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.shapes;
+
+import com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation;
+import org.joml.Vector3f;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>ShapeRelationBenchmark class.</p>
+ * AbstractShape.relation for every pair of shape types, through the instance method and the static one.
+ * shapes here have no entity, as relation never asks for it.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShapeRelationBenchmark {
+    private AbstractShape rectangle1;
+    private AbstractShape rectangle2;
+    private AbstractShape circle1;
+    private AbstractShape circle2;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.rectangle1 = new HorizontalRectangle(null, new Vector3f(0, 0, 0), new Vector3f(32, 32, 0));
+        this.rectangle2 = new HorizontalRectangle(null, new Vector3f(16, 16, 0), new Vector3f(32, 32, 0));
+        this.circle1 = new Circle(null, new Vector3f(40, 0, 0), new Vector3f(32, 32, 0));
+        this.circle2 = new Circle(null, new Vector3f(56, 16, 0), new Vector3f(32, 32, 0));
+    }
+
+    @Benchmark
+    public ShapeRelation rectangleRectangle() {
+        return this.rectangle1.relation(this.rectangle2, false);
+    }
+
+    @Benchmark
+    public ShapeRelation rectangleCircle() {
+        return this.rectangle1.relation(this.circle1, false);
+    }
+
+    @Benchmark
+    public ShapeRelation circleRectangle() {
+        return this.circle1.relation(this.rectangle2, false);
+    }
+
+    @Benchmark
+    public ShapeRelation circleCircle() {
+        return this.circle1.relation(this.circle2, false);
+    }
+
+    @Benchmark
+    public ShapeRelation rectangleRectangleRough() {
+        return this.rectangle1.relation(this.rectangle2, true);
+    }
+
+    @Benchmark
+    public ShapeRelation staticRelation() {
+        return AbstractShape.relation(this.rectangle1, this.circle1, false);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.rpg_module.render;
+
+import com.xenoamess.cyan_potion.base.BenchmarkGameManager;
+import com.xenoamess.cyan_potion.base.DataCenter;
+import com.xenoamess.cyan_potion.base.memory.ResourceManager;
+import com.xenoamess.cyan_potion.base.render.TextureAtlasBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>TextureSlicingBenchmark class.</p>
+ * the cpu side of TextureUtils slicing texture sheets:
+ * reading the pixels and packing the frames of a walking texture sheet (8 characters, 12 frames each)
+ * into atlas pages, and composing the 48 autotiles of an A2 tileset kind from its quarters,
+ * each of them fetched from the ResourceManager, on a tileset made in memory.
+ * the gl upload is left out, as it needs a context.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextureSlicingBenchmark {
+    private static final int CHARACTER_NUM = 8;
+    private static final int FRAME_NUM = 12;
+    private static final int SINGLE_WIDTH = 48;
+    private static final int SINGLE_HEIGHT = 48;
+    /**
+     * an A2 sheet is 16 tiles wide, and 4 rows of 8 kinds, each kind 2 tiles wide and 3 tiles tall.
+     */
+    private static final int A2_SINGLE_SIZE = 48;
+    private static final int A2_WIDTH = A2_SINGLE_SIZE * 16;
+    private static final int A2_HEIGHT = A2_SINGLE_SIZE * 3 * 4;
+
+    private BufferedImage bufferedImage;
+    private int[] widths;
+    private int[] heights;
+
+    private File a2File;
+    private String a2FileString;
+    private int[] a2Pixels;
+    private int[][] a2Quarters;
+    private ResourceManager resourceManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final int width = SINGLE_WIDTH * FRAME_NUM;
+        final int height = SINGLE_HEIGHT * CHARACTER_NUM;
+        this.bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                this.bufferedImage.setRGB(j, i, 0xFF000000 | (i << 12) | (j << 2));
+            }
+        }
+        final int frameTotal = CHARACTER_NUM * FRAME_NUM;
+        this.widths = new int[frameTotal];
+        this.heights = new int[frameTotal];
+        for (int i = 0; i < frameTotal; i++) {
+            this.widths[i] = SINGLE_WIDTH;
+            this.heights[i] = SINGLE_HEIGHT;
+        }
+
+        this.a2File = File.createTempFile("texture_slicing_benchmark", ".png");
+        this.a2FileString = this.a2File.toURI().toString();
+        this.a2Pixels = new int[A2_WIDTH * A2_HEIGHT];
+        for (int i = 0; i < this.a2Pixels.length; i++) {
+            this.a2Pixels[i] = 0xFF000000 | i;
+        }
+        final int quarterSize = A2_SINGLE_SIZE / 2;
+        this.a2Quarters = new int[4][quarterSize * quarterSize];
+        for (int[] quarter : this.a2Quarters) {
+            System.arraycopy(this.a2Pixels, 0, quarter, 0, quarter.length);
+        }
+        this.resourceManager = new ResourceManager(new BenchmarkGameManager());
+        //TextureUtils only slices on the thread owning game state.
+        DataCenter.setGameThread(Thread.currentThread());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DataCenter.setGameThread(null);
+        //noinspection ResultOfMethodCallIgnored
+        this.a2File.delete();
+    }
+
+    @Benchmark
+    public int[] getRGB() {
+        final int width = this.bufferedImage.getWidth();
+        final int height = this.bufferedImage.getHeight();
+        return this.bufferedImage.getRGB(0, 0, width, height, null, 0, width);
+    }
+
+    @Benchmark
+    public List<int[]> pack() {
+        final int frameTotal = this.widths.length;
+        return TextureAtlasBuilder.pack(this.widths, this.heights, TextureAtlasBuilder.DEFAULT_MAX_PAGE_SIZE,
+                new int[frameTotal], new int[frameTotal], new int[frameTotal]);
+    }
+
+    /**
+     * one A2 kind: cutting it into 24 quarters, then composing and queueing its 48 autotiles.
+     *
+     * @return atlas builder holding the 48 autotiles
+     */
+    @Benchmark
+    public TextureAtlasBuilder composeA2Kind() {
+        final TextureAtlasBuilder textureAtlasBuilder = new TextureAtlasBuilder();
+        TextureUtils.loadTilesetTexturesA2Single(textureAtlasBuilder, this.resourceManager, this.a2FileString, 0,
+                A2_SINGLE_SIZE, A2_SINGLE_SIZE, A2_WIDTH, A2_HEIGHT, 0, 0, this.a2Pixels);
+        return textureAtlasBuilder;
+    }
+
+    /**
+     * one A2 autotile: fetching it from the ResourceManager, then composing it from 4 quarters.
+     *
+     * @return atlas builder holding the autotile
+     */
+    @Benchmark
+    public TextureAtlasBuilder composeA2Tile() {
+        final TextureAtlasBuilder textureAtlasBuilder = new TextureAtlasBuilder();
+        TextureUtils.loadTilesetTextureA2SingleSingle(textureAtlasBuilder, this.resourceManager, this.a2FileString,
+                0, 0, A2_SINGLE_SIZE / 2, A2_SINGLE_SIZE / 2,
+                this.a2Quarters[0], this.a2Quarters[1], this.a2Quarters[2], this.a2Quarters[3]);
+        return textureAtlasBuilder;
+    }
+}
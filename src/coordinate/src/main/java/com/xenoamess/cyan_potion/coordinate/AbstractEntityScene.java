@@ -24,21 +24,34 @@
 
 package com.xenoamess.cyan_potion.coordinate;
 
+import com.xenoamess.commons.main_thread_only.MainThreadOnly;
 import com.xenoamess.cyan_potion.base.GameWindow;
 import com.xenoamess.cyan_potion.base.game_window_components.AbstractScene;
 import com.xenoamess.cyan_potion.coordinate.entity.AbstractDynamicEntity;
+import com.xenoamess.cyan_potion.coordinate.entity.AbstractEntity;
 import com.xenoamess.cyan_potion.coordinate.entity.StaticEntity;
+import com.xenoamess.cyan_potion.coordinate.physic.MovementQuery;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.BroadPhase;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.SpatialHashGrid;
+import com.xenoamess.cyan_potion.coordinate.physic.contacts.ContactPairManager;
 import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
-import org.apache.commons.lang3.tuple.ImmutablePair;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <p>Abstract AbstractEntityScene class.</p>
@@ -54,32 +67,274 @@ public abstract class AbstractEntityScene extends AbstractScene {
      */
     public static final int BOX_SIZE = 128;
 
+    /**
+     * entities of the scene, sorted by layer.
+     * it follows staticEntitySetList and dynamicEntityList.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private final EntityRenderList entityRenderList = new EntityRenderList();
+
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @Getter
-    private final List<StaticEntity> staticEntitySetList = new ArrayList<>();
+    private final List<StaticEntity> staticEntitySetList = new EntityList<>(this.entityRenderList);
 
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @Getter
-    private final List<AbstractDynamicEntity> dynamicEntityList = new ArrayList<>();
+    private final List<AbstractDynamicEntity> dynamicEntityList = new EntityList<>(this.entityRenderList);
 
+    /**
+     * spatial index of registered shapes.
+     * a SpatialHashGrid of BOX_SIZE cells, unless another one is given to the constructor.
+     */
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @Getter
-    private final Map<ImmutablePair<Integer, Integer>, Set<AbstractShape>> boxToShapeMap = new ConcurrentHashMap<>();
+    private final BroadPhase broadPhase;
 
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @Getter
     private final Map<AbstractShape, Set<AbstractShape>> shapeCollisionSet = new ConcurrentHashMap<>();
 
+    /**
+     * movement queries of shapes in this scene.
+     * index 0 belongs to movementQueryOwner, and index i + 1 to the worker of index i in entityUpdateScheduler's pool.
+     * they are kept here rather than in a ThreadLocal, so that long living pool threads never keep this scene alive.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile MovementQuery[] movementQueries = new MovementQuery[1];
+
+    /**
+     * the thread out of entityUpdateScheduler's pool that uses movementQueries[0], normally the logic thread.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final AtomicReference<Thread> movementQueryOwner = new AtomicReference<>();
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private final EntityUpdateScheduler entityUpdateScheduler = new EntityUpdateScheduler(this);
+
+    /**
+     * contacts between registered shapes.
+     * its ContactEvents go to the GameManager's event list.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private final ContactPairManager contactPairManager = new ContactPairManager(this,
+            event -> this.getGameWindow().getGameManager().eventListAdd(event));
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private final Set<AbstractEntity> visibleEntityBuffer = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * an ArrayList that tells an EntityRenderList about every entity added or removed,
+     * whichever List method is used.
+     */
+    private static class EntityList<E extends AbstractEntity> extends AbstractList<E> implements RandomAccess {
+        private final ArrayList<E> list = new ArrayList<>();
+        private final EntityRenderList entityRenderList;
+
+        EntityList(EntityRenderList entityRenderList) {
+            this.entityRenderList = entityRenderList;
+        }
+
+        @Override
+        public E get(int index) {
+            return this.list.get(index);
+        }
+
+        @Override
+        public int size() {
+            return this.list.size();
+        }
+
+        @Override
+        public void add(int index, E element) {
+            this.list.add(index, element);
+            this.entityRenderList.add(element);
+        }
+
+        @Override
+        public E set(int index, E element) {
+            final E old = this.list.set(index, element);
+            this.entityRenderList.add(element);
+            this.entityRenderList.remove(old);
+            return old;
+        }
+
+        @Override
+        public E remove(int index) {
+            final E old = this.list.remove(index);
+            this.entityRenderList.remove(old);
+            return old;
+        }
+    }
+
     /**
      * <p>Constructor for AbstractEntityScene.</p>
      *
      * @param gameWindow gameWindow
      */
     public AbstractEntityScene(GameWindow gameWindow) {
+        this(gameWindow, new SpatialHashGrid(BOX_SIZE));
+    }
+
+    /**
+     * <p>Constructor for AbstractEntityScene.</p>
+     * scenes whose shapes do not fit a uniform grid can pick another broad phase here.
+     * the grid was the fastest in every measured workload though, even with huge walls and tiny bullets mixed,
+     * so see the broad_phases package doc before picking another one.
+     *
+     * @param gameWindow gameWindow
+     * @param broadPhase spatial index of registered shapes.
+     * @see BroadPhase
+     */
+    public AbstractEntityScene(GameWindow gameWindow, BroadPhase broadPhase) {
         super(gameWindow);
+        this.broadPhase = broadPhase;
+    }
+
+    /**
+     * <p>getMovementQuery.</p>
+     *
+     * @return movement query of the current thread.
+     * other threads than the owner and the workers of entityUpdateScheduler's pool get a new one each call.
+     */
+    public MovementQuery getMovementQuery() {
+        final Thread thread = Thread.currentThread();
+        final int index;
+        if (thread instanceof ForkJoinWorkerThread
+                && ((ForkJoinWorkerThread) thread).getPool() == this.getEntityUpdateScheduler().getPool()) {
+            index = ((ForkJoinWorkerThread) thread).getPoolIndex() + 1;
+        } else {
+            final Thread owner = this.movementQueryOwner.get();
+            if (owner != thread && (owner != null && owner.isAlive()
+                    || !this.movementQueryOwner.compareAndSet(owner, thread))) {
+                return new MovementQuery(this);
+            }
+            index = 0;
+        }
+        final MovementQuery[] nowMovementQueries = this.movementQueries;
+        if (index < nowMovementQueries.length && nowMovementQueries[index] != null) {
+            return nowMovementQueries[index];
+        }
+        return this.createMovementQuery(index);
+    }
+
+    private synchronized MovementQuery createMovementQuery(int index) {
+        MovementQuery[] nowMovementQueries = this.movementQueries;
+        if (index >= nowMovementQueries.length) {
+            nowMovementQueries = Arrays.copyOf(nowMovementQueries, Math.max(index + 1, nowMovementQueries.length * 2));
+        }
+        final MovementQuery movementQuery = new MovementQuery(this);
+        nowMovementQueries[index] = movementQuery;
+        this.movementQueries = nowMovementQueries;
+        return movementQuery;
+    }
+
+    /**
+     * <p>updateDynamicEntities.</p>
+     * update every entity in dynamicEntityList once, through entityUpdateScheduler.
+     * then every one of them remembers where it is, for interpolating.
+     *
+     * @see EntityUpdateScheduler
+     */
+    public void updateDynamicEntities() {
+        this.getEntityUpdateScheduler().update();
+        for (AbstractDynamicEntity dynamicEntity : this.getDynamicEntityList()) {
+            dynamicEntity.rememberTickPosition();
+        }
+    }
+
+    /**
+     * <p>updateContacts.</p>
+     * find contacts of shapes moved since last time, and send ContactEvents about them.
+     *
+     * @see ContactPairManager
+     */
+    public void updateContacts() {
+        this.getContactPairManager().update();
+    }
+
+    /**
+     * <p>collectEntitiesInArea.</p>
+     * find entities through the spatial index (broadPhase).
+     * it is rough: every entity whose registered shape shares a box with the area is collected,
+     * and entities without a registered shape are never collected.
+     *
+     * @param minX   left of the area
+     * @param minY   top of the area
+     * @param maxX   right of the area
+     * @param maxY   bottom of the area
+     * @param result collected entities are added into it.
+     */
+    public void collectEntitiesInArea(float minX, float minY, float maxX, float maxY,
+                                      Collection<AbstractEntity> result) {
+        this.getBroadPhase().forEachInArea(minX, minY, maxX, maxY, shape -> {
+            if (shape.getEntity() != null) {
+                result.add(shape.getEntity());
+            }
+            return true;
+        });
+    }
+
+    /**
+     * <p>drawVisibleEntities.</p>
+     * draw entities that can be seen through this scene's camera, lower layers first.
+     *
+     * @see #drawVisibleEntities(float, float, float, float)
+     */
+    @MainThreadOnly
+    public void drawVisibleEntities() {
+        final float halfWidth = this.getGameWindow().getLogicWindowWidth() / 2F / this.getScale();
+        final float halfHeight = this.getGameWindow().getLogicWindowHeight() / 2F / this.getScale();
+        this.drawVisibleEntities(
+                this.getCamera().getPosX() - halfWidth,
+                this.getCamera().getPosY() - halfHeight,
+                this.getCamera().getPosX() + halfWidth,
+                this.getCamera().getPosY() + halfHeight
+        );
+    }
+
+    /**
+     * <p>drawVisibleEntities.</p>
+     * draw entities whose area overlaps the given area, lower layers first.
+     * <p>
+     * Entities with a shape are found through the spatial index, so their shape must be registered.
+     * The index is searched {@link #BOX_SIZE} wider than the area, for pictures a bit larger than their shapes.
+     * Entities without a shape are checked one by one.
+     *
+     * @param minX left of the area
+     * @param minY top of the area
+     * @param maxX right of the area
+     * @param maxY bottom of the area
+     */
+    @MainThreadOnly
+    public void drawVisibleEntities(float minX, float minY, float maxX, float maxY) {
+        final Set<AbstractEntity> candidates = this.visibleEntityBuffer;
+        candidates.clear();
+        this.collectEntitiesInArea(minX - BOX_SIZE, minY - BOX_SIZE, maxX + BOX_SIZE, maxY + BOX_SIZE, candidates);
+        candidates.addAll(this.getEntityRenderList().getShapelessEntities());
+        try {
+            this.getEntityRenderList().forEachInRenderOrder(candidates, entity -> {
+                if (entity.getLeftPosX() <= maxX
+                        && entity.getRightPosX() >= minX
+                        && entity.getTopPosY() <= maxY
+                        && entity.getBottomPosY() >= minY) {
+                    entity.draw(this);
+                }
+            });
+        } finally {
+            candidates.clear();
+        }
     }
 }
@@ -0,0 +1,241 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate;
+
+import com.xenoamess.cyan_potion.coordinate.entity.AbstractEntity;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * <p>EntityRenderList class.</p>
+ * <p>
+ * Entities of a scene, kept sorted by layer (lower layers first) between frames.
+ * Inside a layer, entities keep the order they joined the layer in.
+ * <p>
+ * It is updated as entities join or leave the scene's entity lists, and as their layer or shape changes,
+ * so nothing is rebuilt per frame.
+ * Entities are told apart by identity, not by equals, as entities' equals compares their fields.
+ * Entities without shape are also remembered apart,
+ * as they are not in the scene's spatial index and must be culled one by one.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see AbstractEntityScene#drawVisibleEntities(float, float, float, float)
+ */
+@ToString
+public class EntityRenderList {
+    private static class Entry {
+        final AbstractEntity entity;
+        int layer;
+        long sequence;
+        /**
+         * num of times the entity is in the scene's lists.
+         */
+        int count;
+
+        Entry(AbstractEntity entity) {
+            this.entity = entity;
+        }
+    }
+
+    private static final Comparator<Entry> RENDER_ORDER =
+            Comparator.<Entry>comparingInt(entry -> entry.layer).thenComparingLong(entry -> entry.sequence);
+
+    @ToString.Exclude
+    private final Map<AbstractEntity, Entry> entries = new IdentityHashMap<>();
+
+    @ToString.Exclude
+    private final TreeMap<Integer, LinkedHashSet<Entry>> layerToEntries = new TreeMap<>();
+
+    @ToString.Exclude
+    private final Set<AbstractEntity> shapelessEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @ToString.Exclude
+    private final List<Entry> sortBuffer = new ArrayList<>();
+
+    private long nextSequence;
+
+    /**
+     * <p>add.</p>
+     *
+     * @param entity entity that joined the scene.
+     */
+    public void add(AbstractEntity entity) {
+        Entry entry = this.entries.get(entity);
+        if (entry == null) {
+            entry = new Entry(entity);
+            this.entries.put(entity, entry);
+            this.putIntoLayer(entry, entity.getLayer());
+            if (entity.getShape() == null) {
+                this.shapelessEntities.add(entity);
+            }
+        }
+        entry.count++;
+    }
+
+    /**
+     * <p>remove.</p>
+     *
+     * @param entity entity that left the scene.
+     */
+    public void remove(AbstractEntity entity) {
+        final Entry entry = this.entries.get(entity);
+        if (entry == null || --entry.count > 0) {
+            return;
+        }
+        this.entries.remove(entity);
+        this.removeFromLayer(entry);
+        this.shapelessEntities.remove(entity);
+    }
+
+    /**
+     * <p>changeLayer.</p>
+     * move the entity to its current layer, behind entities already there.
+     * does nothing if the entity is not in this list.
+     *
+     * @param entity entity whose layer changed.
+     */
+    public void changeLayer(AbstractEntity entity) {
+        final Entry entry = this.entries.get(entity);
+        if (entry == null || entry.layer == entity.getLayer()) {
+            return;
+        }
+        this.removeFromLayer(entry);
+        this.putIntoLayer(entry, entity.getLayer());
+    }
+
+    /**
+     * <p>changeShape.</p>
+     * does nothing if the entity is not in this list.
+     *
+     * @param entity entity whose shape changed.
+     */
+    public void changeShape(AbstractEntity entity) {
+        if (!this.entries.containsKey(entity)) {
+            return;
+        }
+        if (entity.getShape() == null) {
+            this.shapelessEntities.add(entity);
+        } else {
+            this.shapelessEntities.remove(entity);
+        }
+    }
+
+    private void putIntoLayer(Entry entry, int layer) {
+        entry.layer = layer;
+        entry.sequence = this.nextSequence++;
+        this.layerToEntries.computeIfAbsent(layer, k -> new LinkedHashSet<>()).add(entry);
+    }
+
+    private void removeFromLayer(Entry entry) {
+        final Set<Entry> layerEntries = this.layerToEntries.get(entry.layer);
+        layerEntries.remove(entry);
+        if (layerEntries.isEmpty()) {
+            this.layerToEntries.remove(entry.layer);
+        }
+    }
+
+    /**
+     * <p>contains.</p>
+     *
+     * @param entity entity
+     * @return if the entity is in this list.
+     */
+    public boolean contains(AbstractEntity entity) {
+        return this.entries.containsKey(entity);
+    }
+
+    /**
+     * <p>size.</p>
+     *
+     * @return num of entities in this list.
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * <p>getShapelessEntities.</p>
+     *
+     * @return entities in this list that have no shape. do not modify it.
+     */
+    public Set<AbstractEntity> getShapelessEntities() {
+        return Collections.unmodifiableSet(this.shapelessEntities);
+    }
+
+    /**
+     * <p>forEach.</p>
+     *
+     * @param action action invoked on every entity, in render order.
+     */
+    public void forEach(Consumer<AbstractEntity> action) {
+        for (LinkedHashSet<Entry> layerEntries : this.layerToEntries.values()) {
+            for (Entry entry : layerEntries) {
+                action.accept(entry.entity);
+            }
+        }
+    }
+
+    /**
+     * <p>forEachInRenderOrder.</p>
+     * entities not in this list are ignored, so are duplicates.
+     *
+     * @param entities some entities, in any order.
+     * @param action   action invoked on the entities in this list, in render order.
+     */
+    public void forEachInRenderOrder(Collection<AbstractEntity> entities, Consumer<AbstractEntity> action) {
+        final List<Entry> buffer = this.sortBuffer;
+        buffer.clear();
+        for (AbstractEntity entity : entities) {
+            final Entry entry = this.entries.get(entity);
+            if (entry != null) {
+                buffer.add(entry);
+            }
+        }
+        buffer.sort(RENDER_ORDER);
+        Entry last = null;
+        try {
+            for (Entry entry : buffer) {
+                if (entry != last) {
+                    action.accept(entry.entity);
+                    last = entry;
+                }
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+}
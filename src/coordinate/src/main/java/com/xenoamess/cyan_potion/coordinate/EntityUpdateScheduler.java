@@ -0,0 +1,356 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate;
+
+import com.xenoamess.cyan_potion.coordinate.entity.AbstractDynamicEntity;
+import com.xenoamess.cyan_potion.coordinate.physic.MovementQuery;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.BroadPhase;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>EntityUpdateScheduler class.</p>
+ * updates the dynamic entities of a scene in two phases, on a fork-join pool.
+ * <ol>
+ * <li>plan: every entity's planUpdate runs in parallel. nothing moves.</li>
+ * <li>apply: entities whose swept areas (area before and after the planned movement) overlap,
+ * or who share a shape in their collision sets, form a group.
+ * groups run in parallel, and inside a group entities run applyUpdate one by one, in dynamicEntityList order.
+ * the spatial index is updated afterwards, in dynamicEntityList order,
+ * and moved shapes are marked in the scene's ContactPairManager.</li>
+ * <li>entities that did not plan then run update() one by one, in dynamicEntityList order.</li>
+ * </ol>
+ * an entity can only be blocked by shapes in its own swept area, and every moving shape there is in its group,
+ * so the result does not depend on how groups are spread over threads:
+ * it is the same, bit for bit, run to run and whatever the pool's parallelism is.
+ * <p>
+ * not thread safe; it is meant to be driven by the logic thread.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see AbstractDynamicEntity#planUpdate()
+ */
+@ToString
+public class EntityUpdateScheduler {
+    /**
+     * entities planned (or groups applied) by one fork-join task at least.
+     */
+    public static final int MIN_TASK_SIZE = 16;
+
+    @ToString.Exclude
+    private final AbstractEntityScene scene;
+
+    @ToString.Exclude
+    @Getter
+    private final ForkJoinPool pool;
+
+    /*
+     * per entity buffers, indexed by position in dynamicEntityList, grown as needed.
+     */
+    private boolean[] planned = new boolean[0];
+    private float[] sweptAreas = new float[0];
+    private float[] startPositions = new float[0];
+    private int[] parents = new int[0];
+    private long[] sweepOrder = new long[0];
+    private int[] activeEntities = new int[0];
+    private int[] groupIds = new int[0];
+    private int[] groupStarts = new int[0];
+    private int[] groupMembers = new int[0];
+
+    @ToString.Exclude
+    private final Map<AbstractShape, Integer> collisionSetOwners = new IdentityHashMap<>();
+
+    /**
+     * <p>Constructor for EntityUpdateScheduler.</p>
+     * uses the common fork-join pool.
+     *
+     * @param scene scene
+     */
+    public EntityUpdateScheduler(AbstractEntityScene scene) {
+        this(scene, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * <p>Constructor for EntityUpdateScheduler.</p>
+     *
+     * @param scene scene
+     * @param pool  pool that runs the phases.
+     */
+    public EntityUpdateScheduler(AbstractEntityScene scene, ForkJoinPool pool) {
+        this.scene = scene;
+        this.pool = pool;
+    }
+
+    /**
+     * <p>update.</p>
+     * update every dynamic entity of the scene once.
+     */
+    public void update() {
+        final List<AbstractDynamicEntity> entities = this.scene.getDynamicEntityList();
+        final int entityNum = entities.size();
+        if (entityNum == 0) {
+            return;
+        }
+        this.ensureCapacity(entityNum);
+
+        this.pool.invoke(new RangeAction(0, entityNum, MIN_TASK_SIZE,
+                i -> this.planned[i] = entities.get(i).planUpdate()));
+
+        final int groupNum = this.group(entities);
+        this.pool.invoke(new RangeAction(0, groupNum, 1, this::applyGroup));
+        this.updateBroadPhase(entities);
+
+        for (int i = 0; i < entityNum; i++) {
+            if (!this.planned[i]) {
+                entities.get(i).update();
+            }
+        }
+    }
+
+    private void ensureCapacity(int entityNum) {
+        if (this.planned.length >= entityNum) {
+            return;
+        }
+        final int capacity = Math.max(entityNum, this.planned.length * 2);
+        this.planned = new boolean[capacity];
+        this.sweptAreas = new float[capacity * 4];
+        this.startPositions = new float[capacity * 2];
+        this.parents = new int[capacity];
+        this.sweepOrder = new long[capacity];
+        this.activeEntities = new int[capacity];
+        this.groupIds = new int[capacity];
+        this.groupStarts = new int[capacity + 1];
+        this.groupMembers = new int[capacity];
+    }
+
+    /**
+     * split planned entities into groups.
+     *
+     * @return num of groups; members of group g are groupMembers[groupStarts[g], groupStarts[g + 1]).
+     */
+    private int group(List<AbstractDynamicEntity> entities) {
+        final int entityNum = entities.size();
+        int sweepNum = 0;
+        for (int i = 0; i < entityNum; i++) {
+            this.parents[i] = i;
+            final AbstractShape shape = entities.get(i).getShape();
+            if (!this.planned[i] || shape == null) {
+                continue;
+            }
+            final AbstractDynamicEntity entity = entities.get(i);
+            final float movementX = entity.getPlannedMovementX();
+            final float movementY = entity.getPlannedMovementY();
+            this.sweptAreas[i * 4] = shape.minX() + Math.min(movementX, 0);
+            this.sweptAreas[i * 4 + 1] = shape.minY() + Math.min(movementY, 0);
+            this.sweptAreas[i * 4 + 2] = shape.maxX() + Math.max(movementX, 0);
+            this.sweptAreas[i * 4 + 3] = shape.maxY() + Math.max(movementY, 0);
+            this.startPositions[i * 2] = shape.getCenterPosX();
+            this.startPositions[i * 2 + 1] = shape.getCenterPosY();
+            this.sweepOrder[sweepNum++] = ((long) sortableBits(this.sweptAreas[i * 4]) << 32) | i;
+        }
+
+        //sweep along x; entities whose swept areas overlap join.
+        Arrays.sort(this.sweepOrder, 0, sweepNum);
+        int activeNum = 0;
+        for (int k = 0; k < sweepNum; k++) {
+            final int i = (int) this.sweepOrder[k];
+            final float minX = this.sweptAreas[i * 4];
+            int kept = 0;
+            for (int a = 0; a < activeNum; a++) {
+                final int j = this.activeEntities[a];
+                if (this.sweptAreas[j * 4 + 2] < minX) {
+                    continue;
+                }
+                this.activeEntities[kept++] = j;
+                if (this.sweptAreas[j * 4 + 1] <= this.sweptAreas[i * 4 + 3]
+                        && this.sweptAreas[i * 4 + 1] <= this.sweptAreas[j * 4 + 3]) {
+                    this.union(i, j);
+                }
+            }
+            activeNum = kept;
+            this.activeEntities[activeNum++] = i;
+        }
+
+        //entities that may leave the same shape's collision set join.
+        final Map<AbstractShape, Set<AbstractShape>> shapeCollisionSet = this.scene.getShapeCollisionSet();
+        if (!shapeCollisionSet.isEmpty()) {
+            for (int i = 0; i < entityNum; i++) {
+                final AbstractShape shape = entities.get(i).getShape();
+                if (!this.planned[i] || shape == null) {
+                    continue;
+                }
+                final Set<AbstractShape> collisionSet = shapeCollisionSet.get(shape);
+                if (collisionSet == null) {
+                    continue;
+                }
+                for (AbstractShape other : collisionSet) {
+                    final Integer owner = this.collisionSetOwners.putIfAbsent(other, i);
+                    if (owner != null) {
+                        this.union(i, owner);
+                    }
+                }
+            }
+            this.collisionSetOwners.clear();
+        }
+
+        //number groups by their first member, and list members in order.
+        int groupNum = 0;
+        for (int i = 0; i < entityNum; i++) {
+            if (!this.planned[i]) {
+                continue;
+            }
+            final int root = this.find(i);
+            this.groupIds[i] = root == i ? groupNum++ : this.groupIds[root];
+        }
+        Arrays.fill(this.groupStarts, 0, groupNum + 1, 0);
+        for (int i = 0; i < entityNum; i++) {
+            if (this.planned[i]) {
+                this.groupStarts[this.groupIds[i] + 1]++;
+            }
+        }
+        for (int g = 0; g < groupNum; g++) {
+            this.groupStarts[g + 1] += this.groupStarts[g];
+        }
+        for (int i = 0; i < entityNum; i++) {
+            if (this.planned[i]) {
+                this.groupMembers[this.groupStarts[this.groupIds[i]]++] = i;
+            }
+        }
+        for (int g = groupNum; g > 0; g--) {
+            this.groupStarts[g] = this.groupStarts[g - 1];
+        }
+        this.groupStarts[0] = 0;
+        return groupNum;
+    }
+
+    private void applyGroup(int group) {
+        final List<AbstractDynamicEntity> entities = this.scene.getDynamicEntityList();
+        final MovementQuery movementQuery = this.scene.getMovementQuery();
+        final int start = this.groupStarts[group];
+        final int end = this.groupStarts[group + 1];
+        movementQuery.beginDeferredBroadPhaseUpdate();
+        try {
+            for (int k = start; k < end; k++) {
+                final AbstractShape shape = entities.get(this.groupMembers[k]).getShape();
+                if (shape != null) {
+                    movementQuery.addDeferredShape(shape);
+                }
+            }
+            for (int k = start; k < end; k++) {
+                entities.get(this.groupMembers[k]).applyUpdate();
+            }
+        } finally {
+            movementQuery.endDeferredBroadPhaseUpdate();
+        }
+    }
+
+    private void updateBroadPhase(List<AbstractDynamicEntity> entities) {
+        final BroadPhase broadPhase = this.scene.getBroadPhase();
+        for (int i = 0, entityNum = entities.size(); i < entityNum; i++) {
+            final AbstractShape shape = entities.get(i).getShape();
+            if (!this.planned[i] || shape == null) {
+                continue;
+            }
+            final boolean moved = shape.getCenterPosX() != this.startPositions[i * 2]
+                    || shape.getCenterPosY() != this.startPositions[i * 2 + 1];
+            if (shape.getBroadPhaseHandle() != BroadPhase.INVALID_HANDLE) {
+                broadPhase.update(shape.getBroadPhaseHandle());
+            } else if (moved) {
+                shape.setBroadPhaseHandle(broadPhase.insert(shape));
+            }
+            if (moved) {
+                this.scene.getContactPairManager().markMoved(shape);
+            }
+        }
+    }
+
+    private int find(int i) {
+        while (this.parents[i] != i) {
+            this.parents[i] = this.parents[this.parents[i]];
+            i = this.parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * the smaller index becomes the root, so a group's root is its first member.
+     */
+    private void union(int i, int j) {
+        final int rootI = this.find(i);
+        final int rootJ = this.find(j);
+        if (rootI < rootJ) {
+            this.parents[rootJ] = rootI;
+        } else if (rootJ < rootI) {
+            this.parents[rootI] = rootJ;
+        }
+    }
+
+    /**
+     * bits of a float that sort as signed ints in the same order as the floats.
+     */
+    private static int sortableBits(float value) {
+        final int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7FFFFFFF);
+    }
+
+    private static class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int end;
+        private final int minSize;
+        private final transient IntConsumer action;
+
+        RangeAction(int start, int end, int minSize, IntConsumer action) {
+            this.start = start;
+            this.end = end;
+            this.minSize = minSize;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.end - this.start <= this.minSize) {
+                for (int i = this.start; i < this.end; i++) {
+                    this.action.accept(i);
+                }
+                return;
+            }
+            final int middle = (this.start + this.end) >>> 1;
+            invokeAll(new RangeAction(this.start, middle, this.minSize, this.action),
+                    new RangeAction(middle, this.end, this.minSize, this.action));
+        }
+    }
+}
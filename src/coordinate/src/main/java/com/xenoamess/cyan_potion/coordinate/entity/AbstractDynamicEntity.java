@@ -28,6 +28,7 @@ import com.xenoamess.cyan_potion.base.render.Bindable;
 import com.xenoamess.cyan_potion.coordinate.AbstractEntityScene;
 import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.ToString;
 
 /**
@@ -39,6 +40,19 @@ import lombok.ToString;
 @EqualsAndHashCode(callSuper = true)
 @ToString
 public abstract class AbstractDynamicEntity extends AbstractEntity {
+    /**
+     * movement planned by the last planUpdate.
+     */
+    @EqualsAndHashCode.Exclude
+    @Getter
+    private float plannedMovementX;
+
+    /**
+     * movement planned by the last planUpdate.
+     */
+    @EqualsAndHashCode.Exclude
+    @Getter
+    private float plannedMovementY;
 
     /**
      * <p>Constructor for AbstractDynamicEntity.</p>
@@ -70,9 +84,48 @@ public abstract class AbstractDynamicEntity extends AbstractEntity {
 
     /**
      * <p>update.</p>
+     * the whole update of one tick, when the entity is updated alone.
      */
     public abstract void update();
 
+    /**
+     * <p>planUpdate.</p>
+     * first phase of a scene tick (see EntityUpdateScheduler).
+     * it runs at the same time as other entities' planUpdate, on any thread,
+     * so it may read the scene but must only write this entity's own fields, and must not move.
+     * <p>
+     * an entity that plans sets its planned movement by setPlannedMovement,
+     * and then applyUpdate must not move it further than that.
+     * the default plans nothing, and such an entity is updated alone by update().
+     *
+     * @return true if planned.
+     * @see com.xenoamess.cyan_potion.coordinate.EntityUpdateScheduler
+     */
+    public boolean planUpdate() {
+        return false;
+    }
+
+    /**
+     * <p>applyUpdate.</p>
+     * second phase of a scene tick, after planUpdate returned true.
+     * it runs at the same time as applyUpdate of entities whose planned movements are far from this one's,
+     * so it must only touch this entity and the shapes it moves against (through tryMove).
+     */
+    public void applyUpdate() {
+        this.update();
+    }
+
+    /**
+     * <p>setPlannedMovement.</p>
+     *
+     * @param plannedMovementX a float.
+     * @param plannedMovementY a float.
+     */
+    public void setPlannedMovement(float plannedMovementX, float plannedMovementY) {
+        this.plannedMovementX = plannedMovementX;
+        this.plannedMovementY = plannedMovementY;
+    }
+
     /**
      * <p>forceMove.</p>
      *
@@ -63,8 +63,10 @@ public abstract class AbstractEntity implements AbstractMutableArea {
     @Setter
     private float leftTopPosY;
 
+    /**
+     * entities of higher layers are drawn over entities of lower layers.
+     */
     @Getter
-    @Setter
     private int layer;
 
     @Getter
@@ -76,13 +78,34 @@ public abstract class AbstractEntity implements AbstractMutableArea {
     private float height;
 
     @Getter
-    @Setter
     private AbstractShape shape;
 
     @Getter
     @Setter
     private AbstractPictureInterface picture = new Picture();
 
+    /**
+     * leftTopPos at the end of the last tick, and of the tick before it.
+     * NaN if never remembered, which is the case for entities that never move.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private float lastTickPosX = Float.NaN;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private float lastTickPosY = Float.NaN;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private float previousTickPosX = Float.NaN;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    private float previousTickPosY = Float.NaN;
+
 
     /**
      * <p>Constructor for AbstractEntity.</p>
@@ -118,6 +141,32 @@ public abstract class AbstractEntity implements AbstractMutableArea {
     }
 
 
+    /**
+     * <p>Setter for the field <code>layer</code>.</p>
+     * the scene's render list is told about the change.
+     *
+     * @param layer layer
+     */
+    public void setLayer(int layer) {
+        this.layer = layer;
+        if (this.getScene() != null) {
+            this.getScene().getEntityRenderList().changeLayer(this);
+        }
+    }
+
+    /**
+     * <p>Setter for the field <code>shape</code>.</p>
+     * the scene's render list is told about the change.
+     *
+     * @param shape shape
+     */
+    public void setShape(AbstractShape shape) {
+        this.shape = shape;
+        if (this.getScene() != null) {
+            this.getScene().getEntityRenderList().changeShape(this);
+        }
+    }
+
     /**
      * <p>Getter for the field <code>picture</code>.</p>
      *
@@ -130,13 +179,48 @@ public abstract class AbstractEntity implements AbstractMutableArea {
         }
     }
 
+    /**
+     * <p>rememberTickPosition.</p>
+     * remember where this entity is, called at the end of every tick in which it may move.
+     */
+    public void rememberTickPosition() {
+        this.previousTickPosX = Float.isNaN(this.lastTickPosX) ? this.getLeftTopPosX() : this.lastTickPosX;
+        this.previousTickPosY = Float.isNaN(this.lastTickPosY) ? this.getLeftTopPosY() : this.lastTickPosY;
+        this.lastTickPosX = this.getLeftTopPosX();
+        this.lastTickPosY = this.getLeftTopPosY();
+    }
+
+    /**
+     * <p>getMotionX.</p>
+     *
+     * @return how far this entity moved since the end of the tick before the last one.
+     */
+    public float getMotionX() {
+        return Float.isNaN(this.getPreviousTickPosX()) ? 0 : this.getLeftTopPosX() - this.getPreviousTickPosX();
+    }
+
+    /**
+     * <p>getMotionY.</p>
+     *
+     * @return how far this entity moved since the end of the tick before the last one.
+     */
+    public float getMotionY() {
+        return Float.isNaN(this.getPreviousTickPosY()) ? 0 : this.getLeftTopPosY() - this.getPreviousTickPosY();
+    }
+
     /**
      * <p>draw.</p>
+     * the picture is drawn with this entity's motion, so it can be interpolated between ticks.
      *
      * @param scene scene
      */
     public void draw(AbstractEntityScene scene) {
-        this.getPicture().draw(scene);
+        scene.setDrawMotion(this.getMotionX(), this.getMotionY());
+        try {
+            this.getPicture().draw(scene);
+        } finally {
+            scene.setDrawMotion(0, 0);
+        }
     }
 
     /**
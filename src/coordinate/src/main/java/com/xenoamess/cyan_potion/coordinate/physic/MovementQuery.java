@@ -0,0 +1,304 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic;
+
+import com.xenoamess.cyan_potion.coordinate.AbstractEntityScene;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.BroadPhase;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation.RELATION_COLLIDE;
+
+/**
+ * <p>MovementQuery class.</p>
+ * tests a shape moved by some movement against its scene's spatial index, without moving the shape.
+ * <p>
+ * the moved shape is a probe: a copy of the shape kept per shape class and reset for every query,
+ * and the results are kept in lists reused by every query,
+ * so once warmed up a query allocates nothing.
+ * <p>
+ * like collision bookkeeping has always been, a shape may keep overlapping shapes
+ * it already overlaps (those in the scene's shapeCollisionSet), but may not start overlapping others.
+ * <p>
+ * not thread safe; each thread gets its own from AbstractEntityScene.getMovementQuery().
+ * results are valid until the next query.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class MovementQuery {
+    /**
+     * times allowedFraction halves the searched range.
+     */
+    public static final int ALLOWED_FRACTION_STEPS = 8;
+
+    @ToString.Exclude
+    private final AbstractEntityScene scene;
+
+    /**
+     * probes by shape class id.
+     */
+    @ToString.Exclude
+    private AbstractShape[] probes = new AbstractShape[4];
+
+    /**
+     * shapes the last query would start overlapping.
+     */
+    @ToString.Exclude
+    @Getter
+    private final List<AbstractShape> blockingShapes = new ArrayList<>();
+
+    /**
+     * shapes the last query overlaps and already overlapped.
+     */
+    @ToString.Exclude
+    @Getter
+    private final List<AbstractShape> keptCollidingShapes = new ArrayList<>();
+
+    /**
+     * shapes whose broad phase entries may be out of date, checked one by one by every query.
+     * only used while deferring broad phase updates.
+     */
+    @ToString.Exclude
+    private final List<AbstractShape> deferredShapes = new ArrayList<>();
+
+    @Getter
+    private boolean deferringBroadPhaseUpdate;
+
+    @ToString.Exclude
+    private final Predicate<AbstractShape> candidateVisitor = this::visitCandidate;
+
+    @ToString.Exclude
+    private AbstractShape movingShape;
+    @ToString.Exclude
+    private AbstractShape probe;
+    @ToString.Exclude
+    private Set<AbstractShape> oldCollisionSet;
+    private boolean stopAtFirstBlockingShape;
+
+    /**
+     * <p>Constructor for MovementQuery.</p>
+     *
+     * @param scene scene
+     */
+    public MovementQuery(AbstractEntityScene scene) {
+        this.scene = scene;
+    }
+
+    /**
+     * <p>test.</p>
+     * find every shape that blocks the movement, into blockingShapes.
+     * nothing is changed.
+     *
+     * @param shape     shape
+     * @param movementX movementX
+     * @param movementY movementY
+     * @return true if nothing blocks.
+     */
+    public boolean test(AbstractShape shape, float movementX, float movementY) {
+        return this.query(shape, movementX, movementY, false);
+    }
+
+    /**
+     * <p>canMove.</p>
+     * if nothing blocks the movement, update the collision bookkeeping and the spatial index
+     * as if the shape were already moved (the caller is expected to move it then).
+     * stops at the first blocking shape.
+     * while deferring broad phase updates, the spatial index is left alone.
+     *
+     * @param shape     shape
+     * @param movementX movementX
+     * @param movementY movementY
+     * @return true: can move. false: cannot move.
+     */
+    public boolean canMove(AbstractShape shape, float movementX, float movementY) {
+        if (!this.query(shape, movementX, movementY, true)) {
+            return false;
+        }
+        this.updateCollisionSet(shape);
+        if (this.deferringBroadPhaseUpdate) {
+            return true;
+        }
+        final BroadPhase broadPhase = this.scene.getBroadPhase();
+        if (shape.getBroadPhaseHandle() == BroadPhase.INVALID_HANDLE) {
+            shape.setBroadPhaseHandle(broadPhase.insert(shape));
+        }
+        broadPhase.update(shape.getBroadPhaseHandle(),
+                this.probe.minX(), this.probe.minY(), this.probe.maxX(), this.probe.maxY());
+        this.scene.getContactPairManager().markMoved(shape);
+        return true;
+    }
+
+    /**
+     * <p>allowedFraction.</p>
+     * how much of the movement can be done.
+     * found by halving, {@link #ALLOWED_FRACTION_STEPS} times, so it is a bit less than the real limit.
+     * nothing is changed.
+     *
+     * @param shape     shape
+     * @param movementX movementX
+     * @param movementY movementY
+     * @return t in [0, 1], so that moving (movementX * t, movementY * t) is not blocked; 0 if no t found.
+     */
+    public float allowedFraction(AbstractShape shape, float movementX, float movementY) {
+        if (this.query(shape, movementX, movementY, true)) {
+            return 1;
+        }
+        float allowed = 0;
+        float blocked = 1;
+        for (int i = 0; i < ALLOWED_FRACTION_STEPS; i++) {
+            final float middle = (allowed + blocked) / 2;
+            if (this.query(shape, movementX * middle, movementY * middle, true)) {
+                allowed = middle;
+            } else {
+                blocked = middle;
+            }
+        }
+        return allowed;
+    }
+
+    private boolean query(AbstractShape shape, float movementX, float movementY, boolean stopAtFirstBlockingShape) {
+        this.blockingShapes.clear();
+        this.keptCollidingShapes.clear();
+        this.movingShape = shape;
+        this.probe = this.probeOf(shape);
+        this.probe.setToMoved(shape, movementX, movementY);
+        this.oldCollisionSet = this.scene.getShapeCollisionSet().get(shape);
+        this.stopAtFirstBlockingShape = stopAtFirstBlockingShape;
+        try {
+            boolean visitedAll = this.scene.getBroadPhase().forEachInArea(
+                    this.probe.minX(), this.probe.minY(), this.probe.maxX(), this.probe.maxY(),
+                    this.candidateVisitor
+            );
+            for (int i = 0, size = this.deferredShapes.size(); visitedAll && i < size; i++) {
+                visitedAll = this.visitCandidate(this.deferredShapes.get(i));
+            }
+        } finally {
+            this.movingShape = null;
+            this.oldCollisionSet = null;
+        }
+        return this.blockingShapes.isEmpty();
+    }
+
+    /**
+     * <p>beginDeferredBroadPhaseUpdate.</p>
+     * from now on canMove does not touch the spatial index,
+     * so that queries of several threads can share it.
+     * shapes that may move before the index is updated must be added by addDeferredShape,
+     * and the caller updates the index of moved shapes after endDeferredBroadPhaseUpdate.
+     *
+     * @see com.xenoamess.cyan_potion.coordinate.EntityUpdateScheduler
+     */
+    public void beginDeferredBroadPhaseUpdate() {
+        this.deferringBroadPhaseUpdate = true;
+        this.deferredShapes.clear();
+    }
+
+    /**
+     * <p>addDeferredShape.</p>
+     *
+     * @param shape shape that may move while deferring, so its spatial index entry cannot be trusted.
+     */
+    public void addDeferredShape(AbstractShape shape) {
+        this.deferredShapes.add(shape);
+    }
+
+    /**
+     * <p>endDeferredBroadPhaseUpdate.</p>
+     */
+    public void endDeferredBroadPhaseUpdate() {
+        this.deferringBroadPhaseUpdate = false;
+        this.deferredShapes.clear();
+    }
+
+    private boolean visitCandidate(AbstractShape candidate) {
+        if (candidate == this.movingShape || this.probe.relation(candidate, true) != RELATION_COLLIDE) {
+            return true;
+        }
+        //a deferred shape can be visited twice: once from the spatial index, once from deferredShapes.
+        if (this.oldCollisionSet != null && this.oldCollisionSet.contains(candidate)) {
+            if (!containsSame(this.keptCollidingShapes, candidate)) {
+                this.keptCollidingShapes.add(candidate);
+            }
+            return true;
+        }
+        if (!containsSame(this.blockingShapes, candidate)) {
+            this.blockingShapes.add(candidate);
+        }
+        return !this.stopAtFirstBlockingShape;
+    }
+
+    /**
+     * shapes no more overlapped leave the set, in place.
+     */
+    private void updateCollisionSet(AbstractShape shape) {
+        final Set<AbstractShape> collisionSet = this.scene.getShapeCollisionSet().get(shape);
+        if (collisionSet == null || collisionSet.isEmpty()) {
+            return;
+        }
+        final Iterator<AbstractShape> iterator = collisionSet.iterator();
+        while (iterator.hasNext()) {
+            final AbstractShape other = iterator.next();
+            if (!containsSame(this.keptCollidingShapes, other)) {
+                iterator.remove();
+                final Set<AbstractShape> otherCollisionSet = this.scene.getShapeCollisionSet().get(other);
+                if (otherCollisionSet != null) {
+                    otherCollisionSet.remove(shape);
+                }
+            }
+        }
+    }
+
+    private static boolean containsSame(List<AbstractShape> list, AbstractShape shape) {
+        for (int i = 0, size = list.size(); i < size; i++) {
+            if (list.get(i) == shape) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AbstractShape probeOf(AbstractShape shape) {
+        final int shapeClassId = shape.getShapeClassId();
+        if (shapeClassId >= this.probes.length) {
+            this.probes = Arrays.copyOf(this.probes, Math.max(this.probes.length * 2, shapeClassId + 1));
+        }
+        AbstractShape res = this.probes[shapeClassId];
+        if (res == null) {
+            res = shape.copy();
+            this.probes[shapeClassId] = res;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.broad_phases;
+
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+
+import java.util.function.Predicate;
+
+/**
+ * <p>BroadPhase interface.</p>
+ * spatial index of a scene's shapes, used to find shapes that might collide
+ * before asking AbstractShape.relation for the exact answer.
+ * <p>
+ * see the package doc for measured numbers and how to choose between
+ * {@link SpatialHashGrid}, {@link DynamicAabbTree} and {@link SweepAndPrune}.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see com.xenoamess.cyan_potion.coordinate.AbstractEntityScene#getBroadPhase()
+ */
+public interface BroadPhase {
+    /**
+     * handle of a shape not in any broad phase.
+     */
+    int INVALID_HANDLE = -1;
+
+    /**
+     * <p>insert.</p>
+     *
+     * @param shape shape
+     * @return handle of the shape, used to update or remove it.
+     */
+    int insert(AbstractShape shape);
+
+    /**
+     * <p>update.</p>
+     * move a shape to its current bounding box.
+     *
+     * @param handle handle
+     */
+    default void update(int handle) {
+        final AbstractShape shape = this.getShape(handle);
+        this.update(handle, shape.minX(), shape.minY(), shape.maxX(), shape.maxY());
+    }
+
+    /**
+     * <p>update.</p>
+     * move a shape to the given bounding box.
+     *
+     * @param handle handle
+     * @param minX   left of the box
+     * @param minY   top of the box
+     * @param maxX   right of the box
+     * @param maxY   bottom of the box
+     */
+    void update(int handle, float minX, float minY, float maxX, float maxY);
+
+    /**
+     * <p>remove.</p>
+     *
+     * @param handle handle
+     */
+    void remove(int handle);
+
+    /**
+     * <p>getShape.</p>
+     *
+     * @param handle handle
+     * @return shape of the handle.
+     */
+    AbstractShape getShape(int handle);
+
+    /**
+     * <p>getShapeOrNull.</p>
+     * like getShape, but for handles that might have been removed already.
+     *
+     * @param handle handle
+     * @return shape of the handle, or null if the handle is not in use.
+     */
+    AbstractShape getShapeOrNull(int handle);
+
+    /**
+     * <p>getSize.</p>
+     *
+     * @return num of shapes in it.
+     */
+    int getSize();
+
+    /**
+     * <p>forEachInArea.</p>
+     * visit, once each, every shape whose bounding box touches the area.
+     * it is rough: some shapes near the area might be visited too.
+     * <p>
+     * must not allocate, and may run from several threads at once while nothing changes the broad phase.
+     *
+     * @param minX    left of the area
+     * @param minY    top of the area
+     * @param maxX    right of the area
+     * @param maxY    bottom of the area
+     * @param visitor return false to stop visiting.
+     * @return false if stopped by visitor.
+     */
+    boolean forEachInArea(float minX, float minY, float maxX, float maxY, Predicate<AbstractShape> visitor);
+}
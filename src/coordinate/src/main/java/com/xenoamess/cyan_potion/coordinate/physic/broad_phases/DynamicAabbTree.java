@@ -0,0 +1,447 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.broad_phases;
+
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * <p>DynamicAabbTree class.</p>
+ * a bounding volume tree, in the way Box2D's b2DynamicTree does it.
+ * <p>
+ * every shape is a leaf holding a fat bounding box (its bounding box grown by fatMargin on each side),
+ * so a shape moving a little inside its fat box costs nothing.
+ * leaves are inserted next to the sibling that grows the tree's perimeter least,
+ * and the tree is kept balanced by rotations.
+ * <p>
+ * fits shapes of very different sizes, as a shape is one leaf whatever its size.
+ * <p>
+ * nodes live in parallel arrays and a handle is the index of a leaf node.
+ * not thread safe.
+ * concurrent queries are fine as long as nothing is changing the tree at the same time.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class DynamicAabbTree implements BroadPhase {
+    /**
+     * default fatMargin.
+     */
+    public static final float DEFAULT_FAT_MARGIN = 8;
+
+    private static final int NULL_NODE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
+    @Getter
+    private final float fatMargin;
+
+    /**
+     * num of shapes in the tree.
+     */
+    @Getter
+    private int size;
+
+    private int root = NULL_NODE;
+
+    @ToString.Exclude
+    private float[] nodeMinX = new float[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private float[] nodeMinY = new float[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private float[] nodeMaxX = new float[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private float[] nodeMaxY = new float[INITIAL_CAPACITY];
+
+    /**
+     * parent of a node in use, next free node of a free node.
+     */
+    @ToString.Exclude
+    private int[] nodeParents = new int[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private int[] nodeChildren1 = new int[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private int[] nodeChildren2 = new int[INITIAL_CAPACITY];
+
+    /**
+     * 0 for leaves, -1 for free nodes.
+     */
+    @ToString.Exclude
+    private int[] nodeHeights = new int[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private AbstractShape[] nodeShapes = new AbstractShape[INITIAL_CAPACITY];
+
+    private int freeNode = NULL_NODE;
+    private int nodeNum;
+
+    /**
+     * <p>Constructor for DynamicAabbTree.</p>
+     */
+    public DynamicAabbTree() {
+        this(DEFAULT_FAT_MARGIN);
+    }
+
+    /**
+     * <p>Constructor for DynamicAabbTree.</p>
+     *
+     * @param fatMargin how far a shape can move before its leaf is moved.
+     */
+    public DynamicAabbTree(float fatMargin) {
+        if (!(fatMargin >= 0)) {
+            throw new IllegalArgumentException("fatMargin must not be negative : " + fatMargin);
+        }
+        this.fatMargin = fatMargin;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int insert(AbstractShape shape) {
+        final int leaf = this.allocateNode();
+        this.nodeShapes[leaf] = shape;
+        this.nodeHeights[leaf] = 0;
+        this.setFatBox(leaf, shape.minX(), shape.minY(), shape.maxX(), shape.maxY());
+        this.insertLeaf(leaf);
+        this.size++;
+        return leaf;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * nothing happens while the box is still inside the leaf's fat box.
+     */
+    @Override
+    public void update(int handle, float minX, float minY, float maxX, float maxY) {
+        this.checkHandle(handle);
+        if (this.nodeMinX[handle] <= minX && this.nodeMinY[handle] <= minY
+                && this.nodeMaxX[handle] >= maxX && this.nodeMaxY[handle] >= maxY) {
+            return;
+        }
+        this.removeLeaf(handle);
+        this.setFatBox(handle, minX, minY, maxX, maxY);
+        this.insertLeaf(handle);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(int handle) {
+        this.checkHandle(handle);
+        this.removeLeaf(handle);
+        this.releaseNode(handle);
+        this.size--;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AbstractShape getShape(int handle) {
+        this.checkHandle(handle);
+        return this.nodeShapes[handle];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AbstractShape getShapeOrNull(int handle) {
+        return handle < 0 || handle >= this.nodeNum || !this.isLeaf(handle) ? null : this.nodeShapes[handle];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * shapes are found by their fat boxes.
+     */
+    @Override
+    public boolean forEachInArea(float minX, float minY, float maxX, float maxY,
+                                 Predicate<AbstractShape> visitor) {
+        if (this.root == NULL_NODE) {
+            return true;
+        }
+        return this.forEachInArea(this.root, minX, minY, maxX, maxY, visitor);
+    }
+
+    /**
+     * <p>getHeight.</p>
+     *
+     * @return height of the tree, 0 if it is empty or has only one shape.
+     */
+    public int getHeight() {
+        return this.root == NULL_NODE ? 0 : this.nodeHeights[this.root];
+    }
+
+    private boolean forEachInArea(int node, float minX, float minY, float maxX, float maxY,
+                                  Predicate<AbstractShape> visitor) {
+        if (this.nodeMinX[node] > maxX || this.nodeMaxX[node] < minX
+                || this.nodeMinY[node] > maxY || this.nodeMaxY[node] < minY) {
+            return true;
+        }
+        if (this.isLeaf(node)) {
+            return visitor.test(this.nodeShapes[node]);
+        }
+        //depth is about log2(size), as the tree is balanced.
+        return this.forEachInArea(this.nodeChildren1[node], minX, minY, maxX, maxY, visitor)
+                && this.forEachInArea(this.nodeChildren2[node], minX, minY, maxX, maxY, visitor);
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= this.nodeNum || !this.isLeaf(handle) || this.nodeShapes[handle] == null) {
+            throw new IllegalArgumentException("invalid handle : " + handle);
+        }
+    }
+
+    private boolean isLeaf(int node) {
+        return this.nodeChildren1[node] == NULL_NODE;
+    }
+
+    private void setFatBox(int node, float minX, float minY, float maxX, float maxY) {
+        this.nodeMinX[node] = minX - this.fatMargin;
+        this.nodeMinY[node] = minY - this.fatMargin;
+        this.nodeMaxX[node] = maxX + this.fatMargin;
+        this.nodeMaxY[node] = maxY + this.fatMargin;
+    }
+
+    private void setUnion(int node, int a, int b) {
+        this.nodeMinX[node] = Math.min(this.nodeMinX[a], this.nodeMinX[b]);
+        this.nodeMinY[node] = Math.min(this.nodeMinY[a], this.nodeMinY[b]);
+        this.nodeMaxX[node] = Math.max(this.nodeMaxX[a], this.nodeMaxX[b]);
+        this.nodeMaxY[node] = Math.max(this.nodeMaxY[a], this.nodeMaxY[b]);
+    }
+
+    private float perimeter(int node) {
+        return 2 * (this.nodeMaxX[node] - this.nodeMinX[node] + this.nodeMaxY[node] - this.nodeMinY[node]);
+    }
+
+    private float unionPerimeter(int a, int b) {
+        return 2 * (Math.max(this.nodeMaxX[a], this.nodeMaxX[b]) - Math.min(this.nodeMinX[a], this.nodeMinX[b])
+                + Math.max(this.nodeMaxY[a], this.nodeMaxY[b]) - Math.min(this.nodeMinY[a], this.nodeMinY[b]));
+    }
+
+    private int allocateNode() {
+        if (this.freeNode == NULL_NODE) {
+            final int oldCapacity = this.nodeHeights.length;
+            if (this.nodeNum == oldCapacity) {
+                final int capacity = oldCapacity * 2;
+                this.nodeMinX = Arrays.copyOf(this.nodeMinX, capacity);
+                this.nodeMinY = Arrays.copyOf(this.nodeMinY, capacity);
+                this.nodeMaxX = Arrays.copyOf(this.nodeMaxX, capacity);
+                this.nodeMaxY = Arrays.copyOf(this.nodeMaxY, capacity);
+                this.nodeParents = Arrays.copyOf(this.nodeParents, capacity);
+                this.nodeChildren1 = Arrays.copyOf(this.nodeChildren1, capacity);
+                this.nodeChildren2 = Arrays.copyOf(this.nodeChildren2, capacity);
+                this.nodeHeights = Arrays.copyOf(this.nodeHeights, capacity);
+                this.nodeShapes = Arrays.copyOf(this.nodeShapes, capacity);
+            }
+            this.nodeParents[this.nodeNum] = NULL_NODE;
+            this.freeNode = this.nodeNum++;
+        }
+        final int node = this.freeNode;
+        this.freeNode = this.nodeParents[node];
+        this.nodeParents[node] = NULL_NODE;
+        this.nodeChildren1[node] = NULL_NODE;
+        this.nodeChildren2[node] = NULL_NODE;
+        this.nodeHeights[node] = 0;
+        this.nodeShapes[node] = null;
+        return node;
+    }
+
+    private void releaseNode(int node) {
+        this.nodeShapes[node] = null;
+        this.nodeHeights[node] = -1;
+        this.nodeParents[node] = this.freeNode;
+        this.freeNode = node;
+    }
+
+    private void insertLeaf(int leaf) {
+        if (this.root == NULL_NODE) {
+            this.root = leaf;
+            this.nodeParents[leaf] = NULL_NODE;
+            return;
+        }
+
+        //find the best sibling, by the perimeter it would add to the tree.
+        int index = this.root;
+        while (!this.isLeaf(index)) {
+            final int child1 = this.nodeChildren1[index];
+            final int child2 = this.nodeChildren2[index];
+            final float combinedPerimeter = this.unionPerimeter(index, leaf);
+            final float cost = 2 * combinedPerimeter;
+            final float inheritanceCost = 2 * (combinedPerimeter - this.perimeter(index));
+            final float cost1 = this.descendCost(child1, leaf) + inheritanceCost;
+            final float cost2 = this.descendCost(child2, leaf) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? child1 : child2;
+        }
+        final int sibling = index;
+
+        final int oldParent = this.nodeParents[sibling];
+        final int newParent = this.allocateNode();
+        this.nodeParents[newParent] = oldParent;
+        this.setUnion(newParent, leaf, sibling);
+        this.nodeHeights[newParent] = this.nodeHeights[sibling] + 1;
+        this.nodeChildren1[newParent] = sibling;
+        this.nodeChildren2[newParent] = leaf;
+        this.nodeParents[sibling] = newParent;
+        this.nodeParents[leaf] = newParent;
+        if (oldParent == NULL_NODE) {
+            this.root = newParent;
+        } else if (this.nodeChildren1[oldParent] == sibling) {
+            this.nodeChildren1[oldParent] = newParent;
+        } else {
+            this.nodeChildren2[oldParent] = newParent;
+        }
+
+        this.refitFrom(this.nodeParents[leaf]);
+    }
+
+    private float descendCost(int child, int leaf) {
+        if (this.isLeaf(child)) {
+            return this.unionPerimeter(child, leaf);
+        }
+        return this.unionPerimeter(child, leaf) - this.perimeter(child);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == this.root) {
+            this.root = NULL_NODE;
+            return;
+        }
+        final int parent = this.nodeParents[leaf];
+        final int grandParent = this.nodeParents[parent];
+        final int sibling = this.nodeChildren1[parent] == leaf
+                ? this.nodeChildren2[parent] : this.nodeChildren1[parent];
+        this.nodeParents[leaf] = NULL_NODE;
+        if (grandParent == NULL_NODE) {
+            this.root = sibling;
+            this.nodeParents[sibling] = NULL_NODE;
+            this.releaseNode(parent);
+            return;
+        }
+        if (this.nodeChildren1[grandParent] == parent) {
+            this.nodeChildren1[grandParent] = sibling;
+        } else {
+            this.nodeChildren2[grandParent] = sibling;
+        }
+        this.nodeParents[sibling] = grandParent;
+        this.releaseNode(parent);
+        this.refitFrom(grandParent);
+    }
+
+    /**
+     * rebalance, then fix heights and boxes, from node up to the root.
+     */
+    private void refitFrom(int node) {
+        int index = node;
+        while (index != NULL_NODE) {
+            index = this.balance(index);
+            final int child1 = this.nodeChildren1[index];
+            final int child2 = this.nodeChildren2[index];
+            this.nodeHeights[index] = 1 + Math.max(this.nodeHeights[child1], this.nodeHeights[child2]);
+            this.setUnion(index, child1, child2);
+            index = this.nodeParents[index];
+        }
+    }
+
+    /**
+     * rotate a child up if a's subtrees differ in height by more than 1.
+     *
+     * @return the node now at a's place.
+     */
+    private int balance(int a) {
+        if (this.isLeaf(a) || this.nodeHeights[a] < 2) {
+            return a;
+        }
+        final int b = this.nodeChildren1[a];
+        final int c = this.nodeChildren2[a];
+        final int balance = this.nodeHeights[c] - this.nodeHeights[b];
+        if (balance > 1) {
+            this.rotateUp(a, c, b, false);
+            return c;
+        }
+        if (balance < -1) {
+            this.rotateUp(a, b, c, true);
+            return b;
+        }
+        return a;
+    }
+
+    /**
+     * make up (a child of a) take a's place, with a as its first child,
+     * and give the lower of up's children to a, in up's place.
+     *
+     * @param a         node to rotate down.
+     * @param up        child of a to rotate up.
+     * @param other     the other child of a.
+     * @param upIsFirst if up is a's first child.
+     */
+    private void rotateUp(int a, int up, int other, boolean upIsFirst) {
+        final int f = this.nodeChildren1[up];
+        final int g = this.nodeChildren2[up];
+
+        this.nodeChildren1[up] = a;
+        this.nodeParents[up] = this.nodeParents[a];
+        this.nodeParents[a] = up;
+        final int upParent = this.nodeParents[up];
+        if (upParent == NULL_NODE) {
+            this.root = up;
+        } else if (this.nodeChildren1[upParent] == a) {
+            this.nodeChildren1[upParent] = up;
+        } else {
+            this.nodeChildren2[upParent] = up;
+        }
+
+        final int higher;
+        final int lower;
+        if (this.nodeHeights[f] > this.nodeHeights[g]) {
+            higher = f;
+            lower = g;
+        } else {
+            higher = g;
+            lower = f;
+        }
+        this.nodeChildren2[up] = higher;
+        if (upIsFirst) {
+            this.nodeChildren1[a] = lower;
+        } else {
+            this.nodeChildren2[a] = lower;
+        }
+        this.nodeParents[lower] = a;
+        this.setUnion(a, other, lower);
+        this.setUnion(up, a, higher);
+        this.nodeHeights[a] = 1 + Math.max(this.nodeHeights[other], this.nodeHeights[lower]);
+        this.nodeHeights[up] = 1 + Math.max(this.nodeHeights[a], this.nodeHeights[higher]);
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.broad_phases;
+
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * <p>SpatialHashGrid class.</p>
+ * a uniform grid of square cells, indexing shapes by the cells their bounding box touches.
+ * <p>
+ * cells live in an open addressing hash table keyed by the packed long (cellX, cellY),
+ * and every cell holds a compact int array of shape handles,
+ * so inserting, moving, removing and querying do not allocate once the arrays have grown.
+ * <p>
+ * fits many shapes of similar size.
+ * a shape much larger than cellSize sits in many cells, and many tiny shapes crowd one cell.
+ * <p>
+ * not thread safe.
+ * concurrent queries are fine as long as nothing is changing the grid at the same time.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class SpatialHashGrid implements BroadPhase {
+    private static final int EMPTY_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    @Getter
+    private final float cellSize;
+
+    /**
+     * num of shapes in the grid.
+     */
+    @Getter
+    private int size;
+
+    //handles
+
+    @ToString.Exclude
+    private AbstractShape[] shapes = new AbstractShape[INITIAL_CAPACITY];
+
+    /**
+     * minCellX, minCellY, maxCellX, maxCellY of each handle.
+     */
+    @ToString.Exclude
+    private int[] shapeCells = new int[INITIAL_CAPACITY * 4];
+
+    @ToString.Exclude
+    private int[] freeHandles = new int[INITIAL_CAPACITY];
+    private int freeHandleNum;
+    private int handleNum;
+
+    //cell key -> cell index, linear probing.
+
+    @ToString.Exclude
+    private long[] slotKeys = new long[INITIAL_CAPACITY * 4];
+
+    @ToString.Exclude
+    private int[] slotCells = newEmptySlots(INITIAL_CAPACITY * 4);
+    private int slotUsedNum;
+
+    //cells
+
+    @ToString.Exclude
+    private int[][] cellHandles = new int[INITIAL_CAPACITY][];
+
+    @ToString.Exclude
+    private int[] cellHandleNums = new int[INITIAL_CAPACITY];
+
+    @ToString.Exclude
+    private int[] freeCells = new int[INITIAL_CAPACITY];
+    private int freeCellNum;
+    private int cellNum;
+
+    /**
+     * <p>Constructor for SpatialHashGrid.</p>
+     *
+     * @param cellSize width/height of a cell.
+     */
+    public SpatialHashGrid(float cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("cellSize must be positive : " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * <p>cellOf.</p>
+     * cells are (n - 1) * cellSize &lt; pos &lt;= n * cellSize, as AbstractShape.getBoxes has always used.
+     *
+     * @param pos x or y
+     * @return cell x or cell y of the position.
+     */
+    public int cellOf(float pos) {
+        return (int) Math.ceil(pos / this.cellSize);
+    }
+
+    /**
+     * <p>insert.</p>
+     *
+     * @param shape shape
+     * @return handle of the shape, used to update or remove it.
+     */
+    @Override
+    public int insert(AbstractShape shape) {
+        final int handle;
+        if (this.freeHandleNum > 0) {
+            handle = this.freeHandles[--this.freeHandleNum];
+        } else {
+            handle = this.handleNum++;
+            if (handle == this.shapes.length) {
+                this.shapes = Arrays.copyOf(this.shapes, handle * 2);
+                this.shapeCells = Arrays.copyOf(this.shapeCells, handle * 2 * 4);
+            }
+        }
+        this.shapes[handle] = shape;
+        this.size++;
+        final int minCellX = this.cellOf(shape.minX());
+        final int minCellY = this.cellOf(shape.minY());
+        final int maxCellX = this.cellOf(shape.maxX());
+        final int maxCellY = this.cellOf(shape.maxY());
+        this.setShapeCells(handle, minCellX, minCellY, maxCellX, maxCellY);
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                this.addToCell(cellX, cellY, handle);
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * <p>update.</p>
+     * move a shape to the given bounding box.
+     * only cells entered or left are touched.
+     *
+     * @param handle handle
+     * @param minX   left of the box
+     * @param minY   top of the box
+     * @param maxX   right of the box
+     * @param maxY   bottom of the box
+     */
+    @Override
+    public void update(int handle, float minX, float minY, float maxX, float maxY) {
+        this.checkHandle(handle);
+        final int oldMinCellX = this.shapeCells[handle * 4];
+        final int oldMinCellY = this.shapeCells[handle * 4 + 1];
+        final int oldMaxCellX = this.shapeCells[handle * 4 + 2];
+        final int oldMaxCellY = this.shapeCells[handle * 4 + 3];
+        final int minCellX = this.cellOf(minX);
+        final int minCellY = this.cellOf(minY);
+        final int maxCellX = this.cellOf(maxX);
+        final int maxCellY = this.cellOf(maxY);
+        if (minCellX == oldMinCellX && minCellY == oldMinCellY
+                && maxCellX == oldMaxCellX && maxCellY == oldMaxCellY) {
+            return;
+        }
+        for (int cellY = oldMinCellY; cellY <= oldMaxCellY; cellY++) {
+            for (int cellX = oldMinCellX; cellX <= oldMaxCellX; cellX++) {
+                if (cellX < minCellX || cellX > maxCellX || cellY < minCellY || cellY > maxCellY) {
+                    this.removeFromCell(cellX, cellY, handle);
+                }
+            }
+        }
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                if (cellX < oldMinCellX || cellX > oldMaxCellX || cellY < oldMinCellY || cellY > oldMaxCellY) {
+                    this.addToCell(cellX, cellY, handle);
+                }
+            }
+        }
+        this.setShapeCells(handle, minCellX, minCellY, maxCellX, maxCellY);
+    }
+
+    /**
+     * <p>remove.</p>
+     *
+     * @param handle handle
+     */
+    @Override
+    public void remove(int handle) {
+        this.checkHandle(handle);
+        final int minCellX = this.shapeCells[handle * 4];
+        final int minCellY = this.shapeCells[handle * 4 + 1];
+        final int maxCellX = this.shapeCells[handle * 4 + 2];
+        final int maxCellY = this.shapeCells[handle * 4 + 3];
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                this.removeFromCell(cellX, cellY, handle);
+            }
+        }
+        this.shapes[handle] = null;
+        this.size--;
+        if (this.freeHandleNum == this.freeHandles.length) {
+            this.freeHandles = Arrays.copyOf(this.freeHandles, this.freeHandleNum * 2);
+        }
+        this.freeHandles[this.freeHandleNum++] = handle;
+    }
+
+    /**
+     * <p>getShape.</p>
+     *
+     * @param handle handle
+     * @return shape of the handle.
+     */
+    @Override
+    public AbstractShape getShape(int handle) {
+        this.checkHandle(handle);
+        return this.shapes[handle];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AbstractShape getShapeOrNull(int handle) {
+        return handle < 0 || handle >= this.handleNum ? null : this.shapes[handle];
+    }
+
+    /**
+     * <p>forEachInArea.</p>
+     * visit every shape in a cell that the area touches, once each.
+     * it is rough: the shapes are not checked against the area itself.
+     *
+     * @param minX    left of the area
+     * @param minY    top of the area
+     * @param maxX    right of the area
+     * @param maxY    bottom of the area
+     * @param visitor return false to stop visiting.
+     * @return false if stopped by visitor.
+     */
+    @Override
+    public boolean forEachInArea(float minX, float minY, float maxX, float maxY,
+                                 Predicate<AbstractShape> visitor) {
+        final int minCellX = this.cellOf(minX);
+        final int minCellY = this.cellOf(minY);
+        final int maxCellX = this.cellOf(maxX);
+        final int maxCellY = this.cellOf(maxY);
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                final int cell = this.getCell(cellKey(cellX, cellY));
+                if (cell == EMPTY_SLOT) {
+                    continue;
+                }
+                final int[] handles = this.cellHandles[cell];
+                for (int i = 0, len = this.cellHandleNums[cell]; i < len; i++) {
+                    final int handle = handles[i];
+                    //a shape touching many cells of the area is only visited in the first of them.
+                    if (cellX != Math.max(minCellX, this.shapeCells[handle * 4])
+                            || cellY != Math.max(minCellY, this.shapeCells[handle * 4 + 1])) {
+                        continue;
+                    }
+                    if (!visitor.test(this.shapes[handle])) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= this.handleNum || this.shapes[handle] == null) {
+            throw new IllegalArgumentException("invalid handle : " + handle);
+        }
+    }
+
+    private void setShapeCells(int handle, int minCellX, int minCellY, int maxCellX, int maxCellY) {
+        this.shapeCells[handle * 4] = minCellX;
+        this.shapeCells[handle * 4 + 1] = minCellY;
+        this.shapeCells[handle * 4 + 2] = maxCellX;
+        this.shapeCells[handle * 4 + 3] = maxCellY;
+    }
+
+    private void addToCell(int cellX, int cellY, int handle) {
+        final long key = cellKey(cellX, cellY);
+        int cell = this.getCell(key);
+        if (cell == EMPTY_SLOT) {
+            cell = this.newCell();
+            this.putCell(key, cell);
+        }
+        int[] handles = this.cellHandles[cell];
+        final int num = this.cellHandleNums[cell];
+        if (num == handles.length) {
+            handles = Arrays.copyOf(handles, num * 2);
+            this.cellHandles[cell] = handles;
+        }
+        handles[num] = handle;
+        this.cellHandleNums[cell] = num + 1;
+    }
+
+    private void removeFromCell(int cellX, int cellY, int handle) {
+        final long key = cellKey(cellX, cellY);
+        final int cell = this.getCell(key);
+        if (cell == EMPTY_SLOT) {
+            return;
+        }
+        final int[] handles = this.cellHandles[cell];
+        final int num = this.cellHandleNums[cell];
+        for (int i = 0; i < num; i++) {
+            if (handles[i] == handle) {
+                handles[i] = handles[num - 1];
+                this.cellHandleNums[cell] = num - 1;
+                break;
+            }
+        }
+        if (this.cellHandleNums[cell] == 0) {
+            this.removeCell(key);
+            if (this.freeCellNum == this.freeCells.length) {
+                this.freeCells = Arrays.copyOf(this.freeCells, this.freeCellNum * 2);
+            }
+            this.freeCells[this.freeCellNum++] = cell;
+        }
+    }
+
+    private int newCell() {
+        if (this.freeCellNum > 0) {
+            return this.freeCells[--this.freeCellNum];
+        }
+        final int cell = this.cellNum++;
+        if (cell == this.cellHandles.length) {
+            this.cellHandles = Arrays.copyOf(this.cellHandles, cell * 2);
+            this.cellHandleNums = Arrays.copyOf(this.cellHandleNums, cell * 2);
+        }
+        this.cellHandles[cell] = new int[INITIAL_CELL_CAPACITY];
+        return cell;
+    }
+
+    //open addressing table
+
+    private static long cellKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int[] newEmptySlots(int capacity) {
+        final int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY_SLOT);
+        return slots;
+    }
+
+    private int getCell(long key) {
+        final int mask = this.slotCells.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            final int cell = this.slotCells[slot];
+            if (cell == EMPTY_SLOT || this.slotKeys[slot] == key) {
+                return cell;
+            }
+        }
+    }
+
+    private void putCell(long key, int cell) {
+        if ((this.slotUsedNum + 1) * 4 > this.slotCells.length * 3) {
+            this.resizeSlots(this.slotCells.length * 2);
+        }
+        final int mask = this.slotCells.length - 1;
+        int slot = hash(key) & mask;
+        while (this.slotCells[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        this.slotKeys[slot] = key;
+        this.slotCells[slot] = cell;
+        this.slotUsedNum++;
+    }
+
+    /**
+     * remove with backward shift, so no tombstone is ever needed.
+     */
+    private void removeCell(long key) {
+        final int mask = this.slotCells.length - 1;
+        int slot = hash(key) & mask;
+        while (this.slotKeys[slot] != key || this.slotCells[slot] == EMPTY_SLOT) {
+            if (this.slotCells[slot] == EMPTY_SLOT) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (this.slotCells[next] == EMPTY_SLOT) {
+                break;
+            }
+            final int ideal = hash(this.slotKeys[next]) & mask;
+            //move next back to slot if slot is on its probe path, that is, ideal is not in (slot, next].
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                this.slotKeys[slot] = this.slotKeys[next];
+                this.slotCells[slot] = this.slotCells[next];
+                slot = next;
+            }
+        }
+        this.slotCells[slot] = EMPTY_SLOT;
+        this.slotUsedNum--;
+    }
+
+    private void resizeSlots(int capacity) {
+        final long[] oldKeys = this.slotKeys;
+        final int[] oldCells = this.slotCells;
+        this.slotKeys = new long[capacity];
+        this.slotCells = newEmptySlots(capacity);
+        this.slotUsedNum = 0;
+        for (int i = 0; i < oldCells.length; i++) {
+            if (oldCells[i] != EMPTY_SLOT) {
+                this.putCell(oldKeys[i], oldCells[i]);
+            }
+        }
+    }
+}
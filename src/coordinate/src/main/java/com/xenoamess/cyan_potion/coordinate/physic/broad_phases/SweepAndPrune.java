@@ -0,0 +1,274 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.broad_phases;
+
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * <p>SweepAndPrune class.</p>
+ * shapes kept sorted by the left of their bounding boxes.
+ * <p>
+ * a query scans the shapes whose left is in [query left - widest shape width, query right].
+ * a moved shape is re-sorted by insertion sort, which is about free as shapes move little per tick.
+ * <p>
+ * fits shapes spread along x, like a side view level.
+ * one very wide shape makes every query scan more.
+ * <p>
+ * not thread safe.
+ * concurrent queries are fine as long as nothing is changing it at the same time.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ */
+@ToString
+public class SweepAndPrune implements BroadPhase {
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * num of shapes in it.
+     */
+    @Getter
+    private int size;
+
+    /**
+     * max of maxX - minX of the shapes in it.
+     */
+    @Getter
+    private float maxWidth;
+
+    //by handle
+
+    @ToString.Exclude
+    private AbstractShape[] shapes = new AbstractShape[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private float[] minXs = new float[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private float[] minYs = new float[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private float[] maxXs = new float[INITIAL_CAPACITY];
+    @ToString.Exclude
+    private float[] maxYs = new float[INITIAL_CAPACITY];
+
+    /**
+     * index of each handle in sortedHandles.
+     */
+    @ToString.Exclude
+    private int[] ranks = new int[INITIAL_CAPACITY];
+
+    @ToString.Exclude
+    private int[] freeHandles = new int[INITIAL_CAPACITY];
+    private int freeHandleNum;
+    private int handleNum;
+
+    /**
+     * handles sorted by minX.
+     */
+    @ToString.Exclude
+    private int[] sortedHandles = new int[INITIAL_CAPACITY];
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int insert(AbstractShape shape) {
+        final int handle;
+        if (this.freeHandleNum > 0) {
+            handle = this.freeHandles[--this.freeHandleNum];
+        } else {
+            handle = this.handleNum++;
+            if (handle == this.shapes.length) {
+                final int capacity = handle * 2;
+                this.shapes = Arrays.copyOf(this.shapes, capacity);
+                this.minXs = Arrays.copyOf(this.minXs, capacity);
+                this.minYs = Arrays.copyOf(this.minYs, capacity);
+                this.maxXs = Arrays.copyOf(this.maxXs, capacity);
+                this.maxYs = Arrays.copyOf(this.maxYs, capacity);
+                this.ranks = Arrays.copyOf(this.ranks, capacity);
+                this.sortedHandles = Arrays.copyOf(this.sortedHandles, capacity);
+            }
+        }
+        this.shapes[handle] = shape;
+        this.setBox(handle, shape.minX(), shape.minY(), shape.maxX(), shape.maxY());
+        this.maxWidth = Math.max(this.maxWidth, this.maxXs[handle] - this.minXs[handle]);
+        final int rank = this.size++;
+        this.sortedHandles[rank] = handle;
+        this.ranks[handle] = rank;
+        this.siftLeft(rank);
+        return handle;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void update(int handle, float minX, float minY, float maxX, float maxY) {
+        this.checkHandle(handle);
+        final float oldWidth = this.maxXs[handle] - this.minXs[handle];
+        final float oldMinX = this.minXs[handle];
+        this.setBox(handle, minX, minY, maxX, maxY);
+        final float width = maxX - minX;
+        if (width >= this.maxWidth) {
+            this.maxWidth = width;
+        } else if (oldWidth == this.maxWidth) {
+            this.refreshMaxWidth();
+        }
+        if (minX < oldMinX) {
+            this.siftLeft(this.ranks[handle]);
+        } else if (minX > oldMinX) {
+            this.siftRight(this.ranks[handle]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(int handle) {
+        this.checkHandle(handle);
+        final int rank = this.ranks[handle];
+        System.arraycopy(this.sortedHandles, rank + 1, this.sortedHandles, rank, this.size - rank - 1);
+        this.size--;
+        for (int i = rank; i < this.size; i++) {
+            this.ranks[this.sortedHandles[i]] = i;
+        }
+        final float width = this.maxXs[handle] - this.minXs[handle];
+        this.shapes[handle] = null;
+        if (this.freeHandleNum == this.freeHandles.length) {
+            this.freeHandles = Arrays.copyOf(this.freeHandles, this.freeHandleNum * 2);
+        }
+        this.freeHandles[this.freeHandleNum++] = handle;
+        if (width == this.maxWidth) {
+            this.refreshMaxWidth();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AbstractShape getShape(int handle) {
+        this.checkHandle(handle);
+        return this.shapes[handle];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AbstractShape getShapeOrNull(int handle) {
+        return handle < 0 || handle >= this.handleNum ? null : this.shapes[handle];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean forEachInArea(float minX, float minY, float maxX, float maxY,
+                                 Predicate<AbstractShape> visitor) {
+        for (int i = this.lowerBound(minX - this.maxWidth); i < this.size; i++) {
+            final int handle = this.sortedHandles[i];
+            if (this.minXs[handle] > maxX) {
+                break;
+            }
+            if (this.maxXs[handle] < minX || this.minYs[handle] > maxY || this.maxYs[handle] < minY) {
+                continue;
+            }
+            if (!visitor.test(this.shapes[handle])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= this.handleNum || this.shapes[handle] == null) {
+            throw new IllegalArgumentException("invalid handle : " + handle);
+        }
+    }
+
+    private void setBox(int handle, float minX, float minY, float maxX, float maxY) {
+        this.minXs[handle] = minX;
+        this.minYs[handle] = minY;
+        this.maxXs[handle] = maxX;
+        this.maxYs[handle] = maxY;
+    }
+
+    private void refreshMaxWidth() {
+        float res = 0;
+        for (int i = 0; i < this.size; i++) {
+            final int handle = this.sortedHandles[i];
+            res = Math.max(res, this.maxXs[handle] - this.minXs[handle]);
+        }
+        this.maxWidth = res;
+    }
+
+    /**
+     * @return first rank whose minX is not less than x.
+     */
+    private int lowerBound(float x) {
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (this.minXs[this.sortedHandles[middle]] < x) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void siftLeft(int rank) {
+        final int handle = this.sortedHandles[rank];
+        final float minX = this.minXs[handle];
+        int i = rank;
+        while (i > 0 && this.minXs[this.sortedHandles[i - 1]] > minX) {
+            this.sortedHandles[i] = this.sortedHandles[i - 1];
+            this.ranks[this.sortedHandles[i]] = i;
+            i--;
+        }
+        this.sortedHandles[i] = handle;
+        this.ranks[handle] = i;
+    }
+
+    private void siftRight(int rank) {
+        final int handle = this.sortedHandles[rank];
+        final float minX = this.minXs[handle];
+        int i = rank;
+        while (i < this.size - 1 && this.minXs[this.sortedHandles[i + 1]] < minX) {
+            this.sortedHandles[i] = this.sortedHandles[i + 1];
+            this.ranks[this.sortedHandles[i]] = i;
+            i++;
+        }
+        this.sortedHandles[i] = handle;
+        this.ranks[handle] = i;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/**
+ * Package to hold broad phase classes, which find shapes that might collide.
+ * <p>
+ * Choosing a broad phase:
+ * {@link com.xenoamess.cyan_potion.coordinate.physic.broad_phases.SpatialHashGrid} with a cell of
+ * AbstractEntityScene.BOX_SIZE is the default, and it was the fastest on both workloads of BroadPhaseBenchmark,
+ * in microseconds per tick of a 4096 x 4096 world
+ * (JDK 17.0.9, 1 vCPU Intel Xeon, see src/benchmark/baseline for the whole run):
+ * <ul>
+ * <li>uniform, 2000 moving units of 32x32: grid 320, tree 2116 (noisy, +-2569), sweep and prune 1077.</li>
+ * <li>mixedSizes, 40 walls of 2048x64, 200 units of 32x32 and 2000 fast bullets of 4x4:
+ * grid 349, tree 5642, sweep and prune 5203.</li>
+ * </ul>
+ * So keep the grid unless a benchmark of your own scene says otherwise.
+ * The others are worth measuring when the grid's weak spots dominate a scene:
+ * <ul>
+ * <li>{@link com.xenoamess.cyan_potion.coordinate.physic.broad_phases.DynamicAabbTree}
+ * when most shapes are many times larger than a cell, as each of them sits in every cell it touches.
+ * a shape is one leaf whatever its size, but shapes leaving their fat box and every query walk the tree.</li>
+ * <li>{@link com.xenoamess.cyan_potion.coordinate.physic.broad_phases.SweepAndPrune}
+ * when shapes are spread along x and none is wide, like a side view level.
+ * wide shapes make every query scan more, which is why it slows down on mixedSizes.</li>
+ * </ul>
+ *
+ * @since 0.167.3
+ */
+package com.xenoamess.cyan_potion.coordinate.physic.broad_phases;
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.contacts;
+
+import com.xenoamess.cyan_potion.base.GameManager;
+import com.xenoamess.cyan_potion.base.events.Event;
+import com.xenoamess.cyan_potion.coordinate.AbstractEntityScene;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * <p>ContactEvent class.</p>
+ * every contact pair of one type that a ContactPairManager found in one tick.
+ * pair i is (getFirstShape(i), getSecondShape(i)).
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see ContactPairManager
+ */
+@ToString
+public class ContactEvent implements Event {
+    @ToString.Exclude
+    @Getter
+    private final AbstractEntityScene scene;
+
+    @Getter
+    private final ContactEventType contactEventType;
+
+    /**
+     * shapes of pairs, two by two.
+     */
+    @ToString.Exclude
+    private final AbstractShape[] shapes;
+
+    /**
+     * <p>Constructor for ContactEvent.</p>
+     *
+     * @param scene            scene of the shapes.
+     * @param contactEventType contactEventType
+     * @param shapes           shapes of pairs, two by two. not copied.
+     */
+    public ContactEvent(AbstractEntityScene scene, ContactEventType contactEventType, AbstractShape[] shapes) {
+        this.scene = scene;
+        this.contactEventType = contactEventType;
+        this.shapes = shapes;
+    }
+
+    /**
+     * <p>getPairNum.</p>
+     *
+     * @return num of pairs.
+     */
+    @ToString.Include
+    public int getPairNum() {
+        return this.shapes.length / 2;
+    }
+
+    /**
+     * <p>getFirstShape.</p>
+     *
+     * @param index index of the pair
+     * @return first shape of the pair.
+     */
+    public AbstractShape getFirstShape(int index) {
+        return this.shapes[index * 2];
+    }
+
+    /**
+     * <p>getSecondShape.</p>
+     *
+     * @param index index of the pair
+     * @return second shape of the pair.
+     */
+    public AbstractShape getSecondShape(int index) {
+        return this.shapes[index * 2 + 1];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Event> apply(GameManager gameManager) {
+        return gameManager.getGameWindowComponentTree().process(this);
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.contacts;
+
+import com.xenoamess.cyan_potion.base.events.Event;
+import com.xenoamess.cyan_potion.coordinate.AbstractEntityScene;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.BroadPhase;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * <p>ContactPairManager class.</p>
+ * keeps the pairs of registered shapes that touch, and tells about changes by ContactEvents.
+ * <p>
+ * two shapes touch if they are on the same z, and their bounding boxes, grown by contactMargin, overlap.
+ * a margin is useful because MovementQuery never lets a shape move into another,
+ * so shapes walking to each other usually stop a bit apart.
+ * <p>
+ * pairs live in a table keyed by the broad phase handles of the shapes.
+ * each update only searches around shapes marked as moved since the last update,
+ * and then sends at most one ContactEvent of each ContactEventType.
+ * <p>
+ * logic thread only.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see ContactEvent
+ */
+@ToString
+public class ContactPairManager {
+    private static final int EMPTY_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    @ToString.Exclude
+    private final AbstractEntityScene scene;
+
+    @ToString.Exclude
+    private final Consumer<Event> eventConsumer;
+
+    @Getter
+    @Setter
+    private float contactMargin;
+
+    /**
+     * if false, no STAY ContactEvent is ever sent.
+     */
+    @Getter
+    @Setter
+    private boolean sendingStayEvents = true;
+
+    /**
+     * starts from 1, so that 0 in stamps means never.
+     */
+    private int tick = 1;
+
+    /*
+     * shapes marked as moved since the last update, as handles.
+     */
+    private int[] movedHandles = new int[INITIAL_CAPACITY];
+    private int movedHandleNum;
+    private int[] movedTicks = new int[INITIAL_CAPACITY];
+
+    /*
+     * pairs, packed. the first handle is the smaller one.
+     */
+    @Getter
+    private int pairNum;
+    private int[] pairHandles = new int[INITIAL_CAPACITY * 2];
+    @ToString.Exclude
+    private AbstractShape[] pairShapes = new AbstractShape[INITIAL_CAPACITY * 2];
+    private int[] pairStartTicks = new int[INITIAL_CAPACITY];
+    private int[] pairTouchTicks = new int[INITIAL_CAPACITY];
+
+    /*
+     * open addressing table from pair key to pair index.
+     */
+    private long[] slotKeys = new long[INITIAL_CAPACITY * 2];
+    private int[] slotPairs = newEmptySlots(INITIAL_CAPACITY * 2);
+
+    @ToString.Exclude
+    private final List<AbstractShape> enterShapes = new ArrayList<>();
+    @ToString.Exclude
+    private final List<AbstractShape> stayShapes = new ArrayList<>();
+    @ToString.Exclude
+    private final List<AbstractShape> exitShapes = new ArrayList<>();
+
+    @ToString.Exclude
+    private AbstractShape searchingShape;
+    @ToString.Exclude
+    private final Predicate<AbstractShape> candidateVisitor = this::visitCandidate;
+
+    /**
+     * <p>Constructor for ContactPairManager.</p>
+     *
+     * @param scene         scene whose broad phase holds the shapes.
+     * @param eventConsumer where ContactEvents go, usually GameManager.eventListAdd.
+     */
+    public ContactPairManager(AbstractEntityScene scene, Consumer<Event> eventConsumer) {
+        this.scene = scene;
+        this.eventConsumer = eventConsumer;
+    }
+
+    /**
+     * <p>markMoved.</p>
+     * the shape's contacts will be checked in the next update.
+     * shapes not in the broad phase are ignored.
+     *
+     * @param shape shape that moved, or was registered.
+     */
+    public void markMoved(AbstractShape shape) {
+        final int handle = shape.getBroadPhaseHandle();
+        if (handle == BroadPhase.INVALID_HANDLE) {
+            return;
+        }
+        if (handle >= this.movedTicks.length) {
+            this.movedTicks = Arrays.copyOf(this.movedTicks, Math.max(this.movedTicks.length * 2, handle + 1));
+        }
+        if (this.movedTicks[handle] == this.tick) {
+            return;
+        }
+        this.movedTicks[handle] = this.tick;
+        if (this.movedHandleNum == this.movedHandles.length) {
+            this.movedHandles = Arrays.copyOf(this.movedHandles, this.movedHandleNum * 2);
+        }
+        this.movedHandles[this.movedHandleNum++] = handle;
+    }
+
+    /**
+     * <p>isTouching.</p>
+     * as of the last update.
+     *
+     * @param shape1 shape1
+     * @param shape2 shape2
+     * @return if they touch.
+     */
+    public boolean isTouching(AbstractShape shape1, AbstractShape shape2) {
+        final int handle1 = shape1.getBroadPhaseHandle();
+        final int handle2 = shape2.getBroadPhaseHandle();
+        if (handle1 == BroadPhase.INVALID_HANDLE || handle2 == BroadPhase.INVALID_HANDLE) {
+            return false;
+        }
+        final int pair = this.getPair(pairKey(handle1, handle2));
+        return pair != EMPTY_SLOT && this.isPairOf(pair, handle1, shape1, handle2, shape2);
+    }
+
+    private boolean isPairOf(int pair, int handle1, AbstractShape shape1, int handle2, AbstractShape shape2) {
+        return this.pairShapes[pair * 2] == (handle1 < handle2 ? shape1 : shape2)
+                && this.pairShapes[pair * 2 + 1] == (handle1 < handle2 ? shape2 : shape1);
+    }
+
+    /**
+     * <p>update.</p>
+     * find contacts of moved shapes, then send ContactEvents.
+     */
+    public void update() {
+        final BroadPhase broadPhase = this.scene.getBroadPhase();
+        for (int i = 0; i < this.movedHandleNum; i++) {
+            final AbstractShape shape = broadPhase.getShapeOrNull(this.movedHandles[i]);
+            if (shape == null || shape.getBroadPhaseHandle() != this.movedHandles[i]) {
+                continue;
+            }
+            this.searchingShape = shape;
+            broadPhase.forEachInArea(
+                    shape.minX() - this.contactMargin, shape.minY() - this.contactMargin,
+                    shape.maxX() + this.contactMargin, shape.maxY() + this.contactMargin,
+                    this.candidateVisitor
+            );
+        }
+        this.searchingShape = null;
+
+        int pair = 0;
+        while (pair < this.pairNum) {
+            final int handle1 = this.pairHandles[pair * 2];
+            final int handle2 = this.pairHandles[pair * 2 + 1];
+            final AbstractShape shape1 = this.pairShapes[pair * 2];
+            final AbstractShape shape2 = this.pairShapes[pair * 2 + 1];
+            final boolean stale = broadPhase.getShapeOrNull(handle1) != shape1
+                    || broadPhase.getShapeOrNull(handle2) != shape2;
+            if (!stale && this.pairTouchTicks[pair] == this.tick) {
+                addPair(this.pairStartTicks[pair] == this.tick ? this.enterShapes : this.stayShapes, shape1, shape2);
+            } else if (stale || this.movedThisTick(handle1) || this.movedThisTick(handle2)) {
+                addPair(this.exitShapes, shape1, shape2);
+                this.removePair(pair);
+                //the last pair is moved here, so look at this index again.
+                continue;
+            } else {
+                addPair(this.stayShapes, shape1, shape2);
+            }
+            pair++;
+        }
+
+        this.movedHandleNum = 0;
+        this.tick++;
+        this.send(ContactEventType.ENTER, this.enterShapes);
+        if (this.isSendingStayEvents()) {
+            this.send(ContactEventType.STAY, this.stayShapes);
+        }
+        this.stayShapes.clear();
+        this.send(ContactEventType.EXIT, this.exitShapes);
+    }
+
+    private boolean movedThisTick(int handle) {
+        return handle < this.movedTicks.length && this.movedTicks[handle] == this.tick;
+    }
+
+    private static void addPair(List<AbstractShape> shapes, AbstractShape shape1, AbstractShape shape2) {
+        shapes.add(shape1);
+        shapes.add(shape2);
+    }
+
+    private void send(ContactEventType contactEventType, List<AbstractShape> shapes) {
+        if (shapes.isEmpty()) {
+            return;
+        }
+        final AbstractShape[] array = shapes.toArray(new AbstractShape[0]);
+        shapes.clear();
+        this.eventConsumer.accept(new ContactEvent(this.scene, contactEventType, array));
+    }
+
+    private boolean visitCandidate(AbstractShape candidate) {
+        final AbstractShape shape = this.searchingShape;
+        final int candidateHandle = candidate.getBroadPhaseHandle();
+        if (candidate == shape || candidateHandle == BroadPhase.INVALID_HANDLE) {
+            return true;
+        }
+        if (shape.getCenterPos().z != candidate.getCenterPos().z
+                || shape.maxX() + this.contactMargin < candidate.minX() - this.contactMargin
+                || candidate.maxX() + this.contactMargin < shape.minX() - this.contactMargin
+                || shape.maxY() + this.contactMargin < candidate.minY() - this.contactMargin
+                || candidate.maxY() + this.contactMargin < shape.minY() - this.contactMargin) {
+            return true;
+        }
+        final int handle = shape.getBroadPhaseHandle();
+        final long key = pairKey(handle, candidateHandle);
+        int pair = this.getPair(key);
+        if (pair != EMPTY_SLOT && !this.isPairOf(pair, handle, shape, candidateHandle, candidate)) {
+            //handles reused by other shapes.
+            addPair(this.exitShapes, this.pairShapes[pair * 2], this.pairShapes[pair * 2 + 1]);
+            this.removePair(pair);
+            pair = EMPTY_SLOT;
+        }
+        if (pair == EMPTY_SLOT) {
+            pair = this.addPair(key, handle, shape, candidateHandle, candidate);
+        }
+        this.pairTouchTicks[pair] = this.tick;
+        return true;
+    }
+
+    //pairs
+
+    private int addPair(long key, int handle1, AbstractShape shape1, int handle2, AbstractShape shape2) {
+        final int pair = this.pairNum++;
+        if (pair == this.pairStartTicks.length) {
+            this.pairHandles = Arrays.copyOf(this.pairHandles, pair * 4);
+            this.pairShapes = Arrays.copyOf(this.pairShapes, pair * 4);
+            this.pairStartTicks = Arrays.copyOf(this.pairStartTicks, pair * 2);
+            this.pairTouchTicks = Arrays.copyOf(this.pairTouchTicks, pair * 2);
+        }
+        final boolean ordered = handle1 < handle2;
+        this.pairHandles[pair * 2] = ordered ? handle1 : handle2;
+        this.pairHandles[pair * 2 + 1] = ordered ? handle2 : handle1;
+        this.pairShapes[pair * 2] = ordered ? shape1 : shape2;
+        this.pairShapes[pair * 2 + 1] = ordered ? shape2 : shape1;
+        this.pairStartTicks[pair] = this.tick;
+        this.putPair(key, pair);
+        return pair;
+    }
+
+    /**
+     * remove a pair, moving the last pair into its place.
+     */
+    private void removePair(int pair) {
+        this.removeKey(pairKey(this.pairHandles[pair * 2], this.pairHandles[pair * 2 + 1]));
+        final int last = --this.pairNum;
+        if (pair != last) {
+            this.pairHandles[pair * 2] = this.pairHandles[last * 2];
+            this.pairHandles[pair * 2 + 1] = this.pairHandles[last * 2 + 1];
+            this.pairShapes[pair * 2] = this.pairShapes[last * 2];
+            this.pairShapes[pair * 2 + 1] = this.pairShapes[last * 2 + 1];
+            this.pairStartTicks[pair] = this.pairStartTicks[last];
+            this.pairTouchTicks[pair] = this.pairTouchTicks[last];
+            this.setPair(pairKey(this.pairHandles[pair * 2], this.pairHandles[pair * 2 + 1]), pair);
+        }
+        this.pairShapes[last * 2] = null;
+        this.pairShapes[last * 2 + 1] = null;
+    }
+
+    //open addressing table
+
+    private static long pairKey(int handle1, int handle2) {
+        return handle1 < handle2
+                ? ((long) handle1 << 32) | (handle2 & 0xFFFFFFFFL)
+                : ((long) handle2 << 32) | (handle1 & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int[] newEmptySlots(int capacity) {
+        final int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY_SLOT);
+        return slots;
+    }
+
+    private int slotOf(long key) {
+        final int mask = this.slotPairs.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (this.slotPairs[slot] == EMPTY_SLOT || this.slotKeys[slot] == key) {
+                return slot;
+            }
+        }
+    }
+
+    private int getPair(long key) {
+        return this.slotPairs[this.slotOf(key)];
+    }
+
+    private void setPair(long key, int pair) {
+        this.slotPairs[this.slotOf(key)] = pair;
+    }
+
+    private void putPair(long key, int pair) {
+        if (this.pairNum * 4 > this.slotPairs.length * 3) {
+            this.resizeSlots(this.slotPairs.length * 2);
+        }
+        final int slot = this.slotOf(key);
+        this.slotKeys[slot] = key;
+        this.slotPairs[slot] = pair;
+    }
+
+    /**
+     * remove with backward shift, so no tombstone is ever needed.
+     */
+    private void removeKey(long key) {
+        final int mask = this.slotPairs.length - 1;
+        int slot = this.slotOf(key);
+        if (this.slotPairs[slot] == EMPTY_SLOT) {
+            return;
+        }
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (this.slotPairs[next] == EMPTY_SLOT) {
+                break;
+            }
+            final int ideal = hash(this.slotKeys[next]) & mask;
+            //move next back to slot if slot is on its probe path, that is, ideal is not in (slot, next].
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                this.slotKeys[slot] = this.slotKeys[next];
+                this.slotPairs[slot] = this.slotPairs[next];
+                slot = next;
+            }
+        }
+        this.slotPairs[slot] = EMPTY_SLOT;
+    }
+
+    private void resizeSlots(int capacity) {
+        final long[] oldKeys = this.slotKeys;
+        final int[] oldPairs = this.slotPairs;
+        this.slotKeys = new long[capacity];
+        this.slotPairs = newEmptySlots(capacity);
+        for (int i = 0; i < oldPairs.length; i++) {
+            if (oldPairs[i] != EMPTY_SLOT) {
+                final int slot = this.slotOf(oldKeys[i]);
+                this.slotKeys[slot] = oldKeys[i];
+                this.slotPairs[slot] = oldPairs[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.shape_relation_judges;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.Circle;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.HorizontalRectangle;
+import org.apache.commons.lang3.tuple.ImmutablePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation.RELATION_INNER;
+import static com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation.RELATION_OUTER;
+import static com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation.RELATION_UNDEFINED;
+
+/**
+ * <p>ShapeRelationJudgeTable class.</p>
+ * double dispatch table for shape relations.
+ * <p>
+ * every shape class gets an int id the first time it is seen,
+ * and every (class id, class id) pair is resolved to one judge, once.
+ * then a relation query is two array reads and one call, with no reflection and no allocation.
+ * <p>
+ * a judge registered for (K, V) also serves (V, K), with RELATION_INNER and RELATION_OUTER swapped,
+ * and serves subclasses of K and V unless something closer is registered.
+ * if the judge for (K, V) returns RELATION_UNDEFINED, the judge for (V, K) is asked too.
+ * <p>
+ * public methods like {@code ShapeRelation relation(SomeShape target, boolean rough)}
+ * declared in a shape class are registered automatically when the class is first seen,
+ * so shapes written for the old reflection based lookup still work.
+ * explicit {@link #register(Class, Class, ShapeRelationJudge)} wins over them.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see AbstractShape#relation(AbstractShape, AbstractShape, boolean)
+ */
+public final class ShapeRelationJudgeTable {
+    @JsonIgnore
+    private static final transient Logger LOGGER =
+            LoggerFactory.getLogger(ShapeRelationJudgeTable.class);
+
+    private static final ShapeRelationJudge<AbstractShape, AbstractShape> UNDEFINED_JUDGE =
+            (k, v, rough) -> RELATION_UNDEFINED;
+
+    private static final MethodType JUDGE_METHOD_TYPE =
+            MethodType.methodType(ShapeRelation.class, AbstractShape.class, AbstractShape.class, boolean.class);
+
+    private static final Object LOCK = new Object();
+
+    /**
+     * guarded by LOCK.
+     */
+    private static final Map<Class<? extends AbstractShape>, Integer> CLASS_IDS = new IdentityHashMap<>();
+
+    /**
+     * guarded by LOCK.
+     */
+    private static final List<Class<? extends AbstractShape>> CLASSES = new ArrayList<>();
+
+    /**
+     * guarded by LOCK.
+     */
+    private static final Map<ImmutablePair<Class<? extends AbstractShape>, Class<? extends AbstractShape>>,
+            ShapeRelationJudge<AbstractShape, AbstractShape>> JUDGES = new HashMap<>();
+
+    private static final ClassValue<Integer> SHAPE_CLASS_ID = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            synchronized (LOCK) {
+                return classIdOf(type.asSubclass(AbstractShape.class));
+            }
+        }
+    };
+
+    /**
+     * [class id of k][class id of v].
+     * replaced as a whole when a class or a judge is added, never changed in place.
+     */
+    private static volatile ShapeRelationJudge<AbstractShape, AbstractShape>[][] table = newTable(0);
+
+    static {
+        register(HorizontalRectangle.class, HorizontalRectangle.class, (k, v, rough) -> k.relation(v, rough));
+        register(HorizontalRectangle.class, Circle.class, (k, v, rough) -> k.relation(v, rough));
+        register(Circle.class, Circle.class, (k, v, rough) -> k.relation(v, rough));
+    }
+
+    private ShapeRelationJudgeTable() {
+    }
+
+    /**
+     * <p>getShapeClassId.</p>
+     *
+     * @param shapeClass shape class
+     * @return id of the class in this table.
+     */
+    public static int getShapeClassId(Class<? extends AbstractShape> shapeClass) {
+        return SHAPE_CLASS_ID.get(shapeClass);
+    }
+
+    /**
+     * register a judge for relation between K and V.
+     * replace the judge registered for the same pair before.
+     *
+     * @param kClass class of k
+     * @param vClass class of v
+     * @param judge  judge
+     * @param <K>    shape class.
+     * @param <V>    another shape class.
+     */
+    public static <K extends AbstractShape, V extends AbstractShape> void register(
+            Class<K> kClass,
+            Class<V> vClass,
+            ShapeRelationJudge<? super K, ? super V> judge
+    ) {
+        synchronized (LOCK) {
+            classIdOf(kClass);
+            classIdOf(vClass);
+            //the table only calls it with a K and a V.
+            @SuppressWarnings("unchecked") final ShapeRelationJudge<AbstractShape, AbstractShape> shapeRelationJudge =
+                    (ShapeRelationJudge<AbstractShape, AbstractShape>) judge;
+            JUDGES.put(new ImmutablePair<>(kClass, vClass), shapeRelationJudge);
+            rebuildTable();
+        }
+    }
+
+    /**
+     * <p>relation.</p>
+     *
+     * @param k     shape.
+     * @param v     another shape.
+     * @param rough if rough.
+     * @return return
+     * @see AbstractShape#relation(AbstractShape, AbstractShape, boolean)
+     */
+    public static ShapeRelation relation(AbstractShape k, AbstractShape v, boolean rough) {
+        return table[k.getShapeClassId()][v.getShapeClassId()].relation(k, v, rough);
+    }
+
+    private static int classIdOf(Class<? extends AbstractShape> type) {
+        Integer classId = CLASS_IDS.get(type);
+        if (classId != null) {
+            return classId;
+        }
+        classId = CLASSES.size();
+        CLASS_IDS.put(type, classId);
+        CLASSES.add(type);
+        registerRelationMethods(type);
+        rebuildTable();
+        return classId;
+    }
+
+    private static void registerRelationMethods(Class<? extends AbstractShape> type) {
+        for (Method method : type.getDeclaredMethods()) {
+            if (!AbstractShape.STRING_RELATION.equals(method.getName())
+                    || !Modifier.isPublic(method.getModifiers())
+                    || Modifier.isStatic(method.getModifiers())
+                    || method.getReturnType() != ShapeRelation.class
+                    || method.getParameterCount() != 2
+                    || method.getParameterTypes()[1] != boolean.class) {
+                continue;
+            }
+            final Class<?> parameterClass = method.getParameterTypes()[0];
+            if (parameterClass == AbstractShape.class || !AbstractShape.class.isAssignableFrom(parameterClass)) {
+                continue;
+            }
+            final Class<? extends AbstractShape> targetClass = parameterClass.asSubclass(AbstractShape.class);
+            final MethodHandle methodHandle;
+            try {
+                methodHandle = MethodHandles.publicLookup().unreflect(method).asType(JUDGE_METHOD_TYPE);
+            } catch (IllegalAccessException e) {
+                LOGGER.error("ShapeRelationJudgeTable cannot access {}", method, e);
+                continue;
+            }
+            JUDGES.putIfAbsent(
+                    new ImmutablePair<>(type, targetClass),
+                    (k, v, rough) -> {
+                        try {
+                            return (ShapeRelation) methodHandle.invokeExact(k, v, rough);
+                        } catch (RuntimeException | Error e) {
+                            throw e;
+                        } catch (Throwable e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+            );
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ShapeRelationJudge<AbstractShape, AbstractShape>[][] newTable(int size) {
+        return (ShapeRelationJudge<AbstractShape, AbstractShape>[][]) new ShapeRelationJudge<?, ?>[size][size];
+    }
+
+    private static void rebuildTable() {
+        final int size = CLASSES.size();
+        final ShapeRelationJudge<AbstractShape, AbstractShape>[][] newTable = newTable(size);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                newTable[i][j] = resolve(CLASSES.get(i), CLASSES.get(j));
+            }
+        }
+        table = newTable;
+    }
+
+    private static ShapeRelationJudge<AbstractShape, AbstractShape> resolve(
+            Class<? extends AbstractShape> kClass,
+            Class<? extends AbstractShape> vClass
+    ) {
+        final ShapeRelationJudge<AbstractShape, AbstractShape> judge = findJudge(kClass, vClass);
+        final ShapeRelationJudge<AbstractShape, AbstractShape> reverseJudge = findJudge(vClass, kClass);
+        if (reverseJudge == null) {
+            return judge == null ? UNDEFINED_JUDGE : judge;
+        }
+        return (k, v, rough) -> {
+            if (judge != null) {
+                final ShapeRelation res = judge.relation(k, v, rough);
+                if (res != RELATION_UNDEFINED) {
+                    return res;
+                }
+            }
+            final ShapeRelation res = reverseJudge.relation(v, k, rough);
+            if (res == RELATION_INNER) {
+                return RELATION_OUTER;
+            } else if (res == RELATION_OUTER) {
+                return RELATION_INNER;
+            }
+            return res;
+        };
+    }
+
+    /**
+     * @return judge registered for the closest superclasses of kClass and vClass, or null.
+     */
+    private static ShapeRelationJudge<AbstractShape, AbstractShape> findJudge(
+            Class<? extends AbstractShape> kClass,
+            Class<? extends AbstractShape> vClass
+    ) {
+        for (Class<?> kc = kClass; isShapeClass(kc); kc = kc.getSuperclass()) {
+            for (Class<?> vc = vClass; isShapeClass(vc); vc = vc.getSuperclass()) {
+                final ShapeRelationJudge<AbstractShape, AbstractShape> judge = JUDGES.get(
+                        new ImmutablePair<>(kc.asSubclass(AbstractShape.class), vc.asSubclass(AbstractShape.class)));
+                if (judge != null) {
+                    return judge;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isShapeClass(Class<?> type) {
+        return type != null && type != AbstractShape.class && AbstractShape.class.isAssignableFrom(type);
+    }
+}
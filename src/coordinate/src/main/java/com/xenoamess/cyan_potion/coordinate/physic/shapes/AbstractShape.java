@@ -29,8 +29,11 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.xenoamess.cyan_potion.base.areas.AbstractMutableArea;
 import com.xenoamess.cyan_potion.coordinate.AbstractEntityScene;
 import com.xenoamess.cyan_potion.coordinate.entity.AbstractEntity;
+import com.xenoamess.cyan_potion.coordinate.physic.MovementQuery;
 import com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.BroadPhase;
 import com.xenoamess.cyan_potion.coordinate.physic.shape_relation_judges.ShapeRelationJudge;
+import com.xenoamess.cyan_potion.coordinate.physic.shape_relation_judges.ShapeRelationJudgeTable;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
@@ -43,18 +46,11 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Collection;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation.RELATION_COLLIDE;
-import static com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation.RELATION_INNER;
-import static com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation.RELATION_OUTER;
-import static com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation.RELATION_UNDEFINED;
 
 /**
  * Shape is a shape of something.
@@ -76,10 +72,6 @@ public abstract class AbstractShape implements AbstractMutableArea {
      */
     public static final String STRING_RELATION = "relation";
 
-    @Getter
-    private static final Map<ImmutablePair<Class, Class>, ShapeRelationJudge>
-            SHAPE_RELATION_JUDGES = new ConcurrentHashMap<>();
-
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     @Getter
@@ -94,6 +86,23 @@ public abstract class AbstractShape implements AbstractMutableArea {
     @Setter
     private Vector3f size;
 
+    /**
+     * id of this shape's class in ShapeRelationJudgeTable.
+     */
+    @JsonIgnore
+    @Getter
+    private final transient int shapeClassId;
+
+    /**
+     * handle of this shape in its scene's spatial index, or INVALID_HANDLE if not registered.
+     */
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter
+    @Setter
+    private transient int broadPhaseHandle = BroadPhase.INVALID_HANDLE;
+
     /**
      * <p>Constructor for AbstractShape.</p>
      *
@@ -103,6 +112,7 @@ public abstract class AbstractShape implements AbstractMutableArea {
      */
     public AbstractShape(AbstractEntity entity, Vector3f centerPos,
                          Vector3f size) {
+        this.shapeClassId = ShapeRelationJudgeTable.getShapeClassId(this.getClass());
         this.setEntity(entity);
         this.setCenterPos(new Vector3f(centerPos));
         this.setSize(new Vector3f(size));
@@ -119,6 +129,7 @@ public abstract class AbstractShape implements AbstractMutableArea {
 
     /**
      * <p>relation.</p>
+     * judged by the judge registered in {@link ShapeRelationJudgeTable} for the classes of k and v.
      *
      * @param k     shape.
      * @param v     another shape.
@@ -126,89 +137,10 @@ public abstract class AbstractShape implements AbstractMutableArea {
      * @param <K>   shape class.
      * @param <V>   another shape class.
      * @return return
+     * @see ShapeRelationJudgeTable#register(Class, Class, ShapeRelationJudge)
      */
     public static <K extends AbstractShape, V extends AbstractShape> ShapeRelation relation(K k, V v, boolean rough) {
-        ShapeRelation res = RELATION_UNDEFINED;
-
-        Method excludeMethod = null;
-        try {
-            excludeMethod = AbstractShape.class.getMethod(
-                    STRING_RELATION, AbstractShape.class, boolean.class);
-        } catch (NoSuchMethodException e) {
-            //do nothing
-        }
-
-        Method method = null;
-        try {
-            method = k.getClass().getMethod(
-                    STRING_RELATION, v.getClass(), boolean.class);
-            if (method.equals(excludeMethod)) {
-                method = null;
-            }
-        } catch (NoSuchMethodException e) {
-            //do nothing
-        }
-
-        if (method != null) {
-            try {
-                res = (ShapeRelation) method.invoke(k, v, rough);
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                LOGGER.error("AbstractShape.relation(K k, V v, boolean rough) fails:", e);
-            }
-        }
-        if (res != RELATION_UNDEFINED) {
-            return res;
-        }
-
-        try {
-            method = v.getClass().getMethod(
-                    STRING_RELATION, k.getClass(), boolean.class);
-            if (method.equals(excludeMethod)) {
-                method = null;
-            }
-        } catch (NoSuchMethodException e) {
-            //do nothing
-        }
-
-        if (method != null) {
-            try {
-                res = (ShapeRelation) method.invoke(v, k, rough);
-                if (res == RELATION_INNER) {
-                    res = RELATION_OUTER;
-                } else if (res == RELATION_OUTER) {
-                    res = RELATION_INNER;
-                }
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                LOGGER.error("AbstractShape.relation(K k, V v, boolean rough) fails:", e);
-            }
-        }
-        if (res != RELATION_UNDEFINED) {
-            return res;
-        }
-
-        //if cannot find the relation function in it,then goto
-
-        ShapeRelationJudge shapeComparator =
-                getSHAPE_RELATION_JUDGES().get(
-                        new ImmutablePair(k.getClass(), v.getClass()));
-        if (shapeComparator == null) {
-            shapeComparator =
-                    getSHAPE_RELATION_JUDGES().get(
-                            new ImmutablePair(v.getClass(), k.getClass()));
-            if (shapeComparator == null) {
-                return RELATION_UNDEFINED;
-            } else {
-                res = shapeComparator.relation(v, k, rough);
-                if (res == RELATION_INNER) {
-                    res = RELATION_OUTER;
-                } else if (res == RELATION_OUTER) {
-                    res = RELATION_INNER;
-                }
-                return res;
-            }
-        } else {
-            return shapeComparator.relation(k, v, rough);
-        }
+        return ShapeRelationJudgeTable.relation(k, v, rough);
     }
 
     /**
@@ -326,100 +258,46 @@ public abstract class AbstractShape implements AbstractMutableArea {
      */
     @SuppressWarnings("UnusedReturnValue")
     public boolean register() {
-        boolean res = true;
-        Set<ImmutablePair<Integer, Integer>> newBoxes = this.getBoxes();
-        for (ImmutablePair<Integer, Integer> au : newBoxes) {
-            Set<AbstractShape> shapes =
-                    this.getEntity().getScene().getBoxToShapeMap().get(au);
-            if (shapes != null) {
-                for (AbstractShape au2 : shapes) {
-                    if (au2 == this) {
-                        continue;
-                    }
-                    if (this.relation(au2, true) == RELATION_COLLIDE) {
-                        res = false;
-                    }
-                }
-            } else {
-                shapes = new HashSet<>();
-                this.getEntity().getScene().getBoxToShapeMap().put(au, shapes);
-            }
-            shapes.add(this);
+        final BroadPhase broadPhase = this.getEntity().getScene().getBroadPhase();
+        if (this.broadPhaseHandle == BroadPhase.INVALID_HANDLE) {
+            this.broadPhaseHandle = broadPhase.insert(this);
+        } else {
+            broadPhase.update(this.broadPhaseHandle);
         }
-        return res;
+        this.getEntity().getScene().getContactPairManager().markMoved(this);
+        return broadPhase.forEachInArea(
+                this.minX(), this.minY(), this.maxX(), this.maxY(),
+                au -> au == this || this.relation(au, true) != RELATION_COLLIDE
+        );
     }
 
     /**
      * <p>canMove.</p>
+     * through the scene's MovementQuery.
      *
      * @param movementX a float.
      * @param movementY a float.
      * @return true: can move. false: cannot move.
      */
     public boolean canMove(float movementX, float movementY) {
-        AbstractShape tmpCopy = this.copy();
-        tmpCopy.forceMove(movementX, movementY);
-
-        Set<AbstractShape> newCollisionSet = new HashSet<>();
-        Set<AbstractShape> oldCollisionSet =
-                this.getEntity().getScene().getShapeCollisionSet().get(this);
-        if (oldCollisionSet == null) {
-            oldCollisionSet = new HashSet<>();
-        }
-
-        Set<ImmutablePair<Integer, Integer>> newBoxes = tmpCopy.getBoxes();
-
-        for (ImmutablePair<Integer, Integer> au : newBoxes) {
-            Collection<AbstractShape> shapes =
-                    this.getEntity().getScene().getBoxToShapeMap().get(au);
-            if (shapes != null) {
-                for (AbstractShape au2 : shapes) {
-                    if (au2 == this) {
-                        continue;
-                    }
-                    if (tmpCopy.relation(au2, true) == RELATION_COLLIDE) {
-                        if (!oldCollisionSet.contains(au2)) {
-                            return false;
-                        }
-                        oldCollisionSet.remove(au2);
-                        newCollisionSet.add(au2);
-                    }
-                }
-            }
-        }
-
-        this.getEntity().getScene().getShapeCollisionSet().put(this,
-                newCollisionSet);
-        for (AbstractShape shape : oldCollisionSet) {
-            Set<AbstractShape> shapes =
-                    this.getEntity().getScene().getShapeCollisionSet().get(shape);
-            if (shapes != null) {
-                shapes.remove(this);
-            }
-        }
-
-        Set<ImmutablePair<Integer, Integer>> oldBoxes = this.getBoxes();
-        for (ImmutablePair<Integer, Integer> au : newBoxes) {
-            if (oldBoxes.contains(au)) {
-                oldBoxes.remove(au);
-            } else {
-                Set<AbstractShape> shapes =
-                        this.getEntity().getScene().getBoxToShapeMap().computeIfAbsent(au, k -> new HashSet<>());
-                shapes.add(this);
-            }
-        }
+        return this.getEntity().getScene().getMovementQuery().canMove(this, movementX, movementY);
+    }
 
-        for (ImmutablePair<Integer, Integer> au : oldBoxes) {
-            Set<AbstractShape> shapes =
-                    this.getEntity().getScene().getBoxToShapeMap().get(au);
-            if (shapes != null) {
-                shapes.remove(this);
-                if (shapes.isEmpty()) {
-                    this.getEntity().getScene().getBoxToShapeMap().remove(au);
-                }
-            }
-        }
-        return true;
+    /**
+     * <p>setToMoved.</p>
+     * make this shape the same as source moved by movement, reusing this shape's vectors.
+     * used by MovementQuery to probe a movement without moving source.
+     *
+     * @param source    source shape, of the same class as this.
+     * @param movementX movementX
+     * @param movementY movementY
+     * @see MovementQuery
+     */
+    public void setToMoved(AbstractShape source, float movementX, float movementY) {
+        this.setEntity(source.getEntity());
+        this.getCenterPos().set(source.getCenterPos());
+        this.getSize().set(source.getSize());
+        this.move(movementX, movementY);
     }
 
     /**
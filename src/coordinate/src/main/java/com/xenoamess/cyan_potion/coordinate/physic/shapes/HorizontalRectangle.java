@@ -144,7 +144,7 @@ public class HorizontalRectangle extends AbstractShape {
             tmpY = thisMaxY;
         }
 
-        if (target.ifIn(new Vector3f(tmpX, tmpY, this.getCenterPos().z))) {
+        if (circleContains(target, tmpX, tmpY)) {
             return ShapeRelation.RELATION_NO_COLLIDE;
         } else {
             if (rough) {
@@ -159,11 +159,20 @@ public class HorizontalRectangle extends AbstractShape {
                 return ShapeRelation.RELATION_EQUAL;
             } else if ((thatMaxX <= thisMaxX) && (thatMaxY <= thisMaxY) && (thatMinX >= thisMinX) && (thatMinY >= thisMinY)) {
                 return ShapeRelation.RELATION_OUTER;
-            } else if (target.ifIn(new Vector3f(thisMinX, thisMinY,
-                    this.getCenterPos().z)) && target.ifIn(new Vector3f(thisMaxX, thisMinY, this.getCenterPos().z)) && target.ifIn(new Vector3f(thisMinX, thisMaxY, this.getCenterPos().z)) && target.ifIn(new Vector3f(thisMaxX, thisMaxY, this.getCenterPos().z))) {
+            } else if (circleContains(target, thisMinX, thisMinY) && circleContains(target, thisMaxX, thisMinY)
+                    && circleContains(target, thisMinX, thisMaxY) && circleContains(target, thisMaxX, thisMaxY)) {
                 return ShapeRelation.RELATION_INNER;
             }
             return ShapeRelation.RELATION_COLLIDE;
         }
     }
+
+    /**
+     * Circle.ifIn for a point at the circle's z, without creating a Vector3f.
+     */
+    private static boolean circleContains(Circle circle, float x, float y) {
+        final float tmpX = circle.getCenterPos().x - x;
+        final float tmpY = circle.getCenterPos().y - y;
+        return tmpX * tmpX + tmpY * tmpY <= circle.getSize().x * circle.getSize().x / 4;
+    }
 }
@@ -99,6 +99,31 @@ public class ShapeGroup extends AbstractShape {
         return ShapeRelation.RELATION_NO_COLLIDE;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * shapes in the group are set to the source's, not moved, as ShapeGroup.move does not move them either.
+     */
+    @Override
+    public void setToMoved(AbstractShape source, float movementX, float movementY) {
+        super.setToMoved(source, movementX, movementY);
+        final List<AbstractShape> sourceShapes = ((ShapeGroup) source).getShapes();
+        boolean sameClasses = sourceShapes.size() == this.getShapes().size();
+        for (int i = 0; sameClasses && i < sourceShapes.size(); i++) {
+            sameClasses = sourceShapes.get(i).getClass() == this.getShapes().get(i).getClass();
+        }
+        if (!sameClasses) {
+            this.getShapes().clear();
+            for (AbstractShape au : sourceShapes) {
+                this.getShapes().add(au.copy());
+            }
+            return;
+        }
+        for (int i = 0; i < sourceShapes.size(); i++) {
+            this.getShapes().get(i).setToMoved(sourceShapes.get(i), 0, 0);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,85 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate;
+
+import com.xenoamess.cyan_potion.coordinate.entity.AbstractEntity;
+import com.xenoamess.cyan_potion.coordinate.entity.StaticEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EntityRenderListTest {
+    private static StaticEntity entityOf(int layer) {
+        return new StaticEntity(null, 0, 0, 32, 32, layer, null, null);
+    }
+
+    private static List<AbstractEntity> toList(EntityRenderList entityRenderList) {
+        final List<AbstractEntity> result = new ArrayList<>();
+        entityRenderList.forEach(result::add);
+        return result;
+    }
+
+    @Test
+    public void testLayerOrder() {
+        final EntityRenderList entityRenderList = new EntityRenderList();
+        final StaticEntity a = entityOf(2);
+        final StaticEntity b = entityOf(1);
+        final StaticEntity c = entityOf(1);
+        entityRenderList.add(a);
+        entityRenderList.add(b);
+        entityRenderList.add(c);
+        assertEquals(Arrays.asList(b, c, a), toList(entityRenderList));
+
+        b.setLayer(3);
+        entityRenderList.changeLayer(b);
+        assertEquals(Arrays.asList(c, a, b), toList(entityRenderList));
+
+        final List<AbstractEntity> result = new ArrayList<>();
+        entityRenderList.forEachInRenderOrder(Arrays.asList(b, entityOf(0), a, b), result::add);
+        assertEquals(Arrays.asList(a, b), result);
+    }
+
+    @Test
+    public void testAddTwiceRemoveTwice() {
+        final EntityRenderList entityRenderList = new EntityRenderList();
+        final StaticEntity a = entityOf(0);
+        entityRenderList.add(a);
+        entityRenderList.add(a);
+        assertEquals(1, entityRenderList.size());
+        assertTrue(entityRenderList.getShapelessEntities().contains(a));
+        entityRenderList.remove(a);
+        assertTrue(entityRenderList.contains(a));
+        entityRenderList.remove(a);
+        assertFalse(entityRenderList.contains(a));
+        assertTrue(entityRenderList.getShapelessEntities().isEmpty());
+        assertTrue(toList(entityRenderList).isEmpty());
+    }
+}
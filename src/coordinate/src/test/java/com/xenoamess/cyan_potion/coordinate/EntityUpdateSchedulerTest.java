@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate;
+
+import com.xenoamess.cyan_potion.coordinate.entity.AbstractDynamicEntity;
+import com.xenoamess.cyan_potion.coordinate.entity.StaticEntity;
+import com.xenoamess.cyan_potion.coordinate.physic.MovementQuery;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.HorizontalRectangle;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import static com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation.RELATION_COLLIDE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class EntityUpdateSchedulerTest {
+    private static final int TICKS = 60;
+
+    /**
+     * walks a fixed pseudo random path; plans unless told not to.
+     */
+    private static class Walker extends AbstractDynamicEntity {
+        private final boolean planning;
+        private int seed;
+
+        Walker(AbstractEntityScene scene, float x, float y, int seed, boolean planning) {
+            super(scene, x, y, 32, 32, 0, null,
+                    new HorizontalRectangle(null, new Vector3f(x, y, 0), new Vector3f(32, 32, 0)));
+            this.seed = seed;
+            this.planning = planning;
+        }
+
+        private float next() {
+            this.seed = this.seed * 1103515245 + 12345;
+            return ((this.seed >>> 16) % 1300) / 100F - 6.5F;
+        }
+
+        @Override
+        public void update() {
+            this.planUpdate();
+            this.applyUpdate();
+        }
+
+        @Override
+        public boolean planUpdate() {
+            this.setPlannedMovement(this.next(), this.next());
+            return this.planning;
+        }
+
+        @Override
+        public void applyUpdate() {
+            this.tryMove(this.getPlannedMovementX(), this.getPlannedMovementY());
+        }
+    }
+
+    private static AbstractEntityScene crowdedScene() {
+        final AbstractEntityScene scene = new TestEntityScene();
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                final Walker walker = new Walker(scene, i * 36, j * 36, i * 20 + j, (i + j) % 7 != 0);
+                walker.registerShape();
+                scene.getDynamicEntityList().add(walker);
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            final StaticEntity wall = new StaticEntity(scene, i * 72 + 18, 730, 16, 16, 0, null,
+                    new HorizontalRectangle(null, new Vector3f(i * 72 + 18, 730, 0), new Vector3f(16, 16, 0)));
+            wall.registerShape();
+            scene.getStaticEntitySetList().add(wall);
+        }
+        return scene;
+    }
+
+    private static float[] positions(AbstractEntityScene scene) {
+        final List<AbstractDynamicEntity> entities = scene.getDynamicEntityList();
+        final float[] res = new float[entities.size() * 2];
+        for (int i = 0; i < entities.size(); i++) {
+            res[i * 2] = entities.get(i).getShape().getCenterPosX();
+            res[i * 2 + 1] = entities.get(i).getShape().getCenterPosY();
+        }
+        return res;
+    }
+
+    private static float[] runScheduled(int parallelism) {
+        final AbstractEntityScene scene = crowdedScene();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            final EntityUpdateScheduler scheduler = new EntityUpdateScheduler(scene, pool);
+            for (int i = 0; i < TICKS; i++) {
+                scheduler.update();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertNoOverlap(scene);
+        return positions(scene);
+    }
+
+    private static void assertNoOverlap(AbstractEntityScene scene) {
+        final List<AbstractShape> shapes = new ArrayList<>();
+        scene.getDynamicEntityList().forEach(entity -> shapes.add(entity.getShape()));
+        scene.getStaticEntitySetList().forEach(entity -> shapes.add(entity.getShape()));
+        for (int i = 0; i < shapes.size(); i++) {
+            for (int j = i + 1; j < shapes.size(); j++) {
+                assertNotEquals(RELATION_COLLIDE, shapes.get(i).relation(shapes.get(j), false), i + " " + j);
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsSerial() {
+        final AbstractEntityScene scene = crowdedScene();
+        for (int i = 0; i < TICKS; i++) {
+            final List<AbstractDynamicEntity> entities = scene.getDynamicEntityList();
+            for (AbstractDynamicEntity entity : entities) {
+                if (entity.planUpdate()) {
+                    entity.applyUpdate();
+                }
+            }
+            for (AbstractDynamicEntity entity : entities) {
+                if (!((Walker) entity).planning) {
+                    entity.update();
+                }
+            }
+        }
+        final float[] serial = positions(scene);
+
+        assertArrayEquals(serial, runScheduled(1));
+        assertArrayEquals(serial, runScheduled(4));
+        assertArrayEquals(serial, runScheduled(4));
+    }
+
+    @Test
+    public void testMovementQueryPerWorker() throws Exception {
+        final AbstractEntityScene scene = new TestEntityScene();
+        final MovementQuery ownerMovementQuery = scene.getMovementQuery();
+        assertSame(ownerMovementQuery, scene.getMovementQuery());
+
+        final ForkJoinPool pool = scene.getEntityUpdateScheduler().getPool();
+        final ForkJoinTask<MovementQuery> task = pool.submit(() -> {
+            assertSame(scene.getMovementQuery(), scene.getMovementQuery());
+            return scene.getMovementQuery();
+        });
+        //wait without joining, for a joining thread may run the task itself.
+        while (!task.isDone()) {
+            Thread.sleep(1);
+        }
+        assertNotSame(ownerMovementQuery, task.get());
+
+        final MovementQuery[] otherMovementQueries = new MovementQuery[2];
+        final Thread otherThread = new Thread(() -> {
+            otherMovementQueries[0] = scene.getMovementQuery();
+            otherMovementQueries[1] = scene.getMovementQuery();
+        });
+        otherThread.start();
+        otherThread.join();
+        assertNotSame(otherMovementQueries[0], otherMovementQueries[1]);
+        assertNotSame(ownerMovementQuery, otherMovementQueries[0]);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.xenoamess.cyan_potion.coordinate;
+
+import com.xenoamess.cyan_potion.coordinate.entity.StaticEntity;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.BroadPhase;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.HorizontalRectangle;
+import org.joml.Vector3f;
+
+/**
+ * scene without a game window or processors, for tests.
+ */
+public class TestEntityScene extends AbstractEntityScene {
+    public TestEntityScene() {
+        super(null);
+    }
+
+    public TestEntityScene(BroadPhase broadPhase) {
+        super(null, broadPhase);
+    }
+
+    @Override
+    protected void initProcessors() {
+        //do nothing
+    }
+
+    /**
+     * add a 32 * 32 static entity centered at (x, y) and register its shape.
+     *
+     * @return shape of the entity.
+     */
+    public static AbstractShape registeredShape(AbstractEntityScene scene, float x, float y) {
+        final StaticEntity entity = new StaticEntity(scene, x, y, 32, 32, 0, null,
+                new HorizontalRectangle(null, new Vector3f(x, y, 0), new Vector3f(32, 32, 0)));
+        entity.registerShape();
+        return entity.getShape();
+    }
+}
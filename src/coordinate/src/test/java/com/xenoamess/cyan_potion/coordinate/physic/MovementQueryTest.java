@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic;
+
+import com.xenoamess.cyan_potion.coordinate.AbstractEntityScene;
+import com.xenoamess.cyan_potion.coordinate.TestEntityScene;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashSet;
+
+import static com.xenoamess.cyan_potion.coordinate.TestEntityScene.registeredShape;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MovementQueryTest {
+    @Test
+    public void testBlockAndAllowedFraction() {
+        final AbstractEntityScene scene = new TestEntityScene();
+        final AbstractShape wall = registeredShape(scene, 100, 0);
+        final AbstractShape mover = registeredShape(scene, 0, 0);
+        final MovementQuery movementQuery = scene.getMovementQuery();
+
+        assertTrue(movementQuery.test(mover, 10, 0));
+        assertFalse(movementQuery.test(mover, 80, 0));
+        assertEquals(Collections.singletonList(wall), movementQuery.getBlockingShapes());
+        assertEquals(0, mover.getCenterPosX());
+
+        final float fraction = movementQuery.allowedFraction(mover, 100, 0);
+        assertTrue(fraction > 0.66F && fraction < 0.68F, "fraction " + fraction);
+        assertEquals(1, movementQuery.allowedFraction(mover, 0, 100));
+
+        assertTrue(mover.tryMove(300, 0));
+        assertEquals(300, mover.getCenterPosX());
+        assertTrue(movementQuery.test(registeredShape(scene, 0, 200), 0, -200));
+    }
+
+    @Test
+    public void testKeepCollidingShapes() {
+        final AbstractEntityScene scene = new TestEntityScene();
+        final AbstractShape wall = registeredShape(scene, 20, 0);
+        final AbstractShape mover = registeredShape(scene, 0, 0);
+        scene.getShapeCollisionSet().put(mover, new HashSet<>(Collections.singleton(wall)));
+        scene.getShapeCollisionSet().put(wall, new HashSet<>(Collections.singleton(mover)));
+
+        assertTrue(mover.tryMove(5, 0));
+        assertEquals(Collections.singletonList(wall), scene.getMovementQuery().getKeptCollidingShapes());
+        assertTrue(scene.getShapeCollisionSet().get(mover).contains(wall));
+
+        assertTrue(mover.tryMove(-100, 0));
+        assertTrue(scene.getShapeCollisionSet().get(mover).isEmpty());
+        assertTrue(scene.getShapeCollisionSet().get(wall).isEmpty());
+        assertFalse(mover.tryMove(140, 0));
+    }
+
+    @Test
+    public void testNoAllocation() {
+        final AbstractEntityScene scene = new TestEntityScene();
+        for (int i = 0; i < 100; i++) {
+            registeredShape(scene, (i % 10) * 48 + 100, (i / 10) * 48);
+        }
+        final AbstractShape mover = registeredShape(scene, 0, 0);
+        final com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        for (int round = 0; round < 3; round++) {
+            final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < 10000; i++) {
+                mover.tryMove(1, 0);
+                mover.tryMove(-1, 0);
+                mover.canMove(120, 0);
+            }
+            allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+        }
+        assertEquals(0, allocated);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.broad_phases;
+
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.HorizontalRectangle;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BroadPhaseTest {
+    private static HorizontalRectangle rectangle(Random random, float maxSize) {
+        return new HorizontalRectangle(null,
+                new Vector3f(random.nextFloat() * 4000 - 2000, random.nextFloat() * 4000 - 2000, 0),
+                new Vector3f(1 + random.nextFloat() * maxSize, 1 + random.nextFloat() * maxSize, 0));
+    }
+
+    private static boolean overlaps(AbstractShape shape, float minX, float minY, float maxX, float maxY) {
+        return shape.minX() <= maxX && shape.maxX() >= minX && shape.minY() <= maxY && shape.maxY() >= minY;
+    }
+
+    /**
+     * every shape touching the area must be visited once; others may be visited, as queries are rough.
+     */
+    private static void checkAgainstBruteForce(Supplier<BroadPhase> broadPhaseSupplier) {
+        final Random random = new Random(7);
+        final BroadPhase broadPhase = broadPhaseSupplier.get();
+        final List<HorizontalRectangle> shapes = new ArrayList<>();
+        final List<Integer> handles = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            final HorizontalRectangle shape = rectangle(random, i % 50 == 0 ? 1500 : 40);
+            shapes.add(shape);
+            handles.add(broadPhase.insert(shape));
+        }
+        final List<HorizontalRectangle> removedShapes = new ArrayList<>();
+        for (int round = 0; round < 3000; round++) {
+            final int index = random.nextInt(shapes.size());
+            final int operation = random.nextInt(3);
+            if (operation == 0) {
+                final HorizontalRectangle shape = shapes.get(index);
+                shape.setCenterPos(new Vector3f(
+                        shape.getCenterPos().x + random.nextFloat() * 60 - 30,
+                        shape.getCenterPos().y + random.nextFloat() * 60 - 30,
+                        0));
+                broadPhase.update(handles.get(index));
+            } else if (operation == 1) {
+                broadPhase.remove(handles.remove(index));
+                removedShapes.add(shapes.remove(index));
+                final HorizontalRectangle shape = rectangle(random, 40);
+                shapes.add(shape);
+                handles.add(broadPhase.insert(shape));
+            } else {
+                final float minX = random.nextFloat() * 4000 - 2000;
+                final float minY = random.nextFloat() * 4000 - 2000;
+                final float maxX = minX + random.nextFloat() * 400;
+                final float maxY = minY + random.nextFloat() * 400;
+                final Set<AbstractShape> result = Collections.newSetFromMap(new IdentityHashMap<>());
+                assertTrue(broadPhase.forEachInArea(minX, minY, maxX, maxY, shape -> {
+                    assertTrue(result.add(shape), "visited twice");
+                    return true;
+                }));
+                for (HorizontalRectangle shape : shapes) {
+                    if (overlaps(shape, minX, minY, maxX, maxY)) {
+                        assertTrue(result.contains(shape));
+                    }
+                }
+                for (HorizontalRectangle shape : removedShapes) {
+                    assertFalse(result.contains(shape));
+                }
+            }
+        }
+        assertEquals(shapes.size(), broadPhase.getSize());
+        for (int i = 0; i < shapes.size(); i++) {
+            assertTrue(shapes.get(i) == broadPhase.getShape(handles.get(i)));
+        }
+    }
+
+    @Test
+    public void testSpatialHashGrid() {
+        checkAgainstBruteForce(() -> new SpatialHashGrid(128));
+    }
+
+    @Test
+    public void testDynamicAabbTree() {
+        checkAgainstBruteForce(DynamicAabbTree::new);
+        checkAgainstBruteForce(() -> new DynamicAabbTree(0));
+    }
+
+    @Test
+    public void testSweepAndPrune() {
+        checkAgainstBruteForce(SweepAndPrune::new);
+    }
+
+    @Test
+    public void testDynamicAabbTreeBalanced() {
+        final DynamicAabbTree dynamicAabbTree = new DynamicAabbTree();
+        for (int i = 0; i < 1024; i++) {
+            dynamicAabbTree.insert(new HorizontalRectangle(null,
+                    new Vector3f(i * 10, 0, 0), new Vector3f(4, 4, 0)));
+        }
+        assertTrue(dynamicAabbTree.getHeight() <= 20, "height " + dynamicAabbTree.getHeight());
+    }
+
+    @Test
+    public void testSweepAndPruneMaxWidth() {
+        final SweepAndPrune sweepAndPrune = new SweepAndPrune();
+        final int wide = sweepAndPrune.insert(new HorizontalRectangle(null,
+                new Vector3f(0, 0, 0), new Vector3f(1000, 10, 0)));
+        sweepAndPrune.insert(new HorizontalRectangle(null, new Vector3f(0, 0, 0), new Vector3f(10, 10, 0)));
+        assertEquals(1000, sweepAndPrune.getMaxWidth());
+        sweepAndPrune.remove(wide);
+        assertEquals(10, sweepAndPrune.getMaxWidth());
+    }
+}
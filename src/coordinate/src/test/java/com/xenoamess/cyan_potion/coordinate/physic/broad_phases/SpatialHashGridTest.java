@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.broad_phases;
+
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.HorizontalRectangle;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SpatialHashGridTest {
+    private static HorizontalRectangle rectangle(float x, float y, float width, float height) {
+        return new HorizontalRectangle(null, new Vector3f(x, y, 0), new Vector3f(width, height, 0));
+    }
+
+    private static Set<AbstractShape> query(SpatialHashGrid grid, float minX, float minY, float maxX, float maxY) {
+        final Set<AbstractShape> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        grid.forEachInArea(minX, minY, maxX, maxY, shape -> {
+            assertTrue(result.add(shape), "visited twice");
+            return true;
+        });
+        return result;
+    }
+
+    @Test
+    public void testInsertUpdateRemove() {
+        final SpatialHashGrid grid = new SpatialHashGrid(128);
+        final HorizontalRectangle big = rectangle(0, 0, 1000, 1000);
+        final HorizontalRectangle small = rectangle(300, 300, 10, 10);
+        final int bigHandle = grid.insert(big);
+        final int smallHandle = grid.insert(small);
+        assertEquals(2, grid.getSize());
+        assertSame(big, grid.getShape(bigHandle));
+
+        assertEquals(2, query(grid, -500, -500, 500, 500).size());
+        assertEquals(Collections.singleton(big), query(grid, -400, -400, -300, -300));
+
+        small.setCenterPos(new Vector3f(3000, 3000, 0));
+        grid.update(smallHandle);
+        assertEquals(Collections.singleton(big), query(grid, 250, 250, 350, 350));
+        assertEquals(Collections.singleton(small), query(grid, 2990, 2990, 3010, 3010));
+
+        grid.remove(bigHandle);
+        assertEquals(1, grid.getSize());
+        assertTrue(query(grid, -500, -500, 500, 500).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> grid.getShape(bigHandle));
+        assertEquals(bigHandle, grid.insert(big));
+    }
+
+    @Test
+    public void testStopVisiting() {
+        final SpatialHashGrid grid = new SpatialHashGrid(16);
+        for (int i = 0; i < 10; i++) {
+            grid.insert(rectangle(i * 20, 0, 8, 8));
+        }
+        final int[] visited = new int[1];
+        assertFalse(grid.forEachInArea(0, 0, 200, 0, shape -> ++visited[0] < 3));
+        assertEquals(3, visited[0]);
+    }
+
+    @Test
+    public void testRandomAgainstBruteForce() {
+        final Random random = new Random(42);
+        final SpatialHashGrid grid = new SpatialHashGrid(32);
+        final List<HorizontalRectangle> shapes = new ArrayList<>();
+        final List<Integer> handles = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            final HorizontalRectangle shape = rectangle(
+                    random.nextFloat() * 2000 - 1000, random.nextFloat() * 2000 - 1000,
+                    1 + random.nextFloat() * 200, 1 + random.nextFloat() * 200);
+            shapes.add(shape);
+            handles.add(grid.insert(shape));
+        }
+        for (int round = 0; round < 2000; round++) {
+            final int index = random.nextInt(shapes.size());
+            final int operation = random.nextInt(3);
+            if (operation == 0) {
+                final HorizontalRectangle shape = shapes.get(index);
+                shape.setCenterPos(new Vector3f(
+                        shape.getCenterPos().x + random.nextFloat() * 100 - 50,
+                        shape.getCenterPos().y + random.nextFloat() * 100 - 50,
+                        0));
+                grid.update(handles.get(index));
+            } else if (operation == 1) {
+                grid.remove(handles.remove(index));
+                shapes.remove(index);
+                final HorizontalRectangle shape = rectangle(
+                        random.nextFloat() * 2000 - 1000, random.nextFloat() * 2000 - 1000,
+                        1 + random.nextFloat() * 50, 1 + random.nextFloat() * 50);
+                shapes.add(shape);
+                handles.add(grid.insert(shape));
+            } else {
+                final float minX = random.nextFloat() * 2000 - 1000;
+                final float minY = random.nextFloat() * 2000 - 1000;
+                final float maxX = minX + random.nextFloat() * 300;
+                final float maxY = minY + random.nextFloat() * 300;
+                final Set<AbstractShape> result = query(grid, minX, minY, maxX, maxY);
+                for (HorizontalRectangle shape : shapes) {
+                    final boolean sharesCell = grid.cellOf(shape.minX()) <= grid.cellOf(maxX)
+                            && grid.cellOf(shape.maxX()) >= grid.cellOf(minX)
+                            && grid.cellOf(shape.minY()) <= grid.cellOf(maxY)
+                            && grid.cellOf(shape.maxY()) >= grid.cellOf(minY);
+                    assertEquals(sharesCell, result.contains(shape));
+                }
+            }
+        }
+        assertEquals(shapes.size(), grid.getSize());
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.contacts;
+
+import com.xenoamess.cyan_potion.base.events.Event;
+import com.xenoamess.cyan_potion.coordinate.AbstractEntityScene;
+import com.xenoamess.cyan_potion.coordinate.TestEntityScene;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.BroadPhase;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.DynamicAabbTree;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.SpatialHashGrid;
+import com.xenoamess.cyan_potion.coordinate.physic.broad_phases.SweepAndPrune;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static com.xenoamess.cyan_potion.coordinate.TestEntityScene.registeredShape;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ContactPairManagerTest {
+    private static void moveTo(AbstractEntityScene scene, ContactPairManager manager,
+                               AbstractShape shape, float x, float y) {
+        shape.setCenterPosX(x);
+        shape.setCenterPosY(y);
+        scene.getBroadPhase().update(shape.getBroadPhaseHandle());
+        manager.markMoved(shape);
+    }
+
+    private static ContactEvent onlyEvent(List<Event> events, ContactEventType contactEventType) {
+        ContactEvent res = null;
+        for (Event event : events) {
+            if (((ContactEvent) event).getContactEventType() == contactEventType) {
+                assertTrue(res == null);
+                res = (ContactEvent) event;
+            }
+        }
+        return res;
+    }
+
+    @Test
+    public void testEnterStayExit() {
+        final AbstractEntityScene scene = new TestEntityScene();
+        final List<Event> events = new ArrayList<>();
+        final ContactPairManager manager = new ContactPairManager(scene, events::add);
+        final AbstractShape a = registeredShape(scene, 0, 0);
+        final AbstractShape b = registeredShape(scene, 100, 0);
+        manager.markMoved(a);
+        manager.markMoved(b);
+        manager.update();
+        assertTrue(events.isEmpty());
+
+        moveTo(scene, manager, a, 68, 0);
+        manager.update();
+        final ContactEvent enter = onlyEvent(events, ContactEventType.ENTER);
+        assertEquals(1, enter.getPairNum());
+        assertTrue(enter.getFirstShape(0) == a && enter.getSecondShape(0) == b
+                || enter.getFirstShape(0) == b && enter.getSecondShape(0) == a);
+        assertTrue(manager.isTouching(a, b));
+        assertTrue(manager.isTouching(b, a));
+        events.clear();
+
+        manager.update();
+        assertEquals(1, events.size());
+        assertEquals(1, onlyEvent(events, ContactEventType.STAY).getPairNum());
+        events.clear();
+
+        manager.setSendingStayEvents(false);
+        moveTo(scene, manager, b, 200, 0);
+        manager.update();
+        assertEquals(1, events.size());
+        final ContactEvent exit = onlyEvent(events, ContactEventType.EXIT);
+        assertEquals(1, exit.getPairNum());
+        assertSame(enter.getFirstShape(0), exit.getFirstShape(0));
+        assertFalse(manager.isTouching(a, b));
+        assertEquals(0, manager.getPairNum());
+    }
+
+    @Test
+    public void testRemovedWhileTouching() {
+        for (BroadPhase broadPhase : new BroadPhase[]{
+                new SpatialHashGrid(AbstractEntityScene.BOX_SIZE), new DynamicAabbTree(), new SweepAndPrune()}) {
+            final AbstractEntityScene scene = new TestEntityScene(broadPhase);
+            final List<Event> events = new ArrayList<>();
+            final ContactPairManager manager = new ContactPairManager(scene, events::add);
+            final AbstractShape a = registeredShape(scene, 0, 0);
+            final AbstractShape b = registeredShape(scene, 20, 0);
+            final AbstractShape c = registeredShape(scene, 300, 0);
+            manager.markMoved(a);
+            manager.markMoved(b);
+            manager.markMoved(c);
+            manager.update();
+            assertTrue(manager.isTouching(a, b));
+            events.clear();
+
+            broadPhase.remove(b.getBroadPhaseHandle());
+            manager.markMoved(b);
+            moveTo(scene, manager, c, 320, 0);
+            manager.update();
+            final ContactEvent exit = onlyEvent(events, ContactEventType.EXIT);
+            assertEquals(1, exit.getPairNum());
+            assertFalse(manager.isTouching(a, b));
+            assertEquals(0, manager.getPairNum());
+        }
+    }
+
+    @Test
+    public void testContactMargin() {
+        final AbstractEntityScene scene = new TestEntityScene();
+        final List<Event> events = new ArrayList<>();
+        final ContactPairManager manager = new ContactPairManager(scene, events::add);
+        final AbstractShape a = registeredShape(scene, 0, 0);
+        final AbstractShape b = registeredShape(scene, 40, 0);
+        manager.markMoved(a);
+        manager.update();
+        assertFalse(manager.isTouching(a, b));
+
+        manager.setContactMargin(4);
+        manager.markMoved(a);
+        manager.update();
+        assertTrue(manager.isTouching(a, b));
+    }
+
+    @Test
+    public void testRandomAgainstBruteForce() {
+        final AbstractEntityScene scene = new TestEntityScene();
+        final List<Event> events = new ArrayList<>();
+        final ContactPairManager manager = new ContactPairManager(scene, events::add);
+        final Random random = new Random(7);
+        final List<AbstractShape> shapes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final AbstractShape shape = registeredShape(scene, random.nextInt(600), random.nextInt(600));
+            shapes.add(shape);
+            manager.markMoved(shape);
+        }
+        Set<String> touching = new HashSet<>();
+        for (int tick = 0; tick < 50; tick++) {
+            for (AbstractShape shape : shapes) {
+                if (random.nextInt(4) == 0) {
+                    moveTo(scene, manager, shape,
+                            shape.getCenterPosX() + random.nextInt(21) - 10,
+                            shape.getCenterPosY() + random.nextInt(21) - 10);
+                }
+            }
+            manager.update();
+
+            final Set<String> expected = new HashSet<>();
+            for (int i = 0; i < shapes.size(); i++) {
+                for (int j = i + 1; j < shapes.size(); j++) {
+                    final AbstractShape a = shapes.get(i);
+                    final AbstractShape b = shapes.get(j);
+                    if (a.maxX() >= b.minX() && b.maxX() >= a.minX() && a.maxY() >= b.minY() && b.maxY() >= a.minY()) {
+                        expected.add(i + " " + j);
+                    }
+                    assertEquals(expected.contains(i + " " + j), manager.isTouching(a, b));
+                }
+            }
+            assertEquals(expected.size(), manager.getPairNum());
+
+            final Set<String> entered = new HashSet<>();
+            final Set<String> exited = new HashSet<>();
+            for (Event event : events) {
+                final ContactEvent contactEvent = (ContactEvent) event;
+                for (int k = 0; k < contactEvent.getPairNum(); k++) {
+                    final int i = shapes.indexOf(contactEvent.getFirstShape(k));
+                    final int j = shapes.indexOf(contactEvent.getSecondShape(k));
+                    final String key = Math.min(i, j) + " " + Math.max(i, j);
+                    if (contactEvent.getContactEventType() == ContactEventType.ENTER) {
+                        entered.add(key);
+                    } else if (contactEvent.getContactEventType() == ContactEventType.EXIT) {
+                        exited.add(key);
+                    }
+                }
+            }
+            events.clear();
+            final Set<String> expectedEntered = new HashSet<>(expected);
+            expectedEntered.removeAll(touching);
+            final Set<String> expectedExited = new HashSet<>(touching);
+            expectedExited.removeAll(expected);
+            assertEquals(expectedEntered, entered);
+            assertEquals(expectedExited, exited);
+            touching = expected;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.coordinate.physic.shape_relation_judges;
+
+import com.xenoamess.cyan_potion.coordinate.physic.ShapeRelation;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.AbstractShape;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.Circle;
+import com.xenoamess.cyan_potion.coordinate.physic.shapes.HorizontalRectangle;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class ShapeRelationJudgeTableTest {
+    public static class Dot extends AbstractShape {
+        public Dot(Vector3f centerPos) {
+            super(null, centerPos, new Vector3f());
+        }
+
+        @Override
+        public boolean ifIn(Vector3f point) {
+            return this.getCenterPos().equals(point);
+        }
+
+        public ShapeRelation relation(HorizontalRectangle target, boolean rough) {
+            return target.ifIn(this.getCenterPos()) ? ShapeRelation.RELATION_INNER : ShapeRelation.RELATION_NO_COLLIDE;
+        }
+    }
+
+    public static class BigDot extends Dot {
+        public BigDot(Vector3f centerPos) {
+            super(centerPos);
+        }
+    }
+
+    public static class Star extends AbstractShape {
+        public Star(Vector3f centerPos) {
+            super(null, centerPos, new Vector3f(1, 1, 0));
+        }
+
+        @Override
+        public boolean ifIn(Vector3f point) {
+            return false;
+        }
+    }
+
+    public static class Ring extends AbstractShape {
+        public Ring(Vector3f centerPos) {
+            super(null, centerPos, new Vector3f(1, 1, 0));
+        }
+
+        @Override
+        public boolean ifIn(Vector3f point) {
+            return false;
+        }
+
+        public ShapeRelation relation(HorizontalRectangle target, boolean rough) {
+            return ShapeRelation.RELATION_UNDEFINED;
+        }
+    }
+
+    private static HorizontalRectangle rectangle(float x, float y, float size) {
+        return new HorizontalRectangle(null, new Vector3f(x, y, 0), new Vector3f(size, size, 0));
+    }
+
+    @Test
+    public void testBuiltinShapes() {
+        final HorizontalRectangle big = rectangle(0, 0, 64);
+        final HorizontalRectangle small = rectangle(0, 0, 16);
+        assertEquals(ShapeRelation.RELATION_OUTER, big.relation(small, false));
+        assertEquals(ShapeRelation.RELATION_INNER, small.relation(big, false));
+        assertEquals(ShapeRelation.RELATION_COLLIDE, small.relation(big, true));
+        assertEquals(ShapeRelation.RELATION_NO_COLLIDE, small.relation(rectangle(100, 0, 16), true));
+
+        final Circle circle1 = new Circle(null, new Vector3f(0, 0, 0), new Vector3f(32, 32, 0));
+        final Circle circle2 = new Circle(null, new Vector3f(100, 0, 0), new Vector3f(32, 32, 0));
+        assertEquals(ShapeRelation.RELATION_NO_COLLIDE, AbstractShape.relation(circle1, circle2, false));
+        assertEquals(big.relation(circle1, false), reverse(circle1.relation(big, false)));
+    }
+
+    @Test
+    public void testDeclaredRelationMethod() {
+        final HorizontalRectangle rectangle = rectangle(0, 0, 16);
+        final Dot dot = new Dot(new Vector3f(1, 1, 0));
+        assertEquals(ShapeRelation.RELATION_INNER, dot.relation(rectangle, false));
+        assertEquals(ShapeRelation.RELATION_OUTER, rectangle.relation(dot, false));
+        assertEquals(ShapeRelation.RELATION_NO_COLLIDE, new Dot(new Vector3f(50, 0, 0)).relation(rectangle, false));
+
+        final BigDot bigDot = new BigDot(new Vector3f(1, 1, 0));
+        assertNotEquals(dot.getShapeClassId(), bigDot.getShapeClassId());
+        assertEquals(ShapeRelation.RELATION_OUTER, rectangle.relation(bigDot, false));
+    }
+
+    @Test
+    public void testRegister() {
+        final Star star = new Star(new Vector3f());
+        final Circle circle = new Circle(null, new Vector3f(), new Vector3f(8, 8, 0));
+        assertEquals(ShapeRelation.RELATION_UNDEFINED, star.relation(circle, false));
+        assertEquals(ShapeRelation.RELATION_UNDEFINED, star.relation(star, false));
+
+        ShapeRelationJudgeTable.register(Star.class, Circle.class, (k, v, rough) -> ShapeRelation.RELATION_INNER);
+        assertEquals(ShapeRelation.RELATION_INNER, star.relation(circle, false));
+        assertEquals(ShapeRelation.RELATION_OUTER, circle.relation(star, false));
+        assertEquals(ShapeRelation.RELATION_UNDEFINED, star.relation(star, false));
+    }
+
+    @Test
+    public void testReverseFallback() {
+        final Ring ring = new Ring(new Vector3f());
+        final HorizontalRectangle rectangle = rectangle(0, 0, 16);
+        assertEquals(ShapeRelation.RELATION_UNDEFINED, AbstractShape.relation(ring, rectangle, false));
+
+        ShapeRelationJudgeTable.register(HorizontalRectangle.class, Ring.class,
+                (k, v, rough) -> ShapeRelation.RELATION_OUTER);
+        assertEquals(ShapeRelation.RELATION_INNER, AbstractShape.relation(ring, rectangle, false));
+        assertEquals(ShapeRelation.RELATION_OUTER, AbstractShape.relation(rectangle, ring, false));
+    }
+
+    private static ShapeRelation reverse(ShapeRelation shapeRelation) {
+        if (shapeRelation == ShapeRelation.RELATION_INNER) {
+            return ShapeRelation.RELATION_OUTER;
+        } else if (shapeRelation == ShapeRelation.RELATION_OUTER) {
+            return ShapeRelation.RELATION_INNER;
+        }
+        return shapeRelation;
+    }
+}
@@ -46,10 +46,31 @@ public class GameTile {
     @Setter
     private boolean solid = false;
 
+    /**
+     * bindables of this tile, from the lowest layer to the highest.
+     * call {@link #markChanged()} after changing it directly.
+     */
     @Getter
-    @Setter
     private ArrayList<Bindable> bindables = new ArrayList<>();
 
+    /**
+     * increased every time bindables change, so cached meshes of this tile know to rebuild.
+     */
+    @Getter
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int changeCount;
+
+    /**
+     * <p>Setter for the field <code>bindables</code>.</p>
+     *
+     * @param bindables bindables
+     */
+    public void setBindables(ArrayList<Bindable> bindables) {
+        this.bindables = bindables;
+        this.markChanged();
+    }
+
     /**
      * <p>addBindable.</p>
      *
@@ -57,6 +78,15 @@ public class GameTile {
      */
     public void addBindable(Bindable bindable) {
         this.getBindables().add(bindable);
+        this.markChanged();
+    }
+
+    /**
+     * <p>markChanged.</p>
+     * tell cached meshes that bindables of this tile changed.
+     */
+    public void markChanged() {
+        this.changeCount++;
     }
 
     /**
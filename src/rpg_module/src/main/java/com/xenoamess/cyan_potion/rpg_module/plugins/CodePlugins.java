@@ -68,6 +68,11 @@ public class CodePlugins {
         gameManager.getResourceManager().putResourceLoader(Texture.class, STRING_A2,
                 TextureUtils::loadAsTilesetTexturesA2
         );
+        for (String resourceType : new String[]{STRING_CHARACTER, STRING_A5, STRING_B, STRING_C, STRING_A2}) {
+            gameManager.getResourceManager().putStreamingResourceLoader(Texture.class, resourceType,
+                    TextureUtils.SHEET_STREAMING_LOADER
+            );
+        }
         return null;
     };
 }
@@ -32,8 +32,9 @@ import com.xenoamess.cyan_potion.base.exceptions.TextureStateDisorderException;
 import com.xenoamess.cyan_potion.base.exceptions.URITypeNotDefinedException;
 import com.xenoamess.cyan_potion.base.memory.ResourceInfo;
 import com.xenoamess.cyan_potion.base.memory.ResourceManager;
+import com.xenoamess.cyan_potion.base.memory.StreamingResourceLoader;
 import com.xenoamess.cyan_potion.base.render.Texture;
-import org.lwjgl.system.MemoryUtil;
+import com.xenoamess.cyan_potion.base.render.TextureAtlasBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,10 +42,12 @@ import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * <p>TextureUtils class.</p>
@@ -78,10 +81,114 @@ public class TextureUtils {
     private static final transient Logger LOGGER =
             LoggerFactory.getLogger(TextureUtils.class);
 
+    /**
+     * pixels of a whole sheet decoded by a streaming worker, in ARGB order.
+     * all slices of a sheet are baked from one decoded sheet.
+     */
+    private static final class DecodedSheet {
+        private final int width;
+        private final int height;
+        private final int[] pixels;
+
+        private DecodedSheet(int width, int height, int[] pixels) {
+            this.width = width;
+            this.height = height;
+            this.pixels = pixels;
+        }
+    }
+
+    /**
+     * sheets being decoded, by resource type and file string.
+     * slices of one sheet are requested together, so they wait for one decode instead of decoding it again each.
+     */
+    private static final ConcurrentHashMap<String, FutureTask<DecodedSheet>> DECODING_SHEETS =
+            new ConcurrentHashMap<>();
+
+    /**
+     * streaming loader of sliced textures (characters, A2, A5, B, C).
+     * the sheet is decoded on a worker thread, and sliced and packed into atlas pages on the main thread.
+     */
+    public static final StreamingResourceLoader<Texture, ?> SHEET_STREAMING_LOADER =
+            new StreamingResourceLoader<Texture, DecodedSheet>() {
+                @Override
+                public DecodedSheet decode(Texture texture) {
+                    final String key = getSheetKey(texture);
+                    final FutureTask<DecodedSheet> futureTask = new FutureTask<>(() -> decodeSheet(texture));
+                    FutureTask<DecodedSheet> decodingSheet = DECODING_SHEETS.putIfAbsent(key, futureTask);
+                    if (decodingSheet == null) {
+                        decodingSheet = futureTask;
+                        futureTask.run();
+                    }
+                    try {
+                        return decodingSheet.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return null;
+                    } catch (ExecutionException e) {
+                        LOGGER.error("TextureUtils.SHEET_STREAMING_LOADER.decode(Texture texture) fails:{}",
+                                texture, e);
+                        return null;
+                    }
+                }
+
+                @Override
+                public boolean upload(Texture texture, DecodedSheet decoded) {
+                    DECODING_SHEETS.remove(getSheetKey(texture));
+                    switch (texture.getResourceInfo().getType()) {
+                        case STRING_CHARACTER:
+                            return bakeWalkingTextures(texture, decoded);
+                        case STRING_A2:
+                            return bakeTilesetTexturesA2(texture, decoded);
+                        default:
+                            return bakeTilesetTextures8(texture, decoded);
+                    }
+                }
+
+                @Override
+                public void discard(DecodedSheet decoded) {
+                    DECODING_SHEETS.values().removeIf(futureTask -> {
+                        try {
+                            return futureTask.isDone() && futureTask.get() == decoded;
+                        } catch (InterruptedException | ExecutionException e) {
+                            return true;
+                        }
+                    });
+                }
+            };
+
     private TextureUtils() {
         //shall never
     }
 
+    private static String getSheetKey(Texture texture) {
+        return texture.getResourceInfo().getType() + ":" + texture.getResourceInfo().getFileString();
+    }
+
+    /**
+     * <p>decodeSheet.</p>
+     * the part of loading sliced textures that does not need the main thread.
+     *
+     * @param texture any slice of the sheet
+     * @return decoded sheet, or null if failed
+     */
+    private static DecodedSheet decodeSheet(Texture texture) {
+        final ResourceInfo<?> resourceInfo = texture.getResourceInfo();
+        BufferedImage bufferedImage = null;
+        try (InputStream inputStream = resourceInfo.getFileObject().getContent().getInputStream()) {
+            bufferedImage = ImageIO.read(inputStream);
+        } catch (IOException e) {
+            LOGGER.error("TextureUtils.decodeSheet(Texture texture) fails:{},{}",
+                    texture, resourceInfo, e);
+        }
+        if (bufferedImage == null) {
+            return null;
+        }
+        final int entireWidth = bufferedImage.getWidth();
+        final int entireHeight = bufferedImage.getHeight();
+        return new DecodedSheet(entireWidth, entireHeight, bufferedImage.getRGB(0, 0, entireWidth,
+                entireHeight, null, 0, entireWidth));
+    }
+
     /**
      * <p>loadAsWalkingTexture.</p>
      *
@@ -93,7 +200,13 @@ public class TextureUtils {
         if (!DataCenter.ifMainThread()) {
             return false;
         }
+        final DecodedSheet decodedSheet = decodeSheet(texture);
+        IllegalArgumentExceptionUtilsx.isAnyNullInParamsThenThrowIllegalArgumentException(decodedSheet);
+        return bakeWalkingTextures(texture, decodedSheet);
+    }
 
+    @MainThreadOnly
+    private static boolean bakeWalkingTextures(Texture texture, DecodedSheet decodedSheet) {
         ResourceInfo<Texture> resourceInfo = texture.getResourceInfo();
 
         //noinspection unused
@@ -101,24 +214,14 @@ public class TextureUtils {
         //noinspection unused
         final int textureIndex = Integer.parseInt(resourceInfo.getValues()[1]);
 
-
-        BufferedImage bufferedImage = null;
-
-        try (InputStream inputStream = resourceInfo.getFileObject().getContent().getInputStream()) {
-            bufferedImage = ImageIO.read(inputStream);
-        } catch (IOException e) {
-            LOGGER.error("TextureUtils.loadAsWalkingTexture(Texture texture, ResourceInfo resourceInfo) fails:{},{}",
-                    texture, resourceInfo, e);
-        }
-        IllegalArgumentExceptionUtilsx.isAnyNullInParamsThenThrowIllegalArgumentException(bufferedImage);
-        final int entireWidth = bufferedImage.getWidth();
-        final int entireHeight = bufferedImage.getHeight();
+        final int entireWidth = decodedSheet.width;
+        final int entireHeight = decodedSheet.height;
         final int singleWidth = entireWidth / 4 / 3;
         final int singleHeight = entireHeight / 2 / 4;
 
-        final int[] pixelsRaw = bufferedImage.getRGB(0, 0, entireWidth,
-                entireHeight, null, 0, entireWidth);
+        final int[] pixelsRaw = decodedSheet.pixels;
 
+        final TextureAtlasBuilder textureAtlasBuilder = new TextureAtlasBuilder();
         int startPosX = 0;
         int startPosY = 0;
         int nowPosX;
@@ -145,12 +248,10 @@ public class TextureUtils {
                                     Integer.toString(i * 3 + j)
                             );
                     if (!nowTexture.isInMemory()) {
-                        nowTexture.bake(singleWidth, singleHeight,
-                                entireWidth, entireHeight, nowPosX, nowPosY,
-                                pixelsRaw);
-                        if ((nowTexture.getGlTexture2DInt() == -1) == (nowTexture.isInMemory())) {
-                            throw new TextureStateDisorderException(nowTexture);
-                        }
+                        textureAtlasBuilder.add(nowTexture, singleWidth, singleHeight,
+                                pixelsRaw, nowPosY * entireWidth + nowPosX, entireWidth);
+                    } else {
+                        textureAtlasBuilder.addPage(nowTexture.getAtlas());
                     }
                     nowPosX += singleWidth;
                 }
@@ -158,6 +259,7 @@ public class TextureUtils {
             }
             startPosX += singleWidth * 3;
         }
+        textureAtlasBuilder.build();
 
         return true;
     }
@@ -174,7 +276,13 @@ public class TextureUtils {
         if (!DataCenter.ifMainThread()) {
             return false;
         }
+        final DecodedSheet decodedSheet = decodeSheet(texture);
+        IllegalArgumentExceptionUtilsx.isAnyNullInParamsThenThrowIllegalArgumentException(decodedSheet);
+        return bakeTilesetTextures8(texture, decodedSheet);
+    }
 
+    @MainThreadOnly
+    private static boolean bakeTilesetTextures8(Texture texture, DecodedSheet decodedSheet) {
         ResourceInfo resourceInfo = texture.getResourceInfo();
         final String resourceType = resourceInfo.getType();
         int columnNum;
@@ -190,25 +298,14 @@ public class TextureUtils {
                 throw new URITypeNotDefinedException(texture.getResourceInfo());
         }
 
-        BufferedImage bufferedImage = null;
-
-        try (InputStream inputStream = resourceInfo.getFileObject().getContent().getInputStream()) {
-            bufferedImage =
-                    ImageIO.read(inputStream);
-        } catch (IOException e) {
-            LOGGER.error("TextureUtils.loadAsTilesetTextures8(Texture texture) " +
-                            "fails:{},{}",
-                    texture, resourceInfo, e);
-        }
-        IllegalArgumentExceptionUtilsx.isAnyNullInParamsThenThrowIllegalArgumentException(bufferedImage);
-        final int entireWidth = bufferedImage.getWidth();
-        final int entireHeight = bufferedImage.getHeight();
+        final int entireWidth = decodedSheet.width;
+        final int entireHeight = decodedSheet.height;
         final int singleWidth = entireWidth / columnNum / 8;
         final int singleHeight = singleWidth;
 
-        final int[] pixelsRaw = bufferedImage.getRGB(0, 0, entireWidth,
-                entireHeight, null, 0, entireWidth);
+        final int[] pixelsRaw = decodedSheet.pixels;
 
+        final TextureAtlasBuilder textureAtlasBuilder = new TextureAtlasBuilder();
         int startPosX = 0;
         int startPosY = 0;
         int nowPosX;
@@ -241,12 +338,10 @@ public class TextureUtils {
                     }
 
                     if (!nowTexture.isInMemory()) {
-                        nowTexture.bake(singleWidth, singleHeight,
-                                entireWidth, entireHeight, nowPosX, nowPosY,
-                                pixelsRaw);
-                        if ((nowTexture.getGlTexture2DInt() == -1) == (nowTexture.isInMemory())) {
-                            throw new TextureStateDisorderException(nowTexture);
-                        }
+                        textureAtlasBuilder.add(nowTexture, singleWidth, singleHeight,
+                                pixelsRaw, nowPosY * entireWidth + nowPosX, entireWidth);
+                    } else {
+                        textureAtlasBuilder.addPage(nowTexture.getAtlas());
                     }
                     nowPosX += singleWidth;
                 }
@@ -256,17 +351,19 @@ public class TextureUtils {
             startPosY = 0;
             startPosX += entireWidth / columnNum;
         }
+        textureAtlasBuilder.build();
 
         return true;
     }
 
     @SuppressWarnings("UnusedReturnValue")
     @MainThreadOnly
-    private static boolean loadTilesetTextureA2SingleSingle(ResourceManager resourceManager, String fileString,
-                                                            int kk, int ti, int singleSingleWidth,
-                                                            int singleSingleHeight,
-                                                            int[] pixelsRaws0, int[] pixelsRaws1, int[] pixelsRaws2,
-                                                            int[] pixelsRaws3) {
+    static boolean loadTilesetTextureA2SingleSingle(TextureAtlasBuilder textureAtlasBuilder,
+                                                    ResourceManager resourceManager, String fileString,
+                                                    int kk, int ti, int singleSingleWidth,
+                                                    int singleSingleHeight,
+                                                    int[] pixelsRaws0, int[] pixelsRaws1, int[] pixelsRaws2,
+                                                    int[] pixelsRaws3) {
         if (!DataCenter.ifMainThread()) {
             return false;
         }
@@ -283,81 +380,36 @@ public class TextureUtils {
             throw new TextureStateDisorderException(nowTexture);
         }
         if (nowTexture.isInMemory()) {
+            textureAtlasBuilder.addPage(nowTexture.getAtlas());
             return true;
         }
-        final ByteBuffer byteBuffer =
-                MemoryUtil.memAlloc(singleSingleWidth * 2 * singleSingleHeight * 2 * 4);
+        final int width = singleSingleWidth * 2;
+        final int[] pixels = new int[width * singleSingleHeight * 2];
 
         for (int i = 0; i < singleSingleHeight; i++) {
-            for (int j = 0; j < singleSingleWidth; j++) {
-                int pixel = pixelsRaws0[i * singleSingleWidth + j];
-
-                // RED
-                byteBuffer.put((byte) ((pixel >> 16) & 0xFF));
-                // GREEN
-                byteBuffer.put((byte) ((pixel >> 8) & 0xFF));
-                // BLUE
-                byteBuffer.put((byte) (pixel & 0xFF));
-                // ALPHA
-                byteBuffer.put((byte) ((pixel >> 24) & 0xFF));
-            }
-            for (int j = 0; j < singleSingleWidth; j++) {
-                int pixel = pixelsRaws1[i * singleSingleWidth + j];
-
-                // RED
-                byteBuffer.put((byte) ((pixel >> 16) & 0xFF));
-                // GREEN
-                byteBuffer.put((byte) ((pixel >> 8) & 0xFF));
-                // BLUE
-                byteBuffer.put((byte) (pixel & 0xFF));
-                // ALPHA
-                byteBuffer.put((byte) ((pixel >> 24) & 0xFF));
-            }
-        }
-        for (int i = 0; i < singleSingleHeight; i++) {
-            for (int j = 0; j < singleSingleWidth; j++) {
-                int pixel = pixelsRaws2[i * singleSingleWidth + j];
-
-                // RED
-                byteBuffer.put((byte) ((pixel >> 16) & 0xFF));
-                // GREEN
-                byteBuffer.put((byte) ((pixel >> 8) & 0xFF));
-                // BLUE
-                byteBuffer.put((byte) (pixel & 0xFF));
-                // ALPHA
-                byteBuffer.put((byte) ((pixel >> 24) & 0xFF));
-            }
-            for (int j = 0; j < singleSingleWidth; j++) {
-                int pixel = pixelsRaws3[i * singleSingleWidth + j];
-
-                // RED
-                byteBuffer.put((byte) ((pixel >> 16) & 0xFF));
-                // GREEN
-                byteBuffer.put((byte) ((pixel >> 8) & 0xFF));
-                // BLUE
-                byteBuffer.put((byte) (pixel & 0xFF));
-                // ALPHA
-                byteBuffer.put((byte) ((pixel >> 24) & 0xFF));
-            }
+            System.arraycopy(pixelsRaws0, i * singleSingleWidth,
+                    pixels, i * width, singleSingleWidth);
+            System.arraycopy(pixelsRaws1, i * singleSingleWidth,
+                    pixels, i * width + singleSingleWidth, singleSingleWidth);
+            System.arraycopy(pixelsRaws2, i * singleSingleWidth,
+                    pixels, (i + singleSingleHeight) * width, singleSingleWidth);
+            System.arraycopy(pixelsRaws3, i * singleSingleWidth,
+                    pixels, (i + singleSingleHeight) * width + singleSingleWidth, singleSingleWidth);
         }
-        byteBuffer.flip();
 
-        if (!nowTexture.isInMemory()) {
-            nowTexture.bake(singleSingleWidth * 2, singleSingleHeight * 2,
-                    byteBuffer);
-        }
-        MemoryUtil.memFree(byteBuffer);
+        textureAtlasBuilder.add(nowTexture, width, singleSingleHeight * 2, pixels, 0, width);
 
         return true;
     }
 
     @SuppressWarnings("UnusedReturnValue")
     @MainThreadOnly
-    private static boolean loadTilesetTexturesA2Single(ResourceManager resourceManager,
-                                                       String fileString, int kk, int singleWidth,
-                                                       int singleHeight, int entireWidth,
-                                                       @SuppressWarnings("unused") int entireHeight, int startWidth,
-                                                       int startHeight, int[] pixelsRaw) {
+    static boolean loadTilesetTexturesA2Single(TextureAtlasBuilder textureAtlasBuilder,
+                                               ResourceManager resourceManager,
+                                               String fileString, int kk, int singleWidth,
+                                               int singleHeight, int entireWidth,
+                                               @SuppressWarnings("unused") int entireHeight, int startWidth,
+                                               int startHeight, int[] pixelsRaw) {
         if (!DataCenter.ifMainThread()) {
             return false;
         }
@@ -386,289 +438,289 @@ public class TextureUtils {
         {
             int ti = 0;
             //0
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[18],
                     pixelsRaws[15], pixelsRaws[14]);
             ti++;
             //1
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[18],
                     pixelsRaws[15], pixelsRaws[14]);
             ti++;
             //2
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[4],
                     pixelsRaws[15], pixelsRaws[14]);
             ti++;
             //3
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[4],
                     pixelsRaws[15], pixelsRaws[14]);
             ti++;
             //4
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[18],
                     pixelsRaws[15], pixelsRaws[8]);
             ti++;
             //5
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[18],
                     pixelsRaws[15], pixelsRaws[8]);
             ti++;
             //6
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[4],
                     pixelsRaws[15], pixelsRaws[8]);
             ti++;
             //7
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[4],
                     pixelsRaws[15], pixelsRaws[8]);
             ti++;
             //8
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[18],
                     pixelsRaws[7], pixelsRaws[14]);
             ti++;
             //9
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[18],
                     pixelsRaws[7], pixelsRaws[14]);
             ti++;
             //10
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[4],
                     pixelsRaws[7], pixelsRaws[14]);
             ti++;
             //11
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[4],
                     pixelsRaws[7], pixelsRaws[14]);
             ti++;
             //12
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[18],
                     pixelsRaws[7], pixelsRaws[8]);
             ti++;
             //13
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[18],
                     pixelsRaws[7], pixelsRaws[8]);
             ti++;
             //14
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[4],
                     pixelsRaws[7], pixelsRaws[8]);
             ti++;
             //15
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[4],
                     pixelsRaws[7], pixelsRaws[8]);
             ti++;
             //16
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[17], pixelsRaws[18],
                     pixelsRaws[13], pixelsRaws[14]);
             ti++;
             //17
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[17], pixelsRaws[4],
                     pixelsRaws[13], pixelsRaws[14]);
             ti++;
             //18
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[17], pixelsRaws[18],
                     pixelsRaws[13], pixelsRaws[8]);
             ti++;
             //19
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[17], pixelsRaws[4],
                     pixelsRaws[13], pixelsRaws[8]);
             ti++;
             //20
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[11], pixelsRaws[10],
                     pixelsRaws[15], pixelsRaws[14]);
             ti++;
             //21
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[11], pixelsRaws[10],
                     pixelsRaws[15], pixelsRaws[8]);
             ti++;
             //22
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[11], pixelsRaws[10],
                     pixelsRaws[7], pixelsRaws[14]);
             ti++;
             //23
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[11], pixelsRaws[10],
                     pixelsRaws[7], pixelsRaws[8]);
             ti++;
             //24
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[20],
                     pixelsRaws[15], pixelsRaws[16]);
             ti++;
             //25
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[20],
                     pixelsRaws[7], pixelsRaws[16]);
             ti++;
             //26
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[20],
                     pixelsRaws[15], pixelsRaws[16]);
             ti++;
             //27
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[20],
                     pixelsRaws[7], pixelsRaws[16]);
             ti++;
             //28
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[18],
                     pixelsRaws[23], pixelsRaws[22]);
             ti++;
             //29
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[18],
                     pixelsRaws[23], pixelsRaws[22]);
             ti++;
             //30
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[4],
                     pixelsRaws[23], pixelsRaws[22]);
             ti++;
             //31
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[4],
                     pixelsRaws[23], pixelsRaws[22]);
             ti++;
             //32
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[17], pixelsRaws[20],
                     pixelsRaws[13], pixelsRaws[16]);
             ti++;
             //33
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[11], pixelsRaws[10],
                     pixelsRaws[23], pixelsRaws[22]);
             ti++;
             //34
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[9], pixelsRaws[10],
                     pixelsRaws[13], pixelsRaws[14]);
             ti++;
             //35
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[9], pixelsRaws[10],
                     pixelsRaws[13], pixelsRaws[8]);
             ti++;
             //36
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[11], pixelsRaws[12],
                     pixelsRaws[15], pixelsRaws[16]);
             ti++;
             //37
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[11], pixelsRaws[12],
                     pixelsRaws[7], pixelsRaws[16]);
             ti++;
             //38
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[19], pixelsRaws[20],
                     pixelsRaws[23], pixelsRaws[24]);
             ti++;
             //39
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[3], pixelsRaws[20],
                     pixelsRaws[23], pixelsRaws[24]);
             ti++;
             //40
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[17], pixelsRaws[18],
                     pixelsRaws[21], pixelsRaws[22]);
             ti++;
             //41
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[17], pixelsRaws[4],
                     pixelsRaws[21], pixelsRaws[22]);
             ti++;
             //42
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[9], pixelsRaws[12],
                     pixelsRaws[13], pixelsRaws[16]);
             ti++;
             //43
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[9], pixelsRaws[10],
                     pixelsRaws[21], pixelsRaws[22]);
             ti++;
             //44
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[17], pixelsRaws[20],
                     pixelsRaws[21], pixelsRaws[24]);
             ti++;
             //45
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[11], pixelsRaws[12],
                     pixelsRaws[23], pixelsRaws[24]);
             ti++;
             //46
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[9], pixelsRaws[12],
                     pixelsRaws[21], pixelsRaws[24]);
             ti++;
             //47
-            loadTilesetTextureA2SingleSingle(resourceManager,
+            loadTilesetTextureA2SingleSingle(textureAtlasBuilder, resourceManager,
                     fileString, kk, ti, singleSingleWidth,
                     singleSingleHeight, pixelsRaws[1], pixelsRaws[2],
                     pixelsRaws[5], pixelsRaws[6]);
@@ -689,29 +741,24 @@ public class TextureUtils {
         if (!DataCenter.ifMainThread()) {
             return false;
         }
+        final DecodedSheet decodedSheet = decodeSheet(texture);
+        IllegalArgumentExceptionUtilsx.isAnyNullInParamsThenThrowIllegalArgumentException(decodedSheet);
+        return bakeTilesetTexturesA2(texture, decodedSheet);
+    }
 
+    @MainThreadOnly
+    private static boolean bakeTilesetTexturesA2(Texture texture, DecodedSheet decodedSheet) {
         ResourceInfo resourceInfo = texture.getResourceInfo();
 
-        BufferedImage bufferedImage = null;
-
-        try (InputStream inputStream = resourceInfo.getFileObject().getContent().getInputStream()) {
-            bufferedImage =
-                    ImageIO.read(inputStream);
-        } catch (IOException e) {
-            LOGGER.error("TextureUtils.loadAsTilesetTexturesA2(Texture texture, ResourceInfo resourceInfo) " +
-                            "fails:{},{}",
-                    texture, resourceInfo, e);
-        }
-        IllegalArgumentExceptionUtilsx.isAnyNullInParamsThenThrowIllegalArgumentException(bufferedImage);
-        final int entireWidth = bufferedImage.getWidth();
-        final int entireHeight = bufferedImage.getHeight();
+        final int entireWidth = decodedSheet.width;
+        final int entireHeight = decodedSheet.height;
         final int singleWidth = entireWidth / 8 / 2;
         final int singleHeight = singleWidth;
 
-        final int[] pixelsRaw = bufferedImage.getRGB(0, 0, entireWidth,
-                entireHeight, null, 0, entireWidth);
+        final int[] pixelsRaw = decodedSheet.pixels;
 
 
+        final TextureAtlasBuilder textureAtlasBuilder = new TextureAtlasBuilder();
         int startStartPosX = 0;
         //noinspection unused
         int startStartPosY = 0;
@@ -731,9 +778,12 @@ public class TextureUtils {
                                 Integer.toString(ti)
                         );
                 if (!nowTexture.isInMemory()) {
-                    loadTilesetTexturesA2Single(texture.getResourceManager(), resourceInfo.getFileString(),
+                    loadTilesetTexturesA2Single(textureAtlasBuilder, texture.getResourceManager(),
+                            resourceInfo.getFileString(),
                             k, singleWidth, singleHeight, entireWidth, entireHeight, startPosX, startPosY, pixelsRaw);
                     break;
+                } else {
+                    textureAtlasBuilder.addPage(nowTexture.getAtlas());
                 }
             }
 
@@ -748,6 +798,7 @@ public class TextureUtils {
                 startPosX = startStartPosX;
             }
         }
+        textureAtlasBuilder.build();
 
         return true;
     }
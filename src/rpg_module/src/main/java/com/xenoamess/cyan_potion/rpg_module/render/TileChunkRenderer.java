@@ -0,0 +1,287 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2020 XenoAmess
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.xenoamess.cyan_potion.rpg_module.render;
+
+import com.xenoamess.commons.main_thread_only.MainThreadOnly;
+import com.xenoamess.cyan_potion.base.GameWindow;
+import com.xenoamess.cyan_potion.base.render.Bindable;
+import com.xenoamess.cyan_potion.base.render.Camera;
+import com.xenoamess.cyan_potion.base.render.RenderBackends;
+import com.xenoamess.cyan_potion.base.render.StaticSpriteMesh;
+import com.xenoamess.cyan_potion.base.visual.Colors;
+import com.xenoamess.cyan_potion.rpg_module.RpgModuleDataCenter;
+import com.xenoamess.cyan_potion.rpg_module.game_map.GameMap;
+import com.xenoamess.cyan_potion.rpg_module.game_map.GameTile;
+import com.xenoamess.cyan_potion.rpg_module.world.World;
+import lombok.Getter;
+import lombok.ToString;
+import org.joml.Matrix4f;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>TileChunkRenderer class.</p>
+ * <p>
+ * Splits a GameMap into {@link #CHUNK_SIZE} x {@link #CHUNK_SIZE} tile chunks,
+ * bakes the tiles of each chunk once into a StaticSpriteMesh in scene absolute positions,
+ * and draws only the chunks the camera sees.
+ * A chunk is baked again when any of its tiles' changeCount changes,
+ * or when any of its bindables is moved to another bind target (for example reloaded after being freed).
+ * <p>
+ * Inside a chunk, quads are ordered layer by layer, and inside a layer grouped by bind target,
+ * which keeps painter's order because tiles of one layer never overlap.
+ *
+ * @author XenoAmess
+ * @version 0.167.3
+ * @see GameTile#markChanged()
+ */
+@ToString
+public class TileChunkRenderer implements Closeable {
+    /**
+     * width/height of a chunk, in tiles.
+     */
+    public static final int CHUNK_SIZE = 16;
+
+    private static class TileChunk {
+        final StaticSpriteMesh mesh = new StaticSpriteMesh();
+        /**
+         * sum of tiles' changeCount when baked. -1 if never baked.
+         */
+        long bakedChangeCount = -1;
+    }
+
+    @Getter
+    private final GameMap gameMap;
+
+    @Getter
+    private final int chunkNumX;
+
+    @Getter
+    private final int chunkNumY;
+
+    @ToString.Exclude
+    private final TileChunk[] chunks;
+
+    @ToString.Exclude
+    private final Matrix4f projection = new Matrix4f();
+
+    @ToString.Exclude
+    private final Matrix4f previousProjection = new Matrix4f();
+
+    /**
+     * <p>Constructor for TileChunkRenderer.</p>
+     *
+     * @param gameMap gameMap
+     */
+    public TileChunkRenderer(GameMap gameMap) {
+        this.gameMap = gameMap;
+        this.chunkNumX = (gameMap.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunkNumY = (gameMap.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunks = new TileChunk[this.chunkNumX * this.chunkNumY];
+    }
+
+    /**
+     * <p>draw.</p>
+     * draw every chunk the world's camera sees.
+     * <p>
+     * The camera is interpolated between its last two tick positions;
+     * when the render backend interpolates on replay, both projections are handed to it instead,
+     * and chunks seen from either position are drawn.
+     *
+     * @param world world
+     */
+    @MainThreadOnly
+    public void draw(World world) {
+        final GameWindow gameWindow = world.getGameWindow();
+        final Camera camera = world.getCamera();
+        final boolean interpolatingOnReplay = RenderBackends.getCurrent().isInterpolatingOnReplay();
+        final float interpolationAlpha = gameWindow.getGameManager().getInterpolationAlpha();
+        final float scale = world.getScale();
+        final float cameraX = interpolatingOnReplay ? camera.getPosX() : camera.getInterpolatedPosX(interpolationAlpha);
+        final float cameraY = interpolatingOnReplay ? camera.getPosY() : camera.getInterpolatedPosY(interpolationAlpha);
+        final float previousCameraX = interpolatingOnReplay ? camera.getPosX() - camera.getMotionX() : cameraX;
+        final float previousCameraY = interpolatingOnReplay ? camera.getPosY() - camera.getMotionY() : cameraY;
+        final float halfWidth = gameWindow.getLogicWindowWidth() / 2F / scale;
+        final float halfHeight = gameWindow.getLogicWindowHeight() / 2F / scale;
+
+        final int chunkX0 = Math.max(0, toChunkIndex(Math.min(cameraX, previousCameraX) - halfWidth));
+        final int chunkX1 = Math.min(this.getChunkNumX() - 1,
+                toChunkIndex(Math.max(cameraX, previousCameraX) + halfWidth));
+        final int chunkY0 = Math.max(0, toChunkIndex(Math.min(cameraY, previousCameraY) - halfHeight));
+        final int chunkY1 = Math.min(this.getChunkNumY() - 1,
+                toChunkIndex(Math.max(cameraY, previousCameraY) + halfHeight));
+        if (chunkX0 > chunkX1 || chunkY0 > chunkY1) {
+            return;
+        }
+
+        //absolute -> normalized device coordinates, the same as AbstractScene.absolutePosToRelative then
+        //GameWindow.drawBindableRelativeCenter do.
+        final float sx = 2F * scale / gameWindow.getLogicWindowWidth();
+        final float sy = 2F * scale / gameWindow.getLogicWindowHeight();
+        setProjection(this.projection, sx, sy, cameraX, cameraY);
+        setProjection(this.previousProjection, sx, sy, previousCameraX, previousCameraY);
+
+        gameWindow.flushSpriteBatch();
+        for (int chunkY = chunkY0; chunkY <= chunkY1; chunkY++) {
+            for (int chunkX = chunkX0; chunkX <= chunkX1; chunkX++) {
+                final TileChunk chunk = this.getChunk(chunkX, chunkY);
+                chunk.mesh.draw(gameWindow.getStaticSpriteMeshShader(), this.projection,
+                        interpolatingOnReplay ? this.previousProjection : null);
+            }
+        }
+    }
+
+    private static void setProjection(Matrix4f projection, float sx, float sy, float cameraX, float cameraY) {
+        projection.set(
+                sx, 0, 0, 0,
+                0, -sy, 0, 0,
+                0, 0, 1, 0,
+                -sx * cameraX, sy * cameraY, 0, 1
+        );
+    }
+
+    /**
+     * tile x covers absolute [(x - 0.5) * TILE_SIZE, (x + 0.5) * TILE_SIZE).
+     */
+    private static int toChunkIndex(float absolutePos) {
+        final int tileIndex = (int) Math.floor(absolutePos / RpgModuleDataCenter.TILE_SIZE + 0.5F);
+        return Math.floorDiv(tileIndex, CHUNK_SIZE);
+    }
+
+    /**
+     * get a chunk, baking it if it is missing or outdated.
+     */
+    private TileChunk getChunk(int chunkX, int chunkY) {
+        final int index = chunkX + chunkY * this.getChunkNumX();
+        TileChunk chunk = this.chunks[index];
+        if (chunk == null) {
+            chunk = new TileChunk();
+            this.chunks[index] = chunk;
+        }
+        final long changeCount = this.sumChangeCount(chunkX, chunkY);
+        if (chunk.bakedChangeCount != changeCount || !chunk.mesh.touchBindables()) {
+            this.bake(chunk, chunkX, chunkY);
+            chunk.bakedChangeCount = changeCount;
+        }
+        return chunk;
+    }
+
+    private long sumChangeCount(int chunkX, int chunkY) {
+        final int tileX1 = Math.min(this.getGameMap().getWidth(), (chunkX + 1) * CHUNK_SIZE);
+        final int tileY1 = Math.min(this.getGameMap().getHeight(), (chunkY + 1) * CHUNK_SIZE);
+        long result = 0;
+        for (int tileY = chunkY * CHUNK_SIZE; tileY < tileY1; tileY++) {
+            for (int tileX = chunkX * CHUNK_SIZE; tileX < tileX1; tileX++) {
+                final GameTile gameTile = this.getTile(tileX, tileY);
+                if (gameTile != null) {
+                    result += gameTile.getChangeCount();
+                }
+            }
+        }
+        return result;
+    }
+
+    private GameTile getTile(int tileX, int tileY) {
+        final int index = tileX + tileY * this.getGameMap().getWidth();
+        if (index >= this.getGameMap().getGameTiles().size()) {
+            return null;
+        }
+        return this.getGameMap().getGameTiles().get(index);
+    }
+
+    private void bake(TileChunk chunk, int chunkX, int chunkY) {
+        final int tileX0 = chunkX * CHUNK_SIZE;
+        final int tileY0 = chunkY * CHUNK_SIZE;
+        final int tileX1 = Math.min(this.getGameMap().getWidth(), tileX0 + CHUNK_SIZE);
+        final int tileY1 = Math.min(this.getGameMap().getHeight(), tileY0 + CHUNK_SIZE);
+
+        int layerNum = 0;
+        for (int tileY = tileY0; tileY < tileY1; tileY++) {
+            for (int tileX = tileX0; tileX < tileX1; tileX++) {
+                final GameTile gameTile = this.getTile(tileX, tileY);
+                if (gameTile != null) {
+                    layerNum = Math.max(layerNum, gameTile.getBindables().size());
+                }
+            }
+        }
+
+        final StaticSpriteMesh mesh = chunk.mesh;
+        mesh.clear();
+        final float halfTileSize = RpgModuleDataCenter.TILE_SIZE / 2F;
+        final Map<Object, List<int[]>> bindTargetToTiles = new IdentityHashMap<>();
+        final List<Object> bindTargets = new ArrayList<>();
+        for (int layer = 0; layer < layerNum; layer++) {
+            bindTargetToTiles.clear();
+            bindTargets.clear();
+            for (int tileY = tileY0; tileY < tileY1; tileY++) {
+                for (int tileX = tileX0; tileX < tileX1; tileX++) {
+                    final GameTile gameTile = this.getTile(tileX, tileY);
+                    if (gameTile == null || gameTile.getBindables().size() <= layer) {
+                        continue;
+                    }
+                    final Bindable bindable = gameTile.getBindables().get(layer);
+                    if (bindable == null) {
+                        continue;
+                    }
+                    bindTargetToTiles.computeIfAbsent(bindable.getBindTarget(), key -> {
+                        bindTargets.add(key);
+                        return new ArrayList<>();
+                    }).add(new int[]{tileX, tileY});
+                }
+            }
+            for (Object bindTarget : bindTargets) {
+                for (int[] tile : bindTargetToTiles.get(bindTarget)) {
+                    final float centerX = tile[0] * (float) RpgModuleDataCenter.TILE_SIZE;
+                    final float centerY = tile[1] * (float) RpgModuleDataCenter.TILE_SIZE;
+                    mesh.add(
+                            this.getTile(tile[0], tile[1]).getBindables().get(layer),
+                            centerX - halfTileSize,
+                            centerY - halfTileSize,
+                            centerX + halfTileSize,
+                            centerY + halfTileSize,
+                            Colors.WHITE
+                    );
+                }
+            }
+        }
+        mesh.upload();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        for (TileChunk chunk : this.chunks) {
+            if (chunk != null) {
+                chunk.mesh.close();
+            }
+        }
+    }
+}
@@ -38,7 +38,6 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
-import org.joml.Vector2f;
 import org.joml.Vector3f;
 
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -58,6 +57,22 @@ public class Unit extends AbstractDynamicEntity {
     public static final int DEFAULT_UNIT_LAYER = 100;
     private static final float DEFAULT_UNIT_SPEED = 100F;
 
+    /**
+     * if a class overrides update().
+     * EntityUpdateScheduler calls planUpdate and applyUpdate instead of update,
+     * so units of such classes do not plan, and the scheduler updates them alone by update().
+     */
+    private static final ClassValue<Boolean> UPDATE_OVERRIDDEN = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("update").getDeclaringClass() != Unit.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
     private final AtomicBoolean moving = new AtomicBoolean(false);
 
     private final AtomicBoolean canMove = new AtomicBoolean(true);
@@ -171,6 +186,26 @@ public class Unit extends AbstractDynamicEntity {
      */
     @Override
     public void update() {
+        this.planMovement();
+        this.applyUpdate();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * turn to the movement, and plan the movement cut to moveSpeed.
+     * if this unit's class overrides update(), it plans nothing, so that update() is still called.
+     */
+    @Override
+    public boolean planUpdate() {
+        if (UPDATE_OVERRIDDEN.get(this.getClass())) {
+            return false;
+        }
+        this.planMovement();
+        return true;
+    }
+
+    private void planMovement() {
         if (!this.isCanMove()) {
             this.setMovement(0, 0);
         }
@@ -181,17 +216,28 @@ public class Unit extends AbstractDynamicEntity {
             if (this.getPicture() instanceof WalkingAnimation4Dirs) {
                 ((WalkingAnimation4Dirs) this.getPicture()).setFaceDir(getFaceDir());
             }
-            float moveLength = new Vector2f(getMovementX(), getMovementY()).length();
+            float moveLength = (float) Math.sqrt(getMovementX() * getMovementX() + getMovementY() * getMovementY());
             if (moveLength > getMoveSpeed().getValue()) {
-                this.tryMove(
+                this.setPlannedMovement(
                         getMovementX() * getMoveSpeed().getValue() / moveLength,
                         getMovementY() * getMoveSpeed().getValue() / moveLength
                 );
             } else {
-                this.tryMove(getMovementX(), getMovementY());
+                this.setPlannedMovement(getMovementX(), getMovementY());
             }
         } else {
             setMoving(false);
+            this.setPlannedMovement(0, 0);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void applyUpdate() {
+        if (this.getPlannedMovementX() != 0 || this.getPlannedMovementY() != 0) {
+            this.tryMove(this.getPlannedMovementX(), this.getPlannedMovementY());
         }
     }
 
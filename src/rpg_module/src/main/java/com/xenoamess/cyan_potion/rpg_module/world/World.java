@@ -33,17 +33,15 @@ import com.xenoamess.cyan_potion.base.io.input.key.Keymap;
 import com.xenoamess.cyan_potion.base.math.FrameFloat;
 import com.xenoamess.cyan_potion.base.memory.ResourceInfo;
 import com.xenoamess.cyan_potion.base.memory.ResourceManager;
-import com.xenoamess.cyan_potion.base.render.Bindable;
 import com.xenoamess.cyan_potion.coordinate.AbstractEntityScene;
 import com.xenoamess.cyan_potion.coordinate.entity.AbstractDynamicEntity;
-import com.xenoamess.cyan_potion.coordinate.entity.AbstractEntity;
-import com.xenoamess.cyan_potion.coordinate.entity.StaticEntity;
 import com.xenoamess.cyan_potion.rpg_module.GameRuntime;
 import com.xenoamess.cyan_potion.rpg_module.RpgModuleDataCenter;
 import com.xenoamess.cyan_potion.rpg_module.game_map.GameMap;
 import com.xenoamess.cyan_potion.rpg_module.game_map.GameTile;
 import com.xenoamess.cyan_potion.rpg_module.game_map.GameTileset;
 import com.xenoamess.cyan_potion.rpg_module.jsons.GameSystemJson;
+import com.xenoamess.cyan_potion.rpg_module.render.TileChunkRenderer;
 import com.xenoamess.cyan_potion.rpg_module.render.WalkingAnimation4DirsResource;
 import com.xenoamess.cyan_potion.rpg_module.units.Player;
 import com.xenoamess.cyan_potion.rpg_module.units.Unit;
@@ -57,10 +55,6 @@ import org.joml.Vector3f;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Map;
-import java.util.TreeMap;
-
 import static com.xenoamess.cyan_potion.rpg_module.render.TextureUtils.STRING_CHARACTER;
 
 /**
@@ -104,6 +98,13 @@ public class World extends AbstractEntityScene {
     @Setter
     private RpgModuleDataCenter rpgModuleDataCenter;
 
+    /**
+     * draws tiles of gameMap. rebuilt when gameMap changes.
+     */
+    @Getter
+    @ToString.Exclude
+    private TileChunkRenderer tileChunkRenderer;
+
     /**
      * <p>recalculateScaleMatrix4f.</p>
      */
@@ -327,9 +328,8 @@ public class World extends AbstractEntityScene {
     public boolean update() {
         this.preparePlayerMovement(this.getPlayer());
 
-        for (AbstractDynamicEntity dynamicEntity : this.getDynamicEntityList()) {
-            dynamicEntity.update();
-        }
+        this.updateDynamicEntities();
+        this.updateContacts();
 
         if (lerpFloat == null) {
             lerpFloat = new FrameFloat(this.getGameManager(), CAMERA_LERP);
@@ -342,6 +342,7 @@ public class World extends AbstractEntityScene {
 
         this.getCamera().setPos(vector2f.x, vector2f.y);
         this.correctCamera();
+        this.getCamera().rememberTickPosition();
         return true;
     }
 
@@ -350,50 +351,27 @@ public class World extends AbstractEntityScene {
      */
     @Override
     public boolean draw() {
-        int posX =
-                (int) (this.getCamera().getPosX() / RpgModuleDataCenter.TILE_SIZE);
-        int posY =
-                (int) (this.getCamera().getPosY() / RpgModuleDataCenter.TILE_SIZE);
-
-        //TODO
-        for (int i = 0; i < getViewX(); i++) {
-            for (int j = 0; j < getViewY(); j++) {
-                GameTile t = getTile(i + posX - (getViewX() / 2) + 1,
-                        j + posY - (getViewY() / 2));
-                if (t != null) {
-                    for (Bindable au : t.getBindables()) {
-                        this.drawBindableAbsolute(this.getCamera(),
-                                this.getScale(), au,
-                                (i + posX - (getViewX() / 2F) + 1F) * RpgModuleDataCenter.TILE_SIZE,
-                                (j + posY - (getViewY() / 2F)) * RpgModuleDataCenter.TILE_SIZE,
-                                RpgModuleDataCenter.TILE_SIZE);
-                    }
-                }
+        if (this.getTileChunkRenderer() == null || this.getTileChunkRenderer().getGameMap() != this.getGameMap()) {
+            if (this.getTileChunkRenderer() != null) {
+                this.getTileChunkRenderer().close();
             }
+            this.tileChunkRenderer = new TileChunkRenderer(this.getGameMap());
         }
+        this.getTileChunkRenderer().draw(this);
 
+        this.drawVisibleEntities();
+        return true;
+    }
 
-        TreeMap<Integer, ArrayList<AbstractEntity>> layerToEntities =
-                new TreeMap<>();
-
-        for (StaticEntity staticEntity : this.getStaticEntitySetList()) {
-            ArrayList<AbstractEntity> entities =
-                    layerToEntities.computeIfAbsent(staticEntity.getLayer(), k -> new ArrayList<>());
-            entities.add(staticEntity);
-        }
-        for (AbstractDynamicEntity dynamicEntity : this.getDynamicEntityList()) {
-            ArrayList<AbstractEntity> entities =
-                    layerToEntities.computeIfAbsent(dynamicEntity.getLayer(), k -> new ArrayList<>());
-            entities.add(dynamicEntity);
-        }
-
-        for (Map.Entry<Integer, ArrayList<AbstractEntity>> entry :
-                layerToEntities.entrySet()) {
-            ArrayList<AbstractEntity> entities = entry.getValue();
-            for (AbstractEntity entity : entities) {
-                entity.draw(this);
-            }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        super.close();
+        if (this.getTileChunkRenderer() != null) {
+            this.getTileChunkRenderer().close();
+            this.tileChunkRenderer = null;
         }
-        return true;
     }
 }